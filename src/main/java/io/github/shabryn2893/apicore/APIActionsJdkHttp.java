@@ -0,0 +1,435 @@
+package io.github.shabryn2893.apicore;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLConnection;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.utils.LoggerUtils;
+import io.restassured.http.ContentType;
+
+/**
+ * Implements the IActionAPI interface with the JDK {@link HttpClient}, a
+ * lightweight backend for high-volume suites that avoids the per-request
+ * overhead of RestAssured.
+ * <p>
+ * Clients created with the same pool config share one {@code HttpClient}, which
+ * prefers HTTP/2: requests to an HTTP/2 server are multiplexed over one
+ * connection per host, and HTTP/1.1 servers get kept-alive pooled connections.
+ * {@link #sendAsync(ApiRequest)} uses the non-blocking send of the client, and
+ * {@link #exchangeAsync(ApiRequest, BodyHandler)} streams a body into any
+ * {@link BodyHandler}, e.g. a file or a parser. Requests are built the same way
+ * as by {@link APIActionsRestAssured}, and the legacy request methods return a
+ * RestAssured {@code Response}, so tests can switch backends unchanged.
+ * </p>
+ * <p>
+ * The JDK client does not expose the reason phrase, so status lines read
+ * {@code HTTP/2 200} or {@code HTTP/1.1 200}, nor connection setup, so the
+ * timings reported to {@link ApiMetrics} contain time to first byte, download
+ * and total time only.
+ * </p>
+ * <p>
+ * Uploads are published from the stream as the client sends them, and
+ * downloads are written by the file subscriber of the client straight from
+ * the received buffers. A streamed upload can be sent only once, so it fails
+ * if the client would send it again, e.g. to follow a 307 redirect.
+ * </p>
+ * <p>
+ * The shared HTTP clients are shut down at JVM exit.
+ * </p>
+ */
+public class APIActionsJdkHttp extends AbstractAPIActions {
+
+	private static final Logger logger = LoggerUtils.getLogger(APIActionsJdkHttp.class);
+	private static final Map<HttpPoolConfig, HttpClient> sharedClients = new IdentityHashMap<>();
+	private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host",
+			"upgrade");
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(APIActionsJdkHttp::closeAll, "jdk-http-client-shutdown"));
+	}
+
+	private final HttpClient httpClient;
+	private final Duration requestTimeout;
+
+	/**
+	 * Initiates the base URI with the default pool settings.
+	 *
+	 * @param baseURI API base URL.
+	 */
+	public APIActionsJdkHttp(String baseURI) {
+		this(baseURI, HttpPoolConfig.DEFAULT);
+	}
+
+	/**
+	 * Initiates the base URI with the connect timeout of a pool config and its
+	 * socket timeout as the request timeout.
+	 *
+	 * @param baseURI    API base URL.
+	 * @param poolConfig the timeout settings; clients with the same config
+	 *                   instance share one HTTP client.
+	 */
+	public APIActionsJdkHttp(String baseURI, HttpPoolConfig poolConfig) {
+		super(baseURI.replaceAll("/+$", ""));
+		this.httpClient = clientFor(poolConfig);
+		this.requestTimeout = poolConfig.getSocketTimeout();
+	}
+
+	private static synchronized HttpClient clientFor(HttpPoolConfig poolConfig) {
+		return sharedClients.computeIfAbsent(poolConfig,
+				config -> HttpClient.newBuilder().version(HttpClient.Version.HTTP_2)
+						.followRedirects(HttpClient.Redirect.NORMAL).connectTimeout(config.getConnectTimeout())
+						.build());
+	}
+
+	private static void closeAll() {
+		List<HttpClient> clients;
+		synchronized (APIActionsJdkHttp.class) {
+			clients = new ArrayList<>(sharedClients.values());
+			sharedClients.clear();
+		}
+		clients.forEach(HttpClient::shutdownNow);
+	}
+
+	/**
+	 * Sends a request and returns the body as a stream that is read from the
+	 * connection as the caller consumes it.
+	 *
+	 * @param request the request to send.
+	 * @return the response body.
+	 * @throws IllegalStateException if the response status is not 2xx.
+	 */
+	@Override
+	public InputStream sendStreaming(ApiRequest request) {
+		PhaseTimer timer = PhaseTimer.startDetached();
+		HttpResponse<InputStream> response = await(request, timer, BodyHandlers.ofInputStream());
+		InputStream body = new CountingInputStream(response.body(), bytes -> {
+			timer.finish();
+			recordTiming(request, timer, response.statusCode(), bytes);
+		});
+		if (response.statusCode() < 200 || response.statusCode() >= 300) {
+			try (body) {
+				body.transferTo(OutputStream.nullOutputStream());
+			} catch (IOException e) {
+				logger.error("Failed to discard response body of {}: {}", request, e.getMessage());
+			}
+			throw new IllegalStateException(request + " failed: " + statusLine(response));
+		}
+		return body;
+	}
+
+	/**
+	 * Sends a request with the non-blocking send of the HTTP client. With a
+	 * response cache the request is sent on a virtual thread instead.
+	 *
+	 * @param request the request to send.
+	 * @return completes with the response of the request.
+	 */
+	@Override
+	public CompletableFuture<ApiResponse> sendAsync(ApiRequest request) {
+		if (isCaching()) {
+			return super.sendAsync(request);
+		}
+		PhaseTimer timer = PhaseTimer.startDetached();
+		return httpClient.sendAsync(toHttpRequest(request), timed(BodyHandlers.ofByteArray(), timer))
+				.whenComplete((response, failure) -> recordAsyncTiming(request, timer,
+						response == null ? 0 : response.statusCode(), response == null ? 0 : response.body().length))
+				.thenApply(response -> toApiResponse(response, timer));
+	}
+
+	/**
+	 * Sends a request without blocking and hands the body to a body handler, so
+	 * that it can be streamed into a file, e.g. with
+	 * {@code BodyHandlers.ofFile(path)}, or into a parser without being read
+	 * into memory first.
+	 *
+	 * @param <T>         the body type produced by the handler.
+	 * @param request     the request to send.
+	 * @param bodyHandler consumes the response body.
+	 * @return completes with the response.
+	 */
+	public <T> CompletableFuture<HttpResponse<T>> exchangeAsync(ApiRequest request, BodyHandler<T> bodyHandler) {
+		PhaseTimer timer = PhaseTimer.startDetached();
+		AtomicLong bodyBytes = new AtomicLong();
+		return httpClient.sendAsync(toHttpRequest(request), timed(counted(bodyHandler, bodyBytes), timer))
+				.whenComplete((response, failure) -> recordAsyncTiming(request, timer,
+						response == null ? 0 : response.statusCode(), bodyBytes.get()));
+	}
+
+	@Override
+	protected ApiResponse exchange(ApiRequest request) {
+		PhaseTimer timer = PhaseTimer.startDetached();
+		HttpResponse<byte[]> response = await(request, timer, BodyHandlers.ofByteArray());
+		timer.finish();
+		recordTiming(request, timer, response.statusCode(), response.body().length);
+		return toApiResponse(response, timer);
+	}
+
+	@Override
+	protected int exchangeUpload(ApiRequest request, InputStream body, long contentLength) {
+		AtomicBoolean published = new AtomicBoolean();
+		BodyPublisher publisher = BodyPublishers.ofInputStream(() -> {
+			if (published.getAndSet(true)) {
+				throw new IllegalStateException("The streamed body of " + request
+						+ " was already sent and cannot be sent again, e.g. to follow a redirect");
+			}
+			return body;
+		});
+		if (contentLength >= 0) {
+			publisher = BodyPublishers.fromPublisher(publisher, contentLength);
+		}
+		PhaseTimer timer = PhaseTimer.startDetached();
+		HttpResponse<byte[]> response = await(toHttpRequest(request, publisher), request, timer,
+				BodyHandlers.ofByteArray());
+		timer.finish();
+		recordTiming(request, timer, response.statusCode(), CountingInputStream.countOf(body),
+				response.body().length);
+		return response.statusCode();
+	}
+
+	/**
+	 * Streams a 2xx body into the file and discards any other body, so that an
+	 * error response never replaces the file.
+	 */
+	@Override
+	protected int exchangeDownload(ApiRequest request, Path target) {
+		PhaseTimer timer = PhaseTimer.startDetached();
+		HttpResponse<Path> response = await(request, timer,
+				responseInfo -> responseInfo.statusCode() / 100 == 2
+						? BodySubscribers.ofFile(target, StandardOpenOption.CREATE,
+								StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)
+						: BodySubscribers.replacing(null));
+		timer.finish();
+		if (response.body() == null) {
+			recordTiming(request, timer, response.statusCode(), 0);
+			throw new IllegalStateException(request + " failed: " + statusLine(response));
+		}
+		try {
+			recordTiming(request, timer, response.statusCode(), Files.size(target));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to read download " + target, e);
+		}
+		return response.statusCode();
+	}
+
+	private <T> HttpResponse<T> await(ApiRequest request, PhaseTimer timer, BodyHandler<T> bodyHandler) {
+		return await(toHttpRequest(request), request, timer, bodyHandler);
+	}
+
+	/**
+	 * Sends a request and waits for the response. A request that fails is
+	 * recorded with status 0.
+	 */
+	private <T> HttpResponse<T> await(HttpRequest httpRequest, ApiRequest request, PhaseTimer timer,
+			BodyHandler<T> bodyHandler) {
+		try {
+			return httpClient.send(httpRequest, timed(bodyHandler, timer));
+		} catch (IOException e) {
+			recordTiming(request, timer, 0, 0);
+			throw new UncheckedIOException("Failed to send " + request, e);
+		} catch (InterruptedException e) {
+			recordTiming(request, timer, 0, 0);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while sending " + request, e);
+		}
+	}
+
+	/**
+	 * Marks the first byte when the response headers arrive, before the body
+	 * handler reads the body.
+	 */
+	private static <T> BodyHandler<T> timed(BodyHandler<T> bodyHandler, PhaseTimer timer) {
+		return responseInfo -> {
+			timer.markFirstByte();
+			return bodyHandler.apply(responseInfo);
+		};
+	}
+
+	/**
+	 * Counts the body bytes the body handler receives.
+	 */
+	private static <T> BodyHandler<T> counted(BodyHandler<T> bodyHandler, AtomicLong bodyBytes) {
+		return responseInfo -> new CountingBodySubscriber<>(bodyHandler.apply(responseInfo), bodyBytes);
+	}
+
+	private HttpRequest toHttpRequest(ApiRequest apiRequest) {
+		return toHttpRequest(apiRequest, null);
+	}
+
+	/**
+	 * Builds the request with a streamed body, or with the body or files of the
+	 * request if {@code streamedBody} is null.
+	 */
+	private HttpRequest toHttpRequest(ApiRequest apiRequest, BodyPublisher streamedBody) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(toUri(apiRequest)).timeout(requestTimeout);
+		apiRequest.getHeaders().forEach((name, value) -> {
+			if (RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+				logger.error("Header {} is set by the HTTP client and was not sent", name);
+			} else {
+				builder.header(name, value);
+			}
+		});
+		String contentType = toMimeType(apiRequest.getContentType());
+		BodyPublisher body;
+		if (streamedBody != null) {
+			body = streamedBody;
+			contentType = contentType == null ? "application/octet-stream" : contentType;
+		} else if (!apiRequest.getMultiParts().isEmpty()) {
+			String boundary = "selautocore-" + UUID.randomUUID().toString().replace("-", "");
+			body = multipartBody(apiRequest.getMultiParts(), boundary);
+			contentType = "multipart/form-data; boundary=" + boundary;
+		} else if (apiRequest.getBody() != null) {
+			body = BodyPublishers.ofString(apiRequest.getBody(), StandardCharsets.UTF_8);
+		} else {
+			body = BodyPublishers.noBody();
+		}
+		if (contentType != null && apiRequest.getHeaders().keySet().stream()
+				.noneMatch(name -> name.equalsIgnoreCase("Content-Type"))) {
+			builder.header("Content-Type", contentType);
+		}
+		return builder.method(apiRequest.getMethod(), body).build();
+	}
+
+	private URI toUri(ApiRequest apiRequest) {
+		String path = apiRequest.getPath();
+		StringBuilder uri = new StringBuilder(path.matches("(?i)https?://.*") ? path
+				: getBaseURI() + (path.startsWith("/") || path.isEmpty() ? "" : "/") + path);
+		char separator = uri.indexOf("?") < 0 ? '?' : '&';
+		for (Map.Entry<String, String> param : apiRequest.getQueryParams().entrySet()) {
+			uri.append(separator).append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8)).append('=')
+					.append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+			separator = '&';
+		}
+		return URI.create(uri.toString());
+	}
+
+	private static String toMimeType(String contentType) {
+		if (contentType == null) {
+			return null;
+		}
+		ContentType known = toContentType(contentType);
+		if (known != null) {
+			return known.toString();
+		}
+		if (contentType.contains("/")) {
+			return contentType;
+		}
+		logger.error("Unsupported Content type:{}", contentType);
+		return null;
+	}
+
+	/**
+	 * Streams files as multipart form data, reading each file only while it is
+	 * sent.
+	 */
+	private static BodyPublisher multipartBody(Map<String, File> multiParts, String boundary) {
+		List<BodyPublisher> parts = new ArrayList<>();
+		for (Map.Entry<String, File> part : multiParts.entrySet()) {
+			File file = part.getValue();
+			String mimeType = URLConnection.guessContentTypeFromName(file.getName());
+			parts.add(BodyPublishers.ofString("--" + boundary + "\r\nContent-Disposition: form-data; name=\""
+					+ part.getKey() + "\"; filename=\"" + file.getName() + "\"\r\nContent-Type: "
+					+ (mimeType == null ? "application/octet-stream" : mimeType) + "\r\n\r\n"));
+			try {
+				parts.add(BodyPublishers.ofFile(file.toPath()));
+			} catch (FileNotFoundException e) {
+				throw new UncheckedIOException("Multipart file not found: " + file, e);
+			}
+			parts.add(BodyPublishers.ofString("\r\n"));
+		}
+		parts.add(BodyPublishers.ofString("--" + boundary + "--\r\n"));
+		return BodyPublishers.concat(parts.toArray(BodyPublisher[]::new));
+	}
+
+	private static ApiResponse toApiResponse(HttpResponse<byte[]> response, PhaseTimer timer) {
+		Map<String, List<String>> headers = new LinkedHashMap<>();
+		response.headers().map().forEach((name, values) -> {
+			if (!name.startsWith(":")) {
+				headers.put(name, values);
+			}
+		});
+		return new ApiResponse(response.statusCode(), statusLine(response), headers, response.body(),
+				timer.getElapsedMillis());
+	}
+
+	private static String statusLine(HttpResponse<?> response) {
+		return (response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2 " : "HTTP/1.1 ") + response.statusCode();
+	}
+
+	/**
+	 * Passes the body on to another subscriber and counts its bytes.
+	 */
+	private static final class CountingBodySubscriber<T> implements BodySubscriber<T> {
+
+		private final BodySubscriber<T> subscriber;
+		private final AtomicLong bodyBytes;
+
+		private CountingBodySubscriber(BodySubscriber<T> subscriber, AtomicLong bodyBytes) {
+			this.subscriber = subscriber;
+			this.bodyBytes = bodyBytes;
+		}
+
+		@Override
+		public CompletionStage<T> getBody() {
+			return subscriber.getBody();
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			subscriber.onSubscribe(subscription);
+		}
+
+		@Override
+		public void onNext(List<ByteBuffer> items) {
+			for (ByteBuffer item : items) {
+				bodyBytes.addAndGet(item.remaining());
+			}
+			subscriber.onNext(items);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			subscriber.onError(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			subscriber.onComplete();
+		}
+	}
+}
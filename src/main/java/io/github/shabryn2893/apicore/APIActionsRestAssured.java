@@ -1,27 +1,42 @@
 package io.github.shabryn2893.apicore;
 
-import java.io.File;
-import java.util.Map;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import org.slf4j.Logger;
 
 import io.github.shabryn2893.utils.LoggerUtils;
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
 /**
  * This class implements all method of the IActionAPI interface.
- * 
+ * <p>
+ * Every call builds a fresh request from the immutable base specification of
+ * this client, so clients with different base URIs can coexist and one client
+ * can be shared by concurrent threads. The setters and getters are per thread,
+ * see {@link AbstractAPIActions}. Every client reports the connect, TLS, time
+ * to first byte and download time of each request to {@link ApiMetrics}; a
+ * client without a connection pool opens a new connection for every request,
+ * as RestAssured does by default.
+ * </p>
+ * <p>
+ * Uploads are sent as an {@code InputStream} entity with chunked transfer
+ * encoding, and downloads are read with {@code Response.asInputStream()},
+ * which RestAssured does not buffer, into a file channel.
+ * </p>
+ *
  * @author shabbir rayeen
  */
-public class APIActionsRestAssured implements IActionAPI {
+public class APIActionsRestAssured extends AbstractAPIActions {
 
 	private static final Logger logger = LoggerUtils.getLogger(APIActionsRestAssured.class);
-	RequestSpecification request;
-	Response response;
+	private final RequestSpecification baseSpec;
 
 	/**
 	 * Initiates the base URI
@@ -29,225 +44,130 @@ public class APIActionsRestAssured implements IActionAPI {
 	 * @param baseURI API base URL.
 	 */
 	public APIActionsRestAssured(String baseURI) {
-		RestAssured.baseURI = baseURI;
-		request = RestAssured.given();
+		super(baseURI);
+		baseSpec = new RequestSpecBuilder().setBaseUri(baseURI)
+				.setConfig(RestAssuredConfig.config().httpClient(HttpConnectionPool.timedHttpClientConfig())).build();
 	}
 
 	/**
-	 * Perform a GET request to a <code>path</code>.
+	 * Initiates the base URI and sends all requests through a connection pool.
 	 *
-	 * @param resourceName The path to send the request to.
-	 * @return The response of the request.
+	 * @param baseURI        API base URL.
+	 * @param connectionPool the pool of kept-alive connections to use.
 	 */
-	@Override
-	public Response getRequest(String resourceName) {
-		response = request.get(resourceName);
-		return response;
+	public APIActionsRestAssured(String baseURI, HttpConnectionPool connectionPool) {
+		super(baseURI);
+		baseSpec = new RequestSpecBuilder().setBaseUri(baseURI).setConfig(connectionPool.getRestAssuredConfig())
+				.build();
 	}
 
 	/**
-	 * Perform a POST request to a <code>path</code>.
+	 * Sends a request and returns the body as a stream that is read from the
+	 * connection as the caller consumes it. The timing is recorded once the
+	 * stream is closed.
 	 *
-	 * @param resourceName The path to send the request to.
-	 * @param payLoad      request body to be send.
-	 * @return The response of the request.
-	 */
-	@Override
-	public Response postRequest(String resourceName, String payLoad) {
-		request.body(payLoad);
-		response = request.post(resourceName);
-		return response;
+	 * @param request the request to send.
+	 * @return the response body.
+	 * @throws IllegalStateException if the response status is not 2xx.
+	 */
+	@Override
+	public InputStream sendStreaming(ApiRequest request) {
+		PhaseTimer timer = PhaseTimer.start();
+		Response response = send(request, toRequestSpec(request), timer);
+		if (response.getStatusCode() < 200 || response.getStatusCode() >= 300) {
+			timer.finish();
+			recordTiming(request, timer, response.getStatusCode(), response.asByteArray().length);
+			throw new IllegalStateException(request + " failed: " + response.getStatusLine());
+		}
+		return new CountingInputStream(response.asInputStream(), bytes -> {
+			timer.finish();
+			recordTiming(request, timer, response.getStatusCode(), bytes);
+		});
 	}
 
-	/**
-	 * Perform a PUT request to a <code>path</code>.
-	 *
-	 * @param resourceName The path to send the request to.
-	 * @param payLoad      request body to be send.
-	 * @return The response of the request.
-	 */
 	@Override
-	public Response putRequest(String resourceName, String payLoad) {
-		request.body(payLoad);
-		response = request.put(resourceName);
-		return response;
+	protected ApiResponse exchange(ApiRequest request) {
+		return ApiResponse.of(execute(request));
 	}
 
-	/**
-	 * Perform a PATCH request to a <code>path</code>.
-	 *
-	 * @param resourceName The path to send the request to.
-	 * @param payLoad      request body to be send.
-	 * @return The response of the request.
-	 */
 	@Override
-	public Response patchRequest(String resourceName, String payLoad) {
-		request.body(payLoad);
-		response = request.patch(resourceName);
-		return response;
+	protected Response exchangeForResponse(ApiRequest request) {
+		return execute(request);
 	}
 
-	/**
-	 * Perform a DELETE request to a <code>path</code>.
-	 *
-	 * @param resourceName The path to send the request to.
-	 * @return The response of the request.
-	 */
 	@Override
-	public Response deleteRequest(String resourceName) {
-		response = request.delete(resourceName);
-		return response;
-	}
-
-	/**
-	 * Specify the content type of the request.
-	 *
-	 * @param contentType The content type of the request
-	 */
-	@Override
-	public void setContentType(String contentType) {
-		switch (contentType.toUpperCase()) {
-		case "JSON":
-			request.contentType(ContentType.JSON);
-			break;
-		case "MULTIPART":
-			request.contentType(ContentType.MULTIPART);
-			break;
-		case "XML":
-			request.contentType(ContentType.XML);
-			break;
-		case "ANY":
-			request.contentType(ContentType.ANY);
-			break;
-		case "BINARY":
+	protected int exchangeUpload(ApiRequest apiRequest, InputStream body, long contentLength) {
+		RequestSpecification request = toRequestSpec(apiRequest).body(body);
+		if (apiRequest.getContentType() == null) {
 			request.contentType(ContentType.BINARY);
-			break;
-		case "HTML":
-			request.contentType(ContentType.HTML);
-			break;
-		case "TEXT":
-			request.contentType(ContentType.TEXT);
-			break;
-		default:
-			logger.error("Unsupported Content type:{}", contentType);
 		}
-
-	}
-
-	/**
-	 * Get the content type of the response
-	 *
-	 * @return The content type value or <code>null</code> if not found.
-	 */
-	@Override
-	public String getContentType() {
-		return response.getContentType();
-	}
-
-	/**
-	 * Get a single header value associated with the given name.
-	 *
-	 * @return The header value or <code>null</code> if value was not found.
-	 */
-	@Override
-	public String getHeader(String headerName) {
-		return response.getHeader(headerName);
-	}
-
-	/**
-	 * Specify a header that'll be sent with the request e.g:
-	 * 
-	 * @param headerName  The header name
-	 * @param headerValue The header value
-	 */
-	@Override
-	public void setHeader(String headerName, String headerValue) {
-		request.header(headerName, headerValue);
-
-	}
-
-	/**
-	 * Get the status code of the response.
-	 *
-	 * @return The status code of the response.
-	 */
-	@Override
-	public int getStatusCode() {
+		PhaseTimer timer = PhaseTimer.start();
+		Response response = send(apiRequest, request, timer);
+		timer.finish();
+		recordTiming(apiRequest, timer, response.getStatusCode(), CountingInputStream.countOf(body),
+				response.asByteArray().length);
 		return response.getStatusCode();
 	}
 
-	/**
-	 * Get the status line of the response.
-	 *
-	 * @return The status line of the response.
-	 */
-	@Override
-	public String getErrorMessage() {
-		return response.getStatusLine();
-	}
-
-	/**
-	 * Specify the query parameters that'll be sent with the request.
-	 *
-	 * @param paramKey   The name of the parameter
-	 * @param paramValue The value of the parameter
-	 */
-	@Override
-	public void setParam(String paramKey, String paramValue) {
-		request.queryParam(paramKey, paramValue);
-	}
-
-	/**
-	 * Specify the query parameters that'll be sent with the request.
-	 *
-	 * @param params The Map containing the parameter names and their values to send
-	 *               with the request.
-	 */
-	@Override
-	public void setParams(Map<String, String> params) {
-		request.queryParams(params);
-	}
-
-	/**
-	 * Prints the API response
-	 * 
-	 *
-	 */
 	@Override
-	public void printResponse() {
-		logger.info("API Response: {}", response);
+	protected int exchangeDownload(ApiRequest apiRequest, Path target) {
+		PhaseTimer timer = PhaseTimer.start();
+		Response response = send(apiRequest, toRequestSpec(apiRequest), timer);
+		if (response.getStatusCode() < 200 || response.getStatusCode() >= 300) {
+			timer.finish();
+			recordTiming(apiRequest, timer, response.getStatusCode(), response.asByteArray().length);
+			throw new IllegalStateException(apiRequest + " failed: " + response.getStatusLine());
+		}
+		long bytes = 0;
+		try (InputStream body = response.asInputStream()) {
+			bytes = transferTo(body, target);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to download " + apiRequest + " to " + target, e);
+		} finally {
+			timer.finish();
+			recordTiming(apiRequest, timer, response.getStatusCode(), bytes);
+		}
+		return response.getStatusCode();
 	}
 
-	/**
-	 * Parse response as JSONObject
-	 * 
-	 * @return JSONObject
-	 */
-	@Override
-	public JSONObject parseResponseJsonObject() {
-		return new JSONObject(response.body().asString());
+	private Response execute(ApiRequest apiRequest) {
+		PhaseTimer timer = PhaseTimer.start();
+		Response response = send(apiRequest, toRequestSpec(apiRequest), timer);
+		timer.finish();
+		recordTiming(apiRequest, timer, response.getStatusCode(), response.asByteArray().length);
+		return response;
 	}
 
 	/**
-	 * Parse response as JSONArray
-	 * 
-	 * @return JSONArray
+	 * Sends a request. A request that fails is recorded with status 0.
 	 */
-	@Override
-	public JSONArray parsResponseJsonArray() {
-		return new JSONArray(response.body().asString());
+	private Response send(ApiRequest apiRequest, RequestSpecification request, PhaseTimer timer) {
+		try {
+			return request.request(apiRequest.getMethod(), apiRequest.getPath());
+		} catch (RuntimeException e) {
+			recordTiming(apiRequest, timer, 0, 0);
+			throw e;
+		}
 	}
 
-	/**
-	 * Specify a file to upload to the server using multi-part form data uploading
-	 * with a specific control name. It will use the mime-type.
-	 *
-	 * @param file        The file to upload
-	 * @param controlName Defines the control name of the body part. In HTML this is
-	 *                    the attribute name of the input tag.
-	 */
-	public void setMultiPartAttribute(String controlName, File file) {
-		request.multiPart(controlName, file);
+	private RequestSpecification toRequestSpec(ApiRequest apiRequest) {
+		RequestSpecification request = RestAssured.given().spec(baseSpec);
+		request.headers(apiRequest.getHeaders());
+		request.queryParams(apiRequest.getQueryParams());
+		if (apiRequest.getContentType() != null) {
+			ContentType contentType = toContentType(apiRequest.getContentType());
+			if (contentType != null) {
+				request.contentType(contentType);
+			} else if (apiRequest.getContentType().contains("/")) {
+				request.contentType(apiRequest.getContentType());
+			} else {
+				logger.error("Unsupported Content type:{}", apiRequest.getContentType());
+			}
+		}
+		if (apiRequest.getBody() != null) {
+			request.body(apiRequest.getBody());
+		}
+		apiRequest.getMultiParts().forEach(request::multiPart);
+		return request;
 	}
-
 }
@@ -11,7 +11,6 @@ import io.github.shabryn2893.utils.LoggerUtils;
 public class APIToolFactory {
 
 	private static final Logger logger = LoggerUtils.getLogger(APIToolFactory.class);
-	static IActionAPI actionAPI = null;
 
 	private APIToolFactory() {
 	}
@@ -19,14 +18,18 @@ public class APIToolFactory {
 	/**
 	 * Get the tool instance
 	 *
-	 * @param toolName - This can accept values like SELENIUM.
+	 * @param toolName - This can accept values like RESTASSURED or JDKHTTP.
 	 * @param baseURI  - API Base URI
 	 * @return It return IActionUI reference. getAPIToolInstance("RESTASSURED");
 	 */
 	public static IActionAPI getAPIToolInstance(String toolName, String baseURI) {
+		IActionAPI actionAPI = null;
 		if (toolName.equalsIgnoreCase("RESTASSURED")) {
 			logger.info("Create Instance for {}", toolName);
 			actionAPI = new APIActionsRestAssured(baseURI);
+		} else if (toolName.equalsIgnoreCase("JDKHTTP")) {
+			logger.info("Create Instance for {}", toolName);
+			actionAPI = new APIActionsJdkHttp(baseURI);
 		} else {
 			logger.error("Unsupported API Driver Name: {}", toolName);
 		}
@@ -34,4 +37,45 @@ public class APIToolFactory {
 		return actionAPI;
 	}
 
+	/**
+	 * Get the tool instance that sends its requests through the connection pool
+	 * of a pool config. Clients created with the same config instance share the
+	 * pool; for RESTASSURED its usage is reported by
+	 * {@code HttpConnectionPool.forConfig(poolConfig).getStats()}, JDKHTTP uses
+	 * the timeouts of the config with the pool of the JDK HTTP client.
+	 *
+	 * @param toolName   - This can accept values like RESTASSURED or JDKHTTP.
+	 * @param baseURI    - API Base URI
+	 * @param poolConfig - connection pool, keep-alive and timeout settings
+	 * @return It return IActionAPI reference.
+	 */
+	public static IActionAPI getAPIToolInstance(String toolName, String baseURI, HttpPoolConfig poolConfig) {
+		IActionAPI actionAPI = null;
+		if (toolName.equalsIgnoreCase("RESTASSURED")) {
+			logger.info("Create pooled Instance for {}", toolName);
+			actionAPI = new APIActionsRestAssured(baseURI, HttpConnectionPool.forConfig(poolConfig));
+		} else if (toolName.equalsIgnoreCase("JDKHTTP")) {
+			logger.info("Create pooled Instance for {}", toolName);
+			actionAPI = new APIActionsJdkHttp(baseURI, poolConfig);
+		} else {
+			logger.error("Unsupported API Driver Name: {}", toolName);
+		}
+
+		return actionAPI;
+	}
+
+	/**
+	 * Get the tool instance for a stub server, starting the server if it is not
+	 * running yet. The suite then runs against the stub mappings on the loopback
+	 * interface; close the server in the suite tear down.
+	 *
+	 * @param toolName   - This can accept values like RESTASSURED or JDKHTTP.
+	 * @param stubServer - stub server whose base URI the client uses
+	 * @return It return IActionAPI reference.
+	 */
+	public static IActionAPI getAPIToolInstance(String toolName, StubServer stubServer) {
+		stubServer.start();
+		return getAPIToolInstance(toolName, stubServer.getBaseURI());
+	}
+
 }
@@ -0,0 +1,562 @@
+package io.github.shabryn2893.apicore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.utils.LoggerUtils;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+/**
+ * The part of {@link IActionAPI} and {@link ITransferAPI} that is the same for
+ * every HTTP backend: the per-thread state of the setters and getters, the
+ * legacy request methods and the response cache. A backend only sends an
+ * {@link ApiRequest}, so requests behave alike whichever backend a suite uses.
+ * <p>
+ * Headers, parameters and the content type set with the setters, and the
+ * response read by the getters, belong to the calling thread; they never leak
+ * into requests of other threads or into {@link #send(ApiRequest)}.
+ * </p>
+ * <p>
+ * Backends time every request they send and report it to {@link ApiMetrics};
+ * responses served from the cache are not timed.
+ * </p>
+ * <p>
+ * Uploads and downloads are streamed between a file or stream and the
+ * connection, and their throughput is logged and returned as
+ * {@link TransferStats}.
+ * </p>
+ */
+public abstract class AbstractAPIActions implements ITransferAPI {
+
+	private static final Logger logger = LoggerUtils.getLogger(AbstractAPIActions.class);
+	private final String baseURI;
+	private volatile ApiResponseCache responseCache;
+	private final ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(ThreadState::new);
+
+	/**
+	 * Initiates the base URI
+	 *
+	 * @param baseURI API base URL.
+	 */
+	protected AbstractAPIActions(String baseURI) {
+		this.baseURI = baseURI;
+	}
+
+	/**
+	 * Sends a request and reads the complete response, without the response
+	 * cache.
+	 *
+	 * @param request the request to send.
+	 * @return the response of the request.
+	 */
+	protected abstract ApiResponse exchange(ApiRequest request);
+
+	/**
+	 * Sends a request of the legacy request methods, without the response cache.
+	 * Backends with a native RestAssured response return it here.
+	 *
+	 * @param request the request to send.
+	 * @return the response of the request.
+	 */
+	protected Response exchangeForResponse(ApiRequest request) {
+		return toRestAssuredResponse(exchange(request));
+	}
+
+	/**
+	 * Sends a request with a streamed body, without the response cache. The body
+	 * is read only while it is sent.
+	 *
+	 * @param request       the request to send.
+	 * @param body          the body to upload.
+	 * @param contentLength the size of the body, or -1 to send it chunked.
+	 * @return the response status.
+	 */
+	protected abstract int exchangeUpload(ApiRequest request, InputStream body, long contentLength);
+
+	/**
+	 * Sends a request and streams a 2xx response body into a file.
+	 *
+	 * @param request the request to send.
+	 * @param target  the file to write.
+	 * @return the response status.
+	 * @throws IllegalStateException if the response status is not 2xx.
+	 */
+	protected abstract int exchangeDownload(ApiRequest request, Path target);
+
+	/**
+	 * Gets the base URI the request paths are resolved against.
+	 *
+	 * @return the base URI.
+	 */
+	protected String getBaseURI() {
+		return baseURI;
+	}
+
+	/**
+	 * Reports the timing of a request to {@link ApiMetrics} and keeps it for
+	 * {@link #printResponse()} when the request was sent on the calling thread.
+	 *
+	 * @param request       the request that was sent.
+	 * @param timer         the timer started before the request was sent.
+	 * @param statusCode    the response status, 0 if the request failed.
+	 * @param responseBytes the size of the response body.
+	 */
+	final void recordTiming(ApiRequest request, PhaseTimer timer, int statusCode, long responseBytes) {
+		recordTiming(request, timer, statusCode, requestBytes(request), responseBytes);
+	}
+
+	/**
+	 * Reports the timing of a request whose body was streamed.
+	 *
+	 * @param request       the request that was sent.
+	 * @param timer         the timer started before the request was sent.
+	 * @param statusCode    the response status, 0 if the request failed.
+	 * @param requestBytes  the size of the streamed request body.
+	 * @param responseBytes the size of the response body.
+	 */
+	final void recordTiming(ApiRequest request, PhaseTimer timer, int statusCode, long requestBytes,
+			long responseBytes) {
+		recordTiming(request, timer, statusCode, requestBytes, responseBytes, true);
+	}
+
+	/**
+	 * Reports the timing of a request that completed on a thread of the HTTP
+	 * client to {@link ApiMetrics} only, as the thread is not the caller's.
+	 *
+	 * @param request       the request that was sent.
+	 * @param timer         the timer started before the request was sent.
+	 * @param statusCode    the response status, 0 if the request failed.
+	 * @param responseBytes the size of the response body.
+	 */
+	final void recordAsyncTiming(ApiRequest request, PhaseTimer timer, int statusCode, long responseBytes) {
+		recordTiming(request, timer, statusCode, requestBytes(request), responseBytes, false);
+	}
+
+	private void recordTiming(ApiRequest request, PhaseTimer timer, int statusCode, long requestBytes,
+			long responseBytes, boolean callingThread) {
+		RequestTiming timing = timer.toTiming(request.getMethod(), ApiMetrics.templateOf(request.getPath()),
+				statusCode, requestBytes, responseBytes);
+		if (callingThread) {
+			threadState.get().timing = timing;
+		}
+		ApiMetrics.record(timing);
+	}
+
+	/**
+	 * Checks whether a response cache is set.
+	 *
+	 * @return true if GET responses are cached.
+	 */
+	protected boolean isCaching() {
+		return responseCache != null;
+	}
+
+	/**
+	 * Sends a request built from the base URI of this client and reads the
+	 * complete response.
+	 *
+	 * @param request the request to send.
+	 * @return the response of the request.
+	 */
+	@Override
+	public ApiResponse send(ApiRequest request) {
+		ApiResponseCache cache = responseCache;
+		if (cache != null) {
+			return cache.fetch(baseURI, request, this::exchange);
+		}
+		return exchange(request);
+	}
+
+	/**
+	 * Caches the responses of GET requests sent by this client, or stops caching
+	 * when null.
+	 *
+	 * @param responseCache the cache, which may be shared by several clients.
+	 */
+	@Override
+	public void setResponseCache(ApiResponseCache responseCache) {
+		this.responseCache = responseCache;
+	}
+
+	/**
+	 * Sends a request with a stream as its body, sent chunked.
+	 *
+	 * @param request the request to send.
+	 * @param body    the body to upload.
+	 * @return the bytes sent, the response status and the throughput.
+	 */
+	@Override
+	public TransferStats upload(ApiRequest request, InputStream body) {
+		return upload(request, body, -1);
+	}
+
+	/**
+	 * Sends a request with the content of a file as its body.
+	 *
+	 * @param request the request to send.
+	 * @param file    the file to upload.
+	 * @return the bytes sent, the response status and the throughput.
+	 */
+	@Override
+	public TransferStats upload(ApiRequest request, Path file) {
+		try (InputStream body = Files.newInputStream(file)) {
+			return upload(request, body, Files.size(file));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to read upload " + file, e);
+		}
+	}
+
+	private TransferStats upload(ApiRequest request, InputStream body, long contentLength) {
+		CountingInputStream counted = new CountingInputStream(body);
+		long start = System.nanoTime();
+		int statusCode = exchangeUpload(request, counted, contentLength);
+		TransferStats stats = new TransferStats(request, statusCode, counted.getCount(), System.nanoTime() - start);
+		logger.info("Uploaded {}", stats);
+		return stats;
+	}
+
+	/**
+	 * Sends a request and streams the response body into a file.
+	 *
+	 * @param request the request to send.
+	 * @param target  the file to write.
+	 * @return the bytes received, the response status and the throughput.
+	 */
+	@Override
+	public TransferStats downloadTo(ApiRequest request, Path target) {
+		long start = System.nanoTime();
+		int statusCode = exchangeDownload(request, target);
+		try {
+			TransferStats stats = new TransferStats(request, statusCode, Files.size(target),
+					System.nanoTime() - start);
+			logger.info("Downloaded {}", stats);
+			return stats;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to read download " + target, e);
+		}
+	}
+
+	/**
+	 * Perform a GET request to a <code>path</code>.
+	 *
+	 * @param resourceName The path to send the request to.
+	 * @return The response of the request.
+	 */
+	@Override
+	public Response getRequest(String resourceName) {
+		return executeForThread("GET", resourceName, null);
+	}
+
+	/**
+	 * Perform a POST request to a <code>path</code>.
+	 *
+	 * @param resourceName The path to send the request to.
+	 * @param payLoad      request body to be send.
+	 * @return The response of the request.
+	 */
+	@Override
+	public Response postRequest(String resourceName, String payLoad) {
+		return executeForThread("POST", resourceName, payLoad);
+	}
+
+	/**
+	 * Perform a PUT request to a <code>path</code>.
+	 *
+	 * @param resourceName The path to send the request to.
+	 * @param payLoad      request body to be send.
+	 * @return The response of the request.
+	 */
+	@Override
+	public Response putRequest(String resourceName, String payLoad) {
+		return executeForThread("PUT", resourceName, payLoad);
+	}
+
+	/**
+	 * Perform a PATCH request to a <code>path</code>.
+	 *
+	 * @param resourceName The path to send the request to.
+	 * @param payLoad      request body to be send.
+	 * @return The response of the request.
+	 */
+	@Override
+	public Response patchRequest(String resourceName, String payLoad) {
+		return executeForThread("PATCH", resourceName, payLoad);
+	}
+
+	/**
+	 * Perform a DELETE request to a <code>path</code>.
+	 *
+	 * @param resourceName The path to send the request to.
+	 * @return The response of the request.
+	 */
+	@Override
+	public Response deleteRequest(String resourceName) {
+		return executeForThread("DELETE", resourceName, null);
+	}
+
+	/**
+	 * Specify the content type of the request.
+	 *
+	 * @param contentType The content type of the request
+	 */
+	@Override
+	public void setContentType(String contentType) {
+		if (toContentType(contentType) == null) {
+			logger.error("Unsupported Content type:{}", contentType);
+			return;
+		}
+		threadState.get().contentType = contentType;
+	}
+
+	/**
+	 * Get the content type of the response
+	 *
+	 * @return The content type value or <code>null</code> if not found.
+	 */
+	@Override
+	public String getContentType() {
+		return lastResponse().getContentType();
+	}
+
+	/**
+	 * Get a single header value associated with the given name.
+	 *
+	 * @return The header value or <code>null</code> if value was not found.
+	 */
+	@Override
+	public String getHeader(String headerName) {
+		return lastResponse().getHeader(headerName);
+	}
+
+	/**
+	 * Specify a header that'll be sent with the request e.g:
+	 *
+	 * @param headerName  The header name
+	 * @param headerValue The header value
+	 */
+	@Override
+	public void setHeader(String headerName, String headerValue) {
+		threadState.get().headers.put(headerName, headerValue);
+	}
+
+	/**
+	 * Get the status code of the response.
+	 *
+	 * @return The status code of the response.
+	 */
+	@Override
+	public int getStatusCode() {
+		return lastResponse().getStatusCode();
+	}
+
+	/**
+	 * Get the status line of the response.
+	 *
+	 * @return The status line of the response.
+	 */
+	@Override
+	public String getErrorMessage() {
+		return lastResponse().getStatusLine();
+	}
+
+	/**
+	 * Specify the query parameters that'll be sent with the request.
+	 *
+	 * @param paramKey   The name of the parameter
+	 * @param paramValue The value of the parameter
+	 */
+	@Override
+	public void setParam(String paramKey, String paramValue) {
+		threadState.get().queryParams.put(paramKey, paramValue);
+	}
+
+	/**
+	 * Specify the query parameters that'll be sent with the request.
+	 *
+	 * @param params The Map containing the parameter names and their values to send
+	 *               with the request.
+	 */
+	@Override
+	public void setParams(Map<String, String> params) {
+		threadState.get().queryParams.putAll(params);
+	}
+
+	/**
+	 * Prints the status, timing breakdown and body of the API response
+	 *
+	 *
+	 */
+	@Override
+	public void printResponse() {
+		Response response = lastResponse();
+		if (response == null) {
+			logger.error("No API response to print, send a request first");
+			return;
+		}
+		RequestTiming timing = threadState.get().timing;
+		logger.info("API Response: {} ({}){}{}", response.getStatusLine(),
+				timing == null ? "served from cache" : timing, System.lineSeparator(), response.asString());
+	}
+
+	/**
+	 * Parse response as JSONObject
+	 *
+	 * @return JSONObject
+	 */
+	@Override
+	public JSONObject parseResponseJsonObject() {
+		return new JSONObject(lastResponse().body().asString());
+	}
+
+	/**
+	 * Parse response as JSONArray
+	 *
+	 * @return JSONArray
+	 */
+	@Override
+	public JSONArray parsResponseJsonArray() {
+		return new JSONArray(lastResponse().body().asString());
+	}
+
+	/**
+	 * Specify a file to upload to the server using multi-part form data uploading
+	 * with a specific control name. It will use the mime-type.
+	 *
+	 * @param file        The file to upload
+	 * @param controlName Defines the control name of the body part. In HTML this is
+	 *                    the attribute name of the input tag.
+	 */
+	@Override
+	public void setMultiPartAttribute(String controlName, File file) {
+		threadState.get().multiParts.put(controlName, file);
+	}
+
+	/**
+	 * Sends a request with the headers, parameters, content type and files set
+	 * by the calling thread, and keeps the response for the getters. Files are
+	 * uploaded with one request only.
+	 */
+	private Response executeForThread(String method, String resourceName, String payLoad) {
+		ThreadState state = threadState.get();
+		ApiRequest.Builder builder = ApiRequest.builder(method, resourceName).headers(state.headers)
+				.queryParams(state.queryParams).contentType(state.contentType).body(payLoad);
+		state.multiParts.forEach(builder::multiPart);
+		state.multiParts.clear();
+		ApiRequest request = builder.build();
+		ApiResponseCache cache = responseCache;
+		state.timing = null;
+		if (cache != null && method.equals("GET")) {
+			state.response = toRestAssuredResponse(cache.fetch(baseURI, request, this::exchange));
+		} else {
+			state.response = exchangeForResponse(request);
+		}
+		return state.response;
+	}
+
+	private Response lastResponse() {
+		return threadState.get().response;
+	}
+
+	/**
+	 * Resolves the content type names of {@link #setContentType(String)}, e.g.
+	 * JSON.
+	 *
+	 * @param contentType the content type name.
+	 * @return the content type, or null for an unknown name.
+	 */
+	protected static ContentType toContentType(String contentType) {
+		switch (contentType.toUpperCase()) {
+		case "JSON":
+			return ContentType.JSON;
+		case "MULTIPART":
+			return ContentType.MULTIPART;
+		case "XML":
+			return ContentType.XML;
+		case "ANY":
+			return ContentType.ANY;
+		case "BINARY":
+			return ContentType.BINARY;
+		case "HTML":
+			return ContentType.HTML;
+		case "TEXT":
+			return ContentType.TEXT;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Writes a body into a file through a {@link FileChannel}, replacing an
+	 * existing file, without holding more than one transfer buffer in memory.
+	 *
+	 * @param body   the body to write.
+	 * @param target the file to write.
+	 * @return the bytes written.
+	 * @throws IOException if the body cannot be read or the file written.
+	 */
+	protected static long transferTo(InputStream body, Path target) throws IOException {
+		try (ReadableByteChannel source = Channels.newChannel(body);
+				FileChannel file = FileChannel.open(target, StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			long position = 0;
+			long transferred;
+			while ((transferred = file.transferFrom(source, position, Long.MAX_VALUE - position)) > 0) {
+				position += transferred;
+			}
+			return position;
+		}
+	}
+
+	private static long requestBytes(ApiRequest request) {
+		long bytes = request.getBody() == null ? 0 : request.getBody().getBytes(StandardCharsets.UTF_8).length;
+		for (File file : request.getMultiParts().values()) {
+			bytes += file.length();
+		}
+		return bytes;
+	}
+
+	private static Response toRestAssuredResponse(ApiResponse response) {
+		List<Header> headers = new ArrayList<>();
+		response.getHeaders().forEach((name, values) -> values.forEach(value -> headers.add(new Header(name, value))));
+		ResponseBuilder builder = new ResponseBuilder().setStatusCode(response.getStatusCode())
+				.setStatusLine(response.getStatusLine()).setHeaders(new Headers(headers))
+				.setBody(response.asByteArray());
+		if (response.getContentType() != null) {
+			builder.setContentType(response.getContentType());
+		}
+		return builder.build();
+	}
+
+	/**
+	 * The request settings and last response of one thread.
+	 */
+	private static final class ThreadState {
+		private final Map<String, String> headers = new LinkedHashMap<>();
+		private final Map<String, String> queryParams = new LinkedHashMap<>();
+		private final Map<String, File> multiParts = new LinkedHashMap<>();
+		private String contentType;
+		private Response response;
+		private RequestTiming timing;
+	}
+}
@@ -0,0 +1,457 @@
+package io.github.shabryn2893.apicore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * Collects the {@link RequestTiming} of every request sent by the API clients
+ * and aggregates them per endpoint template, so that slow endpoints show up in
+ * every functional run. {@link ApiMetricsListener} exports the metrics at the
+ * end of a TestNG suite.
+ * <p>
+ * Request paths are reduced to templates by replacing numeric, UUID and long
+ * hexadecimal segments with {@code {id}}, e.g. {@code GET /brands/{id}}, and
+ * the query string is dropped. Paths matching a template added with
+ * {@link #addEndpointTemplate(String)} use that template instead. Latencies are
+ * recorded in microseconds into HDR histograms with three significant digits.
+ * </p>
+ * <p>
+ * Metrics are collected unless the system property
+ * {@code selautocore.api.metrics} is false.
+ * </p>
+ */
+public final class ApiMetrics {
+
+	private static final Logger logger = LoggerUtils.getLogger(ApiMetrics.class);
+	private static final Pattern ID_SEGMENT = Pattern.compile(
+			"\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9a-fA-F]{16,}");
+	private static final Pattern TEMPLATE_VARIABLE = Pattern.compile("\\{[^/}]+\\}");
+	private static final String CSV_HEADER = "method,endpoint,count,errors,error_rate,p50_ms,p90_ms,p95_ms,p99_ms,"
+			+ "max_ms,mean_ms,ttfb_p50_ms,ttfb_p95_ms,connect_mean_ms,tls_mean_ms,download_mean_ms,request_bytes,"
+			+ "response_bytes";
+
+	private static final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+	private static final List<Map.Entry<Pattern, String>> templates = new CopyOnWriteArrayList<>();
+	private static volatile boolean enabled = Boolean
+			.parseBoolean(System.getProperty("selautocore.api.metrics", "true"));
+
+	private ApiMetrics() {
+	}
+
+	/**
+	 * Records the timing of one request.
+	 *
+	 * @param timing the request timing.
+	 */
+	public static void record(RequestTiming timing) {
+		if (enabled) {
+			endpoints.computeIfAbsent(timing.method() + " " + timing.endpoint(),
+					name -> new Endpoint(timing.method(), timing.endpoint())).record(timing);
+		}
+	}
+
+	/**
+	 * Turns the collection of metrics on or off.
+	 *
+	 * @param enabled false to stop collecting.
+	 */
+	public static void setEnabled(boolean enabled) {
+		ApiMetrics.enabled = enabled;
+	}
+
+	/**
+	 * Checks whether metrics are collected.
+	 *
+	 * @return true if requests are recorded.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Adds an endpoint template for paths the default rules do not reduce, e.g.
+	 * {@code /brands/{slug}/items}. Each {@code {name}} matches one path
+	 * segment.
+	 *
+	 * @param template the endpoint template.
+	 */
+	public static void addEndpointTemplate(String template) {
+		StringBuilder regex = new StringBuilder();
+		int position = 0;
+		for (var matcher = TEMPLATE_VARIABLE.matcher(template); matcher.find(); position = matcher.end()) {
+			regex.append(Pattern.quote(template.substring(position, matcher.start()))).append("[^/]+");
+		}
+		regex.append(Pattern.quote(template.substring(position)));
+		templates.add(Map.entry(Pattern.compile(regex.toString()), template));
+	}
+
+	/**
+	 * Reduces a request path to its endpoint template.
+	 *
+	 * @param path the request path or URL, with or without query string.
+	 * @return the endpoint template.
+	 */
+	public static String templateOf(String path) {
+		String template = path.replaceFirst("(?i)^https?://[^/]+", "");
+		int query = template.indexOf('?');
+		if (query >= 0) {
+			template = template.substring(0, query);
+		}
+		for (Map.Entry<Pattern, String> entry : templates) {
+			if (entry.getKey().matcher(template).matches()) {
+				return entry.getValue();
+			}
+		}
+		String[] segments = template.split("/", -1);
+		for (int i = 0; i < segments.length; i++) {
+			if (ID_SEGMENT.matcher(segments[i]).matches()) {
+				segments[i] = "{id}";
+			}
+		}
+		template = String.join("/", segments);
+		return template.isEmpty() ? "/" : template;
+	}
+
+	/**
+	 * Gets the metrics of every endpoint.
+	 *
+	 * @return the endpoint metrics by method and template, e.g.
+	 *         {@code GET /brands/{id}}, sorted by name.
+	 */
+	public static Map<String, Endpoint> getEndpoints() {
+		return new TreeMap<>(endpoints);
+	}
+
+	/**
+	 * Gets the metrics of one endpoint.
+	 *
+	 * @param method   the HTTP method.
+	 * @param template the endpoint template.
+	 * @return the endpoint metrics, or null if it was not called.
+	 */
+	public static Endpoint getEndpoint(String method, String template) {
+		return endpoints.get(method.toUpperCase(Locale.ROOT) + " " + template);
+	}
+
+	/**
+	 * Removes all recorded metrics.
+	 */
+	public static void reset() {
+		endpoints.clear();
+	}
+
+	/**
+	 * Formats the metrics as a table with one row per endpoint.
+	 *
+	 * @return the metrics table.
+	 */
+	public static String format() {
+		StringBuilder table = new StringBuilder(String.format("%-40s %7s %6s %9s %9s %9s %9s %9s%n", "Endpoint",
+				"Count", "Errors", "p50 ms", "p95 ms", "p99 ms", "max ms", "ttfb p50"));
+		for (Endpoint endpoint : getEndpoints().values()) {
+			table.append(String.format("%-40s %7d %6d %9.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint.getName(),
+					endpoint.getCount(), endpoint.getErrors(), endpoint.getPercentileMillis(50),
+					endpoint.getPercentileMillis(95), endpoint.getPercentileMillis(99), endpoint.getMaxMillis(),
+					endpoint.getTtfbPercentileMillis(50)));
+		}
+		return table.toString();
+	}
+
+	/**
+	 * Logs the metrics table.
+	 */
+	public static void print() {
+		logger.info("API metrics:{}{}", System.lineSeparator(), format());
+	}
+
+	/**
+	 * Writes the metrics as a JSON array with one object per endpoint.
+	 *
+	 * @param file the JSON file; missing directories are created.
+	 * @throws UncheckedIOException if the file cannot be written.
+	 */
+	public static void exportJson(Path file) {
+		JSONArray json = new JSONArray();
+		for (Endpoint endpoint : getEndpoints().values()) {
+			json.put(endpoint.toJson());
+		}
+		write(file, json.toString(2));
+	}
+
+	/**
+	 * Writes the metrics as CSV with a header row and one row per endpoint.
+	 *
+	 * @param file the CSV file; missing directories are created.
+	 * @throws UncheckedIOException if the file cannot be written.
+	 */
+	public static void exportCsv(Path file) {
+		StringBuilder csv = new StringBuilder(CSV_HEADER).append('\n');
+		for (Endpoint endpoint : getEndpoints().values()) {
+			csv.append(endpoint.toCsv()).append('\n');
+		}
+		write(file, csv.toString());
+	}
+
+	private static void write(Path file, String content) {
+		try {
+			Path directory = file.toAbsolutePath().getParent();
+			if (directory != null) {
+				Files.createDirectories(directory);
+			}
+			Files.writeString(file, content);
+			logger.info("Wrote API metrics of {} endpoints to {}", endpoints.size(), file);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write API metrics to " + file, e);
+		}
+	}
+
+	/**
+	 * The latency, size and status statistics of one endpoint.
+	 */
+	public static final class Endpoint {
+
+		private final String method;
+		private final String template;
+		private final Histogram totals = new ConcurrentHistogram(3);
+		private final Histogram ttfbs = new ConcurrentHistogram(3);
+		private final LongAdder errors = new LongAdder();
+		private final Phase connect = new Phase();
+		private final Phase tls = new Phase();
+		private final Phase download = new Phase();
+		private final LongAdder requestBytes = new LongAdder();
+		private final LongAdder responseBytes = new LongAdder();
+		private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+		private Endpoint(String method, String template) {
+			this.method = method;
+			this.template = template;
+		}
+
+		private void record(RequestTiming timing) {
+			totals.recordValue(Math.max(0, Math.round(timing.totalMillis() * 1000)));
+			if (timing.ttfbMillis() >= 0) {
+				ttfbs.recordValue(Math.round(timing.ttfbMillis() * 1000));
+			}
+			connect.record(timing.connectMillis());
+			tls.record(timing.tlsMillis());
+			download.record(timing.downloadMillis());
+			if (timing.isError()) {
+				errors.increment();
+			}
+			requestBytes.add(timing.requestBytes());
+			responseBytes.add(timing.responseBytes());
+			statuses.computeIfAbsent(timing.statusCode(), status -> new LongAdder()).increment();
+		}
+
+		/**
+		 * Gets the method and template, e.g. {@code GET /brands/{id}}.
+		 *
+		 * @return the endpoint name.
+		 */
+		public String getName() {
+			return method + " " + template;
+		}
+
+		/**
+		 * Gets the HTTP method.
+		 *
+		 * @return the method.
+		 */
+		public String getMethod() {
+			return method;
+		}
+
+		/**
+		 * Gets the endpoint template.
+		 *
+		 * @return the template, e.g. {@code /brands/{id}}.
+		 */
+		public String getTemplate() {
+			return template;
+		}
+
+		/**
+		 * Gets the number of requests.
+		 *
+		 * @return the request count.
+		 */
+		public long getCount() {
+			return totals.getTotalCount();
+		}
+
+		/**
+		 * Gets the number of requests without response or with a 4xx or 5xx
+		 * status.
+		 *
+		 * @return the error count.
+		 */
+		public long getErrors() {
+			return errors.sum();
+		}
+
+		/**
+		 * Gets the number of responses per status code; 0 counts requests
+		 * without response.
+		 *
+		 * @return a sorted snapshot of the status counters.
+		 */
+		public Map<Integer, Long> getStatusCounts() {
+			Map<Integer, Long> snapshot = new TreeMap<>();
+			statuses.forEach((status, count) -> snapshot.put(status, count.sum()));
+			return snapshot;
+		}
+
+		/**
+		 * Gets a percentile of the total time.
+		 *
+		 * @param percentile the percentile, e.g. 99.
+		 * @return the latency in milliseconds.
+		 */
+		public double getPercentileMillis(double percentile) {
+			return totals.getValueAtPercentile(percentile) / 1000.0;
+		}
+
+		/**
+		 * Gets the highest total time.
+		 *
+		 * @return the latency in milliseconds.
+		 */
+		public double getMaxMillis() {
+			return totals.getMaxValue() / 1000.0;
+		}
+
+		/**
+		 * Gets the mean total time.
+		 *
+		 * @return the latency in milliseconds.
+		 */
+		public double getMeanMillis() {
+			return totals.getMean() / 1000.0;
+		}
+
+		/**
+		 * Gets a percentile of the time to first byte.
+		 *
+		 * @param percentile the percentile, e.g. 95.
+		 * @return the time in milliseconds, or -1 if the backend did not report
+		 *         it.
+		 */
+		public double getTtfbPercentileMillis(double percentile) {
+			return ttfbs.getTotalCount() == 0 ? -1 : ttfbs.getValueAtPercentile(percentile) / 1000.0;
+		}
+
+		/**
+		 * Gets the mean connection setup time, including the requests that
+		 * reused a connection.
+		 *
+		 * @return the time in milliseconds, or -1 if it was not reported.
+		 */
+		public double getMeanConnectMillis() {
+			return connect.mean();
+		}
+
+		/**
+		 * Gets the mean TLS handshake time, including the requests that reused
+		 * a connection.
+		 *
+		 * @return the time in milliseconds, or -1 if it was not reported.
+		 */
+		public double getMeanTlsMillis() {
+			return tls.mean();
+		}
+
+		/**
+		 * Gets the mean time to read the response body.
+		 *
+		 * @return the time in milliseconds, or -1 if it was not reported.
+		 */
+		public double getMeanDownloadMillis() {
+			return download.mean();
+		}
+
+		/**
+		 * Gets the total size of the request bodies.
+		 *
+		 * @return the bytes sent.
+		 */
+		public long getRequestBytes() {
+			return requestBytes.sum();
+		}
+
+		/**
+		 * Gets the total size of the response bodies.
+		 *
+		 * @return the bytes received.
+		 */
+		public long getResponseBytes() {
+			return responseBytes.sum();
+		}
+
+		private JSONObject toJson() {
+			JSONObject statusJson = new JSONObject();
+			getStatusCounts().forEach((status, count) -> statusJson.put(String.valueOf(status), count));
+			return new JSONObject().put("method", method).put("endpoint", template).put("count", getCount())
+					.put("errors", getErrors()).put("statuses", statusJson)
+					.put("totalMillis", new JSONObject().put("p50", getPercentileMillis(50))
+							.put("p90", getPercentileMillis(90)).put("p95", getPercentileMillis(95))
+							.put("p99", getPercentileMillis(99)).put("max", getMaxMillis())
+							.put("mean", getMeanMillis()))
+					.put("ttfbMillis", new JSONObject().put("p50", getTtfbPercentileMillis(50)).put("p95",
+							getTtfbPercentileMillis(95)))
+					.put("meanConnectMillis", getMeanConnectMillis()).put("meanTlsMillis", getMeanTlsMillis())
+					.put("meanDownloadMillis", getMeanDownloadMillis()).put("requestBytes", getRequestBytes())
+					.put("responseBytes", getResponseBytes());
+		}
+
+		private String toCsv() {
+			long count = getCount();
+			return String.format(Locale.ROOT,
+					"%s,\"%s\",%d,%d,%.4f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d", method,
+					template.replace("\"", "\"\""), count, getErrors(), count == 0 ? 0 : (double) getErrors() / count,
+					getPercentileMillis(50), getPercentileMillis(90), getPercentileMillis(95), getPercentileMillis(99),
+					getMaxMillis(), getMeanMillis(), getTtfbPercentileMillis(50), getTtfbPercentileMillis(95),
+					getMeanConnectMillis(), getMeanTlsMillis(), getMeanDownloadMillis(), getRequestBytes(),
+					getResponseBytes());
+		}
+	}
+
+	/**
+	 * The running mean of a phase that not every request reports.
+	 */
+	private static final class Phase {
+
+		private final DoubleAdder millis = new DoubleAdder();
+		private final LongAdder count = new LongAdder();
+
+		private void record(double phaseMillis) {
+			if (phaseMillis >= 0) {
+				millis.add(phaseMillis);
+				count.increment();
+			}
+		}
+
+		private double mean() {
+			long n = count.sum();
+			return n == 0 ? -1 : millis.sum() / n;
+		}
+	}
+}
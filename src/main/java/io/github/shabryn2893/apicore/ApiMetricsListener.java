@@ -0,0 +1,44 @@
+package io.github.shabryn2893.apicore;
+
+import java.nio.file.Path;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * TestNG listener that starts every suite with empty {@link ApiMetrics} and, at
+ * the end of the suite, logs the metrics table and exports it as
+ * {@code <suite>-api-metrics.json} and {@code .csv}. The files are written to
+ * the directory in the system property {@code selautocore.api.metrics.dir},
+ * {@code target/api-metrics} by default.
+ *
+ * Example testng.xml:
+ *
+ * <pre>{@code
+ * <suite name="Regression">
+ *   <listeners>
+ *     <listener class-name="io.github.shabryn2893.apicore.ApiMetricsListener"/>
+ *   </listeners>
+ *   ...
+ * </suite>
+ * }</pre>
+ */
+public class ApiMetricsListener implements ISuiteListener {
+
+	@Override
+	public void onStart(ISuite suite) {
+		ApiMetrics.reset();
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		if (ApiMetrics.getEndpoints().isEmpty()) {
+			return;
+		}
+		ApiMetrics.print();
+		Path directory = Path.of(System.getProperty("selautocore.api.metrics.dir", "target/api-metrics"));
+		String name = suite.getName().replaceAll("[^A-Za-z0-9._-]+", "_") + "-api-metrics";
+		ApiMetrics.exportJson(directory.resolve(name + ".json"));
+		ApiMetrics.exportCsv(directory.resolve(name + ".csv"));
+	}
+}
@@ -0,0 +1,299 @@
+package io.github.shabryn2893.apicore;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An immutable HTTP request, sent with {@link IActionAPI#send(ApiRequest)}.
+ * <p>
+ * Requests are created with a {@link Builder} and can be shared between
+ * threads and sent any number of times. The path is resolved against the base
+ * URI of the client that sends the request.
+ * </p>
+ *
+ * Example Usage:
+ *
+ * <pre>{@code
+ * ApiRequest request = ApiRequest.post("/brands").contentType("JSON").header("Authorization", token)
+ * 		.body("{\"name\":\"Acme\"}").build();
+ * ApiResponse response = api.send(request);
+ * }</pre>
+ */
+public final class ApiRequest {
+
+	private final String method;
+	private final String path;
+	private final Map<String, String> headers;
+	private final Map<String, String> queryParams;
+	private final String contentType;
+	private final String body;
+	private final Map<String, File> multiParts;
+
+	private ApiRequest(Builder builder) {
+		this.method = builder.method;
+		this.path = builder.path;
+		this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(builder.headers));
+		this.queryParams = Collections.unmodifiableMap(new LinkedHashMap<>(builder.queryParams));
+		this.contentType = builder.contentType;
+		this.body = builder.body;
+		this.multiParts = Collections.unmodifiableMap(new LinkedHashMap<>(builder.multiParts));
+	}
+
+	/**
+	 * Starts a request with any HTTP method.
+	 *
+	 * @param method the HTTP method, e.g. "GET".
+	 * @param path   the path to send the request to.
+	 * @return the request builder.
+	 */
+	public static Builder builder(String method, String path) {
+		return new Builder(method.toUpperCase(), path);
+	}
+
+	/**
+	 * Starts a GET request.
+	 *
+	 * @param path the path to send the request to.
+	 * @return the request builder.
+	 */
+	public static Builder get(String path) {
+		return builder("GET", path);
+	}
+
+	/**
+	 * Starts a POST request.
+	 *
+	 * @param path the path to send the request to.
+	 * @return the request builder.
+	 */
+	public static Builder post(String path) {
+		return builder("POST", path);
+	}
+
+	/**
+	 * Starts a PUT request.
+	 *
+	 * @param path the path to send the request to.
+	 * @return the request builder.
+	 */
+	public static Builder put(String path) {
+		return builder("PUT", path);
+	}
+
+	/**
+	 * Starts a PATCH request.
+	 *
+	 * @param path the path to send the request to.
+	 * @return the request builder.
+	 */
+	public static Builder patch(String path) {
+		return builder("PATCH", path);
+	}
+
+	/**
+	 * Starts a DELETE request.
+	 *
+	 * @param path the path to send the request to.
+	 * @return the request builder.
+	 */
+	public static Builder delete(String path) {
+		return builder("DELETE", path);
+	}
+
+	/**
+	 * Creates a builder initialized with this request, to derive a modified
+	 * copy.
+	 *
+	 * @return the request builder.
+	 */
+	public Builder toBuilder() {
+		Builder builder = new Builder(method, path);
+		builder.headers.putAll(headers);
+		builder.queryParams.putAll(queryParams);
+		builder.contentType = contentType;
+		builder.body = body;
+		builder.multiParts.putAll(multiParts);
+		return builder;
+	}
+
+	/**
+	 * Gets the HTTP method.
+	 *
+	 * @return the upper case HTTP method.
+	 */
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * Gets the path the request is sent to.
+	 *
+	 * @return the path.
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * Gets the request headers.
+	 *
+	 * @return the unmodifiable headers, in insertion order.
+	 */
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Gets the query parameters.
+	 *
+	 * @return the unmodifiable query parameters, in insertion order.
+	 */
+	public Map<String, String> getQueryParams() {
+		return queryParams;
+	}
+
+	/**
+	 * Gets the content type.
+	 *
+	 * @return the content type name (JSON, XML, TEXT, ...) or MIME type, or null
+	 *         if not set.
+	 */
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * Gets the request body.
+	 *
+	 * @return the body, or null if the request has none.
+	 */
+	public String getBody() {
+		return body;
+	}
+
+	/**
+	 * Gets the files uploaded as multi-part form data.
+	 *
+	 * @return the unmodifiable files by control name.
+	 */
+	public Map<String, File> getMultiParts() {
+		return multiParts;
+	}
+
+	@Override
+	public String toString() {
+		return method + " " + path + (queryParams.isEmpty() ? "" : " " + queryParams);
+	}
+
+	/**
+	 * Builds an {@link ApiRequest}. A builder is not thread safe, the requests
+	 * it builds are.
+	 */
+	public static final class Builder {
+
+		private final String method;
+		private final String path;
+		private final Map<String, String> headers = new LinkedHashMap<>();
+		private final Map<String, String> queryParams = new LinkedHashMap<>();
+		private String contentType;
+		private String body;
+		private final Map<String, File> multiParts = new LinkedHashMap<>();
+
+		private Builder(String method, String path) {
+			this.method = method;
+			this.path = path;
+		}
+
+		/**
+		 * Sets a header, replacing an earlier value of the same header.
+		 *
+		 * @param headerName  the header name.
+		 * @param headerValue the header value.
+		 * @return this builder.
+		 */
+		public Builder header(String headerName, String headerValue) {
+			headers.put(headerName, headerValue);
+			return this;
+		}
+
+		/**
+		 * Sets several headers.
+		 *
+		 * @param headers the header names and values.
+		 * @return this builder.
+		 */
+		public Builder headers(Map<String, String> headers) {
+			this.headers.putAll(headers);
+			return this;
+		}
+
+		/**
+		 * Sets a query parameter, replacing an earlier value of the same parameter.
+		 *
+		 * @param paramKey   the parameter name.
+		 * @param paramValue the parameter value.
+		 * @return this builder.
+		 */
+		public Builder queryParam(String paramKey, String paramValue) {
+			queryParams.put(paramKey, paramValue);
+			return this;
+		}
+
+		/**
+		 * Sets several query parameters.
+		 *
+		 * @param params the parameter names and values.
+		 * @return this builder.
+		 */
+		public Builder queryParams(Map<String, String> params) {
+			queryParams.putAll(params);
+			return this;
+		}
+
+		/**
+		 * Sets the content type.
+		 *
+		 * @param contentType a content type name (JSON, MULTIPART, XML, ANY, BINARY,
+		 *                    HTML, TEXT) or a MIME type.
+		 * @return this builder.
+		 */
+		public Builder contentType(String contentType) {
+			this.contentType = contentType;
+			return this;
+		}
+
+		/**
+		 * Sets the request body.
+		 *
+		 * @param body the body to send.
+		 * @return this builder.
+		 */
+		public Builder body(String body) {
+			this.body = body;
+			return this;
+		}
+
+		/**
+		 * Adds a file to upload as multi-part form data.
+		 *
+		 * @param controlName the control name of the body part.
+		 * @param file        the file to upload.
+		 * @return this builder.
+		 */
+		public Builder multiPart(String controlName, File file) {
+			multiParts.put(controlName, file);
+			return this;
+		}
+
+		/**
+		 * Creates the immutable request.
+		 *
+		 * @return the request.
+		 */
+		public ApiRequest build() {
+			return new ApiRequest(this);
+		}
+	}
+}
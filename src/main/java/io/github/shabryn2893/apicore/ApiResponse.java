@@ -0,0 +1,204 @@
+package io.github.shabryn2893.apicore;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+
+/**
+ * A fully read, immutable HTTP response returned by
+ * {@link IActionAPI#send(ApiRequest)}.
+ * <p>
+ * The status, headers and body are copied when the response arrives, so a
+ * response stays valid after the client sends further requests and can be
+ * passed between threads.
+ * </p>
+ */
+public final class ApiResponse {
+
+	private final int statusCode;
+	private final String statusLine;
+	private final Map<String, List<String>> headers;
+	private final byte[] body;
+	private final long timeMillis;
+
+	/**
+	 * Creates a response.
+	 *
+	 * @param statusCode the HTTP status code.
+	 * @param statusLine the status line, e.g. "HTTP/1.1 200 OK".
+	 * @param headers    the response headers; names are matched ignoring case.
+	 * @param body       the response body.
+	 * @param timeMillis the time from sending the request until the response
+	 *                   was read.
+	 */
+	public ApiResponse(int statusCode, String statusLine, Map<String, List<String>> headers, byte[] body,
+			long timeMillis) {
+		this.statusCode = statusCode;
+		this.statusLine = statusLine;
+		Map<String, List<String>> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		headers.forEach((name, values) -> copy.computeIfAbsent(name, key -> new ArrayList<>()).addAll(values));
+		copy.replaceAll((name, values) -> List.copyOf(values));
+		this.headers = Collections.unmodifiableMap(copy);
+		this.body = body.clone();
+		this.timeMillis = timeMillis;
+	}
+
+	/**
+	 * Copies a RestAssured response, reading its body.
+	 *
+	 * @param response the RestAssured response.
+	 * @return the copied response.
+	 */
+	public static ApiResponse of(Response response) {
+		Map<String, List<String>> headers = new LinkedHashMap<>();
+		for (Header header : response.getHeaders()) {
+			headers.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+		}
+		return new ApiResponse(response.getStatusCode(), response.getStatusLine(), headers, response.asByteArray(),
+				response.getTime());
+	}
+
+	/**
+	 * Gets the status code of the response.
+	 *
+	 * @return the status code.
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * Checks whether the status code is in the 2xx range.
+	 *
+	 * @return true for a successful response.
+	 */
+	public boolean isSuccessful() {
+		return statusCode >= 200 && statusCode < 300;
+	}
+
+	/**
+	 * Gets the status line of the response.
+	 *
+	 * @return the status line.
+	 */
+	public String getStatusLine() {
+		return statusLine;
+	}
+
+	/**
+	 * Get a single header value associated with the given name.
+	 *
+	 * @param headerName the header name, matched ignoring case.
+	 * @return the first header value, or null if the header was not found.
+	 */
+	public String getHeader(String headerName) {
+		List<String> values = headers.get(headerName);
+		return values == null || values.isEmpty() ? null : values.get(0);
+	}
+
+	/**
+	 * Gets all response headers.
+	 *
+	 * @return the unmodifiable header values by name.
+	 */
+	public Map<String, List<String>> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Get the content type of the response
+	 *
+	 * @return The content type value or <code>null</code> if not found.
+	 */
+	public String getContentType() {
+		return getHeader("Content-Type");
+	}
+
+	/**
+	 * Gets the time from sending the request until the response was read.
+	 *
+	 * @return the response time in milliseconds.
+	 */
+	public long getTimeMillis() {
+		return timeMillis;
+	}
+
+	/**
+	 * Gets the size of the response body.
+	 *
+	 * @return the body length in bytes.
+	 */
+	public int getBodySize() {
+		return body.length;
+	}
+
+	/**
+	 * Gets the raw response body.
+	 *
+	 * @return a copy of the body bytes.
+	 */
+	public byte[] asByteArray() {
+		return body.clone();
+	}
+
+	/**
+	 * Gets the response body as text, decoded with the charset of the content
+	 * type or UTF-8.
+	 *
+	 * @return the body text.
+	 */
+	public String asString() {
+		return new String(body, charset());
+	}
+
+	/**
+	 * Parse response as JSONObject
+	 *
+	 * @return JSONObject
+	 */
+	public JSONObject asJsonObject() {
+		return new JSONObject(asString());
+	}
+
+	/**
+	 * Parse response as JSONArray
+	 *
+	 * @return JSONArray
+	 */
+	public JSONArray asJsonArray() {
+		return new JSONArray(asString());
+	}
+
+	@Override
+	public String toString() {
+		return statusLine + " (" + body.length + " bytes, " + timeMillis + " ms)";
+	}
+
+	private Charset charset() {
+		String contentType = getContentType();
+		if (contentType != null) {
+			for (String parameter : contentType.split(";")) {
+				String[] pair = parameter.trim().split("=", 2);
+				if (pair.length == 2 && pair[0].equalsIgnoreCase("charset")) {
+					try {
+						return Charset.forName(pair[1].replace("\"", "").trim());
+					} catch (IllegalArgumentException e) {
+						break;
+					}
+				}
+			}
+		}
+		return StandardCharsets.UTF_8;
+	}
+}
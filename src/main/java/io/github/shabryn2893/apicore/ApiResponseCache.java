@@ -0,0 +1,547 @@
+package io.github.shabryn2893.apicore;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * An opt-in cache of GET responses for reference data that tests fetch again
+ * and again, enabled with {@link IActionAPI#setResponseCache(ApiResponseCache)}.
+ * <p>
+ * Responses are keyed by method, URL, the values of the vary headers and a
+ * hash of the caller's credentials, so users never see each other's data.
+ * Within the time to live a cached response is returned without a request.
+ * After that it is revalidated with {@code If-None-Match} and
+ * {@code If-Modified-Since} when the server sent an {@code ETag} or
+ * {@code Last-Modified} header; a {@code 304 Not Modified} answer renews the
+ * entry without transferring the body again. Only 200 responses are stored.
+ * The {@code Cache-Control} header of a response is honoured: {@code no-store}
+ * responses are not stored; {@code private}, {@code no-cache} and
+ * {@code max-age=0} responses are stored, as the cache belongs to one client
+ * and is keyed by identity, but revalidated on every use; a {@code max-age}
+ * below the time to live shortens it. Requests that carry their own
+ * conditional headers bypass the cache.
+ * </p>
+ * <p>
+ * The memory tier holds the most recently used entries. With a disk directory,
+ * every stored response is also written to disk and loaded from there after it
+ * was evicted from memory or in a later run. The disk tier is limited in size
+ * as well; the least recently used files are deleted first.
+ * </p>
+ *
+ * Example Usage:
+ *
+ * <pre>{@code
+ * api.setResponseCache(ApiResponseCache.builder().timeToLive(Duration.ofMinutes(5)).maxEntries(500).build());
+ * api.getRequest("/countries"); // fetched
+ * api.getRequest("/countries"); // served from the cache
+ * }</pre>
+ */
+public final class ApiResponseCache {
+
+	private static final Logger logger = LoggerUtils.getLogger(ApiResponseCache.class);
+
+	private final int maxEntries;
+	private final Duration timeToLive;
+	private final List<String> varyHeaders;
+	private final List<String> identityHeaders;
+	private final Path diskDirectory;
+	private final long maxDiskBytes;
+	private final Object diskLock = new Object();
+	private final Clock clock;
+	private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder revalidations = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder bytesSaved = new LongAdder();
+
+	private ApiResponseCache(Builder builder) {
+		this.maxEntries = builder.maxEntries;
+		this.timeToLive = builder.timeToLive;
+		this.varyHeaders = List.copyOf(builder.varyHeaders);
+		this.identityHeaders = List.copyOf(builder.identityHeaders);
+		this.diskDirectory = builder.diskDirectory;
+		this.maxDiskBytes = builder.maxDiskBytes;
+		this.clock = builder.clock;
+	}
+
+	/**
+	 * Starts a cache with a 5 minute time to live, 1000 entries, memory only.
+	 *
+	 * @return the cache builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Gets a response from the cache or from the server.
+	 *
+	 * @param baseURI the base URI of the client, part of the cache key.
+	 * @param request the request.
+	 * @param sender  sends a request to the server.
+	 * @return the cached, revalidated or freshly fetched response.
+	 */
+	public ApiResponse fetch(String baseURI, ApiRequest request, Function<ApiRequest, ApiResponse> sender) {
+		if (!isCacheable(request)) {
+			return sender.apply(request);
+		}
+		String key = keyOf(baseURI, request);
+		Entry entry = lookup(key);
+		long now = clock.millis();
+		if (entry != null && now - entry.storedAtMillis < entry.freshForMillis(timeToLive.toMillis())) {
+			hits.increment();
+			bytesSaved.add(entry.response.getBodySize());
+			return entry.response;
+		}
+		if (entry != null && entry.hasValidators()) {
+			ApiRequest.Builder conditional = request.toBuilder();
+			if (entry.etag() != null) {
+				conditional.header("If-None-Match", entry.etag());
+			}
+			if (entry.lastModified() != null) {
+				conditional.header("If-Modified-Since", entry.lastModified());
+			}
+			ApiResponse response = sender.apply(conditional.build());
+			if (response.getStatusCode() == 304) {
+				revalidations.increment();
+				bytesSaved.add(entry.response.getBodySize());
+				store(key, new Entry(entry.response, now));
+				return entry.response;
+			}
+			return storeIfCacheable(key, response, now);
+		}
+		return storeIfCacheable(key, sender.apply(request), now);
+	}
+
+	/**
+	 * Removes every entry from memory and disk.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+		if (diskDirectory != null && Files.isDirectory(diskDirectory)) {
+			try (var files = Files.list(diskDirectory)) {
+				for (Path file : files.filter(path -> path.toString().endsWith(".cache")).toList()) {
+					Files.deleteIfExists(file);
+				}
+			} catch (IOException e) {
+				logger.warn("Failed to clear response cache directory {}: {}", diskDirectory, e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Gets a snapshot of the cache counters.
+	 *
+	 * @return the cache statistics.
+	 */
+	public Stats getStats() {
+		int size;
+		synchronized (entries) {
+			size = entries.size();
+		}
+		return new Stats(hits.sum(), revalidations.sum(), misses.sum(), evictions.sum(), bytesSaved.sum(), size);
+	}
+
+	/**
+	 * Logs the cache counters.
+	 */
+	public void logStats() {
+		logger.info("API response cache: {}", getStats());
+	}
+
+	private static boolean isCacheable(ApiRequest request) {
+		return request.getMethod().equals("GET") && request.getHeaders().keySet().stream().noneMatch(
+				name -> name.equalsIgnoreCase("If-None-Match") || name.equalsIgnoreCase("If-Modified-Since"));
+	}
+
+	private ApiResponse storeIfCacheable(String key, ApiResponse response, long now) {
+		misses.increment();
+		if (response.getStatusCode() == 200 && isStorable(response.getHeader("Cache-Control"))) {
+			store(key, new Entry(response, now));
+		}
+		return response;
+	}
+
+	private static boolean isStorable(String cacheControl) {
+		return !directives(cacheControl).containsKey("no-store");
+	}
+
+	/**
+	 * Parses a {@code Cache-Control} header.
+	 *
+	 * @return the directives in lower case with their values, empty for
+	 *         directives without a value.
+	 */
+	private static Map<String, String> directives(String cacheControl) {
+		Map<String, String> directives = new HashMap<>();
+		if (cacheControl != null) {
+			for (String directive : cacheControl.toLowerCase().split(",")) {
+				String[] parts = directive.split("=", 2);
+				directives.put(parts[0].trim(), parts.length > 1 ? parts[1].replace("\"", "").trim() : "");
+			}
+		}
+		return directives;
+	}
+
+	private Entry lookup(String key) {
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				return entry;
+			}
+		}
+		Entry entry = readFromDisk(key);
+		if (entry != null) {
+			putInMemory(key, entry);
+		}
+		return entry;
+	}
+
+	private void store(String key, Entry entry) {
+		putInMemory(key, entry);
+		writeToDisk(key, entry);
+	}
+
+	private void putInMemory(String key, Entry entry) {
+		synchronized (entries) {
+			entries.put(key, entry);
+			while (entries.size() > maxEntries) {
+				String eldest = entries.keySet().iterator().next();
+				entries.remove(eldest);
+				evictions.increment();
+			}
+		}
+	}
+
+	/**
+	 * Builds the cache key. Credentials are hashed so they are never kept in
+	 * memory or written to disk.
+	 */
+	private String keyOf(String baseURI, ApiRequest request) {
+		Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		headers.putAll(request.getHeaders());
+		StringBuilder key = new StringBuilder(request.getMethod()).append(' ').append(baseURI)
+				.append(request.getPath()).append(' ').append(new TreeMap<>(request.getQueryParams()));
+		for (String header : varyHeaders) {
+			key.append(' ').append(header.toLowerCase()).append('=').append(headers.getOrDefault(header, ""));
+		}
+		StringBuilder identity = new StringBuilder();
+		for (String header : identityHeaders) {
+			identity.append(headers.getOrDefault(header, "")).append('\n');
+		}
+		return key.append(" identity=").append(sha256(identity.toString()).substring(0, 16)).toString();
+	}
+
+	private Path diskFile(String key) {
+		return diskDirectory.resolve(sha256(key) + ".cache");
+	}
+
+	private Entry readFromDisk(String key) {
+		if (diskDirectory == null) {
+			return null;
+		}
+		Path file = diskFile(key);
+		if (!Files.exists(file)) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+			if (!in.readUTF().equals(key)) {
+				return null;
+			}
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			long storedAtMillis = in.readLong();
+			int statusCode = in.readInt();
+			String statusLine = in.readUTF();
+			Map<String, List<String>> headers = new LinkedHashMap<>();
+			for (int header = in.readInt(); header > 0; header--) {
+				String name = in.readUTF();
+				List<String> values = new ArrayList<>();
+				for (int value = in.readInt(); value > 0; value--) {
+					values.add(in.readUTF());
+				}
+				headers.put(name, values);
+			}
+			byte[] body = in.readNBytes(in.readInt());
+			return new Entry(new ApiResponse(statusCode, statusLine, headers, body, 0), storedAtMillis);
+		} catch (IOException e) {
+			logger.warn("Ignoring unreadable cached response {}: {}", file, e.getMessage());
+			return null;
+		}
+	}
+
+	private void writeToDisk(String key, Entry entry) {
+		if (diskDirectory == null) {
+			return;
+		}
+		Path file = diskFile(key);
+		try {
+			Files.createDirectories(diskDirectory);
+			Path temp = Files.createTempFile(diskDirectory, "response", ".tmp");
+			try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+				ApiResponse response = entry.response;
+				out.writeUTF(key);
+				out.writeLong(entry.storedAtMillis);
+				out.writeInt(response.getStatusCode());
+				out.writeUTF(response.getStatusLine());
+				out.writeInt(response.getHeaders().size());
+				for (Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+					out.writeUTF(header.getKey());
+					out.writeInt(header.getValue().size());
+					for (String value : header.getValue()) {
+						out.writeUTF(value);
+					}
+				}
+				byte[] body = response.asByteArray();
+				out.writeInt(body.length);
+				out.write(body);
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			pruneDisk(file);
+		} catch (IOException e) {
+			logger.warn("Failed to write cached response {}: {}", file, e.getMessage());
+		}
+	}
+
+	/**
+	 * Deletes the least recently used cache files until the disk tier fits into
+	 * its size limit. The file just written goes last.
+	 */
+	private void pruneDisk(Path written) throws IOException {
+		synchronized (diskLock) {
+			List<Path> files;
+			try (var listing = Files.list(diskDirectory)) {
+				files = new ArrayList<>(listing.filter(path -> path.toString().endsWith(".cache")).toList());
+			}
+			Map<Path, Long> sizes = new HashMap<>();
+			Map<Path, Long> lastUsed = new HashMap<>();
+			long total = 0;
+			for (Path file : files) {
+				sizes.put(file, Files.size(file));
+				lastUsed.put(file, file.equals(written) ? Long.MAX_VALUE : Files.getLastModifiedTime(file).toMillis());
+				total += sizes.get(file);
+			}
+			files.sort(Comparator.comparing(lastUsed::get));
+			for (Path file : files) {
+				if (total <= maxDiskBytes) {
+					break;
+				}
+				Files.deleteIfExists(file);
+				total -= sizes.get(file);
+				logger.debug("Evicted cached response {} from disk", file);
+			}
+		}
+	}
+
+	private static String sha256(String text) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	/**
+	 * A cached response and when it was stored or last revalidated.
+	 */
+	private record Entry(ApiResponse response, long storedAtMillis) {
+
+		private String etag() {
+			return response.getHeader("ETag");
+		}
+
+		private String lastModified() {
+			return response.getHeader("Last-Modified");
+		}
+
+		private boolean hasValidators() {
+			return etag() != null || lastModified() != null;
+		}
+
+		/**
+		 * Gets how long the response may be served without revalidation: the
+		 * time to live, or the {@code max-age} of the response if it is lower,
+		 * and 0 for {@code private} and {@code no-cache} responses.
+		 */
+		private long freshForMillis(long timeToLiveMillis) {
+			Map<String, String> directives = directives(response.getHeader("Cache-Control"));
+			if (directives.containsKey("private") || directives.containsKey("no-cache")) {
+				return 0;
+			}
+			try {
+				String maxAge = directives.get("max-age");
+				return maxAge == null ? timeToLiveMillis : Math.min(timeToLiveMillis, Long.parseLong(maxAge) * 1000);
+			} catch (NumberFormatException e) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * A snapshot of the cache counters.
+	 *
+	 * @param hits          responses served from the cache without a request.
+	 * @param revalidations responses confirmed by a 304 answer.
+	 * @param misses        responses fetched with a full request.
+	 * @param evictions     entries dropped from memory to stay within the size
+	 *                      limit.
+	 * @param bytesSaved    response body bytes not transferred thanks to hits and
+	 *                      revalidations.
+	 * @param entries       the number of entries in memory.
+	 */
+	public record Stats(long hits, long revalidations, long misses, long evictions, long bytesSaved, int entries) {
+
+		/**
+		 * Gets the share of requests answered from the cache, including
+		 * revalidated ones.
+		 *
+		 * @return the hit rate between 0 and 1.
+		 */
+		public double hitRate() {
+			long total = hits + revalidations + misses;
+			return total == 0 ? 0 : (double) (hits + revalidations) / total;
+		}
+	}
+
+	/**
+	 * Builds an {@link ApiResponseCache}.
+	 */
+	public static final class Builder {
+
+		private int maxEntries = 1000;
+		private Duration timeToLive = Duration.ofMinutes(5);
+		private List<String> varyHeaders = List.of("Accept", "Accept-Language");
+		private List<String> identityHeaders = List.of("Authorization", "Cookie", "X-API-Key");
+		private Path diskDirectory;
+		private long maxDiskBytes = 256L * 1024 * 1024;
+		private Clock clock = Clock.systemUTC();
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the maximum number of entries kept in memory; the least recently
+		 * used entry is evicted first.
+		 *
+		 * @param maxEntries the memory tier size.
+		 * @return this builder.
+		 */
+		public Builder maxEntries(int maxEntries) {
+			this.maxEntries = maxEntries;
+			return this;
+		}
+
+		/**
+		 * Sets how long a response is served without asking the server.
+		 *
+		 * @param timeToLive the time to live.
+		 * @return this builder.
+		 */
+		public Builder timeToLive(Duration timeToLive) {
+			this.timeToLive = timeToLive;
+			return this;
+		}
+
+		/**
+		 * Sets the request headers whose values select different responses.
+		 * Defaults to Accept and Accept-Language.
+		 *
+		 * @param varyHeaders the header names.
+		 * @return this builder.
+		 */
+		public Builder varyHeaders(List<String> varyHeaders) {
+			this.varyHeaders = varyHeaders;
+			return this;
+		}
+
+		/**
+		 * Sets the request headers that identify the caller. Defaults to
+		 * Authorization, Cookie and X-API-Key.
+		 *
+		 * @param identityHeaders the header names.
+		 * @return this builder.
+		 */
+		public Builder identityHeaders(List<String> identityHeaders) {
+			this.identityHeaders = identityHeaders;
+			return this;
+		}
+
+		/**
+		 * Also stores responses in a directory, so they survive memory eviction
+		 * and later runs.
+		 *
+		 * @param diskDirectory the cache directory.
+		 * @return this builder.
+		 */
+		public Builder diskDirectory(Path diskDirectory) {
+			this.diskDirectory = diskDirectory;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum size of the cache files in the disk directory; the
+		 * least recently used files are deleted first. Defaults to 256 MB.
+		 *
+		 * @param maxDiskBytes the disk tier size in bytes.
+		 * @return this builder.
+		 */
+		public Builder maxDiskBytes(long maxDiskBytes) {
+			this.maxDiskBytes = maxDiskBytes;
+			return this;
+		}
+
+		/**
+		 * Sets the clock used for the time to live.
+		 *
+		 * @param clock the clock.
+		 * @return this builder.
+		 */
+		public Builder clock(Clock clock) {
+			this.clock = clock;
+			return this;
+		}
+
+		/**
+		 * Creates the cache.
+		 *
+		 * @return the cache.
+		 * @throws IllegalArgumentException if a size limit is not positive.
+		 */
+		public ApiResponseCache build() {
+			if (maxEntries <= 0) {
+				throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+			}
+			if (maxDiskBytes <= 0) {
+				throw new IllegalArgumentException("maxDiskBytes must be positive: " + maxDiskBytes);
+			}
+			return new ApiResponseCache(this);
+		}
+	}
+}
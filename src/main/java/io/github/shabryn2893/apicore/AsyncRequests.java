@@ -0,0 +1,57 @@
+package io.github.shabryn2893.apicore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs the asynchronous requests of {@link IActionAPI} on virtual threads.
+ * <p>
+ * Every request gets its own virtual thread, which is parked instead of
+ * blocking a platform thread while it waits for the server, so thousands of
+ * requests can be in flight without a thread pool to size.
+ * </p>
+ */
+final class AsyncRequests {
+
+	/**
+	 * The default executor of asynchronous requests.
+	 */
+	static final ExecutorService VIRTUAL_THREADS = Executors.newVirtualThreadPerTaskExecutor();
+
+	private AsyncRequests() {
+	}
+
+	/**
+	 * Sends requests with at most {@code maxConcurrency} of them in flight.
+	 *
+	 * @param api            the client to send with.
+	 * @param requests       the requests to send.
+	 * @param maxConcurrency the maximum number of requests in flight.
+	 * @return completes with the responses in request order, or exceptionally
+	 *         once all requests finished if any of them failed.
+	 */
+	static CompletableFuture<List<ApiResponse>> fanOut(IActionAPI api, List<ApiRequest> requests,
+			int maxConcurrency) {
+		if (maxConcurrency <= 0) {
+			throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+		}
+		Semaphore permits = new Semaphore(maxConcurrency);
+		List<CompletableFuture<ApiResponse>> futures = new ArrayList<>(requests.size());
+		for (ApiRequest request : requests) {
+			futures.add(CompletableFuture.supplyAsync(() -> {
+				permits.acquireUninterruptibly();
+				try {
+					return api.send(request);
+				} finally {
+					permits.release();
+				}
+			}, VIRTUAL_THREADS));
+		}
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+				.thenApply(done -> futures.stream().map(CompletableFuture::join).toList());
+	}
+}
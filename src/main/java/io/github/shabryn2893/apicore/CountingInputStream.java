@@ -0,0 +1,78 @@
+package io.github.shabryn2893.apicore;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * Counts the bytes read from a stream, e.g. a streamed response body or an
+ * upload, and optionally reports the count once the stream is closed.
+ */
+final class CountingInputStream extends FilterInputStream {
+
+	private final LongConsumer onClose;
+	private volatile long count;
+	private boolean closed;
+
+	CountingInputStream(InputStream in) {
+		this(in, count -> {
+		});
+	}
+
+	CountingInputStream(InputStream in, LongConsumer onClose) {
+		super(in);
+		this.onClose = onClose;
+	}
+
+	/**
+	 * Gets the bytes read from a stream created by this class.
+	 *
+	 * @param in any stream.
+	 * @return the bytes read, or -1 if the stream does not count them.
+	 */
+	static long countOf(InputStream in) {
+		return in instanceof CountingInputStream counting ? counting.count : -1;
+	}
+
+	long getCount() {
+		return count;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = super.read();
+		if (b >= 0) {
+			count++;
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		int read = super.read(buffer, offset, length);
+		if (read > 0) {
+			count += read;
+		}
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = super.skip(n);
+		count += skipped;
+		return skipped;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			super.close();
+		} finally {
+			if (!closed) {
+				closed = true;
+				onClose.accept(count);
+			}
+		}
+	}
+}
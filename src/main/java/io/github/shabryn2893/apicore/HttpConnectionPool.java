@@ -0,0 +1,305 @@
+package io.github.shabryn2893.apicore;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.BasicClientConnectionManager;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContexts;
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.utils.LoggerUtils;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+
+/**
+ * A pool of kept-alive HTTP connections shared by the API clients created with
+ * one {@link HttpPoolConfig}.
+ * <p>
+ * RestAssured creates a new HTTP client for every request by default, so each
+ * request opens and closes its own connection. A pool instead hands one
+ * thread-safe Apache HttpClient with a pooling connection manager to
+ * RestAssured and has it reused for every request. A daemon thread closes
+ * expired and idle connections, and all pools are shut down at JVM exit.
+ * </p>
+ * <p>
+ * The pool also reports the connection setup, TLS handshake and time to first
+ * byte of every request to {@link ApiMetrics}. RestAssured clients without a
+ * pool report them through {@link #timedHttpClientConfig()}.
+ * </p>
+ * <p>
+ * RestAssured 5 still drives the HttpClient 4 API that predates
+ * {@code HttpClientBuilder}, so the pool is built on
+ * {@link DefaultHttpClient} and {@link PoolingClientConnectionManager}.
+ * </p>
+ */
+@SuppressWarnings("deprecation")
+public final class HttpConnectionPool {
+
+	private static final Logger logger = LoggerUtils.getLogger(HttpConnectionPool.class);
+	private static final Map<HttpPoolConfig, HttpConnectionPool> pools = new IdentityHashMap<>();
+	private static final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "http-pool-evictor");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(HttpConnectionPool::closeAll, "http-pool-shutdown"));
+	}
+
+	private final HttpPoolConfig config;
+	private final PoolingClientConnectionManager connectionManager;
+	private final DefaultHttpClient httpClient;
+	private final RestAssuredConfig restAssuredConfig;
+	private final ScheduledFuture<?> eviction;
+	private final LongAdder requests = new LongAdder();
+
+	private HttpConnectionPool(HttpPoolConfig config) {
+		this.config = config;
+		connectionManager = new PoolingClientConnectionManager(timedSchemes()) {
+			@Override
+			protected ClientConnectionOperator createConnectionOperator(SchemeRegistry registry) {
+				return new TimedConnectionOperator(registry);
+			}
+		};
+		connectionManager.setMaxTotal(config.getMaxTotal());
+		connectionManager.setDefaultMaxPerRoute(config.getMaxPerRoute());
+		httpClient = newTimedClient(connectionManager);
+		long keepAliveMillis = config.getKeepAlive().toMillis();
+		httpClient.setKeepAliveStrategy((response, context) -> {
+			long serverMillis = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return serverMillis > 0 ? Math.min(serverMillis, keepAliveMillis) : keepAliveMillis;
+		});
+		httpClient.addRequestInterceptor((request, context) -> requests.increment());
+		HttpClientConfig httpClientConfig = HttpClientConfig.httpClientConfig().httpClientFactory(() -> httpClient)
+				.reuseHttpClientInstance()
+				.setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, (int) config.getConnectTimeout().toMillis())
+				.setParam(CoreConnectionPNames.SO_TIMEOUT, (int) config.getSocketTimeout().toMillis())
+				.setParam(ClientPNames.CONN_MANAGER_TIMEOUT, config.getConnectionRequestTimeout().toMillis());
+		restAssuredConfig = RestAssuredConfig.config().httpClient(httpClientConfig);
+		long evictionMillis = config.getEvictionInterval().toMillis();
+		eviction = evictor.scheduleWithFixedDelay(this::evictConnections, evictionMillis, evictionMillis,
+				TimeUnit.MILLISECONDS);
+		logger.info("Created HTTP connection pool with {}", config);
+	}
+
+	/**
+	 * Gets a RestAssured HTTP client config for clients without a pool. Like the
+	 * RestAssured default it creates a new HTTP client with its own connection
+	 * for every request, but reports the phases of the request to
+	 * {@link ApiMetrics} as a pool does.
+	 *
+	 * @return the HTTP client config.
+	 */
+	static HttpClientConfig timedHttpClientConfig() {
+		return HttpClientConfig.httpClientConfig().httpClientFactory(() -> newTimedClient(
+				new BasicClientConnectionManager(timedSchemes()) {
+					@Override
+					protected ClientConnectionOperator createConnectionOperator(SchemeRegistry registry) {
+						return new TimedConnectionOperator(registry);
+					}
+				}));
+	}
+
+	/**
+	 * Gets the pool of a config, creating it on first use. Every config instance
+	 * has exactly one pool.
+	 *
+	 * @param config the pool settings.
+	 * @return the shared pool.
+	 */
+	public static synchronized HttpConnectionPool forConfig(HttpPoolConfig config) {
+		return pools.computeIfAbsent(config, HttpConnectionPool::new);
+	}
+
+	/**
+	 * Gets the settings of this pool.
+	 *
+	 * @return the pool settings.
+	 */
+	public HttpPoolConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * Gets the RestAssured configuration that sends requests through this pool.
+	 *
+	 * @return the RestAssured configuration.
+	 */
+	public RestAssuredConfig getRestAssuredConfig() {
+		return restAssuredConfig;
+	}
+
+	/**
+	 * Gets a snapshot of the pool usage.
+	 *
+	 * @return the pool statistics.
+	 */
+	public Stats getStats() {
+		PoolStats total = connectionManager.getTotalStats();
+		return new Stats(total.getLeased(), total.getAvailable(), total.getPending(), total.getMax(),
+				requests.sum());
+	}
+
+	/**
+	 * Logs the pool usage.
+	 */
+	public void logStats() {
+		logger.info("HTTP connection pool: {}", getStats());
+	}
+
+	/**
+	 * Closes all connections and stops eviction. Clients using this pool can no
+	 * longer send requests.
+	 */
+	public void close() {
+		synchronized (HttpConnectionPool.class) {
+			pools.remove(config);
+		}
+		eviction.cancel(false);
+		connectionManager.shutdown();
+	}
+
+	private static void closeAll() {
+		List<HttpConnectionPool> openPools;
+		synchronized (HttpConnectionPool.class) {
+			openPools = new ArrayList<>(pools.values());
+		}
+		openPools.forEach(HttpConnectionPool::close);
+	}
+
+	/**
+	 * Gets the default schemes with an HTTPS socket factory that times the TLS
+	 * handshake.
+	 */
+	private static SchemeRegistry timedSchemes() {
+		SchemeRegistry schemes = SchemeRegistryFactory.createDefault();
+		schemes.register(new Scheme("https", 443, new TimedSslSocketFactory()));
+		return schemes;
+	}
+
+	/**
+	 * Creates an HTTP client that marks when a request is sent and when its
+	 * response arrives on the timer of the calling thread.
+	 */
+	private static DefaultHttpClient newTimedClient(ClientConnectionManager connectionManager) {
+		DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+		client.addRequestInterceptor((request, context) -> {
+			PhaseTimer timer = PhaseTimer.onThread();
+			if (timer != null) {
+				timer.markConnected();
+			}
+		});
+		client.addResponseInterceptor((response, context) -> {
+			PhaseTimer timer = PhaseTimer.onThread();
+			if (timer != null) {
+				timer.markFirstByte();
+			}
+		});
+		return client;
+	}
+
+	private void evictConnections() {
+		try {
+			connectionManager.closeExpiredConnections();
+			connectionManager.closeIdleConnections(config.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS);
+		} catch (RuntimeException e) {
+			logger.warn("Failed to evict idle HTTP connections: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Reports the time spent opening new connections, including name
+	 * resolution and the TLS handshake.
+	 */
+	private static final class TimedConnectionOperator extends DefaultClientConnectionOperator {
+
+		private TimedConnectionOperator(SchemeRegistry registry) {
+			super(registry);
+		}
+
+		@Override
+		public void openConnection(OperatedClientConnection connection, HttpHost target, InetAddress local,
+				HttpContext context, HttpParams params) throws IOException {
+			long start = System.nanoTime();
+			try {
+				super.openConnection(connection, target, local, context, params);
+			} finally {
+				PhaseTimer timer = PhaseTimer.onThread();
+				if (timer != null) {
+					timer.addConnect(System.nanoTime() - start);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The default HTTPS socket factory, except that it connects a plain socket
+	 * first and layers TLS on top of it, so that the handshake can be timed on
+	 * its own.
+	 */
+	private static final class TimedSslSocketFactory extends SSLSocketFactory {
+
+		private TimedSslSocketFactory() {
+			super(SSLContexts.createDefault(), BROWSER_COMPATIBLE_HOSTNAME_VERIFIER);
+		}
+
+		@Override
+		public Socket createSocket(HttpContext context) {
+			return new Socket();
+		}
+
+		@Override
+		public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+				throws IOException {
+			long start = System.nanoTime();
+			try {
+				return super.createLayeredSocket(socket, target, port, context);
+			} finally {
+				PhaseTimer timer = PhaseTimer.onThread();
+				if (timer != null) {
+					timer.addTls(System.nanoTime() - start);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A snapshot of the pool usage.
+	 *
+	 * @param leased    connections currently executing a request.
+	 * @param available idle connections kept alive for reuse.
+	 * @param pending   requests waiting for a free connection.
+	 * @param max       the maximum number of connections.
+	 * @param requests  the number of requests sent through the pool.
+	 */
+	public record Stats(int leased, int available, int pending, int max, long requests) {
+	}
+}
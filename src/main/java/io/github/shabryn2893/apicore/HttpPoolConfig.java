@@ -0,0 +1,257 @@
+package io.github.shabryn2893.apicore;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeout settings for API clients, passed to
+ * {@link APIToolFactory#getAPIToolInstance(String, String, HttpPoolConfig)}.
+ * <p>
+ * Clients created with the same config instance share one
+ * {@link HttpConnectionPool}, so connections to a host are kept alive and
+ * reused across clients and threads instead of being opened per request.
+ * </p>
+ *
+ * Example Usage:
+ *
+ * <pre>{@code
+ * HttpPoolConfig poolConfig = HttpPoolConfig.builder().maxTotal(400).maxPerRoute(100)
+ * 		.connectTimeout(Duration.ofSeconds(5)).build();
+ * IActionAPI api = APIToolFactory.getAPIToolInstance("RESTASSURED", baseURI, poolConfig);
+ * }</pre>
+ */
+public final class HttpPoolConfig {
+
+	/**
+	 * 200 connections in total, 50 per route, a 10 second connect timeout, a 60
+	 * second socket timeout, 30 seconds to wait for a free connection, 30 seconds
+	 * keep-alive and idle connections closed after 60 seconds.
+	 */
+	public static final HttpPoolConfig DEFAULT = builder().build();
+
+	private final int maxTotal;
+	private final int maxPerRoute;
+	private final Duration connectTimeout;
+	private final Duration socketTimeout;
+	private final Duration connectionRequestTimeout;
+	private final Duration keepAlive;
+	private final Duration idleTimeout;
+	private final Duration evictionInterval;
+
+	private HttpPoolConfig(Builder builder) {
+		this.maxTotal = builder.maxTotal;
+		this.maxPerRoute = builder.maxPerRoute;
+		this.connectTimeout = builder.connectTimeout;
+		this.socketTimeout = builder.socketTimeout;
+		this.connectionRequestTimeout = builder.connectionRequestTimeout;
+		this.keepAlive = builder.keepAlive;
+		this.idleTimeout = builder.idleTimeout;
+		this.evictionInterval = builder.evictionInterval;
+	}
+
+	/**
+	 * Starts a config with the default settings.
+	 *
+	 * @return the config builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Gets the maximum number of open connections.
+	 *
+	 * @return the maximum over all routes.
+	 */
+	public int getMaxTotal() {
+		return maxTotal;
+	}
+
+	/**
+	 * Gets the maximum number of open connections to one host.
+	 *
+	 * @return the maximum per route.
+	 */
+	public int getMaxPerRoute() {
+		return maxPerRoute;
+	}
+
+	/**
+	 * Gets the time allowed for establishing a connection.
+	 *
+	 * @return the connect timeout.
+	 */
+	public Duration getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	/**
+	 * Gets the longest time to wait for data on an open connection.
+	 *
+	 * @return the socket timeout.
+	 */
+	public Duration getSocketTimeout() {
+		return socketTimeout;
+	}
+
+	/**
+	 * Gets the longest time a request waits for a free pooled connection.
+	 *
+	 * @return the connection request timeout.
+	 */
+	public Duration getConnectionRequestTimeout() {
+		return connectionRequestTimeout;
+	}
+
+	/**
+	 * Gets how long an idle connection is kept for reuse. A shorter
+	 * {@code Keep-Alive} timeout sent by the server takes precedence.
+	 *
+	 * @return the keep-alive duration.
+	 */
+	public Duration getKeepAlive() {
+		return keepAlive;
+	}
+
+	/**
+	 * Gets the idle time after which the eviction thread closes a connection.
+	 *
+	 * @return the idle timeout.
+	 */
+	public Duration getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	/**
+	 * Gets how often expired and idle connections are evicted.
+	 *
+	 * @return the eviction interval.
+	 */
+	public Duration getEvictionInterval() {
+		return evictionInterval;
+	}
+
+	@Override
+	public String toString() {
+		return "HttpPoolConfig[maxTotal=" + maxTotal + ", maxPerRoute=" + maxPerRoute + ", connectTimeout="
+				+ connectTimeout + ", socketTimeout=" + socketTimeout + ", keepAlive=" + keepAlive + "]";
+	}
+
+	/**
+	 * Builds an {@link HttpPoolConfig}.
+	 */
+	public static final class Builder {
+
+		private int maxTotal = 200;
+		private int maxPerRoute = 50;
+		private Duration connectTimeout = Duration.ofSeconds(10);
+		private Duration socketTimeout = Duration.ofSeconds(60);
+		private Duration connectionRequestTimeout = Duration.ofSeconds(30);
+		private Duration keepAlive = Duration.ofSeconds(30);
+		private Duration idleTimeout = Duration.ofSeconds(60);
+		private Duration evictionInterval = Duration.ofSeconds(5);
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the maximum number of open connections.
+		 *
+		 * @param maxTotal the maximum over all routes.
+		 * @return this builder.
+		 */
+		public Builder maxTotal(int maxTotal) {
+			this.maxTotal = maxTotal;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of open connections to one host.
+		 *
+		 * @param maxPerRoute the maximum per route.
+		 * @return this builder.
+		 */
+		public Builder maxPerRoute(int maxPerRoute) {
+			this.maxPerRoute = maxPerRoute;
+			return this;
+		}
+
+		/**
+		 * Sets the time allowed for establishing a connection.
+		 *
+		 * @param connectTimeout the connect timeout.
+		 * @return this builder.
+		 */
+		public Builder connectTimeout(Duration connectTimeout) {
+			this.connectTimeout = connectTimeout;
+			return this;
+		}
+
+		/**
+		 * Sets the longest time to wait for data on an open connection.
+		 *
+		 * @param socketTimeout the socket timeout.
+		 * @return this builder.
+		 */
+		public Builder socketTimeout(Duration socketTimeout) {
+			this.socketTimeout = socketTimeout;
+			return this;
+		}
+
+		/**
+		 * Sets the longest time a request waits for a free pooled connection.
+		 *
+		 * @param connectionRequestTimeout the connection request timeout.
+		 * @return this builder.
+		 */
+		public Builder connectionRequestTimeout(Duration connectionRequestTimeout) {
+			this.connectionRequestTimeout = connectionRequestTimeout;
+			return this;
+		}
+
+		/**
+		 * Sets how long an idle connection is kept for reuse.
+		 *
+		 * @param keepAlive the keep-alive duration.
+		 * @return this builder.
+		 */
+		public Builder keepAlive(Duration keepAlive) {
+			this.keepAlive = keepAlive;
+			return this;
+		}
+
+		/**
+		 * Sets the idle time after which a connection is closed.
+		 *
+		 * @param idleTimeout the idle timeout.
+		 * @return this builder.
+		 */
+		public Builder idleTimeout(Duration idleTimeout) {
+			this.idleTimeout = idleTimeout;
+			return this;
+		}
+
+		/**
+		 * Sets how often expired and idle connections are evicted.
+		 *
+		 * @param evictionInterval the eviction interval.
+		 * @return this builder.
+		 */
+		public Builder evictionInterval(Duration evictionInterval) {
+			this.evictionInterval = evictionInterval;
+			return this;
+		}
+
+		/**
+		 * Creates the config.
+		 *
+		 * @return the config.
+		 * @throws IllegalArgumentException if a limit is not positive.
+		 */
+		public HttpPoolConfig build() {
+			if (maxTotal <= 0 || maxPerRoute <= 0) {
+				throw new IllegalArgumentException("Connection limits must be positive");
+			}
+			return new HttpPoolConfig(this);
+		}
+	}
+}
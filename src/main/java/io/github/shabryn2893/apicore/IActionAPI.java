@@ -1,7 +1,17 @@
 package io.github.shabryn2893.apicore;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -15,6 +25,236 @@ import io.restassured.response.Response;
  */
 public interface IActionAPI {
 
+	/**
+	 * Sends a request and reads the complete response. The request path is
+	 * resolved against the base URI of this client; headers, parameters and the
+	 * content type set with the setters of this interface are not applied.
+	 * <p>
+	 * This method keeps no state between calls, so one client can be shared by
+	 * any number of concurrent threads.
+	 * </p>
+	 * <p>
+	 * The default implementation, for clients that only implement the legacy
+	 * request methods, applies the headers, query parameters, content type and
+	 * multipart files of the request with the setters and then calls the
+	 * request method of its HTTP method, so it shares their state. The clients
+	 * of {@link APIToolFactory} override it.
+	 * </p>
+	 *
+	 * @param request the request to send.
+	 * @return the response of the request.
+	 * @throws IllegalArgumentException if the HTTP method has no legacy request
+	 *                                  method.
+	 */
+	public default ApiResponse send(ApiRequest request) {
+		request.getHeaders().forEach(this::setHeader);
+		setParams(request.getQueryParams());
+		if (request.getContentType() != null) {
+			setContentType(request.getContentType());
+		}
+		request.getMultiParts().forEach(this::setMultiPartAttribute);
+		switch (request.getMethod().toUpperCase()) {
+		case "GET":
+			return ApiResponse.of(getRequest(request.getPath()));
+		case "POST":
+			return ApiResponse.of(postRequest(request.getPath(), request.getBody()));
+		case "PUT":
+			return ApiResponse.of(putRequest(request.getPath(), request.getBody()));
+		case "PATCH":
+			return ApiResponse.of(patchRequest(request.getPath(), request.getBody()));
+		case "DELETE":
+			return ApiResponse.of(deleteRequest(request.getPath()));
+		default:
+			throw new IllegalArgumentException("Unsupported HTTP method: " + request.getMethod());
+		}
+	}
+
+	/**
+	 * Caches the responses of GET requests sent by this client, including
+	 * {@link #getRequest(String)}, or stops caching when null. The default
+	 * ignores the cache; the clients of {@link APIToolFactory} override it.
+	 *
+	 * @param responseCache the cache, which may be shared by several clients.
+	 */
+	public default void setResponseCache(ApiResponseCache responseCache) {
+	}
+
+	/**
+	 * Sends a request and returns its body as a stream, without reading it into
+	 * memory first. The caller must close the stream. The default reads the
+	 * response with {@link #send(ApiRequest)} and returns its body from memory.
+	 *
+	 * @param request the request to send.
+	 * @return the response body.
+	 * @throws IllegalStateException if the response status is not 2xx.
+	 */
+	public default InputStream sendStreaming(ApiRequest request) {
+		ApiResponse response = send(request);
+		if (!response.isSuccessful()) {
+			throw new IllegalStateException(request + " failed: " + response.getStatusLine());
+		}
+		return new ByteArrayInputStream(response.asByteArray());
+	}
+
+	/**
+	 * Streams the JSON body of a request through a pull parser and passes every
+	 * value at a JSON path to a consumer, without building the document in
+	 * memory. See {@link JsonStreamExtractor} for the path syntax.
+	 *
+	 * <pre>{@code
+	 * JsonStreamStats stats = api.extractJson(ApiRequest.get("/export").build(), "$.items[*].id", ids::add);
+	 * }</pre>
+	 *
+	 * @param request  the request to send.
+	 * @param jsonPath the path of the values, e.g. {@code $.items[*].id}.
+	 * @param consumer receives the matched values in document order.
+	 * @return the bytes and elements processed and the values matched.
+	 */
+	public default JsonStreamStats extractJson(ApiRequest request, String jsonPath, Consumer<Object> consumer) {
+		JsonStreamExtractor extractor = JsonStreamExtractor.forPath(jsonPath);
+		try (InputStream body = sendStreaming(request)) {
+			return extractor.forEach(body, consumer);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Streams the JSON body of a request and collects the values at a JSON path.
+	 *
+	 * @param request  the request to send.
+	 * @param jsonPath the path of the values, e.g. {@code $.items[*].id}.
+	 * @return the matched values in document order.
+	 */
+	public default List<Object> selectJson(ApiRequest request, String jsonPath) {
+		List<Object> values = new ArrayList<>();
+		extractJson(request, jsonPath, values::add);
+		return values;
+	}
+
+	/**
+	 * Streams the JSON body of a request and counts and aggregates the values at
+	 * a JSON path without keeping them.
+	 *
+	 * @param request  the request to send.
+	 * @param jsonPath the path of the values, e.g. {@code $.items[*].price}.
+	 * @return the match count and the sum, minimum, maximum and average of the
+	 *         numeric matches.
+	 */
+	public default JsonStreamStats aggregateJson(ApiRequest request, String jsonPath) {
+		return extractJson(request, jsonPath, value -> {
+		});
+	}
+
+	/**
+	 * Sends a request on a virtual thread without blocking the caller.
+	 *
+	 * @param request the request to send.
+	 * @return completes with the response of the request.
+	 */
+	public default CompletableFuture<ApiResponse> sendAsync(ApiRequest request) {
+		return sendAsync(request, AsyncRequests.VIRTUAL_THREADS);
+	}
+
+	/**
+	 * Sends a request on an executor without blocking the caller.
+	 *
+	 * @param request  the request to send.
+	 * @param executor runs the blocking call.
+	 * @return completes with the response of the request.
+	 */
+	public default CompletableFuture<ApiResponse> sendAsync(ApiRequest request, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> send(request), executor);
+	}
+
+	/**
+	 * Perform a GET request to a <code>path</code> on a virtual thread. Settings
+	 * made with the setters of this interface are not applied.
+	 *
+	 * @param resourceName The path to send the request to.
+	 * @return completes with the response of the request.
+	 */
+	public default CompletableFuture<ApiResponse> getRequestAsync(String resourceName) {
+		return sendAsync(ApiRequest.get(resourceName).build());
+	}
+
+	/**
+	 * Perform a POST request to a <code>path</code> on a virtual thread. Settings
+	 * made with the setters of this interface are not applied.
+	 *
+	 * @param resourceName The path to send the request to.
+	 * @param payLoad      request body to be send.
+	 * @return completes with the response of the request.
+	 */
+	public default CompletableFuture<ApiResponse> postRequestAsync(String resourceName, String payLoad) {
+		return sendAsync(ApiRequest.post(resourceName).body(payLoad).build());
+	}
+
+	/**
+	 * Perform a PUT request to a <code>path</code> on a virtual thread. Settings
+	 * made with the setters of this interface are not applied.
+	 *
+	 * @param resourceName The path to send the request to.
+	 * @param payLoad      request body to be send.
+	 * @return completes with the response of the request.
+	 */
+	public default CompletableFuture<ApiResponse> putRequestAsync(String resourceName, String payLoad) {
+		return sendAsync(ApiRequest.put(resourceName).body(payLoad).build());
+	}
+
+	/**
+	 * Perform a PATCH request to a <code>path</code> on a virtual thread.
+	 * Settings made with the setters of this interface are not applied.
+	 *
+	 * @param resourceName The path to send the request to.
+	 * @param payLoad      request body to be send.
+	 * @return completes with the response of the request.
+	 */
+	public default CompletableFuture<ApiResponse> patchRequestAsync(String resourceName, String payLoad) {
+		return sendAsync(ApiRequest.patch(resourceName).body(payLoad).build());
+	}
+
+	/**
+	 * Perform a DELETE request to a <code>path</code> on a virtual thread.
+	 * Settings made with the setters of this interface are not applied.
+	 *
+	 * @param resourceName The path to send the request to.
+	 * @return completes with the response of the request.
+	 */
+	public default CompletableFuture<ApiResponse> deleteRequestAsync(String resourceName) {
+		return sendAsync(ApiRequest.delete(resourceName).build());
+	}
+
+	/**
+	 * Sends many requests concurrently on virtual threads, with at most
+	 * {@code maxConcurrency} of them in flight so that the server is not
+	 * flooded.
+	 *
+	 * <pre>{@code
+	 * List<ApiRequest> requests = ids.stream().map(id -> ApiRequest.get("/brands/" + id).build()).toList();
+	 * List<ApiResponse> responses = api.fanOut(requests, 50).join();
+	 * Assert.assertTrue(IActionAPI.allSuccessful(responses));
+	 * }</pre>
+	 *
+	 * @param requests       the requests to send.
+	 * @param maxConcurrency the maximum number of requests in flight.
+	 * @return completes with the responses in request order, or exceptionally
+	 *         once all requests finished if any of them failed.
+	 */
+	public default CompletableFuture<List<ApiResponse>> fanOut(List<ApiRequest> requests, int maxConcurrency) {
+		return AsyncRequests.fanOut(this, requests, maxConcurrency);
+	}
+
+	/**
+	 * Checks that every response has a 2xx status code.
+	 *
+	 * @param responses the responses to check.
+	 * @return true if all responses are successful.
+	 */
+	public static boolean allSuccessful(Collection<ApiResponse> responses) {
+		return responses.stream().allMatch(ApiResponse::isSuccessful);
+	}
+
 	/**
 	 * Perform a GET request to a <code>path</code>.
 	 *
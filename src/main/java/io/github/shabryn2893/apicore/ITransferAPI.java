@@ -0,0 +1,59 @@
+package io.github.shabryn2893.apicore;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Streamed uploads and downloads, for clients that can send and receive a body
+ * without holding it in memory. The clients of {@link APIToolFactory}
+ * implement it.
+ *
+ * <pre>{@code
+ * IActionAPI api = APIToolFactory.getAPIToolInstance("JDKHTTP", baseURI);
+ * TransferStats stats = ((ITransferAPI) api).downloadTo(ApiRequest.get("/artifacts/build.zip").build(), target);
+ * }</pre>
+ */
+public interface ITransferAPI extends IActionAPI {
+
+	/**
+	 * Sends a request with a stream as its body, read while it is sent with
+	 * chunked transfer encoding, so that a body of any size needs no heap. The
+	 * content type of the request defaults to {@code application/octet-stream};
+	 * a body set on the request is ignored. The caller must close the stream.
+	 *
+	 * @param request the request to send.
+	 * @param body    the body to upload.
+	 * @return the bytes sent, the response status and the throughput.
+	 */
+	public TransferStats upload(ApiRequest request, InputStream body);
+
+	/**
+	 * Sends a request with the content of a file as its body, read while it is
+	 * sent. See {@link #upload(ApiRequest, InputStream)}.
+	 *
+	 * <pre>{@code
+	 * TransferStats stats = api.upload(ApiRequest.put("/artifacts/build.zip").build(), Path.of("build.zip"));
+	 * }</pre>
+	 *
+	 * @param request the request to send.
+	 * @param file    the file to upload.
+	 * @return the bytes sent, the response status and the throughput.
+	 */
+	public TransferStats upload(ApiRequest request, Path file);
+
+	/**
+	 * Sends a request and streams the response body into a file as it arrives,
+	 * without reading it into memory. An existing file is replaced.
+	 *
+	 * <pre>{@code
+	 * TransferStats stats = api.downloadTo(ApiRequest.get("/artifacts/build.zip").build(), target);
+	 * }</pre>
+	 *
+	 * @param request the request to send.
+	 * @param target  the file to write.
+	 * @return the bytes received, the response status and the throughput.
+	 * @throws IllegalStateException if the response status is not 2xx; the file
+	 *                               is not written then.
+	 */
+	public TransferStats downloadTo(ApiRequest request, Path target);
+}
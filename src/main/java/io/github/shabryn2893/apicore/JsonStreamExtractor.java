@@ -0,0 +1,276 @@
+package io.github.shabryn2893.apicore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Extracts the values at a JSON path from a stream with the Jackson pull
+ * parser, without building the document in memory.
+ * <p>
+ * Only the matched values are materialized: scalars as {@code String},
+ * {@code Number}, {@code Boolean} or {@link JSONObject#NULL}, objects and
+ * arrays as {@link JSONObject} and {@link JSONArray}. Everything else is
+ * skipped token by token, so memory use depends on the size of one match, not
+ * of the document.
+ * </p>
+ * <p>
+ * Supported path syntax: the root {@code $}, child fields {@code .name} and
+ * {@code ['name']}, array indexes {@code [0]} and the wildcards {@code [*]} and
+ * {@code .*}, e.g. {@code $.items[*].id}.
+ * </p>
+ */
+public final class JsonStreamExtractor {
+
+	private static final JsonFactory jsonFactory = new JsonFactory();
+
+	private final String path;
+	private final List<Segment> segments;
+
+	private JsonStreamExtractor(String path, List<Segment> segments) {
+		this.path = path;
+		this.segments = segments;
+	}
+
+	/**
+	 * Compiles a JSON path.
+	 *
+	 * @param path the path, e.g. {@code $.items[*].id}.
+	 * @return the extractor for the path.
+	 * @throws IllegalArgumentException if the path is not supported.
+	 */
+	public static JsonStreamExtractor forPath(String path) {
+		return new JsonStreamExtractor(path, parse(path));
+	}
+
+	/**
+	 * Streams a JSON document and passes every value at the path to a consumer,
+	 * in document order. The stream is read to the end but not closed.
+	 *
+	 * @param in       the JSON document.
+	 * @param consumer receives the matched values.
+	 * @return what was read and matched.
+	 * @throws UncheckedIOException if the stream cannot be read or is not valid
+	 *                              JSON.
+	 */
+	public JsonStreamStats forEach(InputStream in, Consumer<Object> consumer) {
+		JsonStreamStats stats = new JsonStreamStats();
+		CountingInputStream counting = new CountingInputStream(in);
+		long start = System.currentTimeMillis();
+		try (JsonParser parser = jsonFactory.createParser(counting)) {
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			if (next(parser, stats) != null) {
+				visit(parser, 0, consumer, stats);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to stream JSON path " + path, e);
+		}
+		stats.finish(counting.getCount(), System.currentTimeMillis() - start);
+		return stats;
+	}
+
+	/**
+	 * Streams a JSON document and collects the values at the path.
+	 *
+	 * @param in the JSON document.
+	 * @return the matched values in document order.
+	 */
+	public List<Object> select(InputStream in) {
+		List<Object> values = new ArrayList<>();
+		forEach(in, values::add);
+		return values;
+	}
+
+	/**
+	 * Streams a JSON document and counts and aggregates the values at the path
+	 * without keeping them.
+	 *
+	 * @param in the JSON document.
+	 * @return the match count and the sum, minimum, maximum and average of the
+	 *         numeric matches.
+	 */
+	public JsonStreamStats aggregate(InputStream in) {
+		return forEach(in, value -> {
+		});
+	}
+
+	@Override
+	public String toString() {
+		return path;
+	}
+
+	/**
+	 * Visits the value at the current token, whose location matches the first
+	 * {@code level} path segments.
+	 */
+	private void visit(JsonParser parser, int level, Consumer<Object> consumer, JsonStreamStats stats)
+			throws IOException {
+		if (level == segments.size()) {
+			Object value = readValue(parser, stats);
+			stats.recordMatch(value);
+			consumer.accept(value);
+			return;
+		}
+		Segment segment = segments.get(level);
+		JsonToken token = parser.currentToken();
+		if (token == JsonToken.START_OBJECT && segment.index == null) {
+			while (next(parser, stats) == JsonToken.FIELD_NAME) {
+				boolean matches = segment.matchesField(parser.currentName());
+				next(parser, stats);
+				if (matches) {
+					visit(parser, level + 1, consumer, stats);
+				} else {
+					skip(parser, stats);
+				}
+			}
+		} else if (token == JsonToken.START_ARRAY && segment.name == null) {
+			for (int index = 0; next(parser, stats) != JsonToken.END_ARRAY; index++) {
+				if (segment.matchesIndex(index)) {
+					visit(parser, level + 1, consumer, stats);
+				} else {
+					skip(parser, stats);
+				}
+			}
+		} else {
+			skip(parser, stats);
+		}
+	}
+
+	private static Object readValue(JsonParser parser, JsonStreamStats stats) throws IOException {
+		switch (parser.currentToken()) {
+		case START_OBJECT:
+			JSONObject object = new JSONObject();
+			while (next(parser, stats) == JsonToken.FIELD_NAME) {
+				String name = parser.currentName();
+				next(parser, stats);
+				object.put(name, readValue(parser, stats));
+			}
+			return object;
+		case START_ARRAY:
+			JSONArray array = new JSONArray();
+			while (next(parser, stats) != JsonToken.END_ARRAY) {
+				array.put(readValue(parser, stats));
+			}
+			return array;
+		case VALUE_STRING:
+			return parser.getText();
+		case VALUE_NUMBER_INT:
+		case VALUE_NUMBER_FLOAT:
+			return parser.getNumberValue();
+		case VALUE_TRUE:
+			return Boolean.TRUE;
+		case VALUE_FALSE:
+			return Boolean.FALSE;
+		default:
+			return JSONObject.NULL;
+		}
+	}
+
+	/**
+	 * Skips the value at the current token, counting its tokens.
+	 */
+	private static void skip(JsonParser parser, JsonStreamStats stats) throws IOException {
+		if (!parser.currentToken().isStructStart()) {
+			return;
+		}
+		int depth = 1;
+		while (depth > 0) {
+			JsonToken token = next(parser, stats);
+			if (token == null) {
+				throw new IOException("Unexpected end of JSON input");
+			}
+			if (token.isStructStart()) {
+				depth++;
+			} else if (token.isStructEnd()) {
+				depth--;
+			}
+		}
+	}
+
+	private static JsonToken next(JsonParser parser, JsonStreamStats stats) throws IOException {
+		JsonToken token = parser.nextToken();
+		if (token != null) {
+			stats.recordElement();
+		}
+		return token;
+	}
+
+	private static List<Segment> parse(String path) {
+		if (!path.startsWith("$")) {
+			throw new IllegalArgumentException("JSON path must start with $: " + path);
+		}
+		List<Segment> segments = new ArrayList<>();
+		int position = 1;
+		while (position < path.length()) {
+			char c = path.charAt(position);
+			if (c == '.') {
+				int end = position + 1;
+				while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+					end++;
+				}
+				String name = path.substring(position + 1, end);
+				if (name.isEmpty()) {
+					throw new IllegalArgumentException("Unsupported JSON path: " + path);
+				}
+				segments.add(name.equals("*") ? Segment.WILDCARD : new Segment(name, null));
+				position = end;
+			} else if (c == '[') {
+				int end = path.indexOf(']', position);
+				if (end < 0) {
+					throw new IllegalArgumentException("Unclosed [ in JSON path: " + path);
+				}
+				String selector = path.substring(position + 1, end).trim();
+				if (selector.equals("*")) {
+					segments.add(Segment.WILDCARD);
+				} else if (selector.startsWith("'") && selector.endsWith("'") && selector.length() >= 2) {
+					segments.add(new Segment(selector.substring(1, selector.length() - 1), null));
+				} else {
+					try {
+						segments.add(new Segment(null, Integer.parseInt(selector)));
+					} catch (NumberFormatException e) {
+						throw new IllegalArgumentException("Unsupported JSON path selector [" + selector + "]", e);
+					}
+				}
+				position = end + 1;
+			} else {
+				throw new IllegalArgumentException("Unsupported JSON path: " + path);
+			}
+		}
+		return segments;
+	}
+
+	/**
+	 * One path step: a field name, an array index, or a wildcard when both are
+	 * null.
+	 */
+	private static final class Segment {
+
+		private static final Segment WILDCARD = new Segment(null, null);
+
+		private final String name;
+		private final Integer index;
+
+		private Segment(String name, Integer index) {
+			this.name = name;
+			this.index = index;
+		}
+
+		private boolean matchesField(String field) {
+			return name == null || name.equals(field);
+		}
+
+		private boolean matchesIndex(int position) {
+			return index == null || index == position;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package io.github.shabryn2893.apicore;
+
+import java.util.DoubleSummaryStatistics;
+
+/**
+ * What a streaming JSON extraction read and found, see
+ * {@link JsonStreamExtractor}.
+ */
+public final class JsonStreamStats {
+
+	private final DoubleSummaryStatistics numbers = new DoubleSummaryStatistics();
+	private long bytesRead;
+	private long elementsProcessed;
+	private long matches;
+	private long durationMillis;
+
+	JsonStreamStats() {
+	}
+
+	void recordElement() {
+		elementsProcessed++;
+	}
+
+	void recordMatch(Object value) {
+		matches++;
+		if (value instanceof Number number) {
+			numbers.accept(number.doubleValue());
+		}
+	}
+
+	void finish(long bytesRead, long durationMillis) {
+		this.bytesRead = bytesRead;
+		this.durationMillis = durationMillis;
+	}
+
+	/**
+	 * Gets the number of bytes read from the body.
+	 *
+	 * @return the bytes read.
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	/**
+	 * Gets the number of JSON tokens the parser went through, i.e. scalar
+	 * values, field names and the start and end of objects and arrays.
+	 *
+	 * @return the processed element count.
+	 */
+	public long getElementsProcessed() {
+		return elementsProcessed;
+	}
+
+	/**
+	 * Gets the number of values matched by the path.
+	 *
+	 * @return the match count.
+	 */
+	public long getMatches() {
+		return matches;
+	}
+
+	/**
+	 * Gets the number of matched values that are numbers.
+	 *
+	 * @return the numeric match count.
+	 */
+	public long getNumericMatches() {
+		return numbers.getCount();
+	}
+
+	/**
+	 * Gets the sum of the numeric matches.
+	 *
+	 * @return the sum, 0 if there were none.
+	 */
+	public double getSum() {
+		return numbers.getSum();
+	}
+
+	/**
+	 * Gets the smallest numeric match.
+	 *
+	 * @return the minimum, or {@code Double.POSITIVE_INFINITY} if there were
+	 *         none.
+	 */
+	public double getMin() {
+		return numbers.getMin();
+	}
+
+	/**
+	 * Gets the largest numeric match.
+	 *
+	 * @return the maximum, or {@code Double.NEGATIVE_INFINITY} if there were
+	 *         none.
+	 */
+	public double getMax() {
+		return numbers.getMax();
+	}
+
+	/**
+	 * Gets the mean of the numeric matches.
+	 *
+	 * @return the average, 0 if there were none.
+	 */
+	public double getAverage() {
+		return numbers.getAverage();
+	}
+
+	/**
+	 * Gets the time spent reading and parsing the body.
+	 *
+	 * @return the duration in milliseconds.
+	 */
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	@Override
+	public String toString() {
+		return matches + " matches in " + elementsProcessed + " elements, " + bytesRead + " bytes, " + durationMillis
+				+ " ms";
+	}
+}
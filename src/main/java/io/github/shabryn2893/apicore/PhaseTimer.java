@@ -0,0 +1,111 @@
+package io.github.shabryn2893.apicore;
+
+/**
+ * Times the phases of one request for {@link ApiMetrics}.
+ * <p>
+ * A backend starts the timer before it sends a request and finishes it once
+ * the body was read. Hooks inside the HTTP stack report the phases they see:
+ * on the calling thread through {@link #onThread()}, as the blocking HttpClient
+ * 4 of RestAssured does, or directly on the timer for asynchronous clients.
+ * Phases that are never reported stay unknown.
+ * </p>
+ */
+final class PhaseTimer {
+
+	private static final ThreadLocal<PhaseTimer> current = new ThreadLocal<>();
+
+	private final long startNanos = System.nanoTime();
+	private volatile long connectNanos = -1;
+	private volatile long tlsNanos = -1;
+	private volatile long firstByteNanos = -1;
+	private volatile long endNanos = -1;
+
+	private PhaseTimer() {
+	}
+
+	/**
+	 * Starts timing a request sent on the calling thread.
+	 *
+	 * @return the timer, also returned by {@link #onThread()} until it is
+	 *         finished.
+	 */
+	static PhaseTimer start() {
+		PhaseTimer timer = new PhaseTimer();
+		current.set(timer);
+		return timer;
+	}
+
+	/**
+	 * Starts timing a request whose phases are reported on other threads.
+	 *
+	 * @return the timer.
+	 */
+	static PhaseTimer startDetached() {
+		return new PhaseTimer();
+	}
+
+	/**
+	 * Gets the timer of the request the calling thread is sending.
+	 *
+	 * @return the timer, or null if no request is being timed.
+	 */
+	static PhaseTimer onThread() {
+		return current.get();
+	}
+
+	/**
+	 * Adds the time spent opening a connection, including name resolution and
+	 * the TLS handshake; the handshake is subtracted again in
+	 * {@link #toTiming}.
+	 */
+	void addConnect(long nanos) {
+		connectNanos = Math.max(connectNanos, 0) + nanos;
+	}
+
+	/**
+	 * Marks that the connection is ready to send on. Phases of connection setup
+	 * that were not reported before took no time because the connection was
+	 * reused.
+	 */
+	void markConnected() {
+		connectNanos = Math.max(connectNanos, 0);
+		tlsNanos = Math.max(tlsNanos, 0);
+	}
+
+	void addTls(long nanos) {
+		tlsNanos = Math.max(tlsNanos, 0) + nanos;
+	}
+
+	void markFirstByte() {
+		if (firstByteNanos < 0) {
+			firstByteNanos = System.nanoTime();
+		}
+	}
+
+	void finish() {
+		endNanos = System.nanoTime();
+		if (current.get() == this) {
+			current.remove();
+		}
+	}
+
+	long getElapsedMillis() {
+		return ((endNanos < 0 ? System.nanoTime() : endNanos) - startNanos) / 1_000_000;
+	}
+
+	RequestTiming toTiming(String method, String endpoint, int statusCode, long requestBytes, long responseBytes) {
+		if (endNanos < 0) {
+			finish();
+		}
+		double connect = connectNanos < 0 ? -1 : millis(connectNanos - Math.max(tlsNanos, 0));
+		double tls = tlsNanos < 0 ? -1 : millis(tlsNanos);
+		double ttfb = firstByteNanos < 0 ? -1 : millis(firstByteNanos - startNanos);
+		double download = firstByteNanos < 0 ? -1 : millis(endNanos - firstByteNanos);
+		return new RequestTiming(method, endpoint, statusCode, connect, tls, ttfb, download,
+				millis(endNanos - startNanos), requestBytes, responseBytes);
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+}
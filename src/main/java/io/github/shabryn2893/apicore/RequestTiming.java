@@ -0,0 +1,49 @@
+package io.github.shabryn2893.apicore;
+
+/**
+ * The timing breakdown and sizes of one request, recorded by
+ * {@link ApiMetrics}.
+ * <p>
+ * Connect is the time spent opening a new connection, including name
+ * resolution but not the TLS handshake, which is reported separately; both are
+ * 0 when a kept-alive connection was reused. Time to first byte runs from the
+ * start of the request to the response headers, download from there until the
+ * body was read. A phase the backend cannot observe is -1: the JDK HTTP client
+ * does not expose connection setup.
+ * </p>
+ *
+ * @param method         the HTTP method.
+ * @param endpoint       the endpoint template, e.g. {@code /brands/{id}}.
+ * @param statusCode     the response status, 0 if no response was received.
+ * @param connectMillis  the connection setup time.
+ * @param tlsMillis      the TLS handshake time.
+ * @param ttfbMillis     the time to first byte.
+ * @param downloadMillis the time to read the body.
+ * @param totalMillis    the total time.
+ * @param requestBytes   the size of the request body.
+ * @param responseBytes  the size of the response body.
+ */
+public record RequestTiming(String method, String endpoint, int statusCode, double connectMillis, double tlsMillis,
+		double ttfbMillis, double downloadMillis, double totalMillis, long requestBytes, long responseBytes) {
+
+	/**
+	 * Checks whether the request failed, i.e. got no response or a 4xx or 5xx
+	 * status.
+	 *
+	 * @return true if the request failed.
+	 */
+	public boolean isError() {
+		return statusCode == 0 || statusCode >= 400;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s %s -> %d in %.1f ms (connect %s, tls %s, ttfb %s, download %s), %d/%d bytes",
+				method, endpoint, statusCode, totalMillis, phase(connectMillis), phase(tlsMillis), phase(ttfbMillis),
+				phase(downloadMillis), requestBytes, responseBytes);
+	}
+
+	private static String phase(double millis) {
+		return millis < 0 ? "n/a" : String.format("%.1f ms", millis);
+	}
+}
@@ -0,0 +1,599 @@
+package io.github.shabryn2893.apicore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * An embedded HTTP server on the loopback interface that answers API requests
+ * from stub mappings, so API suites run offline and at local speed. Start it
+ * for a suite with {@link APIToolFactory#getAPIToolInstance(String, StubServer)}.
+ * <p>
+ * A mapping file holds one mapping or a {@code "mappings"} array of them:
+ * </p>
+ *
+ * <pre>{@code
+ * {
+ *   "mappings": [ {
+ *     "request": { "method": "GET", "path": "/brands", "queryParameters": { "page": "1" } },
+ *     "response": { "status": 200, "headers": { "Content-Type": "application/json" },
+ *                   "jsonBody": { "data": [] }, "delayMillis": 50 }
+ *   } ]
+ * }
+ * }</pre>
+ * <p>
+ * A request matches a mapping if the method (or {@code ANY}) and path are equal
+ * and it carries all query parameters and headers of the mapping; the first
+ * matching mapping wins. The response body is given as {@code body} text,
+ * {@code jsonBody} or {@code base64Body}. Unmatched requests get a 404.
+ * </p>
+ * <p>
+ * Latency can be injected for every response, as a fixed delay or uniformly
+ * between two bounds, or per mapping with {@code delayMillis}. In record mode,
+ * requests without a mapping are proxied to the real server once, and the
+ * response is saved as a mapping file and replayed afterwards. Recording can
+ * also be switched on without code changes by setting the system property
+ * {@code selautocore.stub.record} to the real base URI; the mappings are then
+ * saved to the mappings directory.
+ * </p>
+ *
+ * Example Usage:
+ *
+ * <pre>{@code
+ * StubServer stubServer = StubServer.builder().mappings(Path.of("src/test/resources/stubs")).build();
+ * IActionAPI api = APIToolFactory.getAPIToolInstance("RESTASSURED", stubServer);
+ * api.getRequest("/brands");
+ * stubServer.close();
+ * }</pre>
+ */
+public final class StubServer implements AutoCloseable {
+
+	private static final Logger logger = LoggerUtils.getLogger(StubServer.class);
+	private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "content-length", "expect", "host",
+			"keep-alive", "transfer-encoding", "upgrade", "accept-encoding");
+
+	private final int port;
+	private final List<Mapping> mappings;
+	private final Duration minLatency;
+	private final Duration maxLatency;
+	private final String recordTarget;
+	private final Path recordDirectory;
+	private final LongAdder matched = new LongAdder();
+	private final LongAdder recorded = new LongAdder();
+	private final List<String> unmatchedRequests = new CopyOnWriteArrayList<>();
+	private HttpClient proxyClient;
+	private HttpServer server;
+	private ExecutorService executor;
+
+	private StubServer(Builder builder) {
+		this.port = builder.port;
+		this.mappings = new CopyOnWriteArrayList<>(builder.mappings);
+		this.minLatency = builder.minLatency;
+		this.maxLatency = builder.maxLatency;
+		this.recordTarget = builder.recordTarget;
+		this.recordDirectory = builder.recordDirectory;
+	}
+
+	/**
+	 * Starts a stub server on a free loopback port without mappings.
+	 *
+	 * @return the stub server builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Starts the server unless it is already running.
+	 *
+	 * @return this server.
+	 * @throws UncheckedIOException if the port cannot be bound.
+	 */
+	public synchronized StubServer start() {
+		if (server != null) {
+			return this;
+		}
+		try {
+			server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to start stub server on port " + port, e);
+		}
+		executor = Executors.newVirtualThreadPerTaskExecutor();
+		server.setExecutor(executor);
+		server.createContext("/", this::handle);
+		if (recordTarget != null) {
+			proxyClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+		}
+		server.start();
+		logger.info("Stub server started on {} with {} mappings{}", getBaseURI(), mappings.size(),
+				recordTarget == null ? "" : ", recording from " + recordTarget);
+		return this;
+	}
+
+	/**
+	 * Gets the base URI of the running server, e.g.
+	 * {@code http://127.0.0.1:54321}.
+	 *
+	 * @return the base URI.
+	 * @throws IllegalStateException if the server was not started.
+	 */
+	public synchronized String getBaseURI() {
+		if (server == null) {
+			throw new IllegalStateException("Stub server is not running");
+		}
+		return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+	}
+
+	/**
+	 * Checks whether the server was started and not stopped.
+	 *
+	 * @return true if the server is running.
+	 */
+	public synchronized boolean isRunning() {
+		return server != null;
+	}
+
+	/**
+	 * Gets the number of requests answered from a mapping, including recorded
+	 * ones.
+	 *
+	 * @return the matched request count.
+	 */
+	public long getMatchedCount() {
+		return matched.sum();
+	}
+
+	/**
+	 * Gets the number of mappings recorded from the real server.
+	 *
+	 * @return the recorded mapping count.
+	 */
+	public long getRecordedCount() {
+		return recorded.sum();
+	}
+
+	/**
+	 * Gets the requests that matched no mapping, e.g. {@code GET /brands?page=2}.
+	 *
+	 * @return the unmatched requests in arrival order.
+	 */
+	public List<String> getUnmatchedRequests() {
+		return Collections.unmodifiableList(unmatchedRequests);
+	}
+
+	/**
+	 * Stops the server. It can be started again with {@link #start()}.
+	 */
+	@Override
+	public synchronized void close() {
+		if (server == null) {
+			return;
+		}
+		server.stop(0);
+		executor.close();
+		if (proxyClient != null) {
+			proxyClient.close();
+			proxyClient = null;
+		}
+		server = null;
+		logger.info("Stub server stopped: {} matched, {} recorded, {} unmatched requests", getMatchedCount(),
+				getRecordedCount(), unmatchedRequests.size());
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			byte[] requestBody = exchange.getRequestBody().readAllBytes();
+			String method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+			String path = exchange.getRequestURI().getRawPath();
+			Map<String, String> queryParams = parseQuery(exchange.getRequestURI().getRawQuery());
+			Mapping mapping = find(exchange, method, path, queryParams);
+			if (mapping == null && recordTarget != null) {
+				mapping = record(exchange, method, requestBody);
+			}
+			if (mapping == null) {
+				String request = method + " " + exchange.getRequestURI();
+				unmatchedRequests.add(request);
+				logger.error("No stub mapping for {}", request);
+				byte[] body = new JSONObject().put("error", "No stub mapping for " + request).toString()
+						.getBytes(StandardCharsets.UTF_8);
+				exchange.getResponseHeaders().set("Content-Type", "application/json");
+				exchange.sendResponseHeaders(404, body.length);
+				exchange.getResponseBody().write(body);
+				return;
+			}
+			matched.increment();
+			delay(mapping.delayMillis());
+			respond(exchange, method, mapping.response());
+		} catch (RuntimeException e) {
+			logger.error("Stub server failed to answer {} {}: {}", exchange.getRequestMethod(),
+					exchange.getRequestURI(), e.getMessage());
+			throw e;
+		}
+	}
+
+	private Mapping find(HttpExchange exchange, String method, String path, Map<String, String> queryParams) {
+		for (Mapping mapping : mappings) {
+			if (mapping.matches(method, path, queryParams, exchange.getRequestHeaders())) {
+				return mapping;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Proxies a request to the real server and saves the response as a mapping
+	 * for the method, path and query parameters.
+	 */
+	private Mapping record(HttpExchange exchange, String method, byte[] requestBody) throws IOException {
+		URI uri = exchange.getRequestURI();
+		HttpRequest.Builder proxied = HttpRequest
+				.newBuilder(URI.create(recordTarget + uri.getRawPath() + (uri.getRawQuery() == null ? ""
+						: "?" + uri.getRawQuery())))
+				.method(method, requestBody.length == 0 ? HttpRequest.BodyPublishers.noBody()
+						: HttpRequest.BodyPublishers.ofByteArray(requestBody));
+		exchange.getRequestHeaders().forEach((name, values) -> {
+			if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+				values.forEach(value -> proxied.header(name, value));
+			}
+		});
+		HttpResponse<byte[]> real;
+		try {
+			real = proxyClient.send(proxied.build(), HttpResponse.BodyHandlers.ofByteArray());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while recording " + method + " " + uri, e);
+		}
+		Map<String, List<String>> headers = new LinkedHashMap<>();
+		real.headers().map().forEach((name, values) -> {
+			if (!name.startsWith(":") && !HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+				headers.put(name, values);
+			}
+		});
+		Mapping mapping = new Mapping(method, uri.getRawPath(), parseQuery(uri.getRawQuery()), Map.of(),
+				new ApiResponse(real.statusCode(), "HTTP/1.1 " + real.statusCode(), headers, real.body(), 0), 0);
+		mappings.add(mapping);
+		recorded.increment();
+		Path file = recordDirectory.resolve(fileNameOf(mapping));
+		Files.createDirectories(recordDirectory);
+		Files.writeString(file, new JSONObject().put("request", mapping.requestJson())
+				.put("response", mapping.responseJson()).toString(2));
+		logger.info("Recorded {} {} with status {} to {}", method, uri, real.statusCode(), file);
+		return mapping;
+	}
+
+	private static String fileNameOf(Mapping mapping) {
+		String name = (mapping.method() + mapping.path()).toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-");
+		String identity = mapping.method() + " " + mapping.path() + " " + mapping.queryParams();
+		return name.replaceAll("-$", "") + "-" + Integer.toHexString(identity.hashCode()) + ".json";
+	}
+
+	private void delay(long mappingDelayMillis) {
+		long delayMillis = mappingDelayMillis;
+		if (delayMillis <= 0 && maxLatency.toMillis() > 0) {
+			delayMillis = ThreadLocalRandom.current().nextLong(minLatency.toMillis(), maxLatency.toMillis() + 1);
+		}
+		if (delayMillis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(delayMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void respond(HttpExchange exchange, String method, ApiResponse response) throws IOException {
+		response.getHeaders().forEach((name, values) -> {
+			if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+				exchange.getResponseHeaders().put(name, new ArrayList<>(values));
+			}
+		});
+		byte[] body = response.asByteArray();
+		boolean noBody = body.length == 0 || method.equals("HEAD") || response.getStatusCode() == 204
+				|| response.getStatusCode() == 304;
+		exchange.sendResponseHeaders(response.getStatusCode(), noBody ? -1 : body.length);
+		if (!noBody) {
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		}
+	}
+
+	private static Map<String, String> parseQuery(String rawQuery) {
+		Map<String, String> params = new LinkedHashMap<>();
+		if (rawQuery == null || rawQuery.isEmpty()) {
+			return params;
+		}
+		for (String pair : rawQuery.split("&")) {
+			int equals = pair.indexOf('=');
+			String name = equals < 0 ? pair : pair.substring(0, equals);
+			String value = equals < 0 ? "" : pair.substring(equals + 1);
+			params.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+					URLDecoder.decode(value, StandardCharsets.UTF_8));
+		}
+		return params;
+	}
+
+	/**
+	 * A request matcher and the response to answer it with.
+	 */
+	private record Mapping(String method, String path, Map<String, String> queryParams, Map<String, String> headers,
+			ApiResponse response, long delayMillis) {
+
+		private static Mapping fromJson(JSONObject json) {
+			JSONObject request = json.getJSONObject("request");
+			JSONObject response = json.getJSONObject("response");
+			Map<String, List<String>> responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+			JSONObject headers = response.optJSONObject("headers");
+			if (headers != null) {
+				for (String name : headers.keySet()) {
+					Object value = headers.get(name);
+					List<String> values = new ArrayList<>();
+					if (value instanceof JSONArray array) {
+						array.forEach(element -> values.add(String.valueOf(element)));
+					} else {
+						values.add(String.valueOf(value));
+					}
+					responseHeaders.put(name, values);
+				}
+			}
+			byte[] body;
+			if (response.has("jsonBody")) {
+				body = response.get("jsonBody").toString().getBytes(StandardCharsets.UTF_8);
+				responseHeaders.putIfAbsent("Content-Type", List.of("application/json"));
+			} else if (response.has("base64Body")) {
+				body = Base64.getDecoder().decode(response.getString("base64Body"));
+			} else {
+				body = response.optString("body", "").getBytes(StandardCharsets.UTF_8);
+			}
+			int status = response.optInt("status", 200);
+			return new Mapping(request.optString("method", "ANY").toUpperCase(Locale.ROOT),
+					request.getString("path"), toStringMap(request.optJSONObject("queryParameters")),
+					toStringMap(request.optJSONObject("headers")),
+					new ApiResponse(status, "HTTP/1.1 " + status, responseHeaders, body, 0),
+					response.optLong("delayMillis", 0));
+		}
+
+		private boolean matches(String requestMethod, String requestPath, Map<String, String> requestQueryParams,
+				Headers requestHeaders) {
+			return (method.equals("ANY") || method.equals(requestMethod)) && path.equals(requestPath)
+					&& requestQueryParams.entrySet().containsAll(queryParams.entrySet()) && headers.entrySet().stream()
+							.allMatch(header -> header.getValue().equals(requestHeaders.getFirst(header.getKey())));
+		}
+
+		private static Map<String, String> toStringMap(JSONObject json) {
+			Map<String, String> map = new LinkedHashMap<>();
+			if (json != null) {
+				for (String name : json.keySet()) {
+					map.put(name, String.valueOf(json.get(name)));
+				}
+			}
+			return map;
+		}
+
+		private JSONObject requestJson() {
+			JSONObject request = new JSONObject().put("method", method).put("path", path);
+			if (!queryParams.isEmpty()) {
+				request.put("queryParameters", new JSONObject(queryParams));
+			}
+			return request;
+		}
+
+		private JSONObject responseJson() {
+			JSONObject json = new JSONObject().put("status", response.getStatusCode());
+			JSONObject headerJson = new JSONObject();
+			response.getHeaders().forEach((name, values) -> headerJson.put(name,
+					values.size() == 1 ? values.get(0) : new JSONArray(values)));
+			json.put("headers", headerJson);
+			String contentType = String.valueOf(response.getContentType()).toLowerCase(Locale.ROOT);
+			boolean text = response.getHeader("Content-Encoding") == null && (response.getContentType() == null
+					|| contentType.contains("json") || contentType.contains("text") || contentType.contains("xml")
+					|| contentType.contains("javascript") || contentType.contains("form-urlencoded"));
+			if (text) {
+				json.put("body", response.asString());
+			} else {
+				json.put("base64Body", Base64.getEncoder().encodeToString(response.asByteArray()));
+			}
+			return json;
+		}
+	}
+
+	/**
+	 * Builds a {@link StubServer}.
+	 */
+	public static final class Builder {
+
+		private final List<Mapping> mappings = new ArrayList<>();
+		private int port;
+		private Duration minLatency = Duration.ZERO;
+		private Duration maxLatency = Duration.ZERO;
+		private Path mappingsDirectory;
+		private String recordTarget;
+		private Path recordDirectory;
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the loopback port. Defaults to a free port.
+		 *
+		 * @param port the port, 0 for any free port.
+		 * @return this builder.
+		 */
+		public Builder port(int port) {
+			this.port = port;
+			return this;
+		}
+
+		/**
+		 * Loads the mappings of a JSON file, or of every {@code .json} file of a
+		 * directory in name order. A directory also becomes the target of
+		 * recordings enabled with the {@code selautocore.stub.record} system
+		 * property.
+		 *
+		 * @param fileOrDirectory the mapping file or directory.
+		 * @return this builder.
+		 * @throws UncheckedIOException if a file cannot be read.
+		 */
+		public Builder mappings(Path fileOrDirectory) {
+			try {
+				if (Files.isDirectory(fileOrDirectory)) {
+					mappingsDirectory = fileOrDirectory;
+					try (var files = Files.list(fileOrDirectory)) {
+						for (Path file : files.filter(path -> path.toString().endsWith(".json")).sorted().toList()) {
+							addMappings(Files.readString(file));
+						}
+					}
+				} else if (Files.exists(fileOrDirectory)) {
+					addMappings(Files.readString(fileOrDirectory));
+				} else {
+					mappingsDirectory = fileOrDirectory;
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to read stub mappings from " + fileOrDirectory, e);
+			}
+			return this;
+		}
+
+		/**
+		 * Loads the mappings of a JSON file on the classpath, e.g.
+		 * {@code stubs/brands.json} from {@code src/test/resources}.
+		 *
+		 * @param resource the resource name.
+		 * @return this builder.
+		 * @throws IllegalArgumentException if the resource does not exist.
+		 */
+		public Builder mappingResource(String resource) {
+			try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource)) {
+				if (in == null) {
+					throw new IllegalArgumentException("Stub mapping resource not found: " + resource);
+				}
+				addMappings(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to read stub mapping resource " + resource, e);
+			}
+			return this;
+		}
+
+		/**
+		 * Adds a mapping in code. The request matches on its method, path, query
+		 * parameters and headers.
+		 *
+		 * @param request  the request to match.
+		 * @param response the response to answer it with.
+		 * @return this builder.
+		 */
+		public Builder stub(ApiRequest request, ApiResponse response) {
+			mappings.add(new Mapping(request.getMethod().toUpperCase(Locale.ROOT), request.getPath(),
+					request.getQueryParams(), request.getHeaders(), response, 0));
+			return this;
+		}
+
+		/**
+		 * Delays every response that has no delay of its own.
+		 *
+		 * @param latency the delay.
+		 * @return this builder.
+		 */
+		public Builder latency(Duration latency) {
+			return latency(latency, latency);
+		}
+
+		/**
+		 * Delays every response that has no delay of its own by a uniformly
+		 * random time between two bounds.
+		 *
+		 * @param min the shortest delay.
+		 * @param max the longest delay.
+		 * @return this builder.
+		 */
+		public Builder latency(Duration min, Duration max) {
+			this.minLatency = min;
+			this.maxLatency = max;
+			return this;
+		}
+
+		/**
+		 * Proxies requests without a mapping to a real server and saves the
+		 * responses as mapping files.
+		 *
+		 * @param targetBaseURI the base URI of the real server.
+		 * @param directory     where the mapping files are written.
+		 * @return this builder.
+		 */
+		public Builder record(String targetBaseURI, Path directory) {
+			this.recordTarget = targetBaseURI;
+			this.recordDirectory = directory;
+			return this;
+		}
+
+		/**
+		 * Creates the server without starting it.
+		 *
+		 * @return the stub server.
+		 * @throws IllegalStateException if recording is enabled by system
+		 *                               property without a mappings directory.
+		 */
+		public StubServer build() {
+			String recordProperty = System.getProperty("selautocore.stub.record");
+			if (recordTarget == null && recordProperty != null && !recordProperty.isBlank()) {
+				if (mappingsDirectory == null) {
+					throw new IllegalStateException("selautocore.stub.record needs a mappings(directory) to record to");
+				}
+				record(recordProperty, mappingsDirectory);
+			}
+			if (recordTarget != null) {
+				recordTarget = recordTarget.replaceAll("/+$", "");
+			}
+			return new StubServer(this);
+		}
+
+		private void addMappings(String json) {
+			JSONObject document = new JSONObject(json);
+			JSONArray array = document.optJSONArray("mappings");
+			if (array == null) {
+				mappings.add(Mapping.fromJson(document));
+				return;
+			}
+			for (int i = 0; i < array.length(); i++) {
+				mappings.add(Mapping.fromJson(array.getJSONObject(i)));
+			}
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package io.github.shabryn2893.apicore;
+
+import java.util.Locale;
+
+/**
+ * The size, duration and throughput of a streamed upload or download, see
+ * {@link ITransferAPI#upload(ApiRequest, java.nio.file.Path)} and
+ * {@link ITransferAPI#downloadTo(ApiRequest, java.nio.file.Path)}.
+ */
+public final class TransferStats {
+
+	private final String request;
+	private final int statusCode;
+	private final long bytes;
+	private final long durationNanos;
+
+	TransferStats(ApiRequest request, int statusCode, long bytes, long durationNanos) {
+		this.request = request.toString();
+		this.statusCode = statusCode;
+		this.bytes = bytes;
+		this.durationNanos = durationNanos;
+	}
+
+	/**
+	 * Gets the method and path of the request that transferred the body.
+	 *
+	 * @return the request, e.g. {@code PUT /artifacts/build.zip}.
+	 */
+	public String getRequest() {
+		return request;
+	}
+
+	/**
+	 * Gets the response status.
+	 *
+	 * @return the status code.
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * Gets the number of body bytes sent or received.
+	 *
+	 * @return the bytes transferred.
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Gets the time from sending the request until the body was transferred.
+	 *
+	 * @return the duration in milliseconds.
+	 */
+	public long getDurationMillis() {
+		return durationNanos / 1_000_000;
+	}
+
+	/**
+	 * Gets the throughput of the transfer.
+	 *
+	 * @return the bytes per second.
+	 */
+	public double getBytesPerSecond() {
+		return durationNanos == 0 ? 0 : bytes * 1_000_000_000.0 / durationNanos;
+	}
+
+	/**
+	 * Gets the throughput of the transfer in MiB per second.
+	 *
+	 * @return the mebibytes per second.
+	 */
+	public double getMegabytesPerSecond() {
+		return getBytesPerSecond() / (1024 * 1024);
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "%s -> %d: %d bytes in %d ms (%.2f MiB/s)", request, statusCode, bytes,
+				getDurationMillis(), getMegabytesPerSecond());
+	}
+}
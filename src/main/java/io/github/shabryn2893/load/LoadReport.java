@@ -0,0 +1,236 @@
+package io.github.shabryn2893.load;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * The latency distribution and error rate of every endpoint of a
+ * {@link LoadRunner} run.
+ * <p>
+ * Latencies are recorded in microseconds into HDR histograms with three
+ * significant digits, so high percentiles stay exact regardless of the number
+ * of requests. In the open model the latency of the first step of an arrival
+ * is measured from its scheduled start, so that queueing caused by a slow
+ * server is not hidden (coordinated omission).
+ * </p>
+ */
+public final class LoadReport {
+
+	private static final Logger logger = LoggerUtils.getLogger(LoadReport.class);
+
+	private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+	private final LongAdder dropped = new LongAdder();
+	private volatile Duration elapsed = Duration.ZERO;
+
+	LoadReport(Iterable<String> endpointNames) {
+		for (String name : endpointNames) {
+			endpoints.put(name, new Endpoint(name));
+		}
+	}
+
+	void record(String endpoint, long latencyMicros, String error) {
+		endpoints.get(endpoint).record(latencyMicros, error);
+	}
+
+	void recordDropped() {
+		dropped.increment();
+	}
+
+	void setElapsed(Duration elapsed) {
+		this.elapsed = elapsed;
+	}
+
+	/**
+	 * Gets the statistics of every endpoint, in the order the steps were added.
+	 *
+	 * @return the endpoint statistics by step name.
+	 */
+	public Map<String, Endpoint> getEndpoints() {
+		return Collections.unmodifiableMap(endpoints);
+	}
+
+	/**
+	 * Gets the statistics of one endpoint.
+	 *
+	 * @param name the step name.
+	 * @return the endpoint statistics, or null for an unknown step.
+	 */
+	public Endpoint getEndpoint(String name) {
+		return endpoints.get(name);
+	}
+
+	/**
+	 * Gets the number of open model arrivals that were not started because the
+	 * maximum number of requests in flight was reached.
+	 *
+	 * @return the dropped arrival count.
+	 */
+	public long getDropped() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Gets the wall clock duration of the run.
+	 *
+	 * @return the elapsed time.
+	 */
+	public Duration getElapsed() {
+		return elapsed;
+	}
+
+	/**
+	 * Gets the number of requests completed per second over the whole run.
+	 *
+	 * @return the throughput in requests per second.
+	 */
+	public double getThroughput() {
+		long count = endpoints.values().stream().mapToLong(Endpoint::getCount).sum();
+		return elapsed.isZero() ? 0 : count * 1000.0 / elapsed.toMillis();
+	}
+
+	/**
+	 * Formats the report as a table with one row per endpoint.
+	 *
+	 * @return the report table.
+	 */
+	public String format() {
+		StringBuilder table = new StringBuilder(String.format("%-30s %9s %8s %7s %9s %9s %9s %9s %9s%n", "Endpoint",
+				"Count", "Errors", "Err%", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+		for (Endpoint endpoint : endpoints.values()) {
+			table.append(String.format("%-30s %9d %8d %6.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint.getName(),
+					endpoint.getCount(), endpoint.getErrors(), endpoint.getErrorRate() * 100,
+					endpoint.getPercentileMillis(50), endpoint.getPercentileMillis(90),
+					endpoint.getPercentileMillis(99), endpoint.getPercentileMillis(99.9), endpoint.getMaxMillis()));
+		}
+		table.append(String.format("%.1f requests/s over %d ms, %d arrivals dropped", getThroughput(),
+				elapsed.toMillis(), getDropped()));
+		return table.toString();
+	}
+
+	/**
+	 * Logs the report table and the errors of every endpoint.
+	 */
+	public void print() {
+		logger.info("Load test results:{}{}", System.lineSeparator(), format());
+		for (Endpoint endpoint : endpoints.values()) {
+			if (endpoint.getErrors() > 0) {
+				logger.info("Errors of {}: {}", endpoint.getName(), endpoint.getErrorsByType());
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return format();
+	}
+
+	/**
+	 * The latency and errors of one endpoint.
+	 */
+	public static final class Endpoint {
+
+		private final String name;
+		private final Histogram latencies = new ConcurrentHistogram(3);
+		private final LongAdder errors = new LongAdder();
+		private final Map<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+
+		private Endpoint(String name) {
+			this.name = name;
+		}
+
+		private void record(long latencyMicros, String error) {
+			latencies.recordValue(Math.max(0, latencyMicros));
+			if (error != null) {
+				errors.increment();
+				errorsByType.computeIfAbsent(error, type -> new LongAdder()).increment();
+			}
+		}
+
+		/**
+		 * Gets the step name.
+		 *
+		 * @return the endpoint name.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Gets the number of completed requests, including failed ones.
+		 *
+		 * @return the request count.
+		 */
+		public long getCount() {
+			return latencies.getTotalCount();
+		}
+
+		/**
+		 * Gets the number of failed requests.
+		 *
+		 * @return the error count.
+		 */
+		public long getErrors() {
+			return errors.sum();
+		}
+
+		/**
+		 * Gets the share of failed requests.
+		 *
+		 * @return the error rate between 0 and 1.
+		 */
+		public double getErrorRate() {
+			long count = getCount();
+			return count == 0 ? 0 : (double) getErrors() / count;
+		}
+
+		/**
+		 * Gets the number of failures per HTTP status or exception type.
+		 *
+		 * @return a sorted snapshot of the error counters.
+		 */
+		public Map<String, Long> getErrorsByType() {
+			Map<String, Long> snapshot = new TreeMap<>();
+			errorsByType.forEach((type, count) -> snapshot.put(type, count.sum()));
+			return snapshot;
+		}
+
+		/**
+		 * Gets a latency percentile.
+		 *
+		 * @param percentile the percentile, e.g. 99.9.
+		 * @return the latency in milliseconds.
+		 */
+		public double getPercentileMillis(double percentile) {
+			return latencies.getValueAtPercentile(percentile) / 1000.0;
+		}
+
+		/**
+		 * Gets the highest latency.
+		 *
+		 * @return the latency in milliseconds.
+		 */
+		public double getMaxMillis() {
+			return latencies.getMaxValue() / 1000.0;
+		}
+
+		/**
+		 * Gets the mean latency.
+		 *
+		 * @return the latency in milliseconds.
+		 */
+		public double getMeanMillis() {
+			return latencies.getMean() / 1000.0;
+		}
+	}
+}
@@ -0,0 +1,325 @@
+package io.github.shabryn2893.load;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.apicore.ApiRequest;
+import io.github.shabryn2893.apicore.ApiResponse;
+import io.github.shabryn2893.apicore.IActionAPI;
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * Generates load from the same request definitions the functional API tests
+ * use, on one machine and without a separate load tool.
+ * <p>
+ * A run repeats a journey, the steps added to the builder in order, either
+ * with a fixed number of virtual users that start their next journey as soon
+ * as the previous one finished (closed model), or at a target rate of journeys
+ * per second regardless of how fast the server answers (open model). Both
+ * models ramp up linearly over the ramp-up time. Every journey runs on its own
+ * virtual thread.
+ * </p>
+ * <p>
+ * A step fails if it throws, including a failed TestNG assertion of a step
+ * shared with a functional test, or if its response does not pass the success
+ * check, by default a 2xx status. The error is recorded by its class name and
+ * the journey goes on with the next step. An interrupted virtual user stops.
+ * </p>
+ *
+ * Example Usage:
+ *
+ * <pre>{@code
+ * IActionAPI api = APIToolFactory.getAPIToolInstance("RESTASSURED", "http://localhost:8089", HttpPoolConfig.DEFAULT);
+ * LoadReport report = LoadRunner.builder(api).step("list brands", ApiRequest.get("/brands").build())
+ * 		.step("create brand", client -> client.send(ApiRequest.post("/brands").body("{}").build()))
+ * 		.openModel(200).rampUp(Duration.ofSeconds(10)).duration(Duration.ofMinutes(1)).build().run();
+ * report.print();
+ * }</pre>
+ */
+public final class LoadRunner {
+
+	private static final Logger logger = LoggerUtils.getLogger(LoadRunner.class);
+
+	private final IActionAPI api;
+	private final Map<String, Function<IActionAPI, ApiResponse>> steps;
+	private final Predicate<ApiResponse> successCheck;
+	private final int virtualUsers;
+	private final double targetRps;
+	private final Duration rampUp;
+	private final Duration duration;
+	private final int maxInFlight;
+
+	private LoadRunner(Builder builder) {
+		this.api = builder.api;
+		this.steps = new LinkedHashMap<>(builder.steps);
+		this.successCheck = builder.successCheck;
+		this.virtualUsers = builder.virtualUsers;
+		this.targetRps = builder.targetRps;
+		this.rampUp = builder.rampUp;
+		this.duration = builder.duration;
+		this.maxInFlight = builder.maxInFlight;
+	}
+
+	/**
+	 * Starts a load runner for a client. The client must be thread safe, as the
+	 * clients created by {@code APIToolFactory} are.
+	 *
+	 * @param api the client to send the requests with.
+	 * @return the runner builder.
+	 */
+	public static Builder builder(IActionAPI api) {
+		return new Builder(api);
+	}
+
+	/**
+	 * Runs the load and waits until it has finished.
+	 *
+	 * @return the latency and error statistics per step.
+	 */
+	public LoadReport run() {
+		LoadReport report = new LoadReport(steps.keySet());
+		long start = System.nanoTime();
+		long end = start + duration.toNanos();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			if (virtualUsers > 0) {
+				logger.info("Starting closed model load: {} virtual users for {}, ramp-up {}", virtualUsers, duration,
+						rampUp);
+				runClosedModel(executor, report, start, end);
+			} else {
+				logger.info("Starting open model load: {} journeys/s for {}, ramp-up {}", targetRps, duration, rampUp);
+				runOpenModel(executor, report, start, end);
+			}
+		}
+		report.setElapsed(Duration.ofNanos(System.nanoTime() - start));
+		return report;
+	}
+
+	private void runClosedModel(ExecutorService executor, LoadReport report, long start, long end) {
+		for (int user = 0; user < virtualUsers; user++) {
+			long userStart = start + rampUp.toNanos() * user / virtualUsers;
+			executor.execute(() -> {
+				sleepUntil(userStart);
+				while (System.nanoTime() < end) {
+					if (!runJourney(report, System.nanoTime())) {
+						logger.info("Virtual user interrupted, stopping it");
+						break;
+					}
+				}
+			});
+		}
+	}
+
+	private void runOpenModel(ExecutorService executor, LoadReport report, long start, long end) {
+		Semaphore inFlight = new Semaphore(maxInFlight);
+		for (long arrival = 0;; arrival++) {
+			long scheduled = start + arrivalOffsetNanos(arrival);
+			if (scheduled >= end) {
+				break;
+			}
+			sleepUntil(scheduled);
+			if (!inFlight.tryAcquire()) {
+				report.recordDropped();
+				continue;
+			}
+			executor.execute(() -> {
+				try {
+					runJourney(report, scheduled);
+				} finally {
+					inFlight.release();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Computes when an open model arrival is due. During ramp-up the rate grows
+	 * linearly from zero to the target, so the number of arrivals after t
+	 * seconds is {@code rps * t^2 / (2 * rampUp)}; afterwards it grows by
+	 * {@code rps} per second.
+	 */
+	private long arrivalOffsetNanos(long arrival) {
+		double rampSeconds = rampUp.toNanos() / 1e9;
+		double rampArrivals = targetRps * rampSeconds / 2;
+		double seconds = arrival < rampArrivals ? Math.sqrt(2 * arrival * rampSeconds / targetRps)
+				: rampSeconds + (arrival - rampArrivals) / targetRps;
+		return (long) (seconds * 1e9);
+	}
+
+	/**
+	 * Runs every step once. The first step is timed from the scheduled start,
+	 * the others from when they were sent.
+	 *
+	 * @return false if the thread was interrupted and the user should stop.
+	 */
+	private boolean runJourney(LoadReport report, long scheduled) {
+		long stepStart = scheduled;
+		for (Map.Entry<String, Function<IActionAPI, ApiResponse>> step : steps.entrySet()) {
+			String error;
+			try {
+				ApiResponse response = step.getValue().apply(api);
+				error = successCheck.test(response) ? null : "HTTP " + response.getStatusCode();
+			} catch (Exception e) {
+				if (e instanceof InterruptedException) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+				error = e.getClass().getSimpleName();
+			} catch (AssertionError e) {
+				error = e.getClass().getSimpleName();
+			}
+			long now = System.nanoTime();
+			report.record(step.getKey(), (now - stepStart) / 1000, error);
+			stepStart = now;
+		}
+		return !Thread.currentThread().isInterrupted();
+	}
+
+	private static void sleepUntil(long nanoTime) {
+		long remaining;
+		while ((remaining = nanoTime - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(remaining);
+		}
+	}
+
+	/**
+	 * Builds a {@link LoadRunner}.
+	 */
+	public static final class Builder {
+
+		private final IActionAPI api;
+		private final Map<String, Function<IActionAPI, ApiResponse>> steps = new LinkedHashMap<>();
+		private Predicate<ApiResponse> successCheck = ApiResponse::isSuccessful;
+		private int virtualUsers;
+		private double targetRps;
+		private Duration rampUp = Duration.ZERO;
+		private Duration duration = Duration.ofSeconds(30);
+		private int maxInFlight = 10_000;
+
+		private Builder(IActionAPI api) {
+			this.api = api;
+		}
+
+		/**
+		 * Adds a step that sends a fixed request.
+		 *
+		 * @param name    the endpoint name used in the report.
+		 * @param request the request to send.
+		 * @return this builder.
+		 */
+		public Builder step(String name, ApiRequest request) {
+			return step(name, client -> client.send(request));
+		}
+
+		/**
+		 * Adds a step that runs a request definition, e.g. one shared with a
+		 * functional test.
+		 *
+		 * @param name    the endpoint name used in the report.
+		 * @param request sends the request with the given client.
+		 * @return this builder.
+		 */
+		public Builder step(String name, Function<IActionAPI, ApiResponse> request) {
+			steps.put(name, request);
+			return this;
+		}
+
+		/**
+		 * Sets which responses count as successful. Defaults to a 2xx status.
+		 *
+		 * @param successCheck the success check.
+		 * @return this builder.
+		 */
+		public Builder successCheck(Predicate<ApiResponse> successCheck) {
+			this.successCheck = successCheck;
+			return this;
+		}
+
+		/**
+		 * Runs a fixed number of virtual users that repeat the journey back to
+		 * back.
+		 *
+		 * @param virtualUsers the number of concurrent users.
+		 * @return this builder.
+		 */
+		public Builder closedModel(int virtualUsers) {
+			this.virtualUsers = virtualUsers;
+			this.targetRps = 0;
+			return this;
+		}
+
+		/**
+		 * Starts journeys at a fixed rate, however long they take.
+		 *
+		 * @param targetRps the journeys started per second after ramp-up.
+		 * @return this builder.
+		 */
+		public Builder openModel(double targetRps) {
+			this.targetRps = targetRps;
+			this.virtualUsers = 0;
+			return this;
+		}
+
+		/**
+		 * Sets the time over which users or the arrival rate grow linearly to
+		 * the full load. The ramp-up counts towards the duration.
+		 *
+		 * @param rampUp the ramp-up time.
+		 * @return this builder.
+		 */
+		public Builder rampUp(Duration rampUp) {
+			this.rampUp = rampUp;
+			return this;
+		}
+
+		/**
+		 * Sets how long journeys are started. Defaults to 30 seconds.
+		 *
+		 * @param duration the run duration.
+		 * @return this builder.
+		 */
+		public Builder duration(Duration duration) {
+			this.duration = duration;
+			return this;
+		}
+
+		/**
+		 * Sets the most open model journeys in flight; later arrivals are dropped
+		 * and counted. Defaults to 10000.
+		 *
+		 * @param maxInFlight the maximum number of journeys in flight.
+		 * @return this builder.
+		 */
+		public Builder maxInFlight(int maxInFlight) {
+			this.maxInFlight = maxInFlight;
+			return this;
+		}
+
+		/**
+		 * Creates the runner.
+		 *
+		 * @return the load runner.
+		 * @throws IllegalStateException if no step or load model was set.
+		 */
+		public LoadRunner build() {
+			if (steps.isEmpty()) {
+				throw new IllegalStateException("A load run needs at least one step");
+			}
+			if (virtualUsers <= 0 && targetRps <= 0) {
+				throw new IllegalStateException("Set closedModel(virtualUsers) or openModel(targetRps)");
+			}
+			if (rampUp.compareTo(duration) > 0) {
+				throw new IllegalStateException("The ramp-up must not be longer than the duration");
+			}
+			return new LoadRunner(this);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package io.github.shabryn2893.parallel;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import io.github.shabryn2893.uicore.SessionLifecycleManager;
+
+/**
+ * TestNG listener that releases the {@link SessionRegistry} sessions of a test
+ * thread once a test method is done, and closes any session left open at the
+ * end of the suite. Browser sessions created outside the registry and never
+ * closed are reported by the {@link SessionLifecycleManager}.
+ * <p>
+ * Sessions are released after the test method, or after the last
+ * {@code @AfterMethod} configuration method when the test class has any, so
+ * that teardown code such as failure screenshots, logout and cleanup can still
+ * use them. If not all of them ran, e.g. because one was skipped, the sessions
+ * are released before the next method starts on the thread.
+ * </p>
+ *
+ * Example testng.xml:
+ *
+ * <pre>{@code
+ * <suite name="Regression" parallel="methods" thread-count="16">
+ *   <listeners>
+ *     <listener class-name="io.github.shabryn2893.parallel.SessionListener"/>
+ *   </listeners>
+ *   ...
+ * </suite>
+ * }</pre>
+ */
+public class SessionListener implements IInvokedMethodListener, ISuiteListener {
+
+	// @AfterMethod configuration methods still to run after the test method of this thread
+	private static final ThreadLocal<Integer> pendingAfterMethods = new ThreadLocal<>();
+
+	@Override
+	public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+		if (pendingAfterMethods.get() != null && !method.getTestMethod().isAfterMethodConfiguration()) {
+			pendingAfterMethods.remove();
+			SessionRegistry.releaseAll();
+		}
+	}
+
+	@Override
+	public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+		ITestNGMethod testMethod = method.getTestMethod();
+		if (method.isTestMethod()) {
+			int afterMethods = testMethod.getTestClass().getAfterTestMethods().length;
+			if (afterMethods == 0) {
+				SessionRegistry.releaseAll();
+			} else {
+				pendingAfterMethods.set(afterMethods);
+			}
+		} else if (testMethod.isAfterMethodConfiguration() && pendingAfterMethods.get() != null) {
+			int remaining = pendingAfterMethods.get() - 1;
+			if (remaining > 0) {
+				pendingAfterMethods.set(remaining);
+			} else {
+				pendingAfterMethods.remove();
+				SessionRegistry.releaseAll();
+			}
+		}
+	}
+
+	@Override
+	public void onFinish(ISuite suite) {
+		SessionRegistry.closeAll();
+		SessionLifecycleManager.reportLeaks();
+	}
+}
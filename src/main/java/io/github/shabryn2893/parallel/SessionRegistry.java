@@ -0,0 +1,218 @@
+package io.github.shabryn2893.parallel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.apicore.APIToolFactory;
+import io.github.shabryn2893.apicore.IActionAPI;
+import io.github.shabryn2893.uicore.IActionUI;
+import io.github.shabryn2893.uidriverfactory.DriverFactory;
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * Thread-confined registry of {@link IActionUI} and {@link IActionAPI}
+ * sessions, so that tests running in parallel never share a browser or an API
+ * client.
+ * <p>
+ * Each test thread lazily gets its own sessions from the configured factories.
+ * When no factory is set, browsers are created from the system properties
+ * {@code selautocore.browser} (default CHROME), {@code selautocore.tool}
+ * (default SELENIUM) and {@code selautocore.headless} (default false), and API
+ * clients from {@code selautocore.api.tool} (default RESTASSURED) and
+ * {@code selautocore.api.baseURI}. Register {@link SessionListener} to have the
+ * sessions of a thread released after every test method.
+ * </p>
+ *
+ * Example Usage:
+ *
+ * <pre>{@code
+ * @Listeners(SessionListener.class)
+ * public class LoginTest {
+ * 	@Test
+ * 	public void login() {
+ * 		IActionUI ui = SessionRegistry.getUI();
+ * 		ui.openURL("https://example.com/login");
+ * 	}
+ * }
+ * }</pre>
+ */
+public final class SessionRegistry {
+
+	private static final Logger logger = LoggerUtils.getLogger(SessionRegistry.class);
+	private static final ThreadLocal<IActionUI> uiSessions = new ThreadLocal<>();
+	private static final ThreadLocal<IActionAPI> apiSessions = new ThreadLocal<>();
+	private static final Map<IActionUI, Thread> openUISessions = new ConcurrentHashMap<>();
+	private static volatile Supplier<IActionUI> uiFactory = SessionRegistry::createDefaultUI;
+	private static volatile Supplier<IActionAPI> apiFactory = SessionRegistry::createDefaultAPI;
+
+	private SessionRegistry() {
+	}
+
+	/**
+	 * Sets how browser sessions are created for threads that do not have one.
+	 *
+	 * @param factory creates a new browser session, e.g. {@code () ->
+	 *                DriverFactory.getDriver("CHROME", "PLAYWRIGHT", true).createBrowser()}.
+	 */
+	public static void setUIFactory(Supplier<IActionUI> factory) {
+		uiFactory = factory;
+	}
+
+	/**
+	 * Gets how browser sessions are created for threads that do not have one.
+	 *
+	 * @return the browser session factory.
+	 */
+	public static Supplier<IActionUI> getUIFactory() {
+		return uiFactory;
+	}
+
+	/**
+	 * Sets how API clients are created for threads that do not have one.
+	 *
+	 * @param factory creates a new API client.
+	 */
+	public static void setAPIFactory(Supplier<IActionAPI> factory) {
+		apiFactory = factory;
+	}
+
+	/**
+	 * Gets how API clients are created for threads that do not have one.
+	 *
+	 * @return the API client factory.
+	 */
+	public static Supplier<IActionAPI> getAPIFactory() {
+		return apiFactory;
+	}
+
+	/**
+	 * Gets the browser session of the calling thread, creating it on first use.
+	 *
+	 * @return the thread's browser session.
+	 */
+	public static IActionUI getUI() {
+		IActionUI ui = uiSessions.get();
+		if (ui == null || !openUISessions.containsKey(ui)) {
+			ui = uiFactory.get();
+			setUI(ui);
+		}
+		return ui;
+	}
+
+	/**
+	 * Registers a browser session for the calling thread, closing the session it
+	 * replaces.
+	 *
+	 * @param ui the browser session.
+	 */
+	public static void setUI(IActionUI ui) {
+		IActionUI previous = uiSessions.get();
+		if (previous != null && previous != ui) {
+			releaseUI();
+		}
+		uiSessions.set(ui);
+		openUISessions.put(ui, Thread.currentThread());
+	}
+
+	/**
+	 * Checks whether the calling thread has a browser session.
+	 *
+	 * @return true if a browser session is registered for the thread.
+	 */
+	public static boolean hasUI() {
+		IActionUI ui = uiSessions.get();
+		return ui != null && openUISessions.containsKey(ui);
+	}
+
+	/**
+	 * Gets the API client of the calling thread, creating it on first use.
+	 *
+	 * @return the thread's API client.
+	 */
+	public static IActionAPI getAPI() {
+		IActionAPI api = apiSessions.get();
+		if (api == null) {
+			api = apiFactory.get();
+			apiSessions.set(api);
+		}
+		return api;
+	}
+
+	/**
+	 * Registers an API client for the calling thread.
+	 *
+	 * @param api the API client.
+	 */
+	public static void setAPI(IActionAPI api) {
+		apiSessions.set(api);
+	}
+
+	/**
+	 * Closes and removes the browser session of the calling thread, if any.
+	 */
+	public static void releaseUI() {
+		IActionUI ui = uiSessions.get();
+		uiSessions.remove();
+		if (ui != null && openUISessions.remove(ui) != null) {
+			closeQuietly(ui);
+		}
+	}
+
+	/**
+	 * Removes the API client of the calling thread, if any.
+	 */
+	public static void releaseAPI() {
+		apiSessions.remove();
+	}
+
+	/**
+	 * Releases all sessions of the calling thread.
+	 */
+	public static void releaseAll() {
+		releaseUI();
+		releaseAPI();
+	}
+
+	/**
+	 * Closes the browser sessions that are still open on any thread, e.g. at the
+	 * end of a suite. Threads that use the registry afterwards get new sessions.
+	 */
+	public static void closeAll() {
+		openUISessions.forEach((ui, thread) -> {
+			logger.warn("Closing browser session left open by thread {}", thread.getName());
+			closeQuietly(ui);
+		});
+		openUISessions.clear();
+	}
+
+	/**
+	 * Gets the number of browser sessions currently open across all threads.
+	 *
+	 * @return the open browser session count.
+	 */
+	public static int getOpenUICount() {
+		return openUISessions.size();
+	}
+
+	private static void closeQuietly(IActionUI ui) {
+		try {
+			ui.closeBrowser();
+		} catch (RuntimeException e) {
+			logger.error("Failed to close browser session: {}", e.getMessage());
+		}
+	}
+
+	private static IActionUI createDefaultUI() {
+		return DriverFactory.getDriver(System.getProperty("selautocore.browser", "CHROME"),
+				System.getProperty("selautocore.tool", "SELENIUM"), Boolean.getBoolean("selautocore.headless"))
+				.createBrowser();
+	}
+
+	private static IActionAPI createDefaultAPI() {
+		return APIToolFactory.getAPIToolInstance(System.getProperty("selautocore.api.tool", "RESTASSURED"),
+				System.getProperty("selautocore.api.baseURI"));
+	}
+}
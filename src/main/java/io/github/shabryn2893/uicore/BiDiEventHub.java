@@ -0,0 +1,268 @@
+package io.github.shabryn2893.uicore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.NavigationInfo;
+import org.openqa.selenium.bidi.module.BrowsingContextInspector;
+import org.openqa.selenium.bidi.module.LogInspector;
+import org.openqa.selenium.bidi.module.Network;
+import org.openqa.selenium.bidi.module.Script;
+import org.openqa.selenium.bidi.script.ChannelValue;
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * Receives the events a browser pushes over a WebDriver BiDi (WebSocket)
+ * connection and hands them to subscribers, so that navigation, network, log
+ * and DOM activity is observed without polling.
+ * <p>
+ * DOM mutations are reported by a {@code MutationObserver} that a preload
+ * script installs in every new document and that posts to a BiDi channel.
+ * Waits built on {@link #waitFor(Set, BooleanSupplier, Duration)} check their
+ * condition only when a relevant event arrives.
+ * </p>
+ * <p>
+ * A hub belongs to one browser session. When a supervised session replaces a
+ * crashed browser, the hub of the new browser takes over the subscribers with
+ * {@link #inheritSubscribers(BiDiEventHub)}; events of the crashed browser
+ * that were never delivered are lost.
+ * </p>
+ *
+ * Example Usage:
+ *
+ * <pre>{@code
+ * SeleniumDriverFactory factory = new SeleniumDriverFactory("chrome", true);
+ * factory.setBiDiEnabled(true);
+ * IActionUI ui = factory.createBrowser();
+ * ui.getEventHub().subscribe(BrowserEvent.Type.CONSOLE, event -> System.out.println(event.text()));
+ * }</pre>
+ */
+public class BiDiEventHub implements AutoCloseable {
+
+	private static final Logger logger = LoggerUtils.getLogger(BiDiEventHub.class);
+	private static final String MUTATION_CHANNEL = "selAutoCoreMutations";
+
+	/**
+	 * Reports DOM changes to the BiDi channel, batching the changes of one task.
+	 */
+	private static final String MUTATION_OBSERVER = """
+			(channel) => {
+				let pending = false;
+				const report = () => {
+					if (!pending) {
+						pending = true;
+						setTimeout(() => { pending = false; channel('mutation'); }, 0);
+					}
+				};
+				new MutationObserver(report).observe(document,
+						{ subtree: true, childList: true, attributes: true, characterData: true });
+			}
+			""";
+
+	/**
+	 * Longest time a wait sleeps without an event before checking its condition
+	 * again, in case an event was missed.
+	 */
+	private static final long MAX_SILENT_WAIT_MILLIS = 2000;
+
+	private volatile Map<BrowserEvent.Type, List<Consumer<BrowserEvent>>> subscribers = new EnumMap<>(
+			BrowserEvent.Type.class);
+	private final Map<BrowserEvent.Type, Long> eventCounts = new EnumMap<>(BrowserEvent.Type.class);
+	private LogInspector logInspector;
+	private BrowsingContextInspector contextInspector;
+	private Network network;
+	private Script script;
+
+	/**
+	 * Subscribes to the BiDi events of a driver that was started with the
+	 * {@code webSocketUrl} capability.
+	 *
+	 * @param driver the BiDi enabled driver.
+	 */
+	public BiDiEventHub(WebDriver driver) {
+		this();
+		try {
+			logInspector = new LogInspector(driver);
+			logInspector.onConsoleEntry(entry -> publish(BrowserEvent.Type.CONSOLE, null, entry.getText(), entry));
+			logInspector.onJavaScriptException(
+					entry -> publish(BrowserEvent.Type.JAVASCRIPT_ERROR, null, entry.getText(), entry));
+			contextInspector = new BrowsingContextInspector(driver);
+			contextInspector
+					.onNavigationStarted(info -> publishNavigation(BrowserEvent.Type.NAVIGATION_STARTED, info));
+			contextInspector.onDomContentLoaded(info -> publishNavigation(BrowserEvent.Type.DOM_CONTENT_LOADED, info));
+			contextInspector.onBrowsingContextLoaded(info -> publishNavigation(BrowserEvent.Type.LOAD, info));
+			network = new Network(driver);
+			network.onBeforeRequestSent(sent -> publish(BrowserEvent.Type.REQUEST_SENT, sent.getRequest().getUrl(),
+					sent.getRequest().getMethod(), sent));
+			network.onResponseCompleted(response -> publish(BrowserEvent.Type.RESPONSE_COMPLETED,
+					response.getRequest().getUrl(), String.valueOf(response.getResponseData().getStatus()),
+					response));
+			script = new Script(driver);
+			script.addPreloadScript(MUTATION_OBSERVER, List.of(new ChannelValue(MUTATION_CHANNEL)));
+			script.onMessage(message -> {
+				if (MUTATION_CHANNEL.equals(message.getChannel())) {
+					publish(BrowserEvent.Type.DOM_MUTATION, null, null, message);
+				}
+			});
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		}
+		logger.info("Subscribed to WebDriver BiDi events");
+	}
+
+	/**
+	 * Creates a hub that is not connected to a browser, for subclasses that
+	 * publish events themselves, e.g. in tests.
+	 */
+	protected BiDiEventHub() {
+		for (BrowserEvent.Type type : BrowserEvent.Type.values()) {
+			subscribers.put(type, new CopyOnWriteArrayList<>());
+			eventCounts.put(type, 0L);
+		}
+	}
+
+	/**
+	 * Adds a subscriber for one kind of event. Subscribers run on the WebSocket
+	 * thread and should return quickly.
+	 *
+	 * @param type     the kind of event.
+	 * @param listener called for every event of that kind.
+	 * @return removes the subscriber when run.
+	 */
+	public Runnable subscribe(BrowserEvent.Type type, Consumer<BrowserEvent> listener) {
+		List<Consumer<BrowserEvent>> listeners = subscribers.get(type);
+		listeners.add(listener);
+		return () -> listeners.remove(listener);
+	}
+
+	/**
+	 * Takes over the subscribers of another hub, e.g. the hub of a browser that
+	 * crashed and was replaced by this one. Both hubs share the subscribers from
+	 * then on, so the functions returned by {@link #subscribe} on either hub
+	 * still remove them.
+	 *
+	 * @param previous the hub whose subscribers to take over.
+	 */
+	public void inheritSubscribers(BiDiEventHub previous) {
+		Map<BrowserEvent.Type, List<Consumer<BrowserEvent>>> inherited = previous.subscribers;
+		subscribers.forEach((type, listeners) -> inherited.get(type).addAll(listeners));
+		subscribers = inherited;
+	}
+
+	/**
+	 * Gets the number of events of a kind received so far.
+	 *
+	 * @param type the kind of event.
+	 * @return the event count.
+	 */
+	public synchronized long getEventCount(BrowserEvent.Type type) {
+		return eventCounts.get(type);
+	}
+
+	/**
+	 * Waits until a condition holds, checking it once up front and then only
+	 * after one of the given kinds of events has arrived.
+	 *
+	 * @param wakeOn    the kinds of events that may change the condition.
+	 * @param condition the condition, e.g. an element lookup.
+	 * @param timeout   the maximum time to wait.
+	 * @return true if the condition holds, false if the timeout elapsed first.
+	 */
+	public boolean waitFor(Set<BrowserEvent.Type> wakeOn, BooleanSupplier condition, Duration timeout) {
+		long deadline = System.currentTimeMillis() + timeout.toMillis();
+		while (true) {
+			long seen = countOf(wakeOn);
+			if (condition.getAsBoolean()) {
+				return true;
+			}
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				return false;
+			}
+			awaitNewEvent(wakeOn, seen, Math.min(remaining, MAX_SILENT_WAIT_MILLIS));
+		}
+	}
+
+	/**
+	 * Stops receiving events.
+	 */
+	@Override
+	public void close() {
+		closeQuietly(script);
+		closeQuietly(network);
+		closeQuietly(contextInspector);
+		closeQuietly(logInspector);
+	}
+
+	private void publishNavigation(BrowserEvent.Type type, NavigationInfo info) {
+		publish(type, info.getUrl(), null, info);
+	}
+
+	/**
+	 * Counts an event, wakes up the waits and hands the event to the
+	 * subscribers of its kind.
+	 *
+	 * @param type    the kind of event.
+	 * @param url     the URL the event is about, or null.
+	 * @param text    the text of the event, or null.
+	 * @param payload the original BiDi event, or null.
+	 */
+	protected void publish(BrowserEvent.Type type, String url, String text, Object payload) {
+		synchronized (this) {
+			eventCounts.merge(type, 1L, Long::sum);
+			notifyAll();
+		}
+		BrowserEvent event = new BrowserEvent(type, url, text, Instant.now(), payload);
+		for (Consumer<BrowserEvent> listener : subscribers.get(type)) {
+			try {
+				listener.accept(event);
+			} catch (RuntimeException e) {
+				logger.error("Browser event subscriber failed for {}", type, e);
+			}
+		}
+	}
+
+	private synchronized long countOf(Set<BrowserEvent.Type> types) {
+		long count = 0;
+		for (BrowserEvent.Type type : types) {
+			count += eventCounts.get(type);
+		}
+		return count;
+	}
+
+	private synchronized void awaitNewEvent(Set<BrowserEvent.Type> types, long seen, long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		try {
+			long remaining = timeoutMillis;
+			while (countOf(types) == seen && remaining > 0) {
+				wait(remaining);
+				remaining = deadline - System.currentTimeMillis();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for browser events", e);
+		}
+	}
+
+	private static void closeQuietly(AutoCloseable closeable) {
+		if (closeable == null) {
+			return;
+		}
+		try {
+			closeable.close();
+		} catch (Exception e) {
+			logger.warn("Failed to close BiDi module: {}", e.getMessage());
+		}
+	}
+}
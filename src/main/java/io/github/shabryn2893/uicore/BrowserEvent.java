@@ -0,0 +1,62 @@
+package io.github.shabryn2893.uicore;
+
+import java.time.Instant;
+
+/**
+ * An event pushed by the browser over a WebDriver BiDi connection.
+ *
+ * @param type      the kind of event.
+ * @param url       the page or request URL the event relates to, or null.
+ * @param text      the log message, HTTP status or other detail, or null.
+ * @param timestamp when the event was received.
+ * @param payload   the raw Selenium BiDi event object, for details not
+ *                  covered by the other fields.
+ */
+public record BrowserEvent(Type type, String url, String text, Instant timestamp, Object payload) {
+
+	/**
+	 * The kinds of browser events.
+	 */
+	public enum Type {
+
+		/**
+		 * Nodes, attributes or text of the page changed.
+		 */
+		DOM_MUTATION,
+
+		/**
+		 * A navigation started.
+		 */
+		NAVIGATION_STARTED,
+
+		/**
+		 * The document of a navigation was parsed.
+		 */
+		DOM_CONTENT_LOADED,
+
+		/**
+		 * The page and its resources finished loading.
+		 */
+		LOAD,
+
+		/**
+		 * A network request is about to be sent.
+		 */
+		REQUEST_SENT,
+
+		/**
+		 * A network response was fully received.
+		 */
+		RESPONSE_COMPLETED,
+
+		/**
+		 * A console API call such as {@code console.log}.
+		 */
+		CONSOLE,
+
+		/**
+		 * An uncaught JavaScript error.
+		 */
+		JAVASCRIPT_ERROR
+	}
+}
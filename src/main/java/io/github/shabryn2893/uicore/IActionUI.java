@@ -1,13 +1,20 @@
 package io.github.shabryn2893.uicore;
 
+import java.util.function.Consumer;
+
 /**
  * Provides reusable UI automation functions for use across the framework. This
  * interface defines methods for interacting with browser windows, elements, and
  * performing common actions like clicks, navigation, waits, and more.
+ * <p>
+ * Sessions are {@link AutoCloseable}, so they can be used in a
+ * try-with-resources block. Sessions that are never closed are tracked and
+ * reclaimed by the {@link SessionLifecycleManager}.
+ * </p>
  * 
  * @author Shabbir Rayeen
  */
-public interface IActionUI {
+public interface IActionUI extends AutoCloseable {
 
 	/**
 	 * Maximizes the browser window to full screen.
@@ -29,6 +36,14 @@ public interface IActionUI {
 	 */
 	public void closeBrowser();
 
+	/**
+	 * Closes the browser session, same as {@link #closeBrowser()}.
+	 */
+	@Override
+	default void close() {
+		closeBrowser();
+	}
+
 	/**
 	 * Opens a URL in the browser window.
 	 * 
@@ -326,4 +341,119 @@ public interface IActionUI {
 	 */
 	public Object executeJSAction(String script, Object... args);
 
+	/**
+	 * Registers a named JavaScript function for this browser session.
+	 *
+	 * The function is sent to the browser once and pinned there where the tool
+	 * supports it, so later calls through {@link #executeRegisteredScript} only
+	 * send its name and arguments. Where pinning is not available the source is
+	 * sent inline on every call instead.
+	 *
+	 * @param name           the script name; letters, digits and underscores
+	 *                       only.
+	 * @param functionSource a JavaScript function expression, e.g.
+	 *                       {@code function(element) { element.click(); }}.
+	 * @throws IllegalArgumentException if the name is not a valid identifier.
+	 */
+	public void registerScript(String name, String functionSource);
+
+	/**
+	 * Invokes a script registered with {@link #registerScript} by its name.
+	 *
+	 * @param name the script name.
+	 * @param args the arguments passed to the script function.
+	 * @return the value returned by the script function, or null.
+	 * @throws IllegalArgumentException if no script is registered under the name.
+	 */
+	public Object executeRegisteredScript(String name, Object... args);
+
+	/**
+	 * Captures the authentication relevant state of this browser session: all
+	 * cookies plus the localStorage and sessionStorage of the current page.
+	 *
+	 * The result uses the JSON layout of Playwright's storage state, i.e.
+	 * {@code {"cookies": [...], "origins": [{"origin": ..., "localStorage": [...],
+	 * "sessionStorage": [...]}]}}, for both tools.
+	 *
+	 * @return the session state as a JSON string.
+	 */
+	public String captureSessionState();
+
+	/**
+	 * Seeds this browser session with a state captured by
+	 * {@link #captureSessionState()}. Cookies are added and, for every captured
+	 * origin, the browser navigates to that origin to restore its storage.
+	 *
+	 * @param sessionState the session state as a JSON string.
+	 */
+	public void restoreSessionState(String sessionState);
+
+	/**
+	 * Resets this browser session to a clean state without quitting it: extra
+	 * tabs and windows are closed, cookies and the storage of the current page
+	 * are cleared and the remaining tab is navigated to {@code about:blank}.
+	 *
+	 * Used to hand a warm browser to the next test instead of launching a new
+	 * one.
+	 */
+	public void resetSession();
+
+	/**
+	 * Reads an HTML table into a column oriented {@link TableData} using a single
+	 * script round trip instead of one call per cell.
+	 *
+	 * Header rows are detected from {@code thead} or rows made only of
+	 * {@code th} cells, and cells spanning several rows or columns are repeated
+	 * in every slot they cover.
+	 *
+	 * @param locatorType  the type of locator (e.g., ID, XPATH, CSS, etc.).
+	 * @param locatorValue the value of the locator for the table, or for an
+	 *                     element wrapping it.
+	 * @param maxWaitTime  the maximum time to wait for the table to appear.
+	 * @return the table contents.
+	 */
+	public TableData readTable(String locatorType, String locatorValue, int maxWaitTime);
+
+	/**
+	 * Reads a paginated HTML table one page at a time. Each page is handed to
+	 * {@code pageHandler} before the paging control is clicked, so only a single
+	 * page is held in memory at any time. Reading stops when the paging control
+	 * is missing or disabled, or when the table is not found.
+	 *
+	 * @param locatorType      the type of locator for the table.
+	 * @param locatorValue     the value of the locator for the table.
+	 * @param nextLocatorType  the type of locator for the "next page" control.
+	 * @param nextLocatorValue the value of the locator for the "next page"
+	 *                         control.
+	 * @param maxWaitTime      the maximum time to wait for the table and for each
+	 *                         following page to load.
+	 * @param pageHandler      receives every page in order.
+	 * @return the number of pages read.
+	 */
+	public int readTablePages(String locatorType, String locatorValue, String nextLocatorType,
+			String nextLocatorValue, int maxWaitTime, Consumer<TableData> pageHandler);
+
+	/**
+	 * Checks whether this session receives browser events over WebDriver BiDi,
+	 * see {@link #getEventHub()}.
+	 *
+	 * @return true if browser events are available; false by default.
+	 */
+	default boolean isBiDiEnabled() {
+		return false;
+	}
+
+	/**
+	 * Gets the hub that publishes the navigation, network, log and DOM events of
+	 * this session. Works through session wrappers such as background or
+	 * supervised sessions; a recovered session has a new hub.
+	 *
+	 * @return the event hub.
+	 * @throws IllegalStateException if the session receives no browser events,
+	 *                               which is the default.
+	 */
+	default BiDiEventHub getEventHub() {
+		throw new IllegalStateException("Browser events are not available for this session");
+	}
+
 }
@@ -0,0 +1,58 @@
+package io.github.shabryn2893.uicore;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the named JavaScript functions of one browser session. The built-in
+ * {@link UIScripts} are available under their constant names; further scripts
+ * can be added with {@link #register(String, String)}.
+ * <p>
+ * The registry only holds sources. Pinning them inside the browser is left to
+ * the tool specific {@link IActionUI} implementation.
+ * </p>
+ */
+final class ScriptRegistry {
+
+	private static final Pattern SCRIPT_NAME = Pattern.compile("[A-Za-z_]\\w*");
+	private final Map<String, String> sources = new HashMap<>();
+
+	/**
+	 * Creates a registry holding all built-in {@link UIScripts}.
+	 */
+	ScriptRegistry() {
+		for (UIScripts script : UIScripts.values()) {
+			sources.put(script.name(), script.getSource());
+		}
+	}
+
+	/**
+	 * Registers or replaces a named script.
+	 *
+	 * @param name           the script name; letters, digits and underscores only.
+	 * @param functionSource a JavaScript function expression.
+	 * @throws IllegalArgumentException if the name is not a valid identifier.
+	 */
+	void register(String name, String functionSource) {
+		if (!SCRIPT_NAME.matcher(name).matches()) {
+			throw new IllegalArgumentException("Invalid script name: " + name);
+		}
+		sources.put(name, functionSource);
+	}
+
+	/**
+	 * Gets the function expression registered under a name.
+	 *
+	 * @param name the script name.
+	 * @return the script source.
+	 * @throws IllegalArgumentException if no script is registered under the name.
+	 */
+	String getSource(String name) {
+		String source = sources.get(name);
+		if (source == null) {
+			throw new IllegalArgumentException("No script registered with name: " + name);
+		}
+		return source;
+	}
+}
@@ -0,0 +1,298 @@
+package io.github.shabryn2893.uicore;
+
+import java.lang.ref.Cleaner;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * Central registry of every live browser session and shared browser resource
+ * created by the framework.
+ * <p>
+ * Each session is registered with the resources it has to release. A session
+ * that becomes unreachable without being closed is reclaimed through a
+ * {@link Cleaner} and reported as leaked, together with the stack trace of
+ * where it was created. A single JVM shutdown hook runs the registered
+ * shutdown tasks, closes and reports the sessions that are still open, and
+ * finally releases shared runtimes such as Playwright driver processes.
+ * </p>
+ *
+ * Example Usage:
+ *
+ * <pre>{@code
+ * try (IActionUI ui = DriverFactory.getDriver("CHROME", "SELENIUM", true).createBrowser()) {
+ * 	ui.openURL("https://example.com");
+ * }
+ * SessionLifecycleManager.reportLeaks();
+ * }</pre>
+ */
+public final class SessionLifecycleManager {
+
+	private static final Logger logger = LoggerUtils.getLogger(SessionLifecycleManager.class);
+	private static final Cleaner cleaner = Cleaner.create();
+	private static final Set<TrackedSession> liveSessions = ConcurrentHashMap.newKeySet();
+	private static final Map<Object, TrackedSession> sessionsByObject = Collections
+			.synchronizedMap(new WeakHashMap<>());
+	private static final List<Runnable> shutdownTasks = new CopyOnWriteArrayList<>();
+	private static final List<Runnable> runtimeShutdownTasks = new CopyOnWriteArrayList<>();
+	private static final AtomicLong reclaimedSessions = new AtomicLong();
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(SessionLifecycleManager::shutdown, "session-lifecycle"));
+	}
+
+	private SessionLifecycleManager() {
+	}
+
+	/**
+	 * Starts tracking a session. The cleanup action must not reference the
+	 * session object itself, otherwise it can never become unreachable and be
+	 * reclaimed.
+	 *
+	 * @param session     the object whose reachability decides whether the
+	 *                    session was abandoned, usually the {@link IActionUI}.
+	 * @param description a short description used in leak reports, e.g.
+	 *                    "Selenium ChromeDriver".
+	 * @param cleanup     releases the browser resources of an abandoned session.
+	 * @return the registration to close once the session has released its
+	 *         resources itself.
+	 */
+	public static Registration register(Object session, String description, Runnable cleanup) {
+		TrackedSession tracked = new TrackedSession(description, cleanup);
+		liveSessions.add(tracked);
+		sessionsByObject.put(session, tracked);
+		return new Registration(tracked, cleaner.register(session, tracked));
+	}
+
+	/**
+	 * Adds an action that runs once when a session is released, whether it is
+	 * closed explicitly, reclaimed or closed at shutdown. If the session is not
+	 * tracked or already released, the action runs immediately.
+	 *
+	 * @param session the session object passed to
+	 *                {@link #register(Object, String, Runnable)}.
+	 * @param action  the action, e.g. releasing a concurrency permit.
+	 */
+	public static void onRelease(Object session, Runnable action) {
+		TrackedSession tracked = sessionsByObject.get(session);
+		if (tracked == null || !tracked.addReleaseAction(action)) {
+			action.run();
+		}
+	}
+
+	/**
+	 * Adds a task that runs at JVM shutdown before open sessions are closed,
+	 * e.g. closing browser pools.
+	 *
+	 * @param task the shutdown task.
+	 */
+	public static void addShutdownTask(Runnable task) {
+		shutdownTasks.add(task);
+	}
+
+	/**
+	 * Adds a task that runs at JVM shutdown after all sessions are closed, for
+	 * resources shared by sessions such as driver processes.
+	 *
+	 * @param task the shutdown task.
+	 */
+	public static void addRuntimeShutdownTask(Runnable task) {
+		runtimeShutdownTasks.add(task);
+	}
+
+	/**
+	 * Gets the number of sessions that are currently open.
+	 *
+	 * @return the live session count.
+	 */
+	public static int getLiveSessionCount() {
+		return liveSessions.size();
+	}
+
+	/**
+	 * Gets the number of sessions that were abandoned without being closed and
+	 * reclaimed by the garbage collector.
+	 *
+	 * @return the reclaimed session count.
+	 */
+	public static long getReclaimedSessionCount() {
+		return reclaimedSessions.get();
+	}
+
+	/**
+	 * Gets a description of every open session with its creation time.
+	 *
+	 * @return the open sessions.
+	 */
+	public static List<String> getLiveSessions() {
+		List<String> sessions = new ArrayList<>();
+		for (TrackedSession tracked : liveSessions) {
+			sessions.add(tracked.description + " created at " + tracked.createdAt);
+		}
+		return sessions;
+	}
+
+	/**
+	 * Logs every session that is still open with the stack trace of where it was
+	 * created, e.g. at the end of a suite.
+	 *
+	 * @return the number of open sessions reported.
+	 */
+	public static int reportLeaks() {
+		int count = 0;
+		for (TrackedSession tracked : liveSessions) {
+			logger.warn("Browser session still open: {} created at {}", tracked.description, tracked.createdAt,
+					tracked.creationTrace);
+			count++;
+		}
+		return count;
+	}
+
+	private static void shutdown() {
+		runAll(shutdownTasks);
+		if (!liveSessions.isEmpty()) {
+			logger.warn("{} browser session(s) were not closed before shutdown", reportLeaks());
+			for (TrackedSession tracked : new ArrayList<>(liveSessions)) {
+				tracked.release();
+			}
+		}
+		runAll(runtimeShutdownTasks);
+	}
+
+	private static void runAll(List<Runnable> tasks) {
+		for (Runnable task : tasks) {
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				logger.error("Shutdown task failed", e);
+			}
+		}
+	}
+
+	/**
+	 * Handle of a tracked session.
+	 */
+	public static final class Registration {
+
+		private final TrackedSession tracked;
+		private final Cleaner.Cleanable cleanable;
+
+		private Registration(TrackedSession tracked, Cleaner.Cleanable cleanable) {
+			this.tracked = tracked;
+			this.cleanable = cleanable;
+		}
+
+		/**
+		 * Stops tracking a session that was closed explicitly. The cleanup action is
+		 * not run. Calling it more than once has no effect.
+		 */
+		public void close() {
+			tracked.explicitlyClosed.set(true);
+			cleanable.clean();
+		}
+
+		/**
+		 * Checks whether the session has been released.
+		 *
+		 * @return true if the session is no longer live.
+		 */
+		public boolean isClosed() {
+			return tracked.released.get();
+		}
+	}
+
+	/**
+	 * The state of a tracked session. It deliberately holds no reference to the
+	 * session object so that the Cleaner can detect abandoned sessions.
+	 */
+	private static final class TrackedSession implements Runnable {
+
+		private final String description;
+		private final Runnable cleanup;
+		private final Instant createdAt = Instant.now();
+		private final Throwable creationTrace;
+		private final AtomicBoolean explicitlyClosed = new AtomicBoolean();
+		private final AtomicBoolean released = new AtomicBoolean();
+		private final List<Runnable> releaseActions = new ArrayList<>();
+
+		private TrackedSession(String description, Runnable cleanup) {
+			this.description = description;
+			this.cleanup = cleanup;
+			this.creationTrace = new Throwable("Session created on thread " + Thread.currentThread().getName());
+		}
+
+		@Override
+		public void run() {
+			if (explicitlyClosed.get()) {
+				if (released.compareAndSet(false, true)) {
+					liveSessions.remove(this);
+					runReleaseActions();
+				}
+				return;
+			}
+			if (released.get()) {
+				return;
+			}
+			reclaimedSessions.incrementAndGet();
+			logger.warn("Reclaiming abandoned browser session: {} created at {}", description, createdAt,
+					creationTrace);
+			release();
+		}
+
+		/**
+		 * Runs the cleanup of an abandoned or leaked session once.
+		 */
+		private void release() {
+			if (!released.compareAndSet(false, true)) {
+				return;
+			}
+			liveSessions.remove(this);
+			try {
+				cleanup.run();
+			} catch (RuntimeException e) {
+				logger.error("Failed to release browser session: {}", description, e);
+			}
+			runReleaseActions();
+		}
+
+		/**
+		 * Adds a release action unless the session is already released.
+		 *
+		 * @return false if the session was already released.
+		 */
+		private synchronized boolean addReleaseAction(Runnable action) {
+			if (released.get()) {
+				return false;
+			}
+			releaseActions.add(action);
+			return true;
+		}
+
+		private void runReleaseActions() {
+			List<Runnable> actions;
+			synchronized (this) {
+				actions = new ArrayList<>(releaseActions);
+				releaseActions.clear();
+			}
+			for (Runnable action : actions) {
+				try {
+					action.run();
+				} catch (RuntimeException e) {
+					logger.error("Release action of browser session {} failed", description, e);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package io.github.shabryn2893.uicore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * Reuses authenticated browser sessions across tests. The first test that
+ * needs a given user or role logs in through the UI and the resulting cookies
+ * and storage are captured; later tests are seeded from that snapshot instead
+ * of logging in again.
+ * <p>
+ * Snapshots expire after a time to live, and a snapshot whose restored session
+ * turns out to be logged out is discarded and captured again. Logins for the
+ * same key are serialized so parallel tests do not log in twice.
+ * </p>
+ *
+ * Example Usage:
+ *
+ * <pre>{@code
+ * private static final SessionSnapshotStore SESSIONS = new SessionSnapshotStore(Duration.ofMinutes(30));
+ *
+ * SESSIONS.startSession("admin", ui, this::loginAsAdmin,
+ * 		browser -> browser.isElementPresent("ID", "logout"));
+ * }</pre>
+ */
+public class SessionSnapshotStore {
+
+	private static final Logger logger = LoggerUtils.getLogger(SessionSnapshotStore.class);
+	private final Duration timeToLive;
+	private final Clock clock;
+	private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+	private final Map<String, Object> loginLocks = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a snapshot store.
+	 *
+	 * @param timeToLive how long a captured session may be reused.
+	 */
+	public SessionSnapshotStore(Duration timeToLive) {
+		this(timeToLive, Clock.systemUTC());
+	}
+
+	/**
+	 * Creates a snapshot store that reads the time from a clock, e.g. a fixed
+	 * clock in tests.
+	 *
+	 * @param timeToLive how long a captured session may be reused.
+	 * @param clock      the clock snapshots are timed with.
+	 */
+	public SessionSnapshotStore(Duration timeToLive, Clock clock) {
+		this.timeToLive = timeToLive;
+		this.clock = clock;
+	}
+
+	/**
+	 * Brings a browser session into the logged in state for the given key.
+	 *
+	 * A valid snapshot is restored into the browser and verified with
+	 * {@code isLoggedIn}. If there is no valid snapshot, or the restored session
+	 * is not logged in, {@code login} is run and a fresh snapshot is captured.
+	 *
+	 * @param key        the user or role the session belongs to.
+	 * @param ui         the browser session to seed.
+	 * @param login      logs the browser in through the UI.
+	 * @param isLoggedIn checks whether the browser is currently logged in, e.g.
+	 *                   by looking for a logout link.
+	 */
+	public void startSession(String key, IActionUI ui, Consumer<IActionUI> login, Predicate<IActionUI> isLoggedIn) {
+		if (restore(key, ui, isLoggedIn)) {
+			return;
+		}
+		synchronized (loginLocks.computeIfAbsent(key, k -> new Object())) {
+			if (snapshots.containsKey(key) && restore(key, ui, isLoggedIn)) {
+				return;
+			}
+			logger.info("Logging in and capturing session snapshot for: {}", key);
+			login.accept(ui);
+			snapshots.put(key, new Snapshot(ui.captureSessionState(), clock.instant()));
+		}
+	}
+
+	/**
+	 * Discards the snapshot of a key so that the next session logs in again.
+	 *
+	 * @param key the user or role.
+	 */
+	public void invalidate(String key) {
+		snapshots.remove(key);
+	}
+
+	/**
+	 * Discards all snapshots.
+	 */
+	public void clear() {
+		snapshots.clear();
+	}
+
+	/**
+	 * Checks whether a key has a snapshot that has not yet expired.
+	 *
+	 * @param key the user or role.
+	 * @return true if a valid snapshot exists.
+	 */
+	public boolean hasValidSnapshot(String key) {
+		Snapshot snapshot = snapshots.get(key);
+		return snapshot != null && !snapshot.isExpired(timeToLive, clock);
+	}
+
+	/**
+	 * Restores the snapshot of a key if it is valid and still logged in.
+	 *
+	 * @param key        the user or role.
+	 * @param ui         the browser session to seed.
+	 * @param isLoggedIn checks whether the browser is logged in.
+	 * @return true if the browser is now logged in from the snapshot.
+	 */
+	private boolean restore(String key, IActionUI ui, Predicate<IActionUI> isLoggedIn) {
+		Snapshot snapshot = snapshots.get(key);
+		if (snapshot == null) {
+			return false;
+		}
+		if (snapshot.isExpired(timeToLive, clock)) {
+			logger.info("Session snapshot for {} expired", key);
+			snapshots.remove(key, snapshot);
+			return false;
+		}
+		ui.restoreSessionState(snapshot.state());
+		if (isLoggedIn.test(ui)) {
+			logger.info("Seeded browser session from snapshot for: {}", key);
+			return true;
+		}
+		logger.info("Session restored from snapshot for {} is logged out, capturing again", key);
+		snapshots.remove(key, snapshot);
+		ui.deleteAllCookies();
+		return false;
+	}
+
+	/**
+	 * A captured session state and the time it was captured.
+	 *
+	 * @param state      the session state JSON.
+	 * @param capturedAt the capture time.
+	 */
+	private record Snapshot(String state, Instant capturedAt) {
+
+		boolean isExpired(Duration timeToLive, Clock clock) {
+			return clock.instant().isAfter(capturedAt.plus(timeToLive));
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package io.github.shabryn2893.uicore;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Helpers for the session state JSON exchanged by
+ * {@link IActionUI#captureSessionState()} and
+ * {@link IActionUI#restoreSessionState(String)}.
+ */
+final class SessionStateJson {
+
+	private SessionStateJson() {
+	}
+
+	/**
+	 * Gets the captured origins of a session state, or an empty array.
+	 *
+	 * @param state the parsed session state.
+	 * @return the origin entries.
+	 */
+	static JSONArray origins(JSONObject state) {
+		JSONArray origins = state.optJSONArray("origins");
+		return origins == null ? new JSONArray() : origins;
+	}
+
+	/**
+	 * Adds the storage of one origin, as read by {@link UIScripts#READ_STORAGE},
+	 * to a session state, replacing an existing entry for the same origin.
+	 *
+	 * @param state       the session state to update.
+	 * @param storageJson the storage of the current page, or null if it could not
+	 *                    be read.
+	 */
+	static void mergeOrigin(JSONObject state, Object storageJson) {
+		if (storageJson == null) {
+			return;
+		}
+		JSONObject entry = new JSONObject(storageJson.toString());
+		JSONArray origins = origins(state);
+		for (int i = 0; i < origins.length(); i++) {
+			if (origins.getJSONObject(i).optString("origin").equals(entry.optString("origin"))) {
+				origins.remove(i);
+				break;
+			}
+		}
+		origins.put(entry);
+		state.put("origins", origins);
+	}
+}
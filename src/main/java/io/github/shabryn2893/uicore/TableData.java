@@ -0,0 +1,336 @@
+package io.github.shabryn2893.uicore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Column oriented, read-only snapshot of an HTML table as returned by
+ * {@link IActionUI#readTable(String, String, int)}.
+ * <p>
+ * Values are stored per column, so typed access to a whole column does not
+ * have to walk every row. Rows can still be iterated through {@link Row}
+ * views that read from the same storage.
+ * </p>
+ *
+ * Example Usage:
+ *
+ * <pre>{@code
+ * TableData table = ui.readTable("ID", "orders", 10);
+ * double[] totals = table.getDoubleColumn("Total");
+ * for (TableData.Row row : table) {
+ * 	logger.info("{} -> {}", row.get("Order"), row.get("Status"));
+ * }
+ * }</pre>
+ */
+public final class TableData implements Iterable<TableData.Row> {
+
+	private final String[] headers;
+	private final String[][] columns;
+	private final int rowCount;
+
+	/**
+	 * Creates a table from its headers and column values.
+	 *
+	 * @param headers the column headers, one per column.
+	 * @param columns the cell values, indexed as {@code columns[column][row]}.
+	 * @throws IllegalArgumentException if the header and column counts differ or
+	 *                                  the columns are of unequal length.
+	 */
+	public TableData(String[] headers, String[][] columns) {
+		if (headers.length != columns.length) {
+			throw new IllegalArgumentException(
+					"Header count " + headers.length + " does not match column count " + columns.length);
+		}
+		this.rowCount = columns.length == 0 ? 0 : columns[0].length;
+		for (String[] column : columns) {
+			if (column.length != rowCount) {
+				throw new IllegalArgumentException("All table columns must have the same number of rows");
+			}
+		}
+		this.headers = headers.clone();
+		this.columns = columns;
+	}
+
+	/**
+	 * Builds a table from the value returned by the table extraction script, i.e.
+	 * a map holding a {@code headers} list and a {@code columns} list of lists.
+	 *
+	 * @param scriptResult the raw result of the browser script.
+	 * @return the table data.
+	 * @throws IllegalArgumentException if the result does not have the expected
+	 *                                  shape.
+	 */
+	public static TableData fromScriptResult(Object scriptResult) {
+		if (!(scriptResult instanceof Map<?, ?> result) || !(result.get("headers") instanceof List<?> rawHeaders)
+				|| !(result.get("columns") instanceof List<?> rawColumns)) {
+			throw new IllegalArgumentException("Unexpected table script result: " + scriptResult);
+		}
+		String[] headers = new String[rawHeaders.size()];
+		for (int i = 0; i < headers.length; i++) {
+			headers[i] = String.valueOf(rawHeaders.get(i));
+		}
+		String[][] columns = new String[rawColumns.size()][];
+		for (int i = 0; i < columns.length; i++) {
+			List<?> rawColumn = (List<?>) rawColumns.get(i);
+			columns[i] = new String[rawColumn.size()];
+			for (int j = 0; j < columns[i].length; j++) {
+				Object value = rawColumn.get(j);
+				columns[i][j] = value == null ? "" : value.toString();
+			}
+		}
+		return new TableData(headers, columns);
+	}
+
+	/**
+	 * Gets the column headers in display order.
+	 *
+	 * @return an unmodifiable list of headers.
+	 */
+	public List<String> getHeaders() {
+		return Collections.unmodifiableList(Arrays.asList(headers));
+	}
+
+	/**
+	 * Gets the number of body rows.
+	 *
+	 * @return the row count.
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Gets the number of columns.
+	 *
+	 * @return the column count.
+	 */
+	public int getColumnCount() {
+		return headers.length;
+	}
+
+	/**
+	 * Finds the index of a column by its header, ignoring case and surrounding
+	 * white space.
+	 *
+	 * @param header the column header.
+	 * @return the column index, or -1 if there is no such column.
+	 */
+	public int indexOf(String header) {
+		for (int i = 0; i < headers.length; i++) {
+			if (headers[i].trim().equalsIgnoreCase(header.trim())) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the value of a single cell.
+	 *
+	 * @param rowIndex    the zero based body row index.
+	 * @param columnIndex the zero based column index.
+	 * @return the cell text.
+	 */
+	public String getValue(int rowIndex, int columnIndex) {
+		return columns[columnIndex][rowIndex];
+	}
+
+	/**
+	 * Gets the value of a single cell.
+	 *
+	 * @param rowIndex the zero based body row index.
+	 * @param header   the column header.
+	 * @return the cell text.
+	 * @throws IllegalArgumentException if there is no such column.
+	 */
+	public String getValue(int rowIndex, String header) {
+		return columns[requireColumn(header)][rowIndex];
+	}
+
+	/**
+	 * Gets all values of a column as text.
+	 *
+	 * @param header the column header.
+	 * @return an unmodifiable list of the column values.
+	 * @throws IllegalArgumentException if there is no such column.
+	 */
+	public List<String> getColumn(String header) {
+		return Collections.unmodifiableList(Arrays.asList(columns[requireColumn(header)]));
+	}
+
+	/**
+	 * Gets all values of a column converted by the given function.
+	 *
+	 * @param <T>       the converted type.
+	 * @param header    the column header.
+	 * @param converter the conversion applied to every cell text.
+	 * @return the converted column values.
+	 * @throws IllegalArgumentException if there is no such column.
+	 */
+	public <T> List<T> getColumn(String header, Function<String, T> converter) {
+		String[] column = columns[requireColumn(header)];
+		List<T> values = new ArrayList<>(column.length);
+		for (String value : column) {
+			values.add(converter.apply(value));
+		}
+		return values;
+	}
+
+	/**
+	 * Gets all values of a column as numbers. Grouping separators, currency
+	 * symbols and other non numeric characters are ignored; cells that do not
+	 * contain a number are returned as {@link Double#NaN}.
+	 *
+	 * @param header the column header.
+	 * @return the numeric column values.
+	 * @throws IllegalArgumentException if there is no such column.
+	 */
+	public double[] getDoubleColumn(String header) {
+		String[] column = columns[requireColumn(header)];
+		double[] values = new double[column.length];
+		for (int i = 0; i < column.length; i++) {
+			values[i] = toDouble(column[i]);
+		}
+		return values;
+	}
+
+	/**
+	 * Gets a view of a single body row.
+	 *
+	 * @param rowIndex the zero based body row index.
+	 * @return the row view.
+	 */
+	public Row getRow(int rowIndex) {
+		if (rowIndex < 0 || rowIndex >= rowCount) {
+			throw new IndexOutOfBoundsException("Row " + rowIndex + " out of range 0.." + (rowCount - 1));
+		}
+		return new Row(rowIndex);
+	}
+
+	/**
+	 * Iterates over the body rows in display order.
+	 *
+	 * @return an iterator of row views.
+	 */
+	@Override
+	public Iterator<Row> iterator() {
+		return new Iterator<>() {
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < rowCount;
+			}
+
+			@Override
+			public Row next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return new Row(next++);
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return "TableData[columns=" + Arrays.toString(headers) + ", rows=" + rowCount + "]";
+	}
+
+	private int requireColumn(String header) {
+		int index = indexOf(header);
+		if (index < 0) {
+			throw new IllegalArgumentException("No table column with header: " + header);
+		}
+		return index;
+	}
+
+	private static double toDouble(String value) {
+		String numeric = value.replaceAll("[^0-9eE+\\-.]", "");
+		if (numeric.isEmpty()) {
+			return Double.NaN;
+		}
+		try {
+			return Double.parseDouble(numeric);
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * A lightweight view of one body row of a {@link TableData}.
+	 */
+	public final class Row {
+
+		private final int index;
+
+		private Row(int index) {
+			this.index = index;
+		}
+
+		/**
+		 * Gets the zero based index of this row.
+		 *
+		 * @return the row index.
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		/**
+		 * Gets a cell of this row by column index.
+		 *
+		 * @param columnIndex the zero based column index.
+		 * @return the cell text.
+		 */
+		public String get(int columnIndex) {
+			return columns[columnIndex][index];
+		}
+
+		/**
+		 * Gets a cell of this row by column header.
+		 *
+		 * @param header the column header.
+		 * @return the cell text.
+		 */
+		public String get(String header) {
+			return columns[requireColumn(header)][index];
+		}
+
+		/**
+		 * Gets a cell of this row as a number, see
+		 * {@link TableData#getDoubleColumn(String)}.
+		 *
+		 * @param header the column header.
+		 * @return the numeric value or {@link Double#NaN}.
+		 */
+		public double getDouble(String header) {
+			return toDouble(get(header));
+		}
+
+		/**
+		 * Copies this row into a map keyed by column header.
+		 *
+		 * @return the row values in column order.
+		 */
+		public Map<String, String> toMap() {
+			Map<String, String> values = new LinkedHashMap<>();
+			for (int i = 0; i < headers.length; i++) {
+				values.put(headers[i], columns[i][index]);
+			}
+			return values;
+		}
+
+		@Override
+		public String toString() {
+			return toMap().toString();
+		}
+	}
+}
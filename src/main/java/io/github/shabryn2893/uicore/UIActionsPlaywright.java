@@ -1,9 +1,20 @@
 package io.github.shabryn2893.uicore;
 
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
 
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.slf4j.Logger;
 
 import com.microsoft.playwright.Browser;
@@ -11,8 +22,11 @@ import com.microsoft.playwright.BrowserContext;
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.options.Cookie;
 import com.microsoft.playwright.options.MouseButton;
+import com.microsoft.playwright.options.SameSiteAttribute;
 import com.microsoft.playwright.options.SelectOption;
+import com.microsoft.playwright.options.WaitUntilState;
 
 import io.github.shabryn2893.locatorfactory.ElementLocator;
 import io.github.shabryn2893.locatorfactory.LocatorFactory;
@@ -25,10 +39,34 @@ import io.github.shabryn2893.utils.LoggerUtils;
  */
 public class UIActionsPlaywright implements IActionUI {
 	private static final Logger logger = LoggerUtils.getLogger(UIActionsPlaywright.class);
-	private Browser browser;
 	private BrowserContext context;
+	private AutoCloseable owner;
 	private Page page;
-	private Locator element;
+	private final ScriptRegistry scripts = new ScriptRegistry();
+	private final Set<String> installedScripts = new HashSet<>();
+	private final SessionLifecycleManager.Registration lifecycle;
+	private WaitUntilState navigationWaitUntil = WaitUntilState.LOAD;
+
+	/**
+	 * Contexts of abandoned sessions on shared browsers. Playwright objects may
+	 * only be used from the thread that created them, so these are closed by the
+	 * next session created in the same browser instead of by the Cleaner thread.
+	 */
+	private static final Map<Browser, Queue<BrowserContext>> abandonedContexts = new ConcurrentHashMap<>();
+
+	/**
+	 * Calls a script installed on {@code window} by name and reports whether it
+	 * was found, so that a missing install can fall back to inline source.
+	 */
+	private static final String INVOKE_SCRIPT = "([name, args]) => { const scripts = window.__selAutoCoreScripts; "
+			+ "return scripts && scripts[name] ? { found: true, value: scripts[name](...args) } : { found: false }; }";
+
+	/**
+	 * Same as {@link #INVOKE_SCRIPT} with a located element as first argument.
+	 */
+	private static final String INVOKE_SCRIPT_ON_ELEMENT = "(element, [name, args]) => { "
+			+ "const scripts = window.__selAutoCoreScripts; return scripts && scripts[name] "
+			+ "? { found: true, value: scripts[name](element, ...args) } : { found: false }; }";
 
 	/**
 	 * Constructor to initialize UIActionsPlaywright with a given Browser instance.
@@ -36,9 +74,87 @@ public class UIActionsPlaywright implements IActionUI {
 	 * @param browser the Playwright Browser instance.
 	 */
 	public UIActionsPlaywright(Browser browser) {
-		this.browser = browser;
-		this.context = browser.newContext();
+		this(browser.newContext(), browser);
+	}
+
+	/**
+	 * Constructor to initialize UIActionsPlaywright with an already configured
+	 * BrowserContext, e.g. one with request routes applied. Closing the browser
+	 * closes only this context, so the underlying Browser can be shared.
+	 *
+	 * @param context the Playwright BrowserContext to open the page in.
+	 */
+	public UIActionsPlaywright(BrowserContext context) {
+		this(context, null);
+	}
+
+	/**
+	 * Constructor to initialize UIActionsPlaywright with a BrowserContext and the
+	 * resource that owns it, e.g. a dedicated Browser or Playwright instance.
+	 *
+	 * @param context the Playwright BrowserContext to open the page in.
+	 * @param owner   closed together with the context, or null if the context
+	 *                is the only resource of this session.
+	 */
+	public UIActionsPlaywright(BrowserContext context, AutoCloseable owner) {
+		this.context = context;
+		this.owner = owner;
+		closeAbandonedContexts(context.browser());
 		this.page = context.newPage();
+		String browserName = context.browser() == null ? "" : context.browser().browserType().name() + " ";
+		this.lifecycle = SessionLifecycleManager.register(this, "Playwright " + browserName + "context",
+				reclaimAction(context, owner));
+	}
+
+	/**
+	 * Builds the action that releases an abandoned session. It captures only the
+	 * Playwright resources, never this session object.
+	 *
+	 * @param context the context of the session.
+	 * @param owner   the owned Browser or Playwright instance, or null.
+	 * @return the reclaim action.
+	 */
+	private static Runnable reclaimAction(BrowserContext context, AutoCloseable owner) {
+		Browser browser = context.browser();
+		if (owner == null && browser != null) {
+			return () -> abandonedContexts.computeIfAbsent(browser, b -> new ConcurrentLinkedQueue<>()).add(context);
+		}
+		return () -> closeResources(context, owner);
+	}
+
+	/**
+	 * Closes the contexts of abandoned sessions that share a browser with a new
+	 * session.
+	 *
+	 * @param browser the shared browser, or null for a persistent context.
+	 */
+	private static void closeAbandonedContexts(Browser browser) {
+		Queue<BrowserContext> contexts = browser == null ? null : abandonedContexts.get(browser);
+		BrowserContext abandoned;
+		while (contexts != null && (abandoned = contexts.poll()) != null) {
+			try {
+				abandoned.close();
+			} catch (PlaywrightException e) {
+				logger.warn("Failed to close abandoned browser context: {}", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Closes a context and the resource that owns it.
+	 *
+	 * @param context the context to close.
+	 * @param owner   the owned Browser or Playwright instance, or null.
+	 */
+	private static void closeResources(BrowserContext context, AutoCloseable owner) {
+		context.close();
+		if (owner != null) {
+			try {
+				owner.close();
+			} catch (Exception e) {
+				logger.error("Failed to close browser resources: {}", e.getMessage());
+			}
+		}
 	}
 
 	/**
@@ -70,7 +186,7 @@ public class UIActionsPlaywright implements IActionUI {
 	 */
 	@Override
 	public void maximizeScreen() {
-		this.executeJSAction("window.moveTo(0, 0); window.resizeTo(screen.width, screen.height);");
+		this.executeRegisteredScript(UIScripts.MAXIMIZE_WINDOW.name());
 	}
 
 	/**
@@ -90,11 +206,17 @@ public class UIActionsPlaywright implements IActionUI {
 	}
 
 	/**
-	 * Closes the entire browser session.
+	 * Closes the browser session. The context is closed first so that a HAR file
+	 * recorded for it is written out; a shared Browser is left running for other
+	 * sessions, while an owned Browser or Playwright instance is closed as well.
 	 */
 	@Override
 	public void closeBrowser() {
-		this.browser.close();
+		try {
+			closeResources(this.context, this.owner);
+		} finally {
+			this.lifecycle.close();
+		}
 	}
 
 	/**
@@ -104,7 +226,18 @@ public class UIActionsPlaywright implements IActionUI {
 	 */
 	@Override
 	public void openURL(String url) {
-		this.page.navigate(url);
+		this.page.navigate(url, new Page.NavigateOptions().setWaitUntil(this.navigationWaitUntil));
+	}
+
+	/**
+	 * Sets the load state {@link #openURL(String)} waits for, e.g.
+	 * {@link WaitUntilState#DOMCONTENTLOADED} to return before images and
+	 * stylesheets have loaded.
+	 *
+	 * @param navigationWaitUntil the load state to wait for.
+	 */
+	public void setNavigationWaitUntil(WaitUntilState navigationWaitUntil) {
+		this.navigationWaitUntil = navigationWaitUntil;
 	}
 
 	/**
@@ -117,8 +250,8 @@ public class UIActionsPlaywright implements IActionUI {
 	@Override
 	public void click(String locatorType, String locatorValue, int maxWaitTime) {
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			this.element = findElement(locatorType, locatorValue);
-			this.element.click();
+			Locator element = findElement(locatorType, locatorValue);
+			element.click();
 		} else {
 			logger.error("WebElement {} is not clickable.", locatorValue);
 			assert false;
@@ -136,8 +269,8 @@ public class UIActionsPlaywright implements IActionUI {
 	@Override
 	public void type(String locatorType, String locatorValue, String textToEnter, int maxWaitTime) {
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			this.element = findElement(locatorType, locatorValue);
-			this.element.fill(textToEnter);
+			Locator element = findElement(locatorType, locatorValue);
+			element.fill(textToEnter);
 		} else {
 			logger.error("WebElement {} is not enabled.", locatorValue);
 			assert false;
@@ -176,17 +309,17 @@ public class UIActionsPlaywright implements IActionUI {
 	 */
 	@Override
 	public boolean isElementDisplayedOrEnabledOrSelected(String locatorType, String locatorValue, String stateType) {
-		this.element = findElement(locatorType, locatorValue);
+		Locator element = findElement(locatorType, locatorValue);
 		boolean status = false;
 		switch (stateType.toUpperCase()) {
 		case "DISPLAYED":
-			status = this.element.isVisible();
+			status = element.isVisible();
 			break;
 		case "ENABLED":
-			status = this.element.isEnabled();
+			status = element.isEnabled();
 			break;
 		case "SELECTED":
-			status = this.element.isChecked();
+			status = element.isChecked();
 			break;
 		default:
 			logger.error("Unsupported state Type:{} ", stateType);
@@ -209,8 +342,8 @@ public class UIActionsPlaywright implements IActionUI {
 	public String getAttributeValue(String locatorType, String locatorValue, String attributeName, int maxWaitTime) {
 		String attributeValue = null;
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			this.element = findElement(locatorType, locatorValue);
-			attributeValue = this.element.getAttribute(attributeName);
+			Locator element = findElement(locatorType, locatorValue);
+			attributeValue = element.getAttribute(attributeName);
 		} else {
 			logger.info("Unable to find attribute value as Web Element is not present in the DOM");
 			assert false;
@@ -252,8 +385,8 @@ public class UIActionsPlaywright implements IActionUI {
 	 */
 	@Override
 	public String takeScreenshot(String locatorType, String locatorValue, String screenshotPath) {
-		this.element = findElement(locatorType, locatorValue);
-		byte[] buffer = this.element.screenshot(new Locator.ScreenshotOptions().setPath(Paths.get(screenshotPath)));
+		Locator element = findElement(locatorType, locatorValue);
+		byte[] buffer = element.screenshot(new Locator.ScreenshotOptions().setPath(Paths.get(screenshotPath)));
 		return Base64.getEncoder().encodeToString(buffer);
 	}
 
@@ -266,21 +399,20 @@ public class UIActionsPlaywright implements IActionUI {
 	 */
 	@Override
 	public void jsClick(String locatorType, String locatorValue, int maxWaitTime) {
-		String jsSelector;
+		boolean isXpath;
 		switch (locatorType.toUpperCase()) {
 		case "CSS":
-			jsSelector = "document.querySelector('" + locatorValue + "')";
+			isXpath = false;
 			break;
 		case "XPATH":
-			jsSelector = "document.evaluate(\"" + locatorValue
-					+ "\", document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue";
+			isXpath = true;
 			break;
 		default:
 			throw new IllegalArgumentException("Unsupported locator type: " + locatorType);
 		}
 
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			this.executeJSAction(jsSelector + ".click()");
+			this.executeRegisteredScript(UIScripts.CLICK_BY_SELECTOR.name(), locatorValue, isXpath);
 		} else {
 			logger.info("Unable to perform JSClick: Web Element is not present");
 			assert false;
@@ -299,8 +431,8 @@ public class UIActionsPlaywright implements IActionUI {
 	public String getText(String locatorType, String locatorValue, int maxWaitTime) {
 		String textValue = null;
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			this.element = findElement(locatorType, locatorValue);
-			textValue = this.element.textContent().trim();
+			Locator element = findElement(locatorType, locatorValue);
+			textValue = element.textContent().trim();
 		} else {
 			logger.info("Unable to get Text: Web Element is not present");
 			assert false;
@@ -321,11 +453,11 @@ public class UIActionsPlaywright implements IActionUI {
 	public void scrollToElement(String locatorType, String locatorValue, String scrollType, int maxWaitTime) {
 
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			this.element = findElement(locatorType, locatorValue);
+			Locator element = findElement(locatorType, locatorValue);
 			if (scrollType.equalsIgnoreCase("NORMAL")) {
-				this.element.scrollIntoViewIfNeeded();
+				element.scrollIntoViewIfNeeded();
 			} else {
-				this.executeJSAction("window.scrollTo(0, document.body.scrollHeight);");
+				this.executeRegisteredScript(UIScripts.SCROLL_TO_BOTTOM.name());
 			}
 
 		} else {
@@ -495,8 +627,8 @@ public class UIActionsPlaywright implements IActionUI {
 	@Override
 	public void hoverElement(String locatorType, String locatorValue, int maxWaitTime) {
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			this.element = this.findElement(locatorType, locatorValue);
-			this.element.hover();
+			Locator element = findElement(locatorType, locatorValue);
+			element.hover();
 		} else {
 			logger.error("Unable to hover WebElement {}", locatorValue);
 			assert false;
@@ -514,8 +646,8 @@ public class UIActionsPlaywright implements IActionUI {
 	@Override
 	public void rightClickElement(String locatorType, String locatorValue, int maxWaitTime) {
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			this.element = this.findElement(locatorType, locatorValue);
-			this.element.click(new Locator.ClickOptions().setButton(MouseButton.RIGHT));
+			Locator element = findElement(locatorType, locatorValue);
+			element.click(new Locator.ClickOptions().setButton(MouseButton.RIGHT));
 		} else {
 			logger.error("Unable to perfom right click on WebElement {}", locatorValue);
 			assert false;
@@ -533,8 +665,8 @@ public class UIActionsPlaywright implements IActionUI {
 	public void doubleClickElement(String locatorType, String locatorValue, int maxWaitTime) {
 
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			this.element = this.findElement(locatorType, locatorValue);
-			this.element.dblclick();
+			Locator element = findElement(locatorType, locatorValue);
+			element.dblclick();
 		} else {
 			logger.error("Unable to perfom double click on WebElement {}", locatorValue);
 			assert false;
@@ -665,4 +797,233 @@ public class UIActionsPlaywright implements IActionUI {
 		return this.page.evaluate(script, args);
 	}
 
+	/**
+	 * Registers a named JavaScript function for this session. The function is
+	 * installed lazily on its first invocation.
+	 *
+	 * @param name           the script name
+	 * @param functionSource a JavaScript function expression
+	 */
+	@Override
+	public void registerScript(String name, String functionSource) {
+		scripts.register(name, functionSource);
+		installedScripts.remove(name);
+	}
+
+	/**
+	 * Invokes a registered script by name. On first use the script is installed
+	 * on {@code window} of the current page and, through an init script, of every
+	 * document the context loads later; after that only the name and arguments
+	 * are sent. Falls back to sending the source inline when the current document
+	 * does not have the script installed.
+	 *
+	 * @param name the script name
+	 * @param args the arguments passed to the script function
+	 * @return the value returned by the script function
+	 */
+	@Override
+	public Object executeRegisteredScript(String name, Object... args) {
+		installScript(name);
+		Object result = this.page.evaluate(INVOKE_SCRIPT, Arrays.asList(name, Arrays.asList(args)));
+		if (result instanceof Map<?, ?> invocation && Boolean.TRUE.equals(invocation.get("found"))) {
+			return invocation.get("value");
+		}
+		logger.info("Script {} is not installed in the current document, sending it inline", name);
+		return this.page.evaluate("(args) => (" + scripts.getSource(name) + ").apply(null, args)",
+				Arrays.asList(args));
+	}
+
+	/**
+	 * Invokes a registered script with the given element as its first argument.
+	 *
+	 * @param target the element passed to the script
+	 * @param name   the script name
+	 * @param args   further arguments passed to the script function
+	 * @return the value returned by the script function
+	 */
+	private Object evaluateRegisteredScript(Locator target, String name, Object... args) {
+		installScript(name);
+		Object result = target.evaluate(INVOKE_SCRIPT_ON_ELEMENT, Arrays.asList(name, Arrays.asList(args)));
+		if (result instanceof Map<?, ?> invocation && Boolean.TRUE.equals(invocation.get("found"))) {
+			return invocation.get("value");
+		}
+		logger.info("Script {} is not installed in the current document, sending it inline", name);
+		return target.evaluate("(element, args) => (" + scripts.getSource(name) + ").apply(null, [element, ...args])",
+				Arrays.asList(args));
+	}
+
+	/**
+	 * Captures the storage state of the context plus the sessionStorage of the
+	 * current page, which Playwright's storage state does not include.
+	 *
+	 * @return the session state as a JSON string
+	 */
+	@Override
+	public String captureSessionState() {
+		JSONObject state = new JSONObject(this.context.storageState());
+		SessionStateJson.mergeOrigin(state, this.executeRegisteredScript(UIScripts.READ_STORAGE.name()));
+		return state.toString();
+	}
+
+	/**
+	 * Restores a captured session state. Cookies are added to the context
+	 * directly; storage is written after navigating to each captured origin.
+	 *
+	 * @param sessionState the session state as a JSON string
+	 */
+	@Override
+	public void restoreSessionState(String sessionState) {
+		JSONObject state = new JSONObject(sessionState);
+		JSONArray cookiesJson = state.optJSONArray("cookies");
+		if (cookiesJson != null && !cookiesJson.isEmpty()) {
+			List<Cookie> cookies = new ArrayList<>();
+			for (int i = 0; i < cookiesJson.length(); i++) {
+				JSONObject cookieJson = cookiesJson.getJSONObject(i);
+				Cookie cookie = new Cookie(cookieJson.getString("name"), cookieJson.getString("value"))
+						.setDomain(cookieJson.getString("domain")).setPath(cookieJson.optString("path", "/"))
+						.setExpires(cookieJson.optDouble("expires", -1)).setHttpOnly(cookieJson.optBoolean("httpOnly"))
+						.setSecure(cookieJson.optBoolean("secure"));
+				if (cookieJson.has("sameSite")) {
+					cookie.setSameSite(SameSiteAttribute.valueOf(cookieJson.getString("sameSite").toUpperCase()));
+				}
+				cookies.add(cookie);
+			}
+			this.context.addCookies(cookies);
+		}
+		JSONArray origins = SessionStateJson.origins(state);
+		for (int i = 0; i < origins.length(); i++) {
+			JSONObject entry = origins.getJSONObject(i);
+			if (!this.page.url().startsWith(entry.getString("origin"))) {
+				this.page.navigate(entry.getString("origin"));
+			}
+			this.executeRegisteredScript(UIScripts.WRITE_STORAGE.name(), entry.toString());
+		}
+	}
+
+	/**
+	 * Closes every page of the context but the first, clears cookies,
+	 * permissions and the storage of the current page and navigates to
+	 * {@code about:blank}.
+	 */
+	@Override
+	public void resetSession() {
+		List<Page> pages = this.context.pages();
+		for (int i = 1; i < pages.size(); i++) {
+			pages.get(i).close();
+		}
+		this.page = pages.isEmpty() ? this.context.newPage() : pages.get(0);
+		this.executeRegisteredScript(UIScripts.CLEAR_STORAGE.name());
+		this.context.clearCookies();
+		this.context.clearPermissions();
+		this.page.navigate("about:blank");
+	}
+
+	/**
+	 * Installs a registered script into the context once per session.
+	 *
+	 * @param name the script name
+	 */
+	private void installScript(String name) {
+		if (installedScripts.add(name)) {
+			String install = "(window.__selAutoCoreScripts = window.__selAutoCoreScripts || {})['" + name + "'] = "
+					+ scripts.getSource(name) + ";";
+			this.context.addInitScript(install);
+			this.page.evaluate("() => { " + install + " }");
+		}
+	}
+
+	/**
+	 * Reads the specified table with a single script call.
+	 *
+	 * @param locatorType  the type of locator (e.g., CSS, XPATH)
+	 * @param locatorValue the value of the locator of the table
+	 * @param maxWaitTime  the maximum time to wait for the table to appear
+	 * @return the table contents, or null if the table is not present
+	 */
+	@Override
+	public TableData readTable(String locatorType, String locatorValue, int maxWaitTime) {
+		TableData table = null;
+		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
+			Locator element = findElement(locatorType, locatorValue);
+			table = TableData
+					.fromScriptResult(evaluateRegisteredScript(element.first(), UIScripts.TABLE_EXTRACT.name()));
+		} else {
+			logger.info("Unable to read table: Web Element is not present");
+			assert false;
+		}
+		return table;
+	}
+
+	/**
+	 * Reads a paginated table page by page, clicking the paging control until it
+	 * is missing or disabled.
+	 *
+	 * @param locatorType      the type of locator of the table
+	 * @param locatorValue     the value of the locator of the table
+	 * @param nextLocatorType  the type of locator of the "next page" control
+	 * @param nextLocatorValue the value of the locator of the "next page" control
+	 * @param maxWaitTime      the maximum time to wait for each page to load
+	 * @param pageHandler      receives every page in order
+	 * @return the number of pages read
+	 */
+	@Override
+	public int readTablePages(String locatorType, String locatorValue, String nextLocatorType,
+			String nextLocatorValue, int maxWaitTime, Consumer<TableData> pageHandler) {
+		int pages = 0;
+		while (true) {
+			TableData table = readTable(locatorType, locatorValue, maxWaitTime);
+			if (table == null) {
+				logger.error("Table {} not found, stopping after {} pages", locatorValue, pages);
+				break;
+			}
+			pageHandler.accept(table);
+			pages++;
+			if (!isPagingControlEnabled(nextLocatorType, nextLocatorValue)) {
+				break;
+			}
+			String signature = getTableSignature(locatorType, locatorValue);
+			this.findElement(nextLocatorType, nextLocatorValue).first().click();
+			long deadline = System.currentTimeMillis() + maxWaitTime * 1000L;
+			while (signature.equals(getTableSignature(locatorType, locatorValue))
+					&& System.currentTimeMillis() < deadline) {
+				this.page.waitForTimeout(250);
+			}
+			if (signature.equals(getTableSignature(locatorType, locatorValue))) {
+				logger.error("Table {} did not change after paging, stopping after {} pages", locatorValue, pages);
+				break;
+			}
+		}
+		return pages;
+	}
+
+	/**
+	 * Checks whether a paging control is present and can be clicked.
+	 *
+	 * @param locatorType  the type of locator of the paging control
+	 * @param locatorValue the value of the locator of the paging control
+	 * @return true if the control is visible and not disabled
+	 */
+	private boolean isPagingControlEnabled(String locatorType, String locatorValue) {
+		Locator control = this.findElement(locatorType, locatorValue);
+		if (control == null || control.count() == 0) {
+			return false;
+		}
+		control = control.first();
+		String cssClass = control.getAttribute("class");
+		return control.isVisible() && control.isEnabled() && !"true".equals(control.getAttribute("aria-disabled"))
+				&& (cssClass == null || !cssClass.contains("disabled"));
+	}
+
+	/**
+	 * Gets a cheap fingerprint of the table used to detect page changes.
+	 *
+	 * @param locatorType  the type of locator of the table
+	 * @param locatorValue the value of the locator of the table
+	 * @return the table signature
+	 */
+	private String getTableSignature(String locatorType, String locatorValue) {
+		return String.valueOf(evaluateRegisteredScript(this.findElement(locatorType, locatorValue).first(),
+				UIScripts.TABLE_SIGNATURE.name()));
+	}
+
 }
@@ -3,18 +3,37 @@ package io.github.shabryn2893.uicore;
 import java.io.File;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.apache.commons.io.FileUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptException;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.ScriptKey;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.WindowType;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.DevToolsException;
+import org.openqa.selenium.devtools.HasDevTools;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.FluentWait;
 import org.openqa.selenium.support.ui.Select;
@@ -34,8 +53,18 @@ import io.github.shabryn2893.utils.LoggerUtils;
 public class UIActionsSelenium implements IActionUI {
 	private static final Logger logger = LoggerUtils.getLogger(UIActionsSelenium.class);
 	private WebDriver driver;
-	private WebElement element = null;
 	private Actions action = null;
+	private final ScriptRegistry scripts = new ScriptRegistry();
+	private final Map<String, ScriptKey> pinnedScripts = new HashMap<>();
+	private boolean pinningSupported = true;
+	private final SessionLifecycleManager.Registration lifecycle;
+	private BiDiEventHub eventHub;
+
+	/**
+	 * Events after which an element lookup may give a different result.
+	 */
+	private static final Set<BrowserEvent.Type> PAGE_CHANGE_EVENTS = EnumSet.of(BrowserEvent.Type.DOM_MUTATION,
+			BrowserEvent.Type.DOM_CONTENT_LOADED, BrowserEvent.Type.LOAD);
 
 	/**
 	 * Constructs a UIActionsSelenium object with the specified WebDriver.
@@ -45,6 +74,43 @@ public class UIActionsSelenium implements IActionUI {
 	public UIActionsSelenium(WebDriver driver) {
 		this.driver = driver;
 		action = new Actions(driver);
+		this.lifecycle = SessionLifecycleManager.register(this, "Selenium " + driver.getClass().getSimpleName(),
+				driver::quit);
+		if (driver instanceof HasCapabilities session
+				&& session.getCapabilities().getCapability("webSocketUrl") instanceof String) {
+			try {
+				this.eventHub = new BiDiEventHub(driver);
+			} catch (WebDriverException e) {
+				logger.warn("WebDriver BiDi is not available, falling back to polling: {}", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Checks whether this session receives browser events over WebDriver BiDi.
+	 * The driver must have been started with the {@code webSocketUrl}
+	 * capability, see {@code SeleniumDriverFactory#setBiDiEnabled(boolean)}.
+	 *
+	 * @return true if waits are event driven.
+	 */
+	@Override
+	public boolean isBiDiEnabled() {
+		return eventHub != null;
+	}
+
+	/**
+	 * Gets the hub that publishes the navigation, network, log and DOM events of
+	 * this session.
+	 *
+	 * @return the event hub.
+	 * @throws IllegalStateException if the session was not started with BiDi.
+	 */
+	@Override
+	public BiDiEventHub getEventHub() {
+		if (eventHub == null) {
+			throw new IllegalStateException("WebDriver BiDi is not enabled for this session");
+		}
+		return eventHub;
 	}
 
 	/**
@@ -100,7 +166,14 @@ public class UIActionsSelenium implements IActionUI {
 	 */
 	@Override
 	public void closeBrowser() {
-		driver.quit();
+		try {
+			if (eventHub != null) {
+				eventHub.close();
+			}
+			driver.quit();
+		} finally {
+			lifecycle.close();
+		}
 	}
 
 	/**
@@ -124,7 +197,7 @@ public class UIActionsSelenium implements IActionUI {
 	@Override
 	public void click(String locatorType, String locatorValue, int maxWaitTime) {
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			element = findElement(locatorType, locatorValue);
+			WebElement element = findElement(locatorType, locatorValue);
 			element.click();
 		} else {
 			logger.error("WebElement {} is not clickable.", locatorValue);
@@ -144,7 +217,7 @@ public class UIActionsSelenium implements IActionUI {
 	@Override
 	public void type(String locatorType, String locatorValue, String textToEnter, int maxWaitTime) {
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			element = findElement(locatorType, locatorValue);
+			WebElement element = findElement(locatorType, locatorValue);
 			element.sendKeys(textToEnter);
 		} else {
 			logger.error("WebElement {} is not enabled.", locatorValue);
@@ -178,17 +251,25 @@ public class UIActionsSelenium implements IActionUI {
 	}
 
 	/**
-	 * Waits for the page to load completely within the specified time.
+	 * Waits for the page to load completely within the specified time. With
+	 * WebDriver BiDi the ready state is only checked again after a load event.
 	 *
 	 * @param time the maximum time to wait for the page to load
 	 */
 	@Override
 	public void waitForPageLoad(int time) {
 		Function<WebDriver, Boolean> function = wDriver -> {
-			String readyState = (String) this.executeJSAction("return document.readyState");
+			String readyState = (String) this.executeRegisteredScript(UIScripts.READY_STATE.name());
 			logger.info("Current Window State:{}", readyState);
 			return "complete".equals(readyState);
 		};
+		if (eventHub != null) {
+			if (!eventHub.waitFor(EnumSet.of(BrowserEvent.Type.LOAD), () -> function.apply(driver),
+					Duration.ofSeconds(time))) {
+				throw new TimeoutException("Page did not finish loading within " + time + " seconds");
+			}
+			return;
+		}
 		setWebDriverWait(function, time);
 	}
 
@@ -222,7 +303,7 @@ public class UIActionsSelenium implements IActionUI {
 	 */
 	@Override
 	public boolean isElementDisplayedOrEnabledOrSelected(String locatorType, String locatorValue, String stateType) {
-		element = findElement(locatorType, locatorValue);
+		WebElement element = findElement(locatorType, locatorValue);
 		boolean status = false;
 		switch (stateType.toUpperCase()) {
 		case "DISPLAYED": {
@@ -258,7 +339,7 @@ public class UIActionsSelenium implements IActionUI {
 	public String getAttributeValue(String locatorType, String locatorValue, String attributeName, int maxWaitTime) {
 		String attributeValue = null;
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			element = findElement(locatorType, locatorValue);
+			WebElement element = findElement(locatorType, locatorValue);
 			attributeValue = element.getAttribute(attributeName);
 		} else {
 			logger.info("Unable to find attribute value as Web Element is not present in the DOM");
@@ -328,8 +409,8 @@ public class UIActionsSelenium implements IActionUI {
 	@Override
 	public void jsClick(String locatorType, String locatorValue, int maxWaitTime) {
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			element = findElement(locatorType, locatorValue);
-			this.executeJSAction("arguments[0].click();", element);
+			WebElement element = findElement(locatorType, locatorValue);
+			this.executeRegisteredScript(UIScripts.CLICK_ELEMENT.name(), element);
 		} else {
 			logger.info("Unable to perform JSClick: Web Element is not present");
 			assert false;
@@ -348,7 +429,7 @@ public class UIActionsSelenium implements IActionUI {
 	public String getText(String locatorType, String locatorValue, int maxWaitTime) {
 		String textValue = null;
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			element = findElement(locatorType, locatorValue);
+			WebElement element = findElement(locatorType, locatorValue);
 			textValue = element.getText().trim();
 		} else {
 			logger.info("Unable to get Text: Web Element is not present");
@@ -368,11 +449,11 @@ public class UIActionsSelenium implements IActionUI {
 	@Override
 	public void scrollToElement(String locatorType, String locatorValue, String scrollType, int maxWaitTime) {
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			element = findElement(locatorType, locatorValue);
+			WebElement element = findElement(locatorType, locatorValue);
 			if (scrollType.equalsIgnoreCase("NORMAL")) {
 				action.scrollToElement(element).perform();
 			} else {
-				this.executeJSAction("arguments[0].scrollIntoView(true);", element);
+				this.executeRegisteredScript(UIScripts.SCROLL_INTO_VIEW.name(), element);
 			}
 		} else {
 			logger.info("Unable to perform scroll: Web Element is not present");
@@ -400,7 +481,8 @@ public class UIActionsSelenium implements IActionUI {
 	}
 
 	/**
-	 * Waits until the specified element appears within the given time.
+	 * Waits until the specified element appears within the given time. With
+	 * WebDriver BiDi the element is only looked up again after the DOM changed.
 	 * 
 	 * @param locatorType  the type of locator (e.g., id, xpath, cssSelector)
 	 * @param locatorValue the value of the locator
@@ -415,6 +497,14 @@ public class UIActionsSelenium implements IActionUI {
 		long endTime;
 		startTime = System.currentTimeMillis();
 		try {
+			if (eventHub != null) {
+				if (!eventHub.waitFor(PAGE_CHANGE_EVENTS, () -> this.isElementPresent(locatorType, locatorValue),
+						Duration.ofSeconds(maxWaitTime))) {
+					logger.error("Element: {} is not appear within the specified timeout", locatorValue);
+					return false;
+				}
+				return status;
+			}
 			while (!(this.isElementPresent(locatorType, locatorValue))) {
 				logger.info("Waiting for Element {} to be appear...", locatorValue);
 				this.waitForElement(1);
@@ -433,7 +523,8 @@ public class UIActionsSelenium implements IActionUI {
 	}
 
 	/**
-	 * Waits until the specified element disappears within the given time.
+	 * Waits until the specified element disappears within the given time. With
+	 * WebDriver BiDi the element is only looked up again after the DOM changed.
 	 * 
 	 * @param locatorType  the type of locator (e.g., id, xpath, cssSelector)
 	 * @param locatorValue the value of the locator
@@ -448,6 +539,14 @@ public class UIActionsSelenium implements IActionUI {
 		long endTime;
 		startTime = System.currentTimeMillis();
 		try {
+			if (eventHub != null) {
+				if (!eventHub.waitFor(PAGE_CHANGE_EVENTS, () -> !this.isElementPresent(locatorType, locatorValue),
+						Duration.ofSeconds(maxWaitTime))) {
+					logger.error("Element: {} is not disappear within the specified timeout", locatorValue);
+					return false;
+				}
+				return status;
+			}
 			while ((this.isElementPresent(locatorType, locatorValue))) {
 				logger.info("Waiting for Element {} to be disappear...", locatorValue);
 				this.waitForElement(1);
@@ -543,7 +642,7 @@ public class UIActionsSelenium implements IActionUI {
 	@Override
 	public void hoverElement(String locatorType, String locatorValue, int maxWaitTime) {
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			element = findElement(locatorType, locatorValue);
+			WebElement element = findElement(locatorType, locatorValue);
 			action.moveToElement(element).perform();
 		} else {
 			logger.info("Unable to do hover: Web Element is not present");
@@ -561,7 +660,7 @@ public class UIActionsSelenium implements IActionUI {
 	@Override
 	public void rightClickElement(String locatorType, String locatorValue, int maxWaitTime) {
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			element = findElement(locatorType, locatorValue);
+			WebElement element = findElement(locatorType, locatorValue);
 			action.contextClick(element).perform();
 		} else {
 			logger.info("Unable to do right click: Web Element is not present");
@@ -579,7 +678,7 @@ public class UIActionsSelenium implements IActionUI {
 	@Override
 	public void doubleClickElement(String locatorType, String locatorValue, int maxWaitTime) {
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			element = findElement(locatorType, locatorValue);
+			WebElement element = findElement(locatorType, locatorValue);
 			action.doubleClick(element).perform();
 		} else {
 			logger.info("Unable to do double click: Web Element is not present");
@@ -649,7 +748,7 @@ public class UIActionsSelenium implements IActionUI {
 	@Override
 	public void typeUsingKeyboard(String locatorType, String locatorValue, int maxWaitTime, String textToType) {
 		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
-			element = findElement(locatorType, locatorValue);
+			WebElement element = findElement(locatorType, locatorValue);
 			action.click(element).sendKeys(textToType).perform();
 		} else {
 			logger.info("Unable to type using Keyboard on Web Element: {}", locatorValue);
@@ -714,4 +813,267 @@ public class UIActionsSelenium implements IActionUI {
 		return jsExecutor.executeScript(script, args);
 	}
 
+	/**
+	 * Registers a named JavaScript function for this session. The function is
+	 * pinned lazily on its first invocation.
+	 *
+	 * @param name           the script name
+	 * @param functionSource a JavaScript function expression
+	 */
+	@Override
+	public void registerScript(String name, String functionSource) {
+		scripts.register(name, functionSource);
+		ScriptKey previous = pinnedScripts.remove(name);
+		if (previous != null) {
+			((JavascriptExecutor) driver).unpin(previous);
+		}
+	}
+
+	/**
+	 * Invokes a registered script through its pinned {@link ScriptKey}, pinning it
+	 * on first use. Falls back to sending the source inline if the driver does not
+	 * support pinning or has dropped the pinned script.
+	 *
+	 * @param name the script name
+	 * @param args the arguments passed to the script function
+	 * @return the result of the JavaScript execution
+	 */
+	@Override
+	public Object executeRegisteredScript(String name, Object... args) {
+		String statement = "return (" + scripts.getSource(name) + ").apply(null, arguments);";
+		ScriptKey key = pinScript(name, statement);
+		if (key != null) {
+			try {
+				return ((JavascriptExecutor) driver).executeScript(key, args);
+			} catch (JavascriptException e) {
+				if (e.getMessage() == null || !e.getMessage().contains("unpinned")) {
+					throw e;
+				}
+				logger.info("Pinned script {} is no longer available, sending it inline", name);
+				pinnedScripts.remove(name);
+			}
+		}
+		return this.executeJSAction(statement, args);
+	}
+
+	/**
+	 * Captures all cookies visible to the driver plus the storage of the current
+	 * page.
+	 *
+	 * @return the session state as a JSON string
+	 */
+	@Override
+	public String captureSessionState() {
+		JSONArray cookies = new JSONArray();
+		for (Cookie cookie : driver.manage().getCookies()) {
+			JSONObject cookieJson = new JSONObject();
+			cookieJson.put("name", cookie.getName());
+			cookieJson.put("value", cookie.getValue());
+			cookieJson.put("domain", cookie.getDomain());
+			cookieJson.put("path", cookie.getPath());
+			cookieJson.put("expires", cookie.getExpiry() == null ? -1 : cookie.getExpiry().getTime() / 1000);
+			cookieJson.put("httpOnly", cookie.isHttpOnly());
+			cookieJson.put("secure", cookie.isSecure());
+			cookieJson.put("sameSite", cookie.getSameSite() == null ? "Lax" : cookie.getSameSite());
+			cookies.put(cookieJson);
+		}
+		JSONObject state = new JSONObject();
+		state.put("cookies", cookies);
+		SessionStateJson.mergeOrigin(state, this.executeRegisteredScript(UIScripts.READ_STORAGE.name()));
+		return state.toString();
+	}
+
+	/**
+	 * Restores a captured session state. Selenium can only set cookies and
+	 * storage for the page that is currently loaded, so the browser first
+	 * navigates to the captured origin; cookies of other domains are skipped.
+	 *
+	 * @param sessionState the session state as a JSON string
+	 */
+	@Override
+	public void restoreSessionState(String sessionState) {
+		JSONObject state = new JSONObject(sessionState);
+		JSONArray origins = SessionStateJson.origins(state);
+		JSONArray cookies = state.optJSONArray("cookies");
+		String origin = null;
+		if (!origins.isEmpty()) {
+			origin = origins.getJSONObject(0).getString("origin");
+		} else if (cookies != null && !cookies.isEmpty()) {
+			JSONObject cookie = cookies.getJSONObject(0);
+			origin = (cookie.optBoolean("secure") ? "https://" : "http://")
+					+ cookie.getString("domain").replaceFirst("^\\.", "");
+		}
+		if (origin != null && !driver.getCurrentUrl().startsWith(origin)) {
+			driver.get(origin);
+		}
+		for (int i = 0; cookies != null && i < cookies.length(); i++) {
+			JSONObject cookieJson = cookies.getJSONObject(i);
+			long expires = cookieJson.optLong("expires", -1);
+			Cookie cookie = new Cookie.Builder(cookieJson.getString("name"), cookieJson.getString("value"))
+					.domain(cookieJson.optString("domain", null)).path(cookieJson.optString("path", "/"))
+					.expiresOn(expires > 0 ? new Date(expires * 1000) : null)
+					.isHttpOnly(cookieJson.optBoolean("httpOnly")).isSecure(cookieJson.optBoolean("secure"))
+					.sameSite(cookieJson.optString("sameSite", null)).build();
+			try {
+				driver.manage().addCookie(cookie);
+			} catch (WebDriverException e) {
+				logger.info("Skipping cookie {} for domain {}: {}", cookie.getName(), cookie.getDomain(),
+						e.getMessage());
+			}
+		}
+		for (int i = 0; i < origins.length(); i++) {
+			JSONObject entry = origins.getJSONObject(i);
+			if (driver.getCurrentUrl().startsWith(entry.getString("origin"))) {
+				this.executeRegisteredScript(UIScripts.WRITE_STORAGE.name(), entry.toString());
+			} else {
+				logger.info("Skipping storage of origin {}: not the current page", entry.getString("origin"));
+			}
+		}
+	}
+
+	/**
+	 * Closes every window but the first, clears cookies and the storage of the
+	 * current page and navigates to {@code about:blank}. On Chromium browsers all
+	 * cookies are cleared through DevTools, otherwise only those of the current
+	 * domain.
+	 */
+	@Override
+	public void resetSession() {
+		List<String> windowHandles = new ArrayList<>(driver.getWindowHandles());
+		for (int i = 1; i < windowHandles.size(); i++) {
+			driver.switchTo().window(windowHandles.get(i));
+			driver.close();
+		}
+		driver.switchTo().window(windowHandles.get(0));
+		this.executeRegisteredScript(UIScripts.CLEAR_STORAGE.name());
+		if (driver instanceof HasDevTools) {
+			DevTools devTools = ((HasDevTools) driver).getDevTools();
+			devTools.createSessionIfThereIsNotOne();
+			devTools.send(new Command<Void>("Network.clearBrowserCookies", Map.of()));
+		} else {
+			driver.manage().deleteAllCookies();
+		}
+		driver.get("about:blank");
+	}
+
+	/**
+	 * Pins a script statement in the browser once per session.
+	 *
+	 * @param name      the script name
+	 * @param statement the statement to pin
+	 * @return the script key, or null if pinning is not supported by the driver
+	 * @throws WebDriverException if pinning failed for another reason, e.g. a
+	 *                            dead session.
+	 */
+	private ScriptKey pinScript(String name, String statement) {
+		ScriptKey key = pinnedScripts.get(name);
+		if (key == null && pinningSupported) {
+			try {
+				key = ((JavascriptExecutor) driver).pin(statement);
+				pinnedScripts.put(name, key);
+			} catch (UnsupportedOperationException | UnsupportedCommandException | DevToolsException e) {
+				pinningSupported = false;
+				logger.info("Script pinning is not supported by this driver, scripts will be sent inline: {}",
+						e.toString());
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * Reads the specified table with a single script call.
+	 *
+	 * @param locatorType  the type of locator (e.g., id, xpath, cssSelector)
+	 * @param locatorValue the value of the locator of the table
+	 * @param maxWaitTime  the maximum wait time for the table to appear
+	 * @return the table contents, or null if the table is not present
+	 */
+	@Override
+	public TableData readTable(String locatorType, String locatorValue, int maxWaitTime) {
+		TableData table = null;
+		if (this.waitUntillElementAppear(locatorType, locatorValue, maxWaitTime)) {
+			WebElement element = findElement(locatorType, locatorValue);
+			table = TableData.fromScriptResult(this.executeRegisteredScript(UIScripts.TABLE_EXTRACT.name(), element));
+		} else {
+			logger.info("Unable to read table: Web Element is not present");
+			assert false;
+		}
+		return table;
+	}
+
+	/**
+	 * Reads a paginated table page by page, clicking the paging control until it
+	 * is missing or disabled.
+	 *
+	 * @param locatorType      the type of locator of the table
+	 * @param locatorValue     the value of the locator of the table
+	 * @param nextLocatorType  the type of locator of the "next page" control
+	 * @param nextLocatorValue the value of the locator of the "next page" control
+	 * @param maxWaitTime      the maximum wait time for each page to load
+	 * @param pageHandler      receives every page in order
+	 * @return the number of pages read
+	 */
+	@Override
+	public int readTablePages(String locatorType, String locatorValue, String nextLocatorType,
+			String nextLocatorValue, int maxWaitTime, Consumer<TableData> pageHandler) {
+		int pages = 0;
+		while (true) {
+			TableData table = readTable(locatorType, locatorValue, maxWaitTime);
+			if (table == null) {
+				logger.error("Table {} not found, stopping after {} pages", locatorValue, pages);
+				break;
+			}
+			pageHandler.accept(table);
+			pages++;
+			if (!isPagingControlEnabled(nextLocatorType, nextLocatorValue)) {
+				break;
+			}
+			String signature = getTableSignature(locatorType, locatorValue);
+			findElement(nextLocatorType, nextLocatorValue).click();
+			try {
+				setFluentWait(wDriver -> {
+					try {
+						return !signature.equals(getTableSignature(locatorType, locatorValue));
+					} catch (StaleElementReferenceException e) {
+						return false;
+					}
+				}, maxWaitTime);
+			} catch (TimeoutException e) {
+				logger.error("Table {} did not change after paging, stopping after {} pages", locatorValue, pages);
+				break;
+			}
+		}
+		return pages;
+	}
+
+	/**
+	 * Checks whether a paging control is present and can be clicked.
+	 *
+	 * @param locatorType  the type of locator of the paging control
+	 * @param locatorValue the value of the locator of the paging control
+	 * @return true if the control is displayed and not disabled
+	 */
+	private boolean isPagingControlEnabled(String locatorType, String locatorValue) {
+		List<WebElement> controls = findElements(locatorType, locatorValue);
+		if (controls == null || controls.isEmpty()) {
+			return false;
+		}
+		WebElement control = controls.get(0);
+		String cssClass = control.getAttribute("class");
+		return control.isDisplayed() && control.isEnabled() && !"true".equals(control.getAttribute("aria-disabled"))
+				&& (cssClass == null || !cssClass.contains("disabled"));
+	}
+
+	/**
+	 * Gets a cheap fingerprint of the table used to detect page changes.
+	 *
+	 * @param locatorType  the type of locator of the table
+	 * @param locatorValue the value of the locator of the table
+	 * @return the table signature
+	 */
+	private String getTableSignature(String locatorType, String locatorValue) {
+		return String.valueOf(this.executeRegisteredScript(UIScripts.TABLE_SIGNATURE.name(),
+				findElement(locatorType, locatorValue)));
+	}
+
 }
@@ -0,0 +1,187 @@
+package io.github.shabryn2893.uicore;
+
+/**
+ * The JavaScript helpers shared by {@link UIActionsSelenium} and
+ * {@link UIActionsPlaywright}. Every script is a plain function expression so
+ * that it can be registered once per session under its constant name and
+ * invoked by handle through {@link IActionUI#executeRegisteredScript}.
+ */
+enum UIScripts {
+
+	/**
+	 * Reads a whole HTML table in one round trip. Cells spanning several rows or
+	 * columns are expanded into every slot they cover, leading {@code thead} or
+	 * all-{@code th} rows are used as headers, and the body is returned column by
+	 * column as {@code {headers: [...], columns: [[...], ...]}}.
+	 */
+	TABLE_EXTRACT("""
+			function(table) {
+				if (table.tagName !== 'TABLE') {
+					table = table.querySelector('table');
+				}
+				var rows = table ? table.rows : [];
+				var grid = [];
+				var r, x, y;
+				for (r = 0; r < rows.length; r++) {
+					grid[r] = grid[r] || [];
+					var c = 0;
+					for (var i = 0; i < rows[r].cells.length; i++) {
+						var cell = rows[r].cells[i];
+						while (grid[r][c] !== undefined) {
+							c++;
+						}
+						var text = (cell.innerText || cell.textContent || '').trim();
+						var rowSpan = Math.max(cell.rowSpan || 1, 1);
+						var colSpan = Math.max(cell.colSpan || 1, 1);
+						for (y = 0; y < rowSpan && r + y < rows.length; y++) {
+							grid[r + y] = grid[r + y] || [];
+							for (x = 0; x < colSpan; x++) {
+								grid[r + y][c + x] = text;
+							}
+						}
+						c += colSpan;
+					}
+				}
+				var headerRows = 0;
+				for (r = 0; r < rows.length; r++) {
+					var inHead = rows[r].parentNode && rows[r].parentNode.tagName === 'THEAD';
+					var allTh = rows[r].cells.length > 0 && Array.prototype.every.call(rows[r].cells,
+							function(cell) { return cell.tagName === 'TH'; });
+					if (!inHead && !allTh) {
+						break;
+					}
+					headerRows++;
+				}
+				var width = 0;
+				for (r = 0; r < grid.length; r++) {
+					width = Math.max(width, grid[r].length);
+				}
+				var headers = [];
+				var columns = [];
+				for (x = 0; x < width; x++) {
+					var parts = [];
+					for (y = 0; y < headerRows; y++) {
+						var label = grid[y][x] || '';
+						if (label && parts[parts.length - 1] !== label) {
+							parts.push(label);
+						}
+					}
+					headers.push(parts.length ? parts.join(' ') : 'Column' + (x + 1));
+					var column = [];
+					for (y = headerRows; y < grid.length; y++) {
+						column.push(grid[y][x] === undefined ? '' : grid[y][x]);
+					}
+					columns.push(column);
+				}
+				return {headers: headers, columns: columns};
+			}"""),
+
+	/**
+	 * Returns a cheap fingerprint of a table (row count plus the text of its last
+	 * row) used to detect that a paging control has loaded the next page.
+	 */
+	TABLE_SIGNATURE("""
+			function(table) {
+				if (table.tagName !== 'TABLE') {
+					table = table.querySelector('table');
+				}
+				if (!table || table.rows.length === 0) {
+					return '0';
+				}
+				var last = table.rows[table.rows.length - 1];
+				return table.rows.length + ':' + (last.innerText || last.textContent || '');
+			}"""),
+
+	/**
+	 * Clicks the element passed as first argument.
+	 */
+	CLICK_ELEMENT("function(element) { element.click(); }"),
+
+	/**
+	 * Clicks the first element matching a CSS selector, or an XPath expression
+	 * when the second argument is true.
+	 */
+	CLICK_BY_SELECTOR("""
+			function(selector, isXpath) {
+				var element = isXpath
+						? document.evaluate(selector, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null)
+								.singleNodeValue
+						: document.querySelector(selector);
+				element.click();
+			}"""),
+
+	/**
+	 * Scrolls the element passed as first argument into view.
+	 */
+	SCROLL_INTO_VIEW("function(element) { element.scrollIntoView(true); }"),
+
+	/**
+	 * Scrolls to the bottom of the page.
+	 */
+	SCROLL_TO_BOTTOM("function() { window.scrollTo(0, document.body.scrollHeight); }"),
+
+	/**
+	 * Returns {@code document.readyState}.
+	 */
+	READY_STATE("function() { return document.readyState; }"),
+
+	/**
+	 * Resizes the window to the full screen size.
+	 */
+	MAXIMIZE_WINDOW("function() { window.moveTo(0, 0); window.resizeTo(screen.width, screen.height); }"),
+
+	/**
+	 * Returns the origin, localStorage and sessionStorage of the current document
+	 * as a JSON string, or null where storage is not accessible (e.g. on
+	 * {@code about:blank}).
+	 */
+	READ_STORAGE("""
+			function() {
+				function entries(storage) {
+					var items = [];
+					for (var i = 0; i < storage.length; i++) {
+						var key = storage.key(i);
+						items.push({name: key, value: storage.getItem(key)});
+					}
+					return items;
+				}
+				try {
+					return JSON.stringify({origin: location.origin, localStorage: entries(localStorage),
+							sessionStorage: entries(sessionStorage)});
+				} catch (e) {
+					return null;
+				}
+			}"""),
+
+	/**
+	 * Writes the localStorage and sessionStorage items of a JSON string produced
+	 * by {@link #READ_STORAGE} into the current document.
+	 */
+	WRITE_STORAGE("""
+			function(json) {
+				var entry = JSON.parse(json);
+				(entry.localStorage || []).forEach(function(item) { localStorage.setItem(item.name, item.value); });
+				(entry.sessionStorage || []).forEach(function(item) { sessionStorage.setItem(item.name, item.value); });
+			}"""),
+
+	/**
+	 * Clears localStorage and sessionStorage of the current document where they
+	 * are accessible.
+	 */
+	CLEAR_STORAGE("function() { try { localStorage.clear(); sessionStorage.clear(); } catch (e) { } }");
+
+	private final String source;
+
+	UIScripts(String source) {
+		this.source = source;
+	}
+
+	/**
+	 * Gets the function expression of this script.
+	 *
+	 * @return the script source.
+	 */
+	String getSource() {
+		return source;
+	}
+}
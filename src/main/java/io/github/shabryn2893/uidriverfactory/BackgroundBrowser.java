@@ -0,0 +1,107 @@
+package io.github.shabryn2893.uidriverfactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.uicore.IActionUI;
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * An {@link IActionUI} whose browser is launched on a background thread. The
+ * first call that needs the browser waits for the launch to finish; closing
+ * the session before that closes the browser as soon as it is up.
+ */
+final class BackgroundBrowser implements InvocationHandler {
+
+	private static final Logger logger = LoggerUtils.getLogger(BackgroundBrowser.class);
+	private static final ExecutorService startupExecutor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "browser-startup");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final String description;
+	private final long startedAt = System.currentTimeMillis();
+	private final CompletableFuture<IActionUI> launch;
+	private volatile boolean waited;
+
+	private BackgroundBrowser(String description, Supplier<IActionUI> launcher) {
+		this.description = description;
+		this.launch = CompletableFuture.supplyAsync(launcher, startupExecutor);
+	}
+
+	/**
+	 * Starts launching a browser and returns a session backed by it.
+	 *
+	 * @param description the browser description used in log messages.
+	 * @param launcher    launches the browser; runs on a background thread.
+	 * @return a session that waits for the launch on first use.
+	 */
+	static IActionUI start(String description, Supplier<IActionUI> launcher) {
+		logger.info("Launching {} in the background", description);
+		return (IActionUI) Proxy.newProxyInstance(IActionUI.class.getClassLoader(), new Class<?>[] { IActionUI.class },
+				new BackgroundBrowser(description, launcher));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		switch (method.getName()) {
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "equals":
+			return proxy == args[0];
+		case "toString":
+			return "BackgroundBrowser[" + description + (launch.isDone() ? "" : ", starting") + "]";
+		case "close":
+		case "closeBrowser":
+			if (launch.isCompletedExceptionally()) {
+				return null;
+			}
+			if (!launch.isDone()) {
+				logger.info("Closing {} once its background launch completes", description);
+				launch.thenAccept(IActionUI::closeBrowser);
+				return null;
+			}
+			break;
+		default:
+			break;
+		}
+		try {
+			return method.invoke(awaitBrowser(), args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Waits for the background launch, rethrowing its failure.
+	 *
+	 * @return the launched browser session.
+	 */
+	private IActionUI awaitBrowser() {
+		boolean ready = launch.isDone();
+		long waitStart = System.currentTimeMillis();
+		IActionUI ui;
+		try {
+			ui = launch.join();
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof RuntimeException cause ? cause : e;
+		}
+		if (!waited) {
+			waited = true;
+			logger.info("{} {} after {} ms, first call waited {} ms", description,
+					ready ? "was ready" : "became ready", System.currentTimeMillis() - startedAt,
+					System.currentTimeMillis() - waitStart);
+		}
+		return ui;
+	}
+}
@@ -0,0 +1,190 @@
+package io.github.shabryn2893.uidriverfactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A named set of requests a browser session should never send, such as images,
+ * web fonts, video or third-party analytics that no assertion depends on.
+ * <p>
+ * A profile is made of URL wildcard patterns ({@code *} matches any sequence
+ * of characters) and resource types. Resource types are translated into file
+ * extension patterns so that both tools can match requests inside the browser
+ * without a round trip to the test process for every request.
+ * </p>
+ *
+ * Example Usage:
+ *
+ * <pre>{@code
+ * DriverManager driverManager = DriverFactory.getDriver("CHROME", "PLAYWRIGHT", true, BlockingProfile.LEAN);
+ * IActionUI ui = driverManager.createBrowser();
+ * ...
+ * driverManager.getBlockingStats().logSummary();
+ * }</pre>
+ */
+public final class BlockingProfile {
+
+	private static final Map<String, List<String>> EXTENSIONS_BY_TYPE = Map.of("image",
+			List.of("png", "jpg", "jpeg", "gif", "webp", "avif", "svg", "ico", "bmp"), "font",
+			List.of("woff", "woff2", "ttf", "otf", "eot"), "media",
+			List.of("mp4", "webm", "ogg", "ogv", "mp3", "wav", "m4a", "mov"), "stylesheet", List.of("css"));
+
+	private static final List<String> ANALYTICS_PATTERNS = List.of("*://*.google-analytics.com/*",
+			"*://*.googletagmanager.com/*", "*://*.doubleclick.net/*", "*://*.facebook.net/*",
+			"*://*.hotjar.com/*", "*://*.segment.io/*", "*://*.segment.com/*", "*://*.newrelic.com/*",
+			"*://*.nr-data.net/*", "*://*.mixpanel.com/*", "*://*.optimizely.com/*", "*://*.clarity.ms/*");
+
+	/**
+	 * Blocks nothing; the default for every driver factory.
+	 */
+	public static final BlockingProfile NONE = new BlockingProfile("none", List.of(), List.of());
+
+	/**
+	 * Blocks images, web fonts and audio/video files.
+	 */
+	public static final BlockingProfile MEDIA = new BlockingProfile("media", List.of(),
+			List.of("image", "font", "media"));
+
+	/**
+	 * Blocks well known third-party analytics, tag manager and ad hosts.
+	 */
+	public static final BlockingProfile ANALYTICS = new BlockingProfile("analytics", ANALYTICS_PATTERNS, List.of());
+
+	/**
+	 * Combination of {@link #MEDIA} and {@link #ANALYTICS}.
+	 */
+	public static final BlockingProfile LEAN = new BlockingProfile("lean", ANALYTICS_PATTERNS,
+			List.of("image", "font", "media"));
+
+	private final String name;
+	private final List<String> urlPatterns;
+	private final Set<String> resourceTypes;
+
+	/**
+	 * Creates a custom blocking profile.
+	 *
+	 * @param name          the profile name used in log messages.
+	 * @param urlPatterns   URL wildcard patterns to block, e.g.
+	 *                      {@code "*://*.example-ads.com/*"}.
+	 * @param resourceTypes resource types to block; supported values are
+	 *                      {@code image}, {@code font}, {@code media} and
+	 *                      {@code stylesheet}.
+	 * @throws IllegalArgumentException if a resource type is not supported.
+	 */
+	public BlockingProfile(String name, List<String> urlPatterns, List<String> resourceTypes) {
+		this.name = name;
+		this.urlPatterns = List.copyOf(urlPatterns);
+		Set<String> types = new LinkedHashSet<>();
+		for (String resourceType : resourceTypes) {
+			String type = resourceType.toLowerCase();
+			if (!EXTENSIONS_BY_TYPE.containsKey(type)) {
+				throw new IllegalArgumentException("Unsupported resource type to block: " + resourceType);
+			}
+			types.add(type);
+		}
+		this.resourceTypes = Collections.unmodifiableSet(types);
+	}
+
+	/**
+	 * Gets one of the predefined profiles by name.
+	 *
+	 * @param profileName one of {@code none}, {@code media}, {@code analytics} or
+	 *                    {@code lean}, case insensitive.
+	 * @return the matching profile.
+	 * @throws IllegalArgumentException if there is no profile with that name.
+	 */
+	public static BlockingProfile fromName(String profileName) {
+		switch (profileName.toLowerCase()) {
+		case "none":
+			return NONE;
+		case "media":
+			return MEDIA;
+		case "analytics":
+			return ANALYTICS;
+		case "lean":
+			return LEAN;
+		default:
+			throw new IllegalArgumentException("Unsupported blocking profile: " + profileName);
+		}
+	}
+
+	/**
+	 * Gets the profile name.
+	 *
+	 * @return the profile name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the resource types blocked by this profile.
+	 *
+	 * @return an unmodifiable set of resource types.
+	 */
+	public Set<String> getResourceTypes() {
+		return resourceTypes;
+	}
+
+	/**
+	 * Checks whether this profile blocks anything at all.
+	 *
+	 * @return true if the profile has neither URL patterns nor resource types.
+	 */
+	public boolean isEmpty() {
+		return urlPatterns.isEmpty() && resourceTypes.isEmpty();
+	}
+
+	/**
+	 * Gets every URL wildcard pattern of this profile, including the extension
+	 * patterns derived from its resource types.
+	 *
+	 * @return the URL wildcard patterns.
+	 */
+	public List<String> getUrlPatterns() {
+		List<String> patterns = new ArrayList<>(urlPatterns);
+		for (String type : resourceTypes) {
+			for (String extension : EXTENSIONS_BY_TYPE.get(type)) {
+				patterns.add("*." + extension);
+				patterns.add("*." + extension + "?*");
+			}
+		}
+		return patterns;
+	}
+
+	/**
+	 * Converts {@link #getUrlPatterns()} into a single regular expression matching
+	 * a whole URL.
+	 *
+	 * @return the compiled pattern.
+	 */
+	public Pattern toRegex() {
+		StringBuilder regex = new StringBuilder("^(?:");
+		List<String> patterns = getUrlPatterns();
+		for (int i = 0; i < patterns.size(); i++) {
+			if (i > 0) {
+				regex.append('|');
+			}
+			String[] parts = patterns.get(i).split("\\*", -1);
+			for (int j = 0; j < parts.length; j++) {
+				if (j > 0) {
+					regex.append(".*");
+				}
+				if (!parts[j].isEmpty()) {
+					regex.append(Pattern.quote(parts[j]));
+				}
+			}
+		}
+		return Pattern.compile(regex.append(")$").toString(), Pattern.CASE_INSENSITIVE);
+	}
+
+	@Override
+	public String toString() {
+		return "BlockingProfile[" + name + "]";
+	}
+}
@@ -0,0 +1,63 @@
+package io.github.shabryn2893.uidriverfactory;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * Counts the requests blocked by a {@link BlockingProfile} across every browser
+ * created by one {@link DriverManager}. The counters are thread safe since
+ * blocked requests are reported from the tools' event threads.
+ */
+public class BlockingStats {
+
+	private static final Logger logger = LoggerUtils.getLogger(BlockingStats.class);
+	private final LongAdder blockedRequests = new LongAdder();
+	private final Map<String, LongAdder> blockedByType = new ConcurrentHashMap<>();
+
+	/**
+	 * Records one blocked request.
+	 *
+	 * @param resourceType the resource type reported by the browser, e.g.
+	 *                     {@code image} or {@code font}.
+	 * @param url          the blocked URL.
+	 */
+	public void recordBlocked(String resourceType, String url) {
+		blockedRequests.increment();
+		blockedByType.computeIfAbsent(resourceType == null ? "other" : resourceType.toLowerCase(),
+				type -> new LongAdder()).increment();
+		logger.debug("Blocked {} request: {}", resourceType, url);
+	}
+
+	/**
+	 * Gets the total number of blocked requests.
+	 *
+	 * @return the blocked request count.
+	 */
+	public long getBlockedRequests() {
+		return blockedRequests.sum();
+	}
+
+	/**
+	 * Gets the number of blocked requests per resource type.
+	 *
+	 * @return a sorted snapshot of the counters.
+	 */
+	public Map<String, Long> getBlockedByType() {
+		Map<String, Long> snapshot = new TreeMap<>();
+		blockedByType.forEach((type, count) -> snapshot.put(type, count.sum()));
+		return snapshot;
+	}
+
+	/**
+	 * Logs the blocked request counters.
+	 */
+	public void logSummary() {
+		logger.info("Blocked {} requests: {}", getBlockedRequests(), getBlockedByType());
+	}
+}
@@ -0,0 +1,240 @@
+package io.github.shabryn2893.uidriverfactory;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.uicore.IActionUI;
+import io.github.shabryn2893.uicore.SessionLifecycleManager;
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * Caps the number of browser sessions alive at once so that raising test
+ * parallelism does not make the host thrash.
+ * <p>
+ * The shared governor is off unless {@code selautocore.governor.enabled=true}
+ * is set. When it is on, every session created by the driver factories holds a
+ * permit from the time its browser is launched until it is closed or
+ * reclaimed, and sessions beyond the cap wait in first come, first served
+ * order for up to {@code selautocore.governor.acquire.timeout.seconds}
+ * (default 600). The cap is read from the system property
+ * {@code selautocore.governor.max.browsers}, or derived from the number of
+ * cores and the physical memory divided by
+ * {@code selautocore.governor.browser.memory.mb} (default 1024). A
+ * {@link BrowserPool} never grows beyond the cap of its manager's governor.
+ * </p>
+ * <p>
+ * While sessions are alive, the browser process trees started by this JVM, one
+ * per browser even when sessions share a driver service, are sampled every
+ * {@code selautocore.governor.sample.seconds} (default 10) and a warning is
+ * logged when one of them exceeds
+ * {@code selautocore.governor.warn.rss.mb} (default 2048) resident memory or
+ * {@code selautocore.governor.warn.cpu.percent} (default 200) CPU.
+ * </p>
+ */
+public class BrowserGovernor {
+
+	private static final Logger logger = LoggerUtils.getLogger(BrowserGovernor.class);
+	private static final BrowserGovernor instance = fromSystemProperties();
+
+	private final boolean enabled;
+	private final int maxBrowsers;
+	private final Duration acquireTimeout;
+	private final Semaphore permits;
+	private final ProcessTreeSampler sampler;
+	private final long sampleIntervalSeconds;
+	private final AtomicBoolean samplerStarted = new AtomicBoolean();
+
+	/**
+	 * Creates a governor.
+	 *
+	 * @param maxBrowsers           the maximum number of live browser sessions.
+	 * @param acquireTimeout        how long a launch waits for a free slot.
+	 * @param sampleIntervalSeconds the process sampling interval, 0 to disable
+	 *                              sampling.
+	 * @param warnRssBytes          the resident memory of one browser process
+	 *                              tree above which a warning is logged.
+	 * @param warnCpuPercent        the CPU usage of one browser process tree
+	 *                              above which a warning is logged, where 100
+	 *                              is one full core.
+	 */
+	public BrowserGovernor(int maxBrowsers, Duration acquireTimeout, long sampleIntervalSeconds, long warnRssBytes,
+			double warnCpuPercent) {
+		this(true, maxBrowsers, acquireTimeout, sampleIntervalSeconds, warnRssBytes, warnCpuPercent);
+	}
+
+	private BrowserGovernor(boolean enabled, int maxBrowsers, Duration acquireTimeout, long sampleIntervalSeconds,
+			long warnRssBytes, double warnCpuPercent) {
+		if (maxBrowsers < 1) {
+			throw new IllegalArgumentException("Invalid maximum number of browsers: " + maxBrowsers);
+		}
+		this.enabled = enabled;
+		this.maxBrowsers = maxBrowsers;
+		this.acquireTimeout = acquireTimeout;
+		this.permits = new Semaphore(maxBrowsers, true);
+		this.sampleIntervalSeconds = sampleIntervalSeconds;
+		this.sampler = new ProcessTreeSampler(warnRssBytes, warnCpuPercent);
+	}
+
+	/**
+	 * Gets the governor shared by all driver factories, configured from system
+	 * properties.
+	 *
+	 * @return the shared governor.
+	 */
+	public static BrowserGovernor getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Launches a browser session once a slot is free. The slot is given back
+	 * when the session is closed or reclaimed, or immediately if the launch
+	 * fails.
+	 *
+	 * @param description the browser description used in log messages.
+	 * @param launcher    launches the browser session.
+	 * @return the launched session.
+	 * @throws IllegalStateException if no slot became free within the acquire
+	 *                               timeout.
+	 */
+	public IActionUI launch(String description, Supplier<IActionUI> launcher) {
+		if (!enabled) {
+			return launcher.get();
+		}
+		acquire(description);
+		IActionUI ui;
+		try {
+			ui = launcher.get();
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+		AtomicBoolean released = new AtomicBoolean();
+		SessionLifecycleManager.onRelease(ui, () -> {
+			if (released.compareAndSet(false, true)) {
+				permits.release();
+			}
+		});
+		startSampling();
+		return ui;
+	}
+
+	/**
+	 * Checks whether this governor caps the browser sessions.
+	 *
+	 * @return false if launches are never held back.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Gets the maximum number of live browser sessions.
+	 *
+	 * @return the cap.
+	 */
+	public int getMaxBrowsers() {
+		return maxBrowsers;
+	}
+
+	/**
+	 * Gets the number of live browser sessions holding a slot.
+	 *
+	 * @return the active session count.
+	 */
+	public int getActiveBrowsers() {
+		return maxBrowsers - permits.availablePermits();
+	}
+
+	/**
+	 * Gets the approximate number of launches waiting for a slot.
+	 *
+	 * @return the queue length.
+	 */
+	public int getQueueLength() {
+		return permits.getQueueLength();
+	}
+
+	/**
+	 * Samples the browser process trees once and logs a warning for every tree
+	 * above the thresholds.
+	 */
+	public void sampleNow() {
+		sampler.sample();
+	}
+
+	private void acquire(String description) {
+		long start = System.currentTimeMillis();
+		try {
+			// a timed tryAcquire honours the fairness of the semaphore, unlike tryAcquire()
+			if (!permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+				logger.info("{} of {} browsers running, {} waits for a free slot", getActiveBrowsers(), maxBrowsers,
+						description);
+				if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+					throw new IllegalStateException("No browser slot became free for " + description + " within "
+							+ acquireTimeout + "; are sessions being closed?");
+				}
+				logger.info("{} got a browser slot after {} ms", description, System.currentTimeMillis() - start);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a browser slot for " + description, e);
+		}
+	}
+
+	private void startSampling() {
+		if (sampleIntervalSeconds <= 0 || !samplerStarted.compareAndSet(false, true)) {
+			return;
+		}
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "browser-governor-sampler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(() -> {
+			if (getActiveBrowsers() > 0) {
+				sampler.sample();
+			}
+		}, sampleIntervalSeconds, sampleIntervalSeconds, TimeUnit.SECONDS);
+	}
+
+	private static BrowserGovernor fromSystemProperties() {
+		boolean enabled = Boolean.parseBoolean(System.getProperty("selautocore.governor.enabled", "false"));
+		long memoryPerBrowser = Long.getLong("selautocore.governor.browser.memory.mb", 1024) * 1024 * 1024;
+		int maxBrowsers = Integer.getInteger("selautocore.governor.max.browsers",
+				defaultMaxBrowsers(memoryPerBrowser));
+		Duration acquireTimeout = Duration.ofSeconds(Long.getLong("selautocore.governor.acquire.timeout.seconds", 600));
+		long warnRssBytes = Long.getLong("selautocore.governor.warn.rss.mb", 2048) * 1024 * 1024;
+		double warnCpuPercent = Double.parseDouble(System.getProperty("selautocore.governor.warn.cpu.percent", "200"));
+		BrowserGovernor governor = new BrowserGovernor(enabled, maxBrowsers, acquireTimeout,
+				Long.getLong("selautocore.governor.sample.seconds", 10), warnRssBytes, warnCpuPercent);
+		if (enabled) {
+			logger.info("Browser governor allows {} concurrent browser sessions", maxBrowsers);
+		}
+		return governor;
+	}
+
+	/**
+	 * Derives the cap from the host: one browser per core, and no more browsers
+	 * than fit into 80% of the physical memory.
+	 *
+	 * @param memoryPerBrowser the memory budget of one browser in bytes.
+	 * @return the default cap, at least 1.
+	 */
+	static int defaultMaxBrowsers(long memoryPerBrowser) {
+		int cores = Runtime.getRuntime().availableProcessors();
+		long totalMemory = 0;
+		if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+			totalMemory = os.getTotalMemorySize();
+		}
+		int byMemory = totalMemory > 0 ? (int) (totalMemory * 0.8 / memoryPerBrowser) : cores;
+		return Math.max(1, Math.min(cores, byMemory));
+	}
+}
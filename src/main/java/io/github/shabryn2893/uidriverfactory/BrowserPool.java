@@ -0,0 +1,271 @@
+package io.github.shabryn2893.uidriverfactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.uicore.IActionUI;
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * A pool of warm browser sessions for one tool, browser type and headless
+ * setting, so that tests do not pay the browser cold start each time.
+ * <p>
+ * The pool keeps at least {@code minSize} idle browsers launched in the
+ * background and never runs more than {@code maxSize} browsers at once. A
+ * browser handed back with {@link #checkin(IActionUI)} is reset with
+ * {@link IActionUI#resetSession()} instead of being quit, and is recycled
+ * after {@code maxReuse} checkouts or when it fails a health check.
+ * </p>
+ *
+ * Example Usage:
+ *
+ * <pre>{@code
+ * BrowserPool pool = DriverFactory.getBrowserPool("CHROME", "SELENIUM", true, 2, 8, 50);
+ * IActionUI ui = pool.checkout(Duration.ofSeconds(60));
+ * try {
+ * 	ui.openURL("https://example.com");
+ * } finally {
+ * 	pool.checkin(ui);
+ * }
+ * }</pre>
+ */
+public class BrowserPool {
+
+	private static final Logger logger = LoggerUtils.getLogger(BrowserPool.class);
+	private static final long POLL_INTERVAL_MILLIS = 200;
+
+	private final String poolName;
+	private final DriverManager driverManager;
+	private final int minSize;
+	private final int maxReuse;
+	private final Semaphore capacity;
+	private final BlockingDeque<PooledBrowser> idleBrowsers = new LinkedBlockingDeque<>();
+	private final Map<IActionUI, PooledBrowser> checkedOutBrowsers = new ConcurrentHashMap<>();
+	private final ExecutorService warmUpExecutor;
+	private volatile boolean closed;
+
+	/**
+	 * Creates a pool and starts warming up {@code minSize} browsers in the
+	 * background.
+	 *
+	 * @param poolName      the pool name used in log messages.
+	 * @param driverManager creates the browsers of this pool.
+	 * @param minSize       the number of idle browsers kept ready.
+	 * @param maxSize       the maximum number of browsers alive at once,
+	 *                      lowered to the cap of the manager's governor.
+	 * @param maxReuse      the number of checkouts after which a browser is
+	 *                      quit and replaced.
+	 * @throws IllegalArgumentException if the sizes are inconsistent.
+	 */
+	public BrowserPool(String poolName, DriverManager driverManager, int minSize, int maxSize, int maxReuse) {
+		if (minSize < 0 || maxSize < 1 || minSize > maxSize || maxReuse < 1) {
+			throw new IllegalArgumentException("Invalid browser pool sizing: min=" + minSize + ", max=" + maxSize
+					+ ", maxReuse=" + maxReuse);
+		}
+		int poolSize = maxSize;
+		BrowserGovernor governor = driverManager.getGovernor();
+		if (governor.isEnabled() && maxSize > governor.getMaxBrowsers()) {
+			poolSize = governor.getMaxBrowsers();
+			logger.warn("Browser pool {} limited to {} browsers by the browser governor instead of {}", poolName,
+					poolSize, maxSize);
+		}
+		this.poolName = poolName;
+		this.driverManager = driverManager;
+		this.minSize = Math.min(minSize, poolSize);
+		this.maxReuse = maxReuse;
+		this.capacity = new Semaphore(poolSize, true);
+		this.warmUpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "browser-pool-" + poolName);
+			thread.setDaemon(true);
+			return thread;
+		});
+		topUp();
+	}
+
+	/**
+	 * Takes a browser out of the pool, launching a new one if none is idle and
+	 * the pool is below its maximum size.
+	 *
+	 * @param timeout how long to wait for a browser when the pool is exhausted.
+	 * @return a browser session reserved for the caller.
+	 * @throws IllegalStateException if no browser became available in time or the
+	 *                               pool is closed.
+	 */
+	public IActionUI checkout(Duration timeout) {
+		long deadline = System.currentTimeMillis() + timeout.toMillis();
+		while (!closed) {
+			PooledBrowser browser = idleBrowsers.pollFirst();
+			if (browser == null && capacity.tryAcquire()) {
+				browser = launch();
+			}
+			if (browser == null) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					throw new IllegalStateException("No browser available in pool " + poolName + " within " + timeout);
+				}
+				browser = pollIdle(Math.min(remaining, POLL_INTERVAL_MILLIS));
+			}
+			if (browser != null) {
+				if (isHealthy(browser)) {
+					checkedOutBrowsers.put(browser.ui, browser);
+					topUp();
+					return browser.ui;
+				}
+				logger.warn("Discarding unhealthy browser from pool {}", poolName);
+				discard(browser);
+			}
+		}
+		throw new IllegalStateException("Browser pool " + poolName + " is closed");
+	}
+
+	/**
+	 * Returns a browser to the pool. The session is reset and kept warm for the
+	 * next checkout, or quit if it reached its reuse limit or cannot be reset.
+	 *
+	 * @param ui a browser obtained from {@link #checkout(Duration)}.
+	 */
+	public void checkin(IActionUI ui) {
+		PooledBrowser browser = checkedOutBrowsers.remove(ui);
+		if (browser == null) {
+			logger.warn("Browser was not checked out from pool {}, ignoring checkin", poolName);
+			return;
+		}
+		browser.uses++;
+		if (closed || browser.uses >= maxReuse) {
+			logger.info("Recycling browser of pool {} after {} uses", poolName, browser.uses);
+			discard(browser);
+			topUp();
+			return;
+		}
+		try {
+			ui.resetSession();
+			idleBrowsers.offerFirst(browser);
+		} catch (RuntimeException e) {
+			logger.warn("Failed to reset browser of pool {}, discarding it: {}", poolName, e.getMessage());
+			discard(browser);
+			topUp();
+		}
+	}
+
+	/**
+	 * Gets the number of idle browsers ready for checkout.
+	 *
+	 * @return the idle browser count.
+	 */
+	public int getIdleCount() {
+		return idleBrowsers.size();
+	}
+
+	/**
+	 * Gets the number of browsers currently checked out.
+	 *
+	 * @return the checked out browser count.
+	 */
+	public int getCheckedOutCount() {
+		return checkedOutBrowsers.size();
+	}
+
+	/**
+	 * Quits every browser of the pool, idle or checked out, and stops warming
+	 * up new ones.
+	 */
+	public void close() {
+		closed = true;
+		warmUpExecutor.shutdownNow();
+		PooledBrowser browser;
+		while ((browser = idleBrowsers.pollFirst()) != null) {
+			discard(browser);
+		}
+		for (PooledBrowser checkedOut : checkedOutBrowsers.values()) {
+			discard(checkedOut);
+		}
+		checkedOutBrowsers.clear();
+	}
+
+	/**
+	 * Launches idle browsers in the background until the pool holds
+	 * {@code minSize} of them or reaches its maximum size.
+	 */
+	private void topUp() {
+		if (closed || idleBrowsers.size() >= minSize) {
+			return;
+		}
+		warmUpExecutor.execute(() -> {
+			while (!closed && idleBrowsers.size() < minSize && capacity.tryAcquire()) {
+				PooledBrowser browser = launch();
+				if (browser == null) {
+					break;
+				}
+				idleBrowsers.offerLast(browser);
+			}
+		});
+	}
+
+	/**
+	 * Launches a browser for a capacity permit that the caller already holds.
+	 *
+	 * @return the launched browser, or null if the launch failed.
+	 */
+	private PooledBrowser launch() {
+		try {
+			long start = System.currentTimeMillis();
+			PooledBrowser browser = new PooledBrowser(driverManager.createDedicatedBrowser());
+			logger.info("Launched browser for pool {} in {} ms", poolName, System.currentTimeMillis() - start);
+			return browser;
+		} catch (RuntimeException e) {
+			capacity.release();
+			logger.error("Failed to launch browser for pool {}", poolName, e);
+			return null;
+		}
+	}
+
+	private PooledBrowser pollIdle(long timeoutMillis) {
+		try {
+			return idleBrowsers.pollFirst(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a browser from pool " + poolName, e);
+		}
+	}
+
+	private boolean isHealthy(PooledBrowser browser) {
+		try {
+			browser.ui.getURL();
+			return true;
+		} catch (RuntimeException e) {
+			return false;
+		}
+	}
+
+	private void discard(PooledBrowser browser) {
+		try {
+			browser.ui.closeBrowser();
+		} catch (RuntimeException e) {
+			logger.warn("Failed to close browser of pool {}: {}", poolName, e.getMessage());
+		} finally {
+			capacity.release();
+		}
+	}
+
+	/**
+	 * A pooled browser session and the number of times it has been checked out.
+	 */
+	private static final class PooledBrowser {
+
+		private final IActionUI ui;
+		private int uses;
+
+		private PooledBrowser(IActionUI ui) {
+			this.ui = ui;
+		}
+	}
+}
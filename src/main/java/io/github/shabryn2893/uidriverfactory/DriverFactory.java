@@ -1,5 +1,10 @@
 package io.github.shabryn2893.uidriverfactory;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.shabryn2893.uicore.SessionLifecycleManager;
+
 /**
  * A factory class for creating instances of {@link DriverManager} based on the
  * specified browser type and automation tool.
@@ -11,6 +16,15 @@ package io.github.shabryn2893.uidriverfactory;
  */
 public class DriverFactory {
 
+	/**
+	 * Browser pools keyed by tool, browser type and headless setting.
+	 */
+	private static final Map<String, BrowserPool> browserPools = new ConcurrentHashMap<>();
+
+	static {
+		SessionLifecycleManager.addShutdownTask(DriverFactory::closeBrowserPools);
+	}
+
 	/**
 	 * Private constructor to prevent instantiation of the DriverFactory class.
 	 */
@@ -38,4 +52,79 @@ public class DriverFactory {
 			return new PlaywrightDriverFactory(browserType, headless);
 		}
 	}
+
+	/**
+	 * Gets an instance of {@link DriverManager} whose browsers block the requests
+	 * described by the given profile.
+	 *
+	 * @param browserType     the type of browser to be used (e.g., "chrome",
+	 *                        "firefox").
+	 * @param toolName        the name of the automation tool to use (e.g.,
+	 *                        "SELENIUM", "PLAYWRIGHT").
+	 * @param headless        a boolean indicating whether to run the browser in
+	 *                        headless mode.
+	 * @param blockingProfile the requests to block, e.g.
+	 *                        {@link BlockingProfile#LEAN}.
+	 * @return an instance of {@link DriverManager} corresponding to the specified
+	 *         tool.
+	 */
+	public static DriverManager getDriver(String browserType, String toolName, boolean headless,
+			BlockingProfile blockingProfile) {
+		DriverManager driverManager = getDriver(browserType, toolName, headless);
+		driverManager.setBlockingProfile(blockingProfile);
+		return driverManager;
+	}
+
+	/**
+	 * Gets an instance of {@link DriverManager} whose browsers are launched with
+	 * the given profile, e.g. {@link LaunchProfile#FAST_CI}.
+	 *
+	 * @param browserType   the type of browser to be used (e.g., "chrome",
+	 *                      "firefox").
+	 * @param toolName      the name of the automation tool to use (e.g.,
+	 *                      "SELENIUM", "PLAYWRIGHT").
+	 * @param headless      a boolean indicating whether to run the browser in
+	 *                      headless mode.
+	 * @param launchProfile the launch settings.
+	 * @return an instance of {@link DriverManager} corresponding to the specified
+	 *         tool.
+	 */
+	public static DriverManager getDriver(String browserType, String toolName, boolean headless,
+			LaunchProfile launchProfile) {
+		DriverManager driverManager = getDriver(browserType, toolName, headless);
+		driverManager.setLaunchProfile(launchProfile);
+		return driverManager;
+	}
+
+	/**
+	 * Gets the shared {@link BrowserPool} for a tool, browser type and headless
+	 * setting, creating and warming it up on first use. Later calls with the same
+	 * key return the same pool; their sizing arguments are ignored.
+	 *
+	 * @param browserType the type of browser to be used (e.g., "chrome").
+	 * @param toolName    the name of the automation tool to use (e.g.,
+	 *                    "SELENIUM", "PLAYWRIGHT").
+	 * @param headless    whether to run the browsers in headless mode.
+	 * @param minSize     the number of idle browsers kept ready.
+	 * @param maxSize     the maximum number of browsers alive at once.
+	 * @param maxReuse    the number of checkouts after which a browser is
+	 *                    replaced.
+	 * @return the browser pool.
+	 */
+	public static BrowserPool getBrowserPool(String browserType, String toolName, boolean headless, int minSize,
+			int maxSize, int maxReuse) {
+		String poolName = (toolName + "-" + browserType + (headless ? "-headless" : "")).toLowerCase();
+		return browserPools.computeIfAbsent(poolName, name -> new BrowserPool(name,
+				getDriver(browserType, toolName, headless), minSize, maxSize, maxReuse));
+	}
+
+	/**
+	 * Quits the browsers of every pool created through
+	 * {@link #getBrowserPool(String, String, boolean, int, int, int)}. Also run
+	 * automatically when the JVM shuts down.
+	 */
+	public static void closeBrowserPools() {
+		browserPools.values().forEach(BrowserPool::close);
+		browserPools.clear();
+	}
 }
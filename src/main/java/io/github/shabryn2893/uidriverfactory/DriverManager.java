@@ -1,5 +1,7 @@
 package io.github.shabryn2893.uidriverfactory;
 
+import java.util.function.Supplier;
+
 import io.github.shabryn2893.uicore.IActionUI;
 
 /**
@@ -26,6 +28,13 @@ import io.github.shabryn2893.uicore.IActionUI;
  */
 public abstract class DriverManager {
 
+	private BlockingProfile blockingProfile = BlockingProfile.NONE;
+	private final BlockingStats blockingStats = new BlockingStats();
+	private final RecoveryStats recoveryStats = new RecoveryStats();
+	private LaunchProfile launchProfile = LaunchProfile.fromSystemProperty();
+	private BrowserGovernor governor = BrowserGovernor.getInstance();
+	private boolean backgroundStartup = Boolean.getBoolean("selautocore.background.startup");
+
 	/**
 	 * Creates and returns an instance of a browser driver.
 	 * 
@@ -37,4 +46,159 @@ public abstract class DriverManager {
 	 * @return an {@link IActionUI} instance representing the browser driver.
 	 */
 	public abstract IActionUI createBrowser();
+
+	/**
+	 * Creates a browser that shares no resources with other sessions, so it can
+	 * be created on one thread and used on another, e.g. by a browser pool.
+	 * Tools whose objects are confined to the thread that created them must
+	 * marshal every call onto that thread.
+	 * 
+	 * <p>
+	 * The default implementation delegates to {@link #createBrowser()}, which
+	 * suits Selenium, whose drivers may be used from any thread.
+	 * </p>
+	 * 
+	 * @return an {@link IActionUI} instance representing the browser driver.
+	 */
+	public IActionUI createDedicatedBrowser() {
+		return createBrowser();
+	}
+
+	/**
+	 * Creates a browser that recovers from crashes. If a call finds the browser
+	 * or its driver dead, a new browser is launched through
+	 * {@link #createBrowser()}, the cookies, storage, window state and URL of
+	 * the last checkpoint are restored and the call is retried once.
+	 * Checkpoints are taken after every navigation and every 10 calls.
+	 *
+	 * @return the supervised browser session.
+	 */
+	public IActionUI createSupervisedBrowser() {
+		return createSupervisedBrowser(10);
+	}
+
+	/**
+	 * Creates a browser that recovers from crashes, see
+	 * {@link #createSupervisedBrowser()}.
+	 *
+	 * @param checkpointInterval the number of calls between checkpoints of the
+	 *                           session state.
+	 * @return the supervised browser session.
+	 */
+	public IActionUI createSupervisedBrowser(int checkpointInterval) {
+		return SupervisedBrowser.start(this, checkpointInterval);
+	}
+
+	/**
+	 * Gets the counters of crash recoveries of supervised browsers created by
+	 * this manager.
+	 *
+	 * @return the recovery counters.
+	 */
+	public RecoveryStats getRecoveryStats() {
+		return recoveryStats;
+	}
+
+	/**
+	 * Sets the launch settings of browsers created by this manager. Defaults to
+	 * the profile named by the system property
+	 * {@code selautocore.launch.profile}.
+	 *
+	 * @param launchProfile the launch profile.
+	 */
+	public void setLaunchProfile(LaunchProfile launchProfile) {
+		this.launchProfile = launchProfile;
+	}
+
+	/**
+	 * Gets the launch settings of browsers created by this manager.
+	 *
+	 * @return the launch profile.
+	 */
+	public LaunchProfile getLaunchProfile() {
+		return launchProfile;
+	}
+
+	/**
+	 * Sets the governor that caps the number of live browsers created by this
+	 * manager. Defaults to the shared {@link BrowserGovernor#getInstance()}.
+	 *
+	 * @param governor the browser governor.
+	 */
+	public void setGovernor(BrowserGovernor governor) {
+		this.governor = governor;
+	}
+
+	/**
+	 * Gets the governor that caps the number of live browsers created by this
+	 * manager.
+	 *
+	 * @return the browser governor.
+	 */
+	public BrowserGovernor getGovernor() {
+		return governor;
+	}
+
+	/**
+	 * Sets whether {@link #createBrowser()} returns immediately and launches the
+	 * browser on a background thread. The first call on the returned
+	 * {@link IActionUI} waits only if the browser is not ready yet, so the launch
+	 * overlaps with the rest of the test setup. Defaults to the system property
+	 * {@code selautocore.background.startup}.
+	 *
+	 * @param backgroundStartup true to launch browsers in the background.
+	 */
+	public void setBackgroundStartup(boolean backgroundStartup) {
+		this.backgroundStartup = backgroundStartup;
+	}
+
+	/**
+	 * Checks whether browsers are launched on a background thread.
+	 *
+	 * @return true if background startup is enabled.
+	 */
+	public boolean isBackgroundStartup() {
+		return backgroundStartup;
+	}
+
+	/**
+	 * Launches a browser on a background thread and returns a session that waits
+	 * for the launch on first use. The launcher must create a browser that can be
+	 * used from another thread.
+	 *
+	 * @param description the browser description used in log messages.
+	 * @param launcher    launches the browser.
+	 * @return the session backed by the background launch.
+	 */
+	protected IActionUI startInBackground(String description, Supplier<IActionUI> launcher) {
+		return BackgroundBrowser.start(description, launcher);
+	}
+
+	/**
+	 * Sets the requests that browsers created by this manager should block.
+	 *
+	 * @param blockingProfile the blocking profile, {@link BlockingProfile#NONE}
+	 *                        to block nothing.
+	 */
+	public void setBlockingProfile(BlockingProfile blockingProfile) {
+		this.blockingProfile = blockingProfile;
+	}
+
+	/**
+	 * Gets the requests that browsers created by this manager block.
+	 *
+	 * @return the blocking profile.
+	 */
+	public BlockingProfile getBlockingProfile() {
+		return blockingProfile;
+	}
+
+	/**
+	 * Gets the counters of requests blocked by browsers created by this manager.
+	 *
+	 * @return the blocked request counters.
+	 */
+	public BlockingStats getBlockingStats() {
+		return blockingStats;
+	}
 }
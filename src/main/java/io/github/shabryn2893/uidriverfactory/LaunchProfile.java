@@ -0,0 +1,304 @@
+package io.github.shabryn2893.uidriverfactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A named set of browser launch settings tuned for a kind of run, such as
+ * throughput on a CI agent, interactive debugging or a memory constrained
+ * host.
+ * <p>
+ * A profile sets the page-load strategy, extra Chromium command line switches,
+ * a fixed window size, the headless mode flavour and the disk cache size. The
+ * profile of a driver manager defaults to the system property
+ * {@code selautocore.launch.profile}, so the profile can be switched without
+ * code changes.
+ * </p>
+ *
+ * Example Usage:
+ *
+ * <pre>{@code
+ * DriverManager driverManager = DriverFactory.getDriver("CHROME", "SELENIUM", true, LaunchProfile.FAST_CI);
+ * IActionUI ui = driverManager.createBrowser();
+ * }</pre>
+ *
+ * or {@code mvn test -Dselautocore.launch.profile=fast-ci}.
+ */
+public final class LaunchProfile {
+
+	private static final List<String> LEAN_CHROMIUM_ARGS = List.of("--disable-gpu", "--disable-extensions",
+			"--disable-dev-shm-usage", "--no-first-run", "--no-default-browser-check", "--disable-default-apps",
+			"--mute-audio");
+
+	/**
+	 * Normal page loads, incognito mode, the browser's default window size and
+	 * the classic headless mode.
+	 */
+	public static final LaunchProfile DEFAULT = new LaunchProfile("default", "normal", true, List.of(), 0, 0, false, 0,
+			0);
+
+	/**
+	 * Throughput oriented: eager page loads, no GPU, extensions or background
+	 * throttling, a fixed 1920x1080 window and the new headless mode.
+	 */
+	public static final LaunchProfile FAST_CI = new LaunchProfile("fast-ci", "eager", true,
+			concat(LEAN_CHROMIUM_ARGS, List.of("--disable-background-timer-throttling",
+					"--disable-backgrounding-occluded-windows", "--disable-renderer-backgrounding")),
+			1920, 1080, true, 0, 0);
+
+	/**
+	 * For watching a test run: normal page loads, no incognito mode, a fixed
+	 * 1600x900 window, the new headless mode and Playwright actions slowed down
+	 * by 250 ms. The browser still starts with a fresh temporary user profile.
+	 */
+	public static final LaunchProfile DEBUG = new LaunchProfile("debug", "normal", false, List.of(), 1600, 900, true,
+			0, 250);
+
+	/**
+	 * For hosts running many browsers: eager page loads, few renderer processes,
+	 * a small V8 heap and a 32 MB disk cache.
+	 */
+	public static final LaunchProfile LOW_MEMORY = new LaunchProfile("low-memory", "eager", true,
+			concat(LEAN_CHROMIUM_ARGS,
+					List.of("--renderer-process-limit=2", "--js-flags=--max-old-space-size=512",
+							"--disable-features=Translate,BackForwardCache", "--media-cache-size=1")),
+			1280, 720, true, 32L * 1024 * 1024, 0);
+
+	private final String name;
+	private final String pageLoadStrategy;
+	private final boolean incognito;
+	private final List<String> chromiumArgs;
+	private final int windowWidth;
+	private final int windowHeight;
+	private final boolean newHeadless;
+	private final long diskCacheBytes;
+	private final int slowMoMillis;
+
+	/**
+	 * Creates a custom launch profile.
+	 *
+	 * @param name             the profile name used in log messages.
+	 * @param pageLoadStrategy one of {@code normal}, {@code eager} or
+	 *                         {@code none}.
+	 * @param incognito        whether to start the browser in incognito mode.
+	 * @param chromiumArgs     extra command line switches for Chrome and Edge.
+	 * @param windowWidth      the window width in pixels, 0 for the default.
+	 * @param windowHeight     the window height in pixels, 0 for the default.
+	 * @param newHeadless      whether Chrome and Edge use the new headless mode
+	 *                         when running headless; Firefox and Safari have
+	 *                         only one headless mode.
+	 * @param diskCacheBytes   the disk cache limit in bytes, 0 for the default.
+	 * @param slowMoMillis     the delay Playwright adds to every action, 0 for
+	 *                         none.
+	 * @throws IllegalArgumentException if the page-load strategy is not
+	 *                                  supported.
+	 */
+	public LaunchProfile(String name, String pageLoadStrategy, boolean incognito, List<String> chromiumArgs,
+			int windowWidth, int windowHeight, boolean newHeadless, long diskCacheBytes, int slowMoMillis) {
+		switch (pageLoadStrategy.toLowerCase()) {
+		case "normal":
+		case "eager":
+		case "none":
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported page load strategy: " + pageLoadStrategy);
+		}
+		this.name = name;
+		this.pageLoadStrategy = pageLoadStrategy.toLowerCase();
+		this.incognito = incognito;
+		this.chromiumArgs = List.copyOf(chromiumArgs);
+		this.windowWidth = windowWidth;
+		this.windowHeight = windowHeight;
+		this.newHeadless = newHeadless;
+		this.diskCacheBytes = diskCacheBytes;
+		this.slowMoMillis = slowMoMillis;
+	}
+
+	/**
+	 * Gets one of the predefined profiles by name.
+	 *
+	 * @param profileName one of {@code default}, {@code fast-ci}, {@code debug}
+	 *                    or {@code low-memory}, case insensitive.
+	 * @return the matching profile.
+	 * @throws IllegalArgumentException if there is no profile with that name.
+	 */
+	public static LaunchProfile fromName(String profileName) {
+		switch (profileName.toLowerCase()) {
+		case "default":
+			return DEFAULT;
+		case "fast-ci":
+			return FAST_CI;
+		case "debug":
+			return DEBUG;
+		case "low-memory":
+			return LOW_MEMORY;
+		default:
+			throw new IllegalArgumentException("Unsupported launch profile: " + profileName);
+		}
+	}
+
+	/**
+	 * Gets the profile named by the system property
+	 * {@code selautocore.launch.profile}, or {@link #DEFAULT} if it is not set.
+	 *
+	 * @return the configured profile.
+	 */
+	public static LaunchProfile fromSystemProperty() {
+		return fromName(System.getProperty("selautocore.launch.profile", DEFAULT.name));
+	}
+
+	/**
+	 * Gets the profile name.
+	 *
+	 * @return the profile name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the page-load strategy.
+	 *
+	 * @return {@code normal}, {@code eager} or {@code none}.
+	 */
+	public String getPageLoadStrategy() {
+		return pageLoadStrategy;
+	}
+
+	/**
+	 * Checks whether the browser starts in incognito mode.
+	 *
+	 * @return true for incognito mode.
+	 */
+	public boolean isIncognito() {
+		return incognito;
+	}
+
+	/**
+	 * Gets the Chromium command line switches of this profile, including the
+	 * window size and disk cache switches.
+	 *
+	 * @param headless whether the browser runs headless.
+	 * @return the command line switches.
+	 */
+	public List<String> getChromiumArgs(boolean headless) {
+		List<String> args = new ArrayList<>(chromiumArgs);
+		if (incognito) {
+			args.add("--incognito");
+		}
+		if (headless) {
+			args.add(newHeadless ? "--headless=new" : "--headless");
+		}
+		if (hasWindowSize()) {
+			args.add("--window-size=" + windowWidth + "," + windowHeight);
+		}
+		if (diskCacheBytes > 0) {
+			args.add("--disk-cache-size=" + diskCacheBytes);
+		}
+		return args;
+	}
+
+	/**
+	 * Gets the Chromium switches of this profile without the incognito, headless
+	 * and window size switches, for tools that manage those settings themselves.
+	 *
+	 * @return the command line switches.
+	 */
+	public List<String> getExtraChromiumArgs() {
+		List<String> args = new ArrayList<>(chromiumArgs);
+		if (diskCacheBytes > 0) {
+			args.add("--disk-cache-size=" + diskCacheBytes);
+		}
+		return args;
+	}
+
+	/**
+	 * Checks whether the profile fixes the window size.
+	 *
+	 * @return true if a window width and height are set.
+	 */
+	public boolean hasWindowSize() {
+		return windowWidth > 0 && windowHeight > 0;
+	}
+
+	/**
+	 * Gets the window width.
+	 *
+	 * @return the width in pixels, 0 for the default.
+	 */
+	public int getWindowWidth() {
+		return windowWidth;
+	}
+
+	/**
+	 * Gets the window height.
+	 *
+	 * @return the height in pixels, 0 for the default.
+	 */
+	public int getWindowHeight() {
+		return windowHeight;
+	}
+
+	/**
+	 * Checks whether a headless Chromium browser uses the new headless mode.
+	 *
+	 * @return true for the new headless mode.
+	 */
+	public boolean isNewHeadless() {
+		return newHeadless;
+	}
+
+	/**
+	 * Gets the disk cache limit.
+	 *
+	 * @return the limit in bytes, 0 for the default.
+	 */
+	public long getDiskCacheBytes() {
+		return diskCacheBytes;
+	}
+
+	/**
+	 * Gets the delay Playwright adds to every action.
+	 *
+	 * @return the delay in milliseconds, 0 for none.
+	 */
+	public int getSlowMoMillis() {
+		return slowMoMillis;
+	}
+
+	/**
+	 * Compares all settings of two profiles, including the name.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof LaunchProfile profile)) {
+			return false;
+		}
+		return name.equals(profile.name) && pageLoadStrategy.equals(profile.pageLoadStrategy)
+				&& incognito == profile.incognito && chromiumArgs.equals(profile.chromiumArgs)
+				&& windowWidth == profile.windowWidth && windowHeight == profile.windowHeight
+				&& newHeadless == profile.newHeadless && diskCacheBytes == profile.diskCacheBytes
+				&& slowMoMillis == profile.slowMoMillis;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(name, pageLoadStrategy, incognito, chromiumArgs, windowWidth, windowHeight, newHeadless,
+				diskCacheBytes, slowMoMillis);
+	}
+
+	@Override
+	public String toString() {
+		return "launch profile '" + name + "'";
+	}
+
+	private static List<String> concat(List<String> first, List<String> second) {
+		List<String> all = new ArrayList<>(first);
+		all.addAll(second);
+		return all;
+	}
+}
@@ -0,0 +1,27 @@
+package io.github.shabryn2893.uidriverfactory;
+
+/**
+ * How a Playwright browser context uses a HAR (HTTP archive) file.
+ *
+ * @see PlaywrightDriverFactory#setNetworkArchive(NetworkArchiveMode,
+ *      java.nio.file.Path)
+ */
+public enum NetworkArchiveMode {
+
+	/**
+	 * The network is used normally and no HAR file is involved.
+	 */
+	OFF,
+
+	/**
+	 * All network traffic of the context, including response bodies, is written
+	 * to the HAR file when the browser is closed.
+	 */
+	RECORD,
+
+	/**
+	 * Responses are served from the HAR file. Requests that are not found in the
+	 * archive are aborted, so the session never touches the network.
+	 */
+	REPLAY
+}
@@ -1,11 +1,21 @@
 package io.github.shabryn2893.uidriverfactory;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import org.slf4j.Logger;
 
 import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
 import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.Playwright;
 import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.options.HarMode;
+import com.microsoft.playwright.options.HarNotFound;
+import com.microsoft.playwright.options.WaitUntilState;
 
 import io.github.shabryn2893.uicore.IActionUI;
 import io.github.shabryn2893.uicore.UIActionsPlaywright;
@@ -37,6 +47,15 @@ import io.github.shabryn2893.utils.LoggerUtils;
  * IActionUI browserActions = factory.createBrowser();
  * }</pre>
  * 
+ * Network traffic can be recorded to a HAR file once and replayed offline on
+ * later runs:
+ * 
+ * <pre>{@code
+ * PlaywrightDriverFactory factory = new PlaywrightDriverFactory("chrome", true);
+ * factory.setNetworkArchive(NetworkArchiveMode.REPLAY, Paths.get("src/test/resources/har/checkout.har"));
+ * IActionUI browserActions = factory.createBrowser();
+ * }</pre>
+ * 
  */
 public class PlaywrightDriverFactory extends DriverManager {
 
@@ -51,10 +70,16 @@ public class PlaywrightDriverFactory extends DriverManager {
 	 * Specifies whether the browser should be run in headless mode.
 	 */
 	private boolean headless;
-	// Instance variable for Playwright
-	private Playwright playwright;
-	// Instance variable for Browser
-	private Browser browser;
+	// How the browser context uses the HAR file
+	private NetworkArchiveMode networkArchiveMode = NetworkArchiveMode.OFF;
+	// HAR file recorded to or replayed from
+	private Path harFile;
+	// Optional glob limiting which URLs are recorded or replayed
+	private String harUrlFilter;
+	// HAR files of the contexts recorded so far, one per context
+	private final List<Path> recordedHarFiles = new CopyOnWriteArrayList<>();
+	// Contexts replayed so far, to pick the numbered HAR file of the next one
+	private int replayedContexts;
 
 	/**
 	 * Constructs a {@code PlaywrightDriverFactory} with the specified browser type
@@ -73,8 +98,11 @@ public class PlaywrightDriverFactory extends DriverManager {
 	 * Creates and returns a browser instance based on the specified browser type.
 	 * 
 	 * <p>
-	 * This method uses the Playwright API to launch a browser and return a
-	 * {@link UIActionsPlaywright} object for browser interactions.
+	 * Browsers are shared per thread: the first call on a thread launches one
+	 * browser for this type, headless setting and launch profile, and every
+	 * call opens a new, isolated browser context in it. Closing the returned
+	 * {@link IActionUI} closes only its context. With background startup enabled the session gets
+	 * a dedicated browser instead, as it is launched on another thread.
 	 * </p>
 	 * 
 	 * Supported Browser Types:
@@ -90,45 +118,248 @@ public class PlaywrightDriverFactory extends DriverManager {
 	 */
 	@Override
 	public IActionUI createBrowser() {
-		try {
-			// Initialize Playwright instance
-			playwright = Playwright.create();
+		if (isBackgroundStartup()) {
+			return startInBackground("Playwright " + browserType, this::createDedicatedBrowser);
+		}
+		List<Object> browserKey = List.of(browserType.toUpperCase(), headless, getLaunchProfile());
+		return getGovernor().launch("Playwright " + browserType, () -> {
+			Browser browser = PlaywrightRuntime.forCurrentThread().getBrowser(browserKey, this::launchBrowser);
+			return newSession(createContext(browser), null);
+		});
+	}
 
+	/**
+	 * Creates a browser with its own Playwright instance instead of the shared
+	 * browser of the calling thread. Playwright objects must only be used from
+	 * the thread that created them, so the Playwright instance is created on a
+	 * dedicated owner thread and every call on the returned session is run on
+	 * that thread, see {@link ThreadConfinedBrowser}. This lets a browser pool or
+	 * a background startup launch the session and a test thread use it. Closing
+	 * the session closes its browser, Playwright instance and owner thread.
+	 * 
+	 * @return an {@link IActionUI} instance owning its browser.
+	 */
+	@Override
+	public IActionUI createDedicatedBrowser() {
+		String description = "Playwright " + browserType;
+		return ThreadConfinedBrowser.start(description, () -> getGovernor().launch(description, () -> {
+			Playwright playwright = Playwright.create();
+			try {
+				return newSession(createContext(launchBrowser(playwright)), playwright);
+			} catch (RuntimeException e) {
+				playwright.close();
+				throw e;
+			}
+		}));
+	}
+
+	/**
+	 * Launches the browser type of this factory.
+	 * 
+	 * @param playwright the Playwright instance to launch with.
+	 * @return the launched browser.
+	 * @throws IllegalArgumentException if the browser type is not supported
+	 */
+	private Browser launchBrowser(Playwright playwright) {
+		LaunchProfile launchProfile = getLaunchProfile();
+		logger.info("Launching Playwright {} with {}", browserType, launchProfile);
+		BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions().setHeadless(headless)
+				.setSlowMo(launchProfile.getSlowMoMillis());
+		try {
 			// Launch the appropriate browser based on the provided browser type
 			switch (browserType.toUpperCase()) {
 			case "CHROME":
-				browser = playwright.chromium()
-						.launch(new BrowserType.LaunchOptions().setChannel("chrome").setHeadless(headless));
-				break;
+				return playwright.chromium().launch(chromiumOptions(launchOptions, "chrome", launchProfile));
 			case "EDGE":
-				browser = playwright.chromium()
-						.launch(new BrowserType.LaunchOptions().setChannel("msedge").setHeadless(headless));
-				break;
+				return playwright.chromium().launch(chromiumOptions(launchOptions, "msedge", launchProfile));
 			case "FIREFOX":
-				browser = playwright.firefox().launch(new BrowserType.LaunchOptions().setHeadless(headless));
-				break;
+				return playwright.firefox().launch(launchOptions);
 			case "SAFARI":
-				browser = playwright.webkit().launch(new BrowserType.LaunchOptions().setHeadless(headless));
-				break;
+				return playwright.webkit().launch(launchOptions);
 			default:
 				throw new IllegalArgumentException("Unsupported Playwright browser type: " + browserType);
 			}
-
 		} catch (PlaywrightException e) {
-			e.printStackTrace();
 			logger.error("Failed to create browser instance:", e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Completes the launch options of Chrome and Edge. Playwright starts a
+	 * headless browser in the old headless mode, so the new headless mode of the
+	 * launch profile is requested with the {@code --headless=new} switch on a
+	 * launch that Playwright considers headed.
+	 *
+	 * @param launchOptions the options with the settings shared by all browsers.
+	 * @param channel       the browser channel, {@code chrome} or
+	 *                      {@code msedge}.
+	 * @param launchProfile the launch profile of this factory.
+	 * @return the launch options.
+	 */
+	private BrowserType.LaunchOptions chromiumOptions(BrowserType.LaunchOptions launchOptions, String channel,
+			LaunchProfile launchProfile) {
+		List<String> args = new ArrayList<>(launchProfile.getExtraChromiumArgs());
+		if (headless && launchProfile.isNewHeadless()) {
+			launchOptions.setHeadless(false);
+			args.add("--headless=new");
+		}
+		return launchOptions.setChannel(channel).setArgs(args);
+	}
 
-		} finally {
-			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-				if (browser != null) {
-					browser.close();
-				}
-				if (playwright != null) {
-					playwright.close();
-				}
-			}));
+	/**
+	 * Opens a session in a context and applies the page-load strategy of the
+	 * launch profile to its navigations.
+	 * 
+	 * @param context the browser context of the session.
+	 * @param owner   the resource closed with the session, or null.
+	 * @return the new session.
+	 */
+	private IActionUI newSession(BrowserContext context, AutoCloseable owner) {
+		UIActionsPlaywright session = new UIActionsPlaywright(context, owner);
+		switch (getLaunchProfile().getPageLoadStrategy()) {
+		case "eager":
+			session.setNavigationWaitUntil(WaitUntilState.DOMCONTENTLOADED);
+			break;
+		case "none":
+			session.setNavigationWaitUntil(WaitUntilState.COMMIT);
+			break;
+		default:
+			session.setNavigationWaitUntil(WaitUntilState.LOAD);
+			break;
 		}
-		return new UIActionsPlaywright(browser);
+		return session;
 	}
 
+	/**
+	 * Records the network traffic of browsers created by this factory to a HAR
+	 * file, or replays it from one.
+	 * 
+	 * <p>
+	 * In {@link NetworkArchiveMode#RECORD} mode the HAR file is written when the
+	 * browser is closed. Every browser context records to its own file: the
+	 * first one to {@code harFile}, later ones to {@code harFile} with a counter
+	 * before the extension, e.g. {@code checkout-2.har}, so that parallel
+	 * sessions do not overwrite each other. In {@link NetworkArchiveMode#REPLAY}
+	 * mode responses are served with {@code routeFromHAR} and requests missing
+	 * from the archive are aborted, so UI flows run against a frozen copy of the
+	 * backend. Contexts replay the files in the same order: the first one
+	 * {@code harFile}, the second one {@code checkout-2.har} and so on, so
+	 * sessions must be created in the order they were recorded in. A context
+	 * without a numbered file of its own replays {@code harFile}.
+	 * </p>
+	 * 
+	 * @param mode    the archive mode.
+	 * @param harFile the HAR file to record to or replay from; a {@code .zip}
+	 *                path stores response bodies as separate entries.
+	 */
+	public synchronized void setNetworkArchive(NetworkArchiveMode mode, Path harFile) {
+		this.networkArchiveMode = mode;
+		this.harFile = harFile;
+		recordedHarFiles.clear();
+		replayedContexts = 0;
+	}
+
+	/**
+	 * Gets the HAR files of the browser contexts recorded by this factory. A
+	 * file is complete once its session is closed.
+	 * 
+	 * @return the HAR files in the order the contexts were created.
+	 */
+	public List<Path> getRecordedHarFiles() {
+		return List.copyOf(recordedHarFiles);
+	}
+
+	/**
+	 * Limits HAR recording and replay to URLs matching a glob pattern, e.g.
+	 * <code>"**&#47;api/**"</code>. All other requests use the network normally.
+	 * 
+	 * @param harUrlFilter the URL glob pattern, or null for all URLs.
+	 */
+	public void setHarUrlFilter(String harUrlFilter) {
+		this.harUrlFilter = harUrlFilter;
+	}
+
+	/**
+	 * Creates a browser context with the viewport of the launch profile, and the
+	 * HAR archive mode and the blocking profile of this factory applied. Blocked
+	 * URLs are matched inside the browser, so only requests that are actually
+	 * aborted reach the route handler.
+	 *
+	 * @param browser the browser to create the context in.
+	 * @return the new browser context.
+	 */
+	private BrowserContext createContext(Browser browser) {
+		Browser.NewContextOptions contextOptions = new Browser.NewContextOptions();
+		LaunchProfile launchProfile = getLaunchProfile();
+		if (launchProfile.hasWindowSize()) {
+			contextOptions.setViewportSize(launchProfile.getWindowWidth(), launchProfile.getWindowHeight());
+		}
+		if (networkArchiveMode == NetworkArchiveMode.RECORD) {
+			Path contextHarFile = nextHarFile();
+			logger.info("Recording network traffic to HAR file: {}", contextHarFile);
+			contextOptions.setRecordHarPath(contextHarFile).setRecordHarMode(HarMode.FULL);
+			if (harUrlFilter != null) {
+				contextOptions.setRecordHarUrlFilter(harUrlFilter);
+			}
+		}
+		BrowserContext context = browser.newContext(contextOptions);
+		if (networkArchiveMode == NetworkArchiveMode.REPLAY) {
+			Path contextHarFile = nextReplayedHarFile();
+			logger.info("Replaying network traffic from HAR file: {}", contextHarFile);
+			BrowserContext.RouteFromHAROptions harOptions = new BrowserContext.RouteFromHAROptions()
+					.setNotFound(HarNotFound.ABORT);
+			if (harUrlFilter != null) {
+				harOptions.setUrl(harUrlFilter);
+			}
+			context.routeFromHAR(contextHarFile, harOptions);
+		}
+		BlockingProfile blockingProfile = getBlockingProfile();
+		if (!blockingProfile.isEmpty()) {
+			logger.info("Applying {} to Playwright context", blockingProfile);
+			context.route(blockingProfile.toRegex(), route -> {
+				getBlockingStats().recordBlocked(route.request().resourceType(), route.request().url());
+				route.abort("blockedbyclient");
+			});
+		}
+		return context;
+	}
+
+	/**
+	 * Reserves the HAR file of the next recorded context.
+	 *
+	 * @return {@code harFile} for the first context, numbered siblings of it for
+	 *         later ones.
+	 */
+	private synchronized Path nextHarFile() {
+		Path contextHarFile = numberedHarFile(recordedHarFiles.size() + 1);
+		recordedHarFiles.add(contextHarFile);
+		return contextHarFile;
+	}
+
+	/**
+	 * Picks the HAR file the next replayed context was recorded into.
+	 *
+	 * @return the numbered HAR file of the context if it exists, otherwise
+	 *         {@code harFile}.
+	 */
+	private synchronized Path nextReplayedHarFile() {
+		Path contextHarFile = numberedHarFile(++replayedContexts);
+		return Files.exists(contextHarFile) ? contextHarFile : harFile;
+	}
+
+	/**
+	 * Gets the HAR file of the n-th context: {@code harFile} for the first one,
+	 * {@code harFile} with {@code -n} before the extension for later ones.
+	 */
+	private Path numberedHarFile(int context) {
+		if (context == 1) {
+			return harFile;
+		}
+		String name = harFile.getFileName().toString();
+		int extension = name.lastIndexOf('.');
+		String suffix = "-" + context;
+		return harFile.resolveSibling(extension < 0 ? name + suffix
+				: name.substring(0, extension) + suffix + name.substring(extension));
+	}
 }
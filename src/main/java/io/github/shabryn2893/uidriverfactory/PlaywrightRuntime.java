@@ -0,0 +1,105 @@
+package io.github.shabryn2893.uidriverfactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+
+import io.github.shabryn2893.uicore.SessionLifecycleManager;
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * One Playwright driver process and one launched {@link Browser} per browser
+ * type, headless setting and launch profile, confined to the thread that
+ * created them.
+ * <p>
+ * Playwright objects must only be used from the thread that created them, so
+ * every test worker thread gets its own runtime. Tests running on the same
+ * thread share its browsers and only create a cheap, isolated
+ * {@code BrowserContext} each. All runtimes are closed at JVM shutdown by the
+ * {@link SessionLifecycleManager}, after the remaining sessions.
+ * </p>
+ */
+final class PlaywrightRuntime {
+
+	private static final Logger logger = LoggerUtils.getLogger(PlaywrightRuntime.class);
+	private static final List<PlaywrightRuntime> runtimes = new CopyOnWriteArrayList<>();
+	private static final ThreadLocal<PlaywrightRuntime> currentRuntime = ThreadLocal.withInitial(() -> {
+		PlaywrightRuntime runtime = new PlaywrightRuntime();
+		runtimes.add(runtime);
+		return runtime;
+	});
+
+	static {
+		SessionLifecycleManager.addRuntimeShutdownTask(() -> runtimes.forEach(PlaywrightRuntime::close));
+	}
+
+	private final Playwright playwright;
+	private final Map<List<Object>, Browser> browsers = new HashMap<>();
+
+	private PlaywrightRuntime() {
+		this.playwright = Playwright.create();
+	}
+
+	/**
+	 * Gets the runtime of the calling thread, starting its Playwright driver on
+	 * first use.
+	 *
+	 * @return the thread's runtime.
+	 */
+	static PlaywrightRuntime forCurrentThread() {
+		return currentRuntime.get();
+	}
+
+	/**
+	 * Gets the shared browser for a launch configuration, launching it on first
+	 * use or after it has disconnected.
+	 *
+	 * @param key      identifies the launch configuration: browser type,
+	 *                 headless setting and launch profile, compared by all
+	 *                 their settings.
+	 * @param launcher launches the browser with this runtime's Playwright.
+	 * @return the connected browser.
+	 */
+	Browser getBrowser(List<Object> key, BrowserLauncher launcher) {
+		Browser browser = browsers.get(key);
+		if (browser == null || !browser.isConnected()) {
+			browser = launcher.launch(playwright);
+			browsers.put(key, browser);
+			logger.info("Launched shared {} browser on thread {}", key, Thread.currentThread().getName());
+		}
+		return browser;
+	}
+
+	/**
+	 * Closes all browsers and the Playwright driver of this runtime.
+	 */
+	private void close() {
+		try {
+			playwright.close();
+		} catch (PlaywrightException e) {
+			logger.error("Failed to close Playwright runtime", e);
+		}
+	}
+
+	/**
+	 * Launches a browser with a given Playwright instance.
+	 */
+	@FunctionalInterface
+	interface BrowserLauncher {
+
+		/**
+		 * Launches a browser.
+		 *
+		 * @param playwright the Playwright instance to launch with.
+		 * @return the launched browser.
+		 */
+		Browser launch(Playwright playwright);
+	}
+}
@@ -0,0 +1,117 @@
+package io.github.shabryn2893.uidriverfactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * Samples the memory and CPU usage of the browser process trees started by
+ * this JVM.
+ * <p>
+ * The children of the JVM are driver processes: Selenium driver services and
+ * Playwright drivers. Every child of a driver process is treated as the root of
+ * one browser tree, so that the browsers of a driver service shared by several
+ * sessions, or of a Playwright driver, are sampled and reported one by one.
+ * The driver processes themselves are not counted. Resident memory is read
+ * from {@code /proc} and is only available on Linux; CPU usage is computed
+ * from the total CPU time of the processes between two samples.
+ * </p>
+ */
+class ProcessTreeSampler {
+
+	private static final Logger logger = LoggerUtils.getLogger(ProcessTreeSampler.class);
+
+	private final long warnRssBytes;
+	private final double warnCpuPercent;
+	private final Map<Long, Long> previousCpuNanos = new HashMap<>();
+	private long previousSampleNanos;
+
+	ProcessTreeSampler(long warnRssBytes, double warnCpuPercent) {
+		this.warnRssBytes = warnRssBytes;
+		this.warnCpuPercent = warnCpuPercent;
+	}
+
+	/**
+	 * Samples every browser process tree and logs a warning for each tree above
+	 * the thresholds.
+	 *
+	 * @return the usage of every tree.
+	 */
+	synchronized List<TreeUsage> sample() {
+		long now = System.nanoTime();
+		long elapsedNanos = previousSampleNanos == 0 ? 0 : now - previousSampleNanos;
+		previousSampleNanos = now;
+		Map<Long, Long> cpuNanos = new HashMap<>();
+		List<TreeUsage> usages = new ArrayList<>();
+		List<ProcessHandle> roots = ProcessHandle.current().children().flatMap(ProcessHandle::children)
+				.collect(Collectors.toList());
+		for (ProcessHandle root : roots) {
+			List<ProcessHandle> tree = Stream.concat(Stream.of(root), root.descendants()).collect(Collectors.toList());
+			long rssBytes = 0;
+			long treeCpuNanos = 0;
+			for (ProcessHandle process : tree) {
+				rssBytes += readRssBytes(process.pid());
+				treeCpuNanos += process.info().totalCpuDuration().map(Duration::toNanos).orElse(0L);
+			}
+			cpuNanos.put(root.pid(), treeCpuNanos);
+			Long previous = previousCpuNanos.get(root.pid());
+			double cpuPercent = previous == null || elapsedNanos == 0 ? 0
+					: Math.max(0, treeCpuNanos - previous) * 100.0 / elapsedNanos;
+			TreeUsage usage = new TreeUsage(root.pid(), root.info().command().orElse("unknown"), tree.size(),
+					rssBytes, cpuPercent);
+			usages.add(usage);
+			if (rssBytes > warnRssBytes || cpuPercent > warnCpuPercent) {
+				logger.warn("Browser process tree over threshold: {}", usage);
+			}
+		}
+		previousCpuNanos.clear();
+		previousCpuNanos.putAll(cpuNanos);
+		return usages;
+	}
+
+	/**
+	 * Reads the resident set size of a process.
+	 *
+	 * @param pid the process id.
+	 * @return the resident memory in bytes, or 0 if it cannot be read.
+	 */
+	private static long readRssBytes(long pid) {
+		Path status = Path.of("/proc", String.valueOf(pid), "status");
+		try (Stream<String> lines = Files.lines(status)) {
+			return lines.filter(line -> line.startsWith("VmRSS:")).findFirst()
+					.map(line -> Long.parseLong(line.replaceAll("\\D", "")) * 1024).orElse(0L);
+		} catch (IOException | RuntimeException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * The usage of one process tree.
+	 *
+	 * @param rootPid      the process id of the tree root.
+	 * @param command      the executable of the tree root.
+	 * @param processCount the number of processes in the tree.
+	 * @param rssBytes     the resident memory of the tree in bytes.
+	 * @param cpuPercent   the CPU usage since the previous sample, where 100 is
+	 *                     one full core.
+	 */
+	record TreeUsage(long rootPid, String command, int processCount, long rssBytes, double cpuPercent) {
+
+		@Override
+		public String toString() {
+			return String.format("%s (pid %d, %d processes): %d MB RSS, %.0f%% CPU", command, rootPid, processCount,
+					rssBytes / (1024 * 1024), cpuPercent);
+		}
+	}
+}
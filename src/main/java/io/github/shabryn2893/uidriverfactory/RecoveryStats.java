@@ -0,0 +1,118 @@
+package io.github.shabryn2893.uidriverfactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * Records the crash recoveries of every supervised browser created by one
+ * {@link DriverManager}. The counters are thread safe since sessions recover
+ * on their own test threads.
+ */
+public class RecoveryStats {
+
+	private static final Logger logger = LoggerUtils.getLogger(RecoveryStats.class);
+	private static final int MAX_RECENT_RECOVERIES = 100;
+	private final LongAdder recoveries = new LongAdder();
+	private final LongAdder failedRecoveries = new LongAdder();
+	private final LongAdder recoveryMillis = new LongAdder();
+	private final Map<String, LongAdder> recoveriesByCause = new ConcurrentHashMap<>();
+	private final Deque<Recovery> recentRecoveries = new ConcurrentLinkedDeque<>();
+
+	/**
+	 * Records one recovery attempt.
+	 *
+	 * @param action         the IActionUI method that found the session dead.
+	 * @param cause          the failure that revealed the dead session.
+	 * @param durationMillis the time spent relaunching and restoring.
+	 * @param succeeded      whether the session was relaunched and the action
+	 *                       retried successfully.
+	 */
+	public void recordRecovery(String action, Throwable cause, long durationMillis, boolean succeeded) {
+		(succeeded ? recoveries : failedRecoveries).increment();
+		recoveryMillis.add(durationMillis);
+		String causeName = cause.getClass().getSimpleName();
+		recoveriesByCause.computeIfAbsent(causeName, name -> new LongAdder()).increment();
+		recentRecoveries.addLast(new Recovery(Instant.now(), action, causeName, durationMillis, succeeded));
+		while (recentRecoveries.size() > MAX_RECENT_RECOVERIES) {
+			recentRecoveries.pollFirst();
+		}
+	}
+
+	/**
+	 * Gets the number of successful recoveries.
+	 *
+	 * @return the recovery count.
+	 */
+	public long getRecoveries() {
+		return recoveries.sum();
+	}
+
+	/**
+	 * Gets the number of recoveries that did not bring the session back.
+	 *
+	 * @return the failed recovery count.
+	 */
+	public long getFailedRecoveries() {
+		return failedRecoveries.sum();
+	}
+
+	/**
+	 * Gets the total time spent on recoveries.
+	 *
+	 * @return the time in milliseconds.
+	 */
+	public long getRecoveryMillis() {
+		return recoveryMillis.sum();
+	}
+
+	/**
+	 * Gets the number of recovery attempts per failure type.
+	 *
+	 * @return a sorted snapshot of the counters.
+	 */
+	public Map<String, Long> getRecoveriesByCause() {
+		Map<String, Long> snapshot = new TreeMap<>();
+		recoveriesByCause.forEach((cause, count) -> snapshot.put(cause, count.sum()));
+		return snapshot;
+	}
+
+	/**
+	 * Gets the most recent recovery attempts, oldest first.
+	 *
+	 * @return up to the last 100 recoveries.
+	 */
+	public List<Recovery> getRecentRecoveries() {
+		return new ArrayList<>(recentRecoveries);
+	}
+
+	/**
+	 * Logs the recovery counters.
+	 */
+	public void logSummary() {
+		logger.info("Recovered {} crashed browser sessions ({} failed) in {} ms: {}", getRecoveries(),
+				getFailedRecoveries(), getRecoveryMillis(), getRecoveriesByCause());
+	}
+
+	/**
+	 * One recovery attempt.
+	 *
+	 * @param time           when the recovery finished.
+	 * @param action         the IActionUI method that found the session dead.
+	 * @param cause          the simple class name of the failure.
+	 * @param durationMillis the time spent relaunching and restoring.
+	 * @param succeeded      whether the retried action succeeded.
+	 */
+	public record Recovery(Instant time, String action, String cause, long durationMillis, boolean succeeded) {
+	}
+}
@@ -1,15 +1,23 @@
 package io.github.shabryn2893.uidriverfactory;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.openqa.selenium.Dimension;
 import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.json.Json;
 import org.openqa.selenium.safari.SafariDriver;
 import org.openqa.selenium.safari.SafariOptions;
 import org.slf4j.Logger;
@@ -22,7 +30,7 @@ import io.github.shabryn2893.utils.LoggerUtils;
  * The {@code SeleniumDriverFactory} class is responsible for creating and
  * configuring browser instances using the Selenium WebDriver. It supports
  * multiple browsers such as Chrome, Firefox, Edge, and Safari, with options for
- * headless execution and incognito mode.
+ * headless execution and the settings of a {@link LaunchProfile}.
  * 
  * <p>
  * This class extends {@link DriverManager} and implements the
@@ -64,10 +72,21 @@ public class SeleniumDriverFactory extends DriverManager {
 	private boolean headless;
 
 	/**
-	 * Command line argument to launch the browser in incognito mode.
+	 * Command line argument to launch Firefox in incognito mode; Chromium
+	 * switches come from the {@link LaunchProfile}.
 	 */
 	private String incognitoMode = "--incognito";
 
+	/**
+	 * Whether sessions open a WebDriver BiDi connection for browser events.
+	 */
+	private boolean biDiEnabled = Boolean.getBoolean("selautocore.selenium.bidi");
+
+	/**
+	 * Whether Chrome and Edge sessions share one driver service per JVM.
+	 */
+	private boolean sharedDriverService = Boolean.getBoolean("selautocore.selenium.shared.service");
+
 	/**
 	 * Constructs a {@code SeleniumDriverFactory} with the specified browser type
 	 * and headless mode.
@@ -86,8 +105,8 @@ public class SeleniumDriverFactory extends DriverManager {
 	 * 
 	 * <p>
 	 * This method configures the browser options for the supported browsers and
-	 * launches them with the specified options such as headless mode and incognito
-	 * mode.
+	 * launches them with the specified options such as headless mode and the
+	 * page-load strategy, switches and window size of the launch profile.
 	 * </p>
 	 * 
 	 * Supported Browser Types:
@@ -109,54 +128,189 @@ public class SeleniumDriverFactory extends DriverManager {
 	 */
 	@Override
 	public IActionUI createBrowser() {
+		if (isBackgroundStartup()) {
+			return startInBackground("Selenium " + browserType, this::launchBrowser);
+		}
+		return launchBrowser();
+	}
+
+	/**
+	 * Launches a browser synchronously, regardless of the background startup
+	 * setting. Selenium sessions can be used from any thread.
+	 * 
+	 * @return an {@link IActionUI} instance to interact with the browser.
+	 */
+	@Override
+	public IActionUI createDedicatedBrowser() {
+		return launchBrowser();
+	}
+
+	/**
+	 * Enables the WebDriver BiDi (WebSocket) connection for browsers created by
+	 * this factory. Navigation, network, log and DOM mutation events are then
+	 * pushed to the session's {@link io.github.shabryn2893.uicore.BiDiEventHub},
+	 * and waits react to events instead of polling. Defaults to the system
+	 * property {@code selautocore.selenium.bidi}. Safari does not support BiDi.
+	 * 
+	 * @param biDiEnabled true to enable WebDriver BiDi.
+	 */
+	public void setBiDiEnabled(boolean biDiEnabled) {
+		this.biDiEnabled = biDiEnabled;
+	}
+
+	/**
+	 * Sets whether Chrome and Edge sessions are created on one long-lived
+	 * chromedriver or msedgedriver process per JVM instead of starting a driver
+	 * process per session. The resolved driver binaries are cached on disk, so
+	 * later runs need no network access. Defaults to the system property
+	 * {@code selautocore.selenium.shared.service}, which is false unless set.
+	 * Firefox and Safari always use a driver process per session.
+	 * 
+	 * @param sharedDriverService true to share the driver service.
+	 */
+	public void setSharedDriverService(boolean sharedDriverService) {
+		this.sharedDriverService = sharedDriverService;
+	}
+
+	/**
+	 * Launches the configured browser once the governor has a free slot.
+	 * 
+	 * @return an {@link IActionUI} instance to interact with the browser.
+	 */
+	private IActionUI launchBrowser() {
+		return getGovernor().launch("Selenium " + browserType, this::startSession);
+	}
+
+	/**
+	 * Starts the configured browser and applies the blocking profile.
+	 * 
+	 * @return an {@link IActionUI} instance to interact with the browser.
+	 * @throws IllegalArgumentException if the browser type is not supported.
+	 */
+	private IActionUI startSession() {
 		WebDriver driver;
+		LaunchProfile launchProfile = getLaunchProfile();
+		PageLoadStrategy pageLoadStrategy = PageLoadStrategy.fromString(launchProfile.getPageLoadStrategy());
+		logger.info("Launching Selenium {} with {}", browserType, launchProfile);
 
 		switch (browserType.toUpperCase()) {
 		case "CHROME":
 			ChromeOptions chromeOptions = new ChromeOptions();
 			chromeOptions.setAcceptInsecureCerts(true);
-			chromeOptions.addArguments(incognitoMode);
-			chromeOptions.setPageLoadStrategy(PageLoadStrategy.NORMAL);
+			chromeOptions.addArguments(launchProfile.getChromiumArgs(headless));
+			chromeOptions.setPageLoadStrategy(pageLoadStrategy);
 			chromeOptions.setExperimentalOption("excludeSwitches", List.of("disable-popup-blocking"));
-			if (headless) {
-				chromeOptions.addArguments("--headless");
+			if (biDiEnabled) {
+				chromeOptions.setCapability("webSocketUrl", true);
 			}
-			driver = new ChromeDriver(chromeOptions);
+			driver = sharedDriverService ? SharedDriverService.startSession(browserType, chromeOptions)
+					: new ChromeDriver(chromeOptions);
 			break;
 		case "FIREFOX":
 			FirefoxOptions firefoxOptions = new FirefoxOptions();
 			firefoxOptions.setAcceptInsecureCerts(true);
-			firefoxOptions.addArguments(incognitoMode);
-			firefoxOptions.setPageLoadStrategy(PageLoadStrategy.NORMAL);
+			if (launchProfile.isIncognito()) {
+				firefoxOptions.addArguments(incognitoMode);
+			}
+			firefoxOptions.setPageLoadStrategy(pageLoadStrategy);
+			if (biDiEnabled) {
+				firefoxOptions.setCapability("webSocketUrl", true);
+			}
 			if (headless) {
 				firefoxOptions.addArguments("-headless");
 			}
+			if (launchProfile.hasWindowSize()) {
+				firefoxOptions.addArguments("-width", String.valueOf(launchProfile.getWindowWidth()), "-height",
+						String.valueOf(launchProfile.getWindowHeight()));
+			}
+			if (launchProfile.getDiskCacheBytes() > 0) {
+				firefoxOptions.addPreference("browser.cache.disk.capacity",
+						(int) (launchProfile.getDiskCacheBytes() / 1024));
+			}
 			driver = new FirefoxDriver(firefoxOptions);
 			break;
 		case "EDGE":
 			EdgeOptions edgeOptions = new EdgeOptions();
 			edgeOptions.setAcceptInsecureCerts(true);
-			edgeOptions.addArguments(incognitoMode);
-			edgeOptions.setPageLoadStrategy(PageLoadStrategy.NORMAL);
+			edgeOptions.addArguments(launchProfile.getChromiumArgs(headless));
+			edgeOptions.setPageLoadStrategy(pageLoadStrategy);
 			edgeOptions.setExperimentalOption("excludeSwitches", List.of("disable-popup-blocking"));
-			if (headless) {
-				edgeOptions.addArguments("--headless");
+			if (biDiEnabled) {
+				edgeOptions.setCapability("webSocketUrl", true);
 			}
-			driver = new EdgeDriver(edgeOptions);
+			driver = sharedDriverService ? SharedDriverService.startSession(browserType, edgeOptions)
+					: new EdgeDriver(edgeOptions);
 			break;
 		case "SAFARI":
 			SafariOptions safariOptions = new SafariOptions();
 			safariOptions.setAcceptInsecureCerts(true);
-			safariOptions.setPageLoadStrategy(PageLoadStrategy.NORMAL);
+			safariOptions.setPageLoadStrategy(pageLoadStrategy);
 			if (headless) {
 				logger.info("Safari browser does not support headless mode.");
 			}
+			if (biDiEnabled) {
+				logger.info("Safari browser does not support WebDriver BiDi.");
+			}
 			driver = new SafariDriver(safariOptions);
+			if (launchProfile.hasWindowSize()) {
+				driver.manage().window()
+						.setSize(new Dimension(launchProfile.getWindowWidth(), launchProfile.getWindowHeight()));
+			}
 			break;
 		default:
 			throw new IllegalArgumentException("Unsupported Selenium browser type");
 		}
 
+		applyBlockingProfile(driver);
 		return new UIActionsSelenium(driver);
 	}
+
+	/**
+	 * Applies the blocking profile of this factory through the Chrome DevTools
+	 * protocol. Blocked URLs are matched inside the browser with
+	 * {@code Network.setBlockedURLs}; blocked requests are counted from the
+	 * {@code Network.loadingFailed} events that carry a {@code blockedReason},
+	 * with the URL of the matching {@code Network.requestWillBeSent} event.
+	 *
+	 * <p>
+	 * Browsers without DevTools support (Firefox, Safari) are left unblocked and
+	 * a warning is logged.
+	 * </p>
+	 *
+	 * @param driver the newly created driver.
+	 */
+	private void applyBlockingProfile(WebDriver driver) {
+		BlockingProfile blockingProfile = getBlockingProfile();
+		if (blockingProfile.isEmpty()) {
+			return;
+		}
+		if (!(driver instanceof HasDevTools)) {
+			logger.warn("{} is not supported for Selenium browser type {}", blockingProfile, browserType);
+			return;
+		}
+		logger.info("Applying {} to Selenium session", blockingProfile);
+		DevTools devTools = ((HasDevTools) driver).getDevTools();
+		devTools.createSessionIfThereIsNotOne();
+		devTools.send(new Command<Void>("Network.enable", Map.of()));
+		devTools.send(new Command<Void>("Network.setBlockedURLs", Map.of("urls", blockingProfile.getUrlPatterns())));
+		Map<String, String> requestUrls = new ConcurrentHashMap<>();
+		devTools.addListener(networkEvent("Network.requestWillBeSent"), sent -> {
+			if (sent.get("request") instanceof Map<?, ?> request) {
+				requestUrls.put(String.valueOf(sent.get("requestId")), String.valueOf(request.get("url")));
+			}
+		});
+		devTools.addListener(networkEvent("Network.loadingFinished"),
+				finished -> requestUrls.remove(String.valueOf(finished.get("requestId"))));
+		devTools.addListener(networkEvent("Network.loadingFailed"), failure -> {
+			String url = requestUrls.remove(String.valueOf(failure.get("requestId")));
+			if (failure.get("blockedReason") != null) {
+				getBlockingStats().recordBlocked(String.valueOf(failure.get("type")),
+						url == null ? "request " + failure.get("requestId") : url);
+			}
+		});
+	}
+
+	private static Event<Map<String, Object>> networkEvent(String name) {
+		return new Event<>(name, input -> input.read(Json.MAP_TYPE));
+	}
 }
@@ -0,0 +1,345 @@
+package io.github.shabryn2893.uidriverfactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.AddHasLaunchApp;
+import org.openqa.selenium.chromium.AddHasNetworkConditions;
+import org.openqa.selenium.chromium.AddHasPermissions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.chromium.ChromiumDriverCommandExecutor;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.CommandInfo;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.service.DriverFinder;
+import org.openqa.selenium.remote.service.DriverService;
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.uicore.SessionLifecycleManager;
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * One long-lived chromedriver or msedgedriver process per browser type, shared
+ * by all Chrome and Edge sessions of the JVM.
+ * <p>
+ * {@code new ChromeDriver(options)} starts a driver process for every session
+ * and stops it again on {@code quit()}. Sessions created here use the same
+ * command executor as {@code ChromeDriver} and {@code EdgeDriver}, including
+ * the CDP, casting and network conditions commands, but their {@code quit()}
+ * only ends the browser session and the service keeps running until JVM
+ * shutdown.
+ * </p>
+ * <p>
+ * The open sessions of every service are counted. A service that died is
+ * replaced on the next session start. A service that can no longer create
+ * sessions, e.g. after a browser update, is replaced as well, but it is only
+ * stopped once its last open session has quit.
+ * </p>
+ * <p>
+ * The driver and browser binaries are resolved by Selenium Manager once and
+ * the result is cached in the file named by the system property
+ * {@code selautocore.driver.cache.file} (default
+ * {@code ~/.cache/selautocore/driver-paths.properties}). Later runs reuse the
+ * cached paths as long as the driver still exists, without going online.
+ * </p>
+ */
+final class SharedDriverService {
+
+	private static final Logger logger = LoggerUtils.getLogger(SharedDriverService.class);
+	private static final Path CACHE_FILE = Path.of(System.getProperty("selautocore.driver.cache.file",
+			Path.of(System.getProperty("user.home"), ".cache", "selautocore", "driver-paths.properties").toString()));
+	private static final Map<String, DriverService> services = new HashMap<>();
+	private static final Map<String, DriverPaths> resolvedPaths = new HashMap<>();
+	private static final Map<DriverService, Integer> openSessions = new HashMap<>();
+	private static final Set<DriverService> retiredServices = new HashSet<>();
+
+	static {
+		SessionLifecycleManager.addRuntimeShutdownTask(SharedDriverService::stopAll);
+	}
+
+	private SharedDriverService() {
+	}
+
+	/**
+	 * Starts a Chrome or Edge session on the shared driver service of its
+	 * browser type, starting the service on first use or after it has died.
+	 *
+	 * @param browserType "CHROME" or "EDGE".
+	 * @param options     the browser options; the cached browser binary is set
+	 *                    on them.
+	 * @return the new driver session.
+	 */
+	static WebDriver startSession(String browserType, ChromiumOptions<?> options) {
+		String key = browserType.toUpperCase();
+		try {
+			return newDriver(key, acquire(key, options), options);
+		} catch (SessionNotCreatedException e) {
+			logger.warn("Session not created on the shared {} driver service, resolving the driver again: {}", key,
+					e.getMessage());
+			retire(key);
+			return newDriver(key, acquire(key, options), options);
+		}
+	}
+
+	private static WebDriver newDriver(String key, DriverService service, ChromiumOptions<?> options) {
+		String capabilityKey = key.equals("EDGE") ? EdgeOptions.CAPABILITY : ChromeOptions.CAPABILITY;
+		SharedServiceCommandExecutor executor = new SharedServiceCommandExecutor(service, browserCommands(key));
+		try {
+			return new SharedServiceDriver(executor, options, capabilityKey);
+		} catch (RuntimeException e) {
+			executor.releaseService();
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the vendor specific commands of a browser type, as registered by
+	 * {@code ChromeDriver} and {@code EdgeDriver}, plus the command that ends a
+	 * session without stopping the service.
+	 */
+	private static Map<String, CommandInfo> browserCommands(String key) {
+		Map<String, CommandInfo> commands = new HashMap<>();
+		if (key.equals("EDGE")) {
+			commands.putAll(new org.openqa.selenium.edge.AddHasCdp().getAdditionalCommands());
+			commands.putAll(new org.openqa.selenium.edge.AddHasCasting().getAdditionalCommands());
+		} else {
+			commands.putAll(new org.openqa.selenium.chrome.AddHasCdp().getAdditionalCommands());
+			commands.putAll(new org.openqa.selenium.chrome.AddHasCasting().getAdditionalCommands());
+		}
+		commands.putAll(new AddHasNetworkConditions().getAdditionalCommands());
+		commands.putAll(new AddHasPermissions().getAdditionalCommands());
+		commands.putAll(new AddHasLaunchApp().getAdditionalCommands());
+		commands.put(SharedServiceCommandExecutor.END_SESSION,
+				new CommandInfo("/session/:sessionId", HttpMethod.DELETE));
+		return commands;
+	}
+
+	/**
+	 * Gets the running service of a browser type and counts one more open
+	 * session on it.
+	 */
+	private static synchronized DriverService acquire(String key, ChromiumOptions<?> options) {
+		DriverService service = getService(key, options);
+		openSessions.merge(service, 1, Integer::sum);
+		return service;
+	}
+
+	/**
+	 * Counts one session less on a service, stopping the service if it was
+	 * retired and this was its last open session.
+	 */
+	private static synchronized void release(DriverService service) {
+		Integer remaining = openSessions.merge(service, -1, Integer::sum);
+		if (remaining != null && remaining > 0) {
+			return;
+		}
+		openSessions.remove(service);
+		if (retiredServices.remove(service)) {
+			service.stop();
+			logger.info("Stopped retired driver service at {} after its last session", service.getUrl());
+		}
+	}
+
+	/**
+	 * Replaces the service of a browser type and forgets its cached binaries,
+	 * e.g. after a browser update made the cached driver incompatible. The old
+	 * service is stopped now if no session is open on it, or else after its
+	 * last session quits.
+	 */
+	private static synchronized void retire(String key) {
+		DriverService service = services.remove(key);
+		if (service != null) {
+			if (openSessions.containsKey(service)) {
+				retiredServices.add(service);
+				logger.info("Keeping the previous {} driver service for its {} open sessions", key,
+						openSessions.get(service));
+			} else {
+				service.stop();
+			}
+		}
+		resolvedPaths.remove(key);
+		Properties cache = readCache();
+		cache.remove(key + ".driver");
+		cache.remove(key + ".browser");
+		writeCache(cache);
+	}
+
+	private static synchronized DriverService getService(String key, ChromiumOptions<?> options) {
+		DriverService service = services.get(key);
+		if (service != null && !service.isRunning()) {
+			logger.warn("Shared {} driver service at {} died, starting a new one", key, service.getUrl());
+			if (openSessions.containsKey(service)) {
+				retiredServices.add(service);
+			}
+			service = null;
+		}
+		if (service == null) {
+			DriverService.Builder<?, ?> builder = key.equals("EDGE") ? new EdgeDriverService.Builder()
+					: new ChromeDriverService.Builder();
+			service = builder.usingAnyFreePort().build();
+		}
+		DriverPaths paths = resolvedPaths.get(key);
+		if (paths == null) {
+			paths = resolvePaths(key, service, options);
+			resolvedPaths.put(key, paths);
+		}
+		if (!paths.browser().isEmpty()) {
+			options.setBinary(paths.browser());
+			options.setCapability("browserVersion", (Object) null);
+		}
+		if (!service.isRunning()) {
+			service.setExecutable(paths.driver());
+			try {
+				service.start();
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to start the shared " + key + " driver service", e);
+			}
+			services.put(key, service);
+			logger.info("Started shared {} driver service at {}", key, service.getUrl());
+		}
+		return service;
+	}
+
+	/**
+	 * Resolves the driver and browser binaries. A driver configured with the
+	 * {@code webdriver.chrome.driver} or {@code webdriver.edge.driver} system
+	 * property is used as is; otherwise the cache file is used if the cached
+	 * driver still exists, and Selenium Manager if not.
+	 *
+	 * @return the driver and browser paths.
+	 */
+	private static DriverPaths resolvePaths(String key, DriverService service, ChromiumOptions<?> options) {
+		if (service.getExecutable() != null) {
+			return new DriverPaths(service.getExecutable(), "");
+		}
+		Properties cache = readCache();
+		String driverPath = cache.getProperty(key + ".driver");
+		String browserPath = cache.getProperty(key + ".browser", "");
+		boolean cached = driverPath != null && Files.isExecutable(Path.of(driverPath))
+				&& (browserPath.isEmpty() || Files.exists(Path.of(browserPath)));
+		if (cached) {
+			return new DriverPaths(driverPath, browserPath);
+		}
+		DriverFinder finder = new DriverFinder(service, options);
+		driverPath = finder.getDriverPath();
+		browserPath = finder.hasBrowserPath() ? finder.getBrowserPath() : "";
+		cache.setProperty(key + ".driver", driverPath);
+		cache.setProperty(key + ".browser", browserPath);
+		writeCache(cache);
+		logger.info("Resolved {} driver {} and cached it in {}", key, driverPath, CACHE_FILE);
+		return new DriverPaths(driverPath, browserPath);
+	}
+
+	private static Properties readCache() {
+		Properties cache = new Properties();
+		if (Files.exists(CACHE_FILE)) {
+			try (InputStream in = Files.newInputStream(CACHE_FILE)) {
+				cache.load(in);
+			} catch (IOException e) {
+				logger.warn("Ignoring unreadable driver cache {}: {}", CACHE_FILE, e.getMessage());
+			}
+		}
+		return cache;
+	}
+
+	private static void writeCache(Properties cache) {
+		try {
+			Files.createDirectories(CACHE_FILE.getParent());
+			try (OutputStream out = Files.newOutputStream(CACHE_FILE)) {
+				cache.store(out, "Driver binaries resolved by selAutoCore");
+			}
+		} catch (IOException e) {
+			logger.warn("Failed to write driver cache {}: {}", CACHE_FILE, e.getMessage());
+		}
+	}
+
+	private static synchronized void stopAll() {
+		services.values().forEach(DriverService::stop);
+		services.clear();
+		retiredServices.forEach(DriverService::stop);
+		retiredServices.clear();
+	}
+
+	/**
+	 * The binaries of one browser type.
+	 *
+	 * @param driver  the path of the driver executable.
+	 * @param browser the path of the browser executable, or empty if Selenium
+	 *                Manager did not provide one.
+	 */
+	private record DriverPaths(String driver, String browser) {
+	}
+
+	/**
+	 * The command executor of a session on a shared service. It sends the
+	 * commands of {@code ChromeDriver} and {@code EdgeDriver}, but ends the
+	 * session on {@code quit()} with a plain session delete, so that the shared
+	 * service is released instead of stopped.
+	 */
+	private static final class SharedServiceCommandExecutor extends ChromiumDriverCommandExecutor {
+
+		static final String END_SESSION = "selAutoCoreEndSession";
+
+		private final DriverService service;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		SharedServiceCommandExecutor(DriverService service, Map<String, CommandInfo> browserCommands) {
+			super(service, browserCommands);
+			this.service = service;
+		}
+
+		@Override
+		public Response execute(Command command) throws IOException {
+			if (!DriverCommand.QUIT.equals(command.getName())) {
+				return super.execute(command);
+			}
+			try {
+				return super.execute(new Command(command.getSessionId(), END_SESSION, command.getParameters()));
+			} finally {
+				releaseService();
+			}
+		}
+
+		/**
+		 * Counts the session of this executor as closed, once.
+		 */
+		void releaseService() {
+			if (released.compareAndSet(false, true)) {
+				release(service);
+			}
+		}
+	}
+
+	/**
+	 * A Chrome or Edge driver whose {@code quit()} leaves the driver service
+	 * running. DevTools and BiDi are set up from the session capabilities as for
+	 * {@code ChromeDriver} and {@code EdgeDriver}.
+	 */
+	private static final class SharedServiceDriver extends ChromiumDriver {
+
+		SharedServiceDriver(CommandExecutor executor, Capabilities capabilities, String capabilityKey) {
+			super(executor, capabilities, capabilityKey);
+		}
+	}
+}
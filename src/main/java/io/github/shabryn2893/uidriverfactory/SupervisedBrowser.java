@@ -0,0 +1,218 @@
+package io.github.shabryn2893.uidriverfactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.uicore.IActionUI;
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * An {@link IActionUI} that survives browser and driver crashes.
+ * <p>
+ * When a call fails, the session is probed. If the browser or driver is gone,
+ * a new session is launched through the originating {@link DriverManager}, the
+ * last checkpoint of cookies and storage is restored, the window is maximized
+ * again if it was, the last URL is reopened and the failed call is retried
+ * once. Checkpoints are taken after {@code openURL} and {@code navigateTo} and
+ * every {@code checkpointInterval} calls, so clicks cost no extra round trips;
+ * a page reached by a click is only reopened once a later checkpoint saw it.
+ * Subscribers of the BiDi event hub are moved to the hub of the new browser.
+ * </p>
+ * <p>
+ * Of the window state only the maximized state is restored. Other window sizes
+ * and the window position are not tracked; the replacement browser gets the
+ * window size of the launch profile.
+ * </p>
+ */
+final class SupervisedBrowser implements InvocationHandler {
+
+	private static final Logger logger = LoggerUtils.getLogger(SupervisedBrowser.class);
+
+	/**
+	 * Calls that always leave the page on a different URL or reload it.
+	 */
+	private static final Set<String> NAVIGATIONS = Set.of("openURL", "navigateTo");
+
+	/**
+	 * Calls that neither need a checkpoint nor count towards one.
+	 */
+	private static final Set<String> PASSIVE_CALLS = Set.of("captureSessionState", "restoreSessionState",
+			"getURL", "getPageTitle", "closeBrowser", "close");
+
+	/**
+	 * Failure messages of Selenium and Playwright that mean the browser, the
+	 * driver or the connection to them is gone.
+	 */
+	private static final List<String> DEAD_SESSION_MESSAGES = List.of("invalid session id", "no such session",
+			"session deleted", "not reachable", "disconnected", "target closed",
+			"target page, context or browser has been closed", "browser has been closed", "connection closed",
+			"connection refused", "session not created", "unable to connect");
+
+	private final DriverManager driverManager;
+	private final int checkpointInterval;
+	private IActionUI delegate;
+	private String checkpoint;
+	private String lastUrl;
+	private boolean maximized;
+	private boolean closed;
+	private int callsSinceCheckpoint;
+
+	private SupervisedBrowser(DriverManager driverManager, IActionUI delegate, int checkpointInterval) {
+		this.driverManager = driverManager;
+		this.delegate = delegate;
+		this.checkpointInterval = checkpointInterval;
+	}
+
+	/**
+	 * Creates a supervised session around a new browser of a driver manager.
+	 *
+	 * @param driverManager      launches the browser and its replacements.
+	 * @param checkpointInterval the number of calls between checkpoints.
+	 * @return the supervised session.
+	 */
+	static IActionUI start(DriverManager driverManager, int checkpointInterval) {
+		return (IActionUI) Proxy.newProxyInstance(IActionUI.class.getClassLoader(), new Class<?>[] { IActionUI.class },
+				new SupervisedBrowser(driverManager, driverManager.createBrowser(), checkpointInterval));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		String name = method.getName();
+		switch (name) {
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "equals":
+			return proxy == args[0];
+		case "toString":
+			return "SupervisedBrowser[" + delegate + "]";
+		case "close":
+		case "closeBrowser":
+			closed = true;
+			break;
+		default:
+			break;
+		}
+		Object result;
+		try {
+			result = method.invoke(delegate, args);
+		} catch (InvocationTargetException e) {
+			Throwable failure = e.getCause();
+			if (closed || !isSessionDead(failure)) {
+				throw failure;
+			}
+			result = recoverAndRetry(method, args, failure);
+		}
+		afterCall(name);
+		return result;
+	}
+
+	/**
+	 * Relaunches the browser, restores the last checkpoint and retries the call
+	 * once.
+	 */
+	private Object recoverAndRetry(Method method, Object[] args, Throwable failure) throws Throwable {
+		long start = System.currentTimeMillis();
+		logger.warn("Browser session died during {}: {}. Relaunching and restoring state", method.getName(),
+				failure.toString());
+		RecoveryStats stats = driverManager.getRecoveryStats();
+		try {
+			relaunch();
+			Object result = method.invoke(delegate, args);
+			stats.recordRecovery(method.getName(), failure, System.currentTimeMillis() - start, true);
+			logger.info("Recovered browser session in {} ms", System.currentTimeMillis() - start);
+			return result;
+		} catch (InvocationTargetException e) {
+			stats.recordRecovery(method.getName(), failure, System.currentTimeMillis() - start, false);
+			throw e.getCause();
+		} catch (RuntimeException e) {
+			stats.recordRecovery(method.getName(), failure, System.currentTimeMillis() - start, false);
+			e.addSuppressed(failure);
+			throw e;
+		}
+	}
+
+	private void relaunch() {
+		IActionUI crashed = delegate;
+		try {
+			crashed.closeBrowser();
+		} catch (RuntimeException e) {
+			logger.debug("Closing the crashed browser failed: {}", e.getMessage());
+		}
+		delegate = driverManager.createBrowser();
+		if (crashed.isBiDiEnabled() && delegate.isBiDiEnabled()) {
+			delegate.getEventHub().inheritSubscribers(crashed.getEventHub());
+		}
+		if (maximized) {
+			delegate.maximizeScreen();
+		}
+		if (checkpoint != null) {
+			delegate.restoreSessionState(checkpoint);
+		}
+		if (lastUrl != null && !lastUrl.startsWith("about:")) {
+			delegate.openURL(lastUrl);
+		}
+	}
+
+	/**
+	 * Tracks the window state and takes a checkpoint after navigations and every
+	 * {@code checkpointInterval} calls.
+	 */
+	private void afterCall(String name) {
+		if (closed || PASSIVE_CALLS.contains(name)) {
+			return;
+		}
+		if (name.equals("maximizeScreen")) {
+			maximized = true;
+		}
+		callsSinceCheckpoint++;
+		if (NAVIGATIONS.contains(name) || callsSinceCheckpoint >= checkpointInterval) {
+			try {
+				lastUrl = delegate.getURL();
+				checkpoint = delegate.captureSessionState();
+				callsSinceCheckpoint = 0;
+			} catch (RuntimeException | AssertionError e) {
+				logger.debug("Skipping session checkpoint: {}", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a failure was caused by a dead browser or driver. Failures
+	 * the actions swallowed and turned into an {@link AssertionError} are
+	 * confirmed by probing the session.
+	 */
+	private boolean isSessionDead(Throwable failure) {
+		if (hasDeadSessionMessage(failure)) {
+			return true;
+		}
+		try {
+			delegate.getURL();
+			return false;
+		} catch (RuntimeException probeFailure) {
+			return hasDeadSessionMessage(probeFailure);
+		}
+	}
+
+	private static boolean hasDeadSessionMessage(Throwable failure) {
+		for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+			String className = cause.getClass().getSimpleName();
+			if (className.equals("NoSuchSessionException") || className.equals("UnreachableBrowserException")) {
+				return true;
+			}
+			String message = cause.getMessage() == null ? "" : cause.getMessage().toLowerCase(Locale.ROOT);
+			for (String deadSessionMessage : DEAD_SESSION_MESSAGES) {
+				if (message.contains(deadSessionMessage)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,118 @@
+package io.github.shabryn2893.uidriverfactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+
+import io.github.shabryn2893.uicore.IActionUI;
+import io.github.shabryn2893.utils.LoggerUtils;
+
+/**
+ * An {@link IActionUI} that is created and used on one owner thread only, for
+ * tools whose objects must not cross threads, like Playwright. Every call is
+ * run on the owner thread while the caller waits, so the session can be
+ * launched by a browser pool or a background startup and then used from any
+ * test thread, one call at a time. Calls made on the owner thread itself, e.g.
+ * by a callback of the session that calls back into it, run directly. The
+ * owner thread ends when the session is closed.
+ */
+final class ThreadConfinedBrowser implements InvocationHandler {
+
+	private static final Logger logger = LoggerUtils.getLogger(ThreadConfinedBrowser.class);
+
+	private final String description;
+	private final ExecutorService ownerThread;
+	private final Thread owner;
+	private final IActionUI ui;
+
+	private ThreadConfinedBrowser(String description, ExecutorService ownerThread, Thread owner, IActionUI ui) {
+		this.description = description;
+		this.ownerThread = ownerThread;
+		this.owner = owner;
+		this.ui = ui;
+	}
+
+	/**
+	 * Starts an owner thread and launches a browser on it.
+	 *
+	 * @param description the browser description used in log messages and as
+	 *                    the owner thread name.
+	 * @param launcher    launches the browser; runs on the owner thread.
+	 * @return a session whose calls all run on the owner thread.
+	 */
+	static IActionUI start(String description, Supplier<IActionUI> launcher) {
+		Thread[] owner = new Thread[1];
+		ExecutorService ownerThread = Executors.newSingleThreadExecutor(runnable -> {
+			owner[0] = new Thread(runnable, "owner-" + description);
+			owner[0].setDaemon(true);
+			return owner[0];
+		});
+		IActionUI ui;
+		try {
+			ui = (IActionUI) runOn(ownerThread, launcher::get);
+		} catch (Throwable e) {
+			ownerThread.shutdown();
+			throw e instanceof RuntimeException cause ? cause : new IllegalStateException(e);
+		}
+		logger.info("Launched {} confined to its owner thread", description);
+		return (IActionUI) Proxy.newProxyInstance(IActionUI.class.getClassLoader(), new Class<?>[] { IActionUI.class },
+				new ThreadConfinedBrowser(description, ownerThread, owner[0], ui));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		switch (method.getName()) {
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "equals":
+			return proxy == args[0];
+		case "toString":
+			return "ThreadConfinedBrowser[" + description + "]";
+		default:
+			break;
+		}
+		boolean closing = method.getName().equals("close") || method.getName().equals("closeBrowser");
+		if (closing && ownerThread.isShutdown()) {
+			return null;
+		}
+		try {
+			if (Thread.currentThread() == owner) {
+				return method.invoke(ui, args);
+			}
+			return runOn(ownerThread, () -> method.invoke(ui, args));
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		} catch (RejectedExecutionException e) {
+			throw new IllegalStateException(description + " is closed", e);
+		} finally {
+			if (closing) {
+				ownerThread.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Runs a task on the owner thread and waits for it, rethrowing the original
+	 * failure of the task.
+	 */
+	private static Object runOn(ExecutorService ownerThread, Callable<Object> task) throws Throwable {
+		try {
+			return ownerThread.submit(task).get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			throw cause instanceof InvocationTargetException target ? target.getCause() : cause;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the browser owner thread", e);
+		}
+	}
+}
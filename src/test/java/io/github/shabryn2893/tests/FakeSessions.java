@@ -0,0 +1,89 @@
+package io.github.shabryn2893.tests;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+import io.github.shabryn2893.apicore.IActionAPI;
+import io.github.shabryn2893.uicore.IActionUI;
+
+/**
+ * Fake browser and API sessions for tests that need no real browser or server.
+ * A fake compares by identity and runs the default methods of its interface,
+ * e.g. {@code close()} calls {@code closeBrowser()}; every other call is
+ * answered by a {@link Handler}.
+ */
+public final class FakeSessions {
+
+	private FakeSessions() {
+	}
+
+	/**
+	 * Answers the calls of a fake session.
+	 */
+	@FunctionalInterface
+	public interface Handler {
+
+		/**
+		 * Answers one call.
+		 *
+		 * @param methodName the name of the called method.
+		 * @param args       the arguments, or null for none.
+		 * @return the return value, null for void methods.
+		 * @throws Throwable the failure to throw to the caller.
+		 */
+		Object answer(String methodName, Object[] args) throws Throwable;
+	}
+
+	/**
+	 * Creates a fake browser session.
+	 *
+	 * @param handler answers the calls.
+	 * @return the fake session.
+	 */
+	public static IActionUI fakeUI(Handler handler) {
+		return fake(IActionUI.class, handler, null);
+	}
+
+	/**
+	 * Creates a fake browser session whose {@code getURL} returns
+	 * {@code about:blank} and whose other calls do nothing.
+	 *
+	 * @return the fake session.
+	 */
+	public static IActionUI fakeUI() {
+		return fakeUI((name, args) -> name.equals("getURL") ? "about:blank" : null);
+	}
+
+	/**
+	 * Creates a fake API client. The handler also answers
+	 * {@code send(ApiRequest)}, so that the async variants and the fan-out go
+	 * through it.
+	 *
+	 * @param handler answers the calls.
+	 * @return the fake client.
+	 */
+	public static IActionAPI fakeAPI(Handler handler) {
+		return fake(IActionAPI.class, handler, "send");
+	}
+
+	private static <T> T fake(Class<T> type, Handler handler, String answeredDefault) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					case "toString":
+						return "Fake" + type.getSimpleName() + "@"
+								+ Integer.toHexString(System.identityHashCode(proxy));
+					default:
+						break;
+					}
+					if (method.isDefault() && !method.getName().equals(answeredDefault)) {
+						return InvocationHandler.invokeDefault(proxy, method, args);
+					}
+					return handler.answer(method.getName(), args);
+				}));
+	}
+}
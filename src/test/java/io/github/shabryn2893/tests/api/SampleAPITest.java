@@ -7,6 +7,7 @@ import org.testng.annotations.Test;
 
 import io.github.shabryn2893.apicore.APIToolFactory;
 import io.github.shabryn2893.apicore.IActionAPI;
+import io.github.shabryn2893.apicore.StubServer;
 
 /**
  * Sample API Test
@@ -14,14 +15,16 @@ import io.github.shabryn2893.apicore.IActionAPI;
 public class SampleAPITest {
 
 	static IActionAPI apiInstannce = null;
+	static StubServer stubServer = null;
 
 	/**
-	 * Initiating API Tool and Base URI.
+	 * Initiating API Tool against a stub server that replays the mappings of
+	 * stubs/brands.json instead of https://practice-react.sdetunicorns.com.
 	 */
 	@BeforeTest
 	public void setUp() {
-		apiInstannce = APIToolFactory.getAPIToolInstance("RESTASSURED",
-				"https://practice-react.sdetunicorns.com/api/test");
+		stubServer = StubServer.builder().mappingResource("stubs/brands.json").build();
+		apiInstannce = APIToolFactory.getAPIToolInstance("RESTASSURED", stubServer);
 	}
 
 	/**
@@ -39,7 +42,7 @@ public class SampleAPITest {
 	 */
 	@AfterTest
 	public void tearDown() {
-		// Write here you tearDown script.
+		stubServer.close();
 	}
 
 }
@@ -0,0 +1,121 @@
+package io.github.shabryn2893.tests.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.shabryn2893.apicore.APIActionsJdkHttp;
+import io.github.shabryn2893.apicore.APIToolFactory;
+import io.github.shabryn2893.apicore.ApiMetrics;
+import io.github.shabryn2893.apicore.ApiRequest;
+import io.github.shabryn2893.apicore.ApiResponse;
+import io.github.shabryn2893.apicore.IActionAPI;
+import io.github.shabryn2893.apicore.ITransferAPI;
+import io.github.shabryn2893.apicore.StubServer;
+
+/**
+ * Tests the java.net.http backend against a stub server.
+ */
+public class TestApiActionsJdkHttp {
+
+	private StubServer stubServer;
+	private IActionAPI api;
+	private HttpServer server;
+	private APIActionsJdkHttp rawApi;
+
+	private static ApiResponse json(int status, String body) {
+		return new ApiResponse(status, "HTTP/1.1 " + status, Map.of("Content-Type", List.of("application/json")),
+				body.getBytes(), 0);
+	}
+
+	@BeforeClass
+	public void setUp() {
+		stubServer = StubServer.builder()
+				.stub(ApiRequest.get("/brands").queryParam("page", "2").header("X-Trace", "t1").build(),
+						json(200, "{\"page\":2,\"items\":[{\"id\":1},{\"id\":2}]}"))
+				.stub(ApiRequest.post("/brands").header("Content-Type", "application/json").build(),
+						json(201, "{\"id\":3}"))
+				.build();
+		api = APIToolFactory.getAPIToolInstance("JDKHTTP", stubServer);
+	}
+
+	@BeforeClass
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/moved", exchange -> {
+			exchange.getResponseHeaders().set("Location", "/upload");
+			exchange.sendResponseHeaders(307, -1);
+			exchange.close();
+		});
+		server.createContext("/upload", exchange -> {
+			try (InputStream body = exchange.getRequestBody()) {
+				body.transferTo(OutputStream.nullOutputStream());
+			}
+			exchange.sendResponseHeaders(201, -1);
+			exchange.close();
+		});
+		server.createContext("/chunked", exchange -> {
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream body = exchange.getResponseBody()) {
+				body.write(new byte[1000]);
+			}
+		});
+		server.start();
+		rawApi = new APIActionsJdkHttp("http://localhost:" + server.getAddress().getPort());
+	}
+
+	@AfterClass
+	public void tearDown() {
+		stubServer.close();
+		server.stop(0);
+	}
+
+	@Test
+	public void testLegacyMethodsUseThreadSettings() {
+		api.setParam("page", "2");
+		api.setHeader("X-Trace", "t1");
+		api.getRequest("/brands");
+		Assert.assertEquals(api.getStatusCode(), 200);
+		Assert.assertEquals(api.getHeader("content-type"), "application/json");
+		Assert.assertEquals(api.parseResponseJsonObject().getInt("page"), 2);
+	}
+
+	@Test
+	public void testSendAsyncAndStreaming() {
+		ApiResponse created = api.sendAsync(ApiRequest.post("/brands").contentType("JSON").body("{}").build()).join();
+		Assert.assertEquals(created.getStatusCode(), 201);
+		Assert.assertEquals(created.asString(), "{\"id\":3}");
+		ApiRequest page = ApiRequest.get("/brands").queryParam("page", "2").header("X-Trace", "t1").build();
+		Assert.assertEquals(api.selectJson(page, "$.items[*].id"), List.of(1, 2));
+		Assert.assertThrows(IllegalStateException.class, () -> api.sendStreaming(ApiRequest.get("/missing").build()));
+	}
+
+	@Test
+	public void testStreamedUploadIsNotResentOnRedirect() {
+		ITransferAPI transfers = rawApi;
+		Assert.assertEquals(transfers.upload(ApiRequest.put("/upload").build(), new ByteArrayInputStream(new byte[10]))
+				.getStatusCode(), 201);
+		Assert.assertThrows(UncheckedIOException.class, () -> transfers
+				.upload(ApiRequest.put("/moved").build(), new ByteArrayInputStream(new byte[10])));
+	}
+
+	@Test
+	public void testExchangeAsyncCountsChunkedBody() {
+		ApiMetrics.reset();
+		rawApi.exchangeAsync(ApiRequest.get("/chunked").build(), BodyHandlers.discarding()).join();
+		Assert.assertEquals(ApiMetrics.getEndpoint("GET", "/chunked").getResponseBytes(), 1000);
+	}
+}
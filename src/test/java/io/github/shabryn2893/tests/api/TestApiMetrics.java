@@ -0,0 +1,87 @@
+package io.github.shabryn2893.tests.api;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.apicore.APIToolFactory;
+import io.github.shabryn2893.apicore.ApiMetrics;
+import io.github.shabryn2893.apicore.ApiRequest;
+import io.github.shabryn2893.apicore.ApiResponse;
+import io.github.shabryn2893.apicore.IActionAPI;
+import io.github.shabryn2893.apicore.StubServer;
+
+/**
+ * Tests endpoint templating, timing aggregation and export of the API metrics.
+ */
+public class TestApiMetrics {
+
+	@BeforeMethod
+	public void resetMetrics() {
+		ApiMetrics.reset();
+	}
+
+	@Test
+	public void testEndpointTemplates() {
+		Assert.assertEquals(ApiMetrics.templateOf("/brands/42?expand=true"), "/brands/{id}");
+		Assert.assertEquals(
+				ApiMetrics.templateOf("https://api.example.com/orders/3f2b1c4d-1a2b-4c3d-9e8f-0123456789ab"),
+				"/orders/{id}");
+		Assert.assertEquals(ApiMetrics.templateOf("/users/64f1a2b3c4d5e6f7a8b9c0d1/cart"), "/users/{id}/cart");
+		ApiMetrics.addEndpointTemplate("/categories/{slug}/items");
+		Assert.assertEquals(ApiMetrics.templateOf("/categories/shoes/items"), "/categories/{slug}/items");
+	}
+
+	@Test
+	public void testTimingsAggregatedAndExported() throws Exception {
+		ApiResponse brand = new ApiResponse(200, "HTTP/1.1 200 OK", Map.of("Content-Type", List.of("application/json")),
+				"{\"id\":1}".getBytes(), 0);
+		try (StubServer stubServer = StubServer.builder().stub(ApiRequest.get("/brands/1").build(), brand)
+				.stub(ApiRequest.get("/brands/2").build(), brand).latency(Duration.ofMillis(40)).build()) {
+			IActionAPI api = APIToolFactory.getAPIToolInstance("JDKHTTP", stubServer);
+			api.getRequest("/brands/1");
+			api.send(ApiRequest.get("/brands/2").build());
+			api.send(ApiRequest.get("/brands/3").build());
+			api.printResponse();
+		}
+		ApiMetrics.Endpoint endpoint = ApiMetrics.getEndpoint("GET", "/brands/{id}");
+		Assert.assertEquals(endpoint.getCount(), 3);
+		Assert.assertEquals(endpoint.getErrors(), 1);
+		Assert.assertEquals(endpoint.getStatusCounts(), Map.of(200, 2L, 404, 1L));
+		Assert.assertTrue(endpoint.getPercentileMillis(50) >= 40);
+		Assert.assertTrue(endpoint.getTtfbPercentileMillis(50) >= 40);
+		Assert.assertEquals(endpoint.getMeanConnectMillis(), -1.0, "the JDK client does not report connects");
+		Assert.assertTrue(endpoint.getResponseBytes() > 16);
+
+		Path directory = Files.createTempDirectory("api-metrics");
+		ApiMetrics.exportJson(directory.resolve("metrics.json"));
+		ApiMetrics.exportCsv(directory.resolve("metrics.csv"));
+		JSONArray json = new JSONArray(Files.readString(directory.resolve("metrics.json")));
+		Assert.assertEquals(json.getJSONObject(0).getString("endpoint"), "/brands/{id}");
+		List<String> csv = Files.readAllLines(directory.resolve("metrics.csv"));
+		Assert.assertEquals(csv.size(), 2);
+		Assert.assertTrue(csv.get(1).startsWith("GET,\"/brands/{id}\",3,1,"));
+	}
+
+	@Test
+	public void testUnpooledRestAssuredReportsBreakdown() throws Exception {
+		ApiResponse brand = new ApiResponse(200, "HTTP/1.1 200 OK", Map.of("Content-Type", List.of("application/json")),
+				"{\"id\":1}".getBytes(), 0);
+		try (StubServer stubServer = StubServer.builder().stub(ApiRequest.get("/brands/1").build(), brand)
+				.latency(Duration.ofMillis(40)).build()) {
+			IActionAPI api = APIToolFactory.getAPIToolInstance("RESTASSURED", stubServer);
+			api.send(ApiRequest.get("/brands/1").build());
+		}
+		ApiMetrics.Endpoint endpoint = ApiMetrics.getEndpoint("GET", "/brands/{id}");
+		Assert.assertEquals(endpoint.getCount(), 1);
+		Assert.assertTrue(endpoint.getMeanConnectMillis() >= 0, "a client without a pool reports connects too");
+		Assert.assertTrue(endpoint.getTtfbPercentileMillis(50) >= 40);
+	}
+}
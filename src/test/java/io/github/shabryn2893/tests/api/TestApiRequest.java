@@ -0,0 +1,47 @@
+package io.github.shabryn2893.tests.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.apicore.ApiRequest;
+import io.github.shabryn2893.apicore.ApiResponse;
+
+/**
+ * Tests building immutable API requests and reading API responses.
+ */
+public class TestApiRequest {
+
+	@Test
+	public void testBuiltRequestIsImmutable() {
+		ApiRequest.Builder builder = ApiRequest.post("/brands").header("Accept", "application/json").body("{}");
+		ApiRequest request = builder.build();
+		builder.header("Authorization", "token").queryParam("page", "2");
+		Assert.assertEquals(request.getMethod(), "POST");
+		Assert.assertEquals(request.getHeaders(), Map.of("Accept", "application/json"));
+		Assert.assertTrue(request.getQueryParams().isEmpty());
+		Assert.assertThrows(UnsupportedOperationException.class, () -> request.getHeaders().put("X", "Y"));
+	}
+
+	@Test
+	public void testToBuilderCopiesRequest() {
+		ApiRequest request = ApiRequest.get("/brands").queryParam("page", "1").build();
+		ApiRequest next = request.toBuilder().queryParam("page", "2").build();
+		Assert.assertEquals(request.getQueryParams().get("page"), "1");
+		Assert.assertEquals(next.getQueryParams().get("page"), "2");
+		Assert.assertEquals(next.getPath(), "/brands");
+	}
+
+	@Test
+	public void testResponseHeadersAndCharset() {
+		byte[] body = "{\"name\":\"café\"}".getBytes(StandardCharsets.ISO_8859_1);
+		ApiResponse response = new ApiResponse(200, "HTTP/1.1 200 OK",
+				Map.of("Content-Type", List.of("application/json; charset=ISO-8859-1")), body, 12);
+		Assert.assertEquals(response.getHeader("content-type"), "application/json; charset=ISO-8859-1");
+		Assert.assertEquals(response.asJsonObject().getString("name"), "café");
+		Assert.assertNull(response.getHeader("ETag"));
+	}
+}
@@ -0,0 +1,190 @@
+package io.github.shabryn2893.tests.api;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.apicore.ApiRequest;
+import io.github.shabryn2893.apicore.ApiResponse;
+import io.github.shabryn2893.apicore.ApiResponseCache;
+
+/**
+ * Tests hits, revalidation, bounds and the disk tier of the API response cache.
+ */
+public class TestApiResponseCache {
+
+	private static final String BASE_URI = "http://localhost:8089";
+	private final List<ApiRequest> sent = new ArrayList<>();
+
+	private final Function<ApiRequest, ApiResponse> server = request -> {
+		sent.add(request);
+		if ("\"v1\"".equals(request.getHeaders().get("If-None-Match"))) {
+			return new ApiResponse(304, "HTTP/1.1 304 Not Modified", Map.of(), new byte[0], 1);
+		}
+		return new ApiResponse(200, "HTTP/1.1 200 OK", Map.of("ETag", List.of("\"v1\"")),
+				"[\"DE\",\"FR\"]".getBytes(), 1);
+	};
+
+	@BeforeMethod
+	public void resetServer() {
+		sent.clear();
+	}
+
+	private static Clock clockAt(long millis) {
+		return Clock.fixed(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+	}
+
+	/**
+	 * A clock that reads the time from {@code clock[0]}, so tests can move it.
+	 */
+	private static Clock settable(Clock[] clock) {
+		return new Clock() {
+			public ZoneOffset getZone() {
+				return ZoneOffset.UTC;
+			}
+
+			public Clock withZone(java.time.ZoneId zone) {
+				return this;
+			}
+
+			public Instant instant() {
+				return clock[0].instant();
+			}
+		};
+	}
+
+	@Test
+	public void testHitWithinTimeToLiveAndRevalidationAfter() {
+		Clock[] clock = { clockAt(0) };
+		ApiResponseCache cache = ApiResponseCache.builder().timeToLive(Duration.ofSeconds(10)).clock(settable(clock))
+				.build();
+		ApiRequest request = ApiRequest.get("/countries").build();
+		cache.fetch(BASE_URI, request, server);
+		ApiResponse cached = cache.fetch(BASE_URI, request, server);
+		Assert.assertEquals(sent.size(), 1);
+		Assert.assertEquals(cached.asString(), "[\"DE\",\"FR\"]");
+		clock[0] = clockAt(11_000);
+		ApiResponse revalidated = cache.fetch(BASE_URI, request, server);
+		Assert.assertEquals(sent.size(), 2);
+		Assert.assertEquals(sent.get(1).getHeaders().get("If-None-Match"), "\"v1\"");
+		Assert.assertEquals(revalidated.getStatusCode(), 200);
+		ApiResponseCache.Stats stats = cache.getStats();
+		Assert.assertEquals(stats.hits(), 1);
+		Assert.assertEquals(stats.revalidations(), 1);
+		Assert.assertEquals(stats.misses(), 1);
+		Assert.assertEquals(stats.bytesSaved(), 22);
+	}
+
+	@Test
+	public void testIdentityAndLruBounds() {
+		ApiResponseCache cache = ApiResponseCache.builder().maxEntries(2).build();
+		cache.fetch(BASE_URI, ApiRequest.get("/countries").header("Authorization", "Bearer a").build(), server);
+		cache.fetch(BASE_URI, ApiRequest.get("/countries").header("Authorization", "Bearer b").build(), server);
+		Assert.assertEquals(sent.size(), 2, "different credentials must not share entries");
+		cache.fetch(BASE_URI, ApiRequest.get("/brands").build(), server);
+		Assert.assertEquals(cache.getStats().evictions(), 1);
+		cache.fetch(BASE_URI, ApiRequest.post("/brands").body("{}").build(), server);
+		cache.fetch(BASE_URI, ApiRequest.post("/brands").body("{}").build(), server);
+		Assert.assertEquals(sent.size(), 5, "POST requests are never cached");
+	}
+
+	@Test
+	public void testDiskTierSurvivesNewCache() throws Exception {
+		Path directory = Files.createTempDirectory("response-cache");
+		ApiRequest request = ApiRequest.get("/countries").build();
+		ApiResponseCache.builder().diskDirectory(directory).build().fetch(BASE_URI, request, server);
+		ApiResponse fromDisk = ApiResponseCache.builder().diskDirectory(directory).build().fetch(BASE_URI, request,
+				server);
+		Assert.assertEquals(sent.size(), 1);
+		Assert.assertEquals(fromDisk.getHeader("etag"), "\"v1\"");
+		Assert.assertEquals(fromDisk.asString(), "[\"DE\",\"FR\"]");
+	}
+
+	private static Function<ApiRequest, ApiResponse> serverWith(String cacheControl, List<ApiRequest> sent) {
+		return request -> {
+			sent.add(request);
+			if ("\"v1\"".equals(request.getHeaders().get("If-None-Match"))) {
+				return new ApiResponse(304, "HTTP/1.1 304 Not Modified", Map.of(), new byte[0], 1);
+			}
+			return new ApiResponse(200, "HTTP/1.1 200 OK",
+					Map.of("Cache-Control", List.of(cacheControl), "ETag", List.of("\"v1\"")), "{}".getBytes(), 1);
+		};
+	}
+
+	@Test
+	public void testNoStoreIsNotCached() {
+		ApiResponseCache cache = ApiResponseCache.builder().build();
+		ApiRequest request = ApiRequest.get("/session").build();
+		cache.fetch(BASE_URI, request, serverWith("no-store", sent));
+		cache.fetch(BASE_URI, request, serverWith("no-store", sent));
+		Assert.assertEquals(sent.size(), 2);
+		Assert.assertNull(sent.get(1).getHeaders().get("If-None-Match"));
+		Assert.assertEquals(cache.getStats().entries(), 0);
+	}
+
+	@Test
+	public void testCacheControlRequiresRevalidation() {
+		ApiResponseCache cache = ApiResponseCache.builder().timeToLive(Duration.ofMinutes(10)).build();
+		List<String> directives = List.of("private", "no-cache", "max-age=0, must-revalidate");
+		for (String cacheControl : directives) {
+			ApiRequest request = ApiRequest.get("/profile/" + cacheControl.length()).build();
+			cache.fetch(BASE_URI, request, serverWith(cacheControl, sent));
+			cache.fetch(BASE_URI, request, serverWith(cacheControl, sent));
+			Assert.assertEquals(sent.get(sent.size() - 1).getHeaders().get("If-None-Match"), "\"v1\"",
+					cacheControl + " responses must be revalidated");
+		}
+		Assert.assertEquals(sent.size(), 6);
+		Assert.assertEquals(cache.getStats().entries(), directives.size());
+		Assert.assertEquals(cache.getStats().revalidations(), directives.size());
+		Assert.assertEquals(cache.getStats().hits(), 0);
+	}
+
+	@Test
+	public void testMaxAgeBelowTimeToLive() {
+		Clock[] clock = { clockAt(0) };
+		ApiResponseCache cache = ApiResponseCache.builder().timeToLive(Duration.ofMinutes(10)).clock(settable(clock))
+				.build();
+		ApiRequest request = ApiRequest.get("/countries").build();
+		cache.fetch(BASE_URI, request, serverWith("public, max-age=60", sent));
+		clock[0] = clockAt(59_000);
+		cache.fetch(BASE_URI, request, serverWith("public, max-age=60", sent));
+		Assert.assertEquals(sent.size(), 1, "the response is fresh for its max-age");
+		clock[0] = clockAt(61_000);
+		cache.fetch(BASE_URI, request, serverWith("public, max-age=60", sent));
+		Assert.assertEquals(sent.size(), 2);
+		Assert.assertEquals(sent.get(1).getHeaders().get("If-None-Match"), "\"v1\"");
+	}
+
+	@Test
+	public void testDiskTierIsBounded() throws Exception {
+		Path directory = Files.createTempDirectory("response-cache");
+		ApiResponseCache.builder().diskDirectory(directory).build().fetch(BASE_URI,
+				ApiRequest.get("/countries/1").build(), server);
+		long fileSize;
+		try (var files = Files.list(directory)) {
+			fileSize = Files.size(files.findFirst().orElseThrow());
+		}
+		ApiResponseCache cache = ApiResponseCache.builder().diskDirectory(directory).maxDiskBytes(fileSize * 2)
+				.build();
+		cache.fetch(BASE_URI, ApiRequest.get("/countries/2").build(), server);
+		cache.fetch(BASE_URI, ApiRequest.get("/countries/3").build(), server);
+		try (var files = Files.list(directory)) {
+			Assert.assertEquals(files.count(), 2L);
+		}
+		sent.clear();
+		ApiResponseCache.builder().diskDirectory(directory).build().fetch(BASE_URI,
+				ApiRequest.get("/countries/3").build(), server);
+		Assert.assertEquals(sent.size(), 0, "the newest response should stay on disk");
+	}
+}
@@ -0,0 +1,64 @@
+package io.github.shabryn2893.tests.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.apicore.ApiRequest;
+import io.github.shabryn2893.apicore.ApiResponse;
+import io.github.shabryn2893.apicore.IActionAPI;
+import io.github.shabryn2893.tests.FakeSessions;
+
+/**
+ * Tests async requests and the bounded fan-out with a fake API client.
+ */
+public class TestAsyncRequests {
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	/**
+	 * Creates a fake client whose requests wait until {@code allBusy} counted
+	 * down, i.e. until that many requests are in flight together.
+	 */
+	private IActionAPI fakeApi(CountDownLatch allBusy) {
+		return FakeSessions.fakeAPI((name, args) -> {
+			ApiRequest request = (ApiRequest) args[0];
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			allBusy.countDown();
+			boolean overlapped = allBusy.await(5, TimeUnit.SECONDS);
+			inFlight.decrementAndGet();
+			Assert.assertTrue(overlapped, "requests should run concurrently");
+			int status = request.getPath().endsWith("/missing") ? 404 : 200;
+			return new ApiResponse(status, "HTTP/1.1 " + status, Map.of(), request.getPath().getBytes(), 0);
+		});
+	}
+
+	@Test
+	public void testFanOutKeepsOrderAndLimitsConcurrency() {
+		List<ApiRequest> requests = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			requests.add(ApiRequest.get("/brands/" + i).build());
+		}
+		List<ApiResponse> responses = fakeApi(new CountDownLatch(8)).fanOut(requests, 8).join();
+		Assert.assertEquals(responses.size(), 40);
+		Assert.assertEquals(responses.get(17).asString(), "/brands/17");
+		Assert.assertEquals(maxInFlight.get(), 8, "in flight");
+		Assert.assertTrue(IActionAPI.allSuccessful(responses));
+	}
+
+	@Test
+	public void testAsyncVariantAndAllSuccessful() {
+		IActionAPI api = fakeApi(new CountDownLatch(0));
+		ApiResponse found = api.getRequestAsync("/brands/1").join();
+		ApiResponse missing = api.getRequestAsync("/brands/missing").join();
+		Assert.assertEquals(found.getStatusCode(), 200);
+		Assert.assertFalse(IActionAPI.allSuccessful(List.of(found, missing)));
+	}
+}
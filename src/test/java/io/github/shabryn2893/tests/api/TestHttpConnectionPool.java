@@ -0,0 +1,50 @@
+package io.github.shabryn2893.tests.api;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.apicore.HttpConnectionPool;
+import io.github.shabryn2893.apicore.HttpPoolConfig;
+
+/**
+ * Tests sharing and validation of HTTP connection pools.
+ */
+public class TestHttpConnectionPool {
+
+	private final List<HttpConnectionPool> pools = new ArrayList<>();
+
+	@AfterMethod
+	public void closePools() {
+		pools.forEach(HttpConnectionPool::close);
+		pools.clear();
+	}
+
+	private HttpConnectionPool poolFor(HttpPoolConfig config) {
+		HttpConnectionPool pool = HttpConnectionPool.forConfig(config);
+		pools.add(pool);
+		return pool;
+	}
+
+	@Test
+	public void testPoolIsSharedPerConfig() {
+		HttpPoolConfig config = HttpPoolConfig.builder().maxTotal(20).maxPerRoute(5)
+				.keepAlive(Duration.ofSeconds(10)).build();
+		HttpConnectionPool pool = poolFor(config);
+		Assert.assertSame(poolFor(config), pool);
+		Assert.assertNotSame(poolFor(HttpPoolConfig.builder().build()), pool);
+		HttpConnectionPool.Stats stats = pool.getStats();
+		Assert.assertEquals(stats.max(), 20);
+		Assert.assertEquals(stats.leased(), 0);
+		Assert.assertEquals(stats.requests(), 0);
+	}
+
+	@Test
+	public void testInvalidLimitsAreRejected() {
+		Assert.assertThrows(IllegalArgumentException.class, () -> HttpPoolConfig.builder().maxPerRoute(0).build());
+	}
+}
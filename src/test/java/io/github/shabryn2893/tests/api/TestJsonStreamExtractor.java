@@ -0,0 +1,67 @@
+package io.github.shabryn2893.tests.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.apicore.JsonStreamExtractor;
+import io.github.shabryn2893.apicore.JsonStreamStats;
+
+/**
+ * Tests JSON path selection and aggregation on streamed JSON.
+ */
+public class TestJsonStreamExtractor {
+
+	private static final String DOCUMENT = """
+			{"total": 3, "meta": {"skip": [1, 2, {"id": 99}]},
+			 "items": [
+			  {"id": 1, "name": "Acme", "price": 10.5, "tags": ["a", "b"]},
+			  {"id": 2, "name": "Globex", "price": 4.5, "tags": []},
+			  {"id": 3, "name": "Initech", "price": null, "tags": ["c"]}
+			 ]}
+			""";
+
+	private static InputStream document() {
+		return new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testSelectWildcardField() {
+		List<Object> ids = JsonStreamExtractor.forPath("$.items[*].id").select(document());
+		Assert.assertEquals(ids, List.of(1, 2, 3));
+	}
+
+	@Test
+	public void testSelectIndexAndQuotedField() {
+		Assert.assertEquals(JsonStreamExtractor.forPath("$['items'][1].name").select(document()), List.of("Globex"));
+		Assert.assertEquals(JsonStreamExtractor.forPath("$.items[0].tags[*]").select(document()), List.of("a", "b"));
+	}
+
+	@Test
+	public void testSelectObjectMaterializesOnlyMatch() {
+		List<Object> items = JsonStreamExtractor.forPath("$.items[2]").select(document());
+		Assert.assertEquals(((JSONObject) items.get(0)).getString("name"), "Initech");
+	}
+
+	@Test
+	public void testAggregate() {
+		JsonStreamStats stats = JsonStreamExtractor.forPath("$.items[*].price").aggregate(document());
+		Assert.assertEquals(stats.getMatches(), 3);
+		Assert.assertEquals(stats.getNumericMatches(), 2);
+		Assert.assertEquals(stats.getSum(), 15.0, 0.0001);
+		Assert.assertEquals(stats.getMax(), 10.5, 0.0001);
+		Assert.assertEquals(stats.getBytesRead(), DOCUMENT.getBytes(StandardCharsets.UTF_8).length);
+		Assert.assertTrue(stats.getElementsProcessed() > 30);
+	}
+
+	@Test
+	public void testUnsupportedPath() {
+		Assert.assertThrows(IllegalArgumentException.class, () -> JsonStreamExtractor.forPath("items.id"));
+		Assert.assertThrows(IllegalArgumentException.class, () -> JsonStreamExtractor.forPath("$.items[?(@.id)]"));
+	}
+}
@@ -0,0 +1,76 @@
+package io.github.shabryn2893.tests.api;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.apicore.ApiRequest;
+import io.github.shabryn2893.apicore.ApiResponse;
+import io.github.shabryn2893.apicore.IActionAPI;
+import io.github.shabryn2893.load.LoadReport;
+import io.github.shabryn2893.load.LoadRunner;
+import io.github.shabryn2893.tests.FakeSessions;
+
+/**
+ * Tests the closed and open load models with a fake API client.
+ */
+public class TestLoadRunner {
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	private IActionAPI fakeApi() {
+		return FakeSessions.fakeAPI((name, args) -> {
+			Thread.sleep(5);
+			int status = calls.incrementAndGet() % 10 == 0 ? 500 : 200;
+			return new ApiResponse(status, "HTTP/1.1 " + status, Map.of(), new byte[0], 5);
+		});
+	}
+
+	@Test
+	public void testClosedModel() {
+		LoadReport report = LoadRunner.builder(fakeApi()).step("list", ApiRequest.get("/brands").build())
+				.closedModel(4).duration(Duration.ofMillis(500)).build().run();
+		LoadReport.Endpoint list = report.getEndpoint("list");
+		Assert.assertTrue(list.getCount() > 50, "count: " + list.getCount());
+		Assert.assertTrue(list.getErrors() > 0);
+		Assert.assertTrue(list.getPercentileMillis(50) >= 5);
+		Assert.assertEquals(list.getErrorsByType().keySet().iterator().next(), "HTTP 500");
+	}
+
+	@Test
+	public void testOpenModelRate() {
+		LoadReport report = LoadRunner.builder(fakeApi()).step("list", ApiRequest.get("/brands").build())
+				.step("detail", client -> client.send(ApiRequest.get("/brands/1").build())).openModel(200)
+				.rampUp(Duration.ofMillis(200)).duration(Duration.ofSeconds(1)).build().run();
+		long journeys = report.getEndpoint("list").getCount();
+		Assert.assertTrue(journeys >= 170 && journeys <= 190, "journeys: " + journeys);
+		Assert.assertEquals(report.getEndpoint("detail").getCount(), journeys);
+		Assert.assertTrue(report.format().contains("p99.9 ms"));
+	}
+
+	@Test
+	public void testFailedAssertionsAreRecorded() {
+		AtomicInteger journeys = new AtomicInteger();
+		LoadReport report = LoadRunner.builder(fakeApi()).step("list", client -> {
+			ApiResponse response = client.send(ApiRequest.get("/brands").build());
+			Assert.assertTrue(journeys.incrementAndGet() % 2 == 0, "odd journey");
+			return response;
+		}).step("detail", ApiRequest.get("/brands/1").build()).closedModel(2).duration(Duration.ofMillis(300))
+				.build().run();
+		LoadReport.Endpoint list = report.getEndpoint("list");
+		Assert.assertEquals(list.getCount(), journeys.get());
+		Assert.assertTrue(list.getErrorsByType().get("AssertionError") >= journeys.get() / 2,
+				"errors: " + list.getErrorsByType());
+		Assert.assertEquals(report.getEndpoint("detail").getCount(), list.getCount(),
+				"a failed assertion must not end the virtual user");
+	}
+
+	@Test
+	public void testLoadModelIsRequired() {
+		Assert.assertThrows(IllegalStateException.class,
+				() -> LoadRunner.builder(fakeApi()).step("list", ApiRequest.get("/brands").build()).build());
+	}
+}
@@ -0,0 +1,13 @@
+package io.github.shabryn2893.tests.api;
+
+/**
+ * Tests streamed uploads and downloads of the RestAssured client against a
+ * local HTTP server.
+ */
+public class TestRestAssuredStreamingTransfers extends TestStreamingTransfers {
+
+	@Override
+	protected String toolName() {
+		return "RESTASSURED";
+	}
+}
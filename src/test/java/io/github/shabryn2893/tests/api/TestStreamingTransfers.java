@@ -0,0 +1,141 @@
+package io.github.shabryn2893.tests.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.shabryn2893.apicore.APIToolFactory;
+import io.github.shabryn2893.apicore.ApiRequest;
+import io.github.shabryn2893.apicore.ITransferAPI;
+import io.github.shabryn2893.apicore.TransferStats;
+
+/**
+ * Tests streamed uploads and downloads of the JDK HTTP client against a local
+ * HTTP server.
+ */
+public class TestStreamingTransfers {
+
+	private static final int SIZE = 8 * 1024 * 1024 + 17;
+
+	private HttpServer server;
+	private ITransferAPI api;
+	private volatile long uploadedBytes;
+	private volatile String uploadEncoding;
+	private final CountDownLatch bodyRead = new CountDownLatch(1);
+	private volatile boolean readWhileSending;
+
+	/**
+	 * Gets the client under test.
+	 *
+	 * @return the tool name for {@link APIToolFactory}.
+	 */
+	protected String toolName() {
+		return "JDKHTTP";
+	}
+
+	@BeforeClass
+	public void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.createContext("/upload", exchange -> {
+			try (InputStream body = exchange.getRequestBody()) {
+				uploadEncoding = exchange.getRequestHeaders().getFirst("Transfer-Encoding");
+				uploadedBytes = body.transferTo(OutputStream.nullOutputStream());
+			}
+			exchange.sendResponseHeaders(201, -1);
+			exchange.close();
+		});
+		server.createContext("/download", exchange -> {
+			if (exchange.getRequestURI().getPath().endsWith("missing")) {
+				exchange.sendResponseHeaders(404, -1);
+				exchange.close();
+				return;
+			}
+			byte[] chunk = new byte[64 * 1024];
+			Arrays.fill(chunk, (byte) 'x');
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream body = exchange.getResponseBody()) {
+				for (int remaining = SIZE; remaining > 0; remaining -= chunk.length) {
+					body.write(chunk, 0, Math.min(remaining, chunk.length));
+				}
+			}
+		});
+		server.createContext("/stream", exchange -> {
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream body = exchange.getResponseBody()) {
+				body.write('x');
+				body.flush();
+				readWhileSending = bodyRead.await(5, TimeUnit.SECONDS);
+				body.write('y');
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		server.start();
+		api = (ITransferAPI) APIToolFactory.getAPIToolInstance(toolName(),
+				"http://localhost:" + server.getAddress().getPort());
+	}
+
+	@AfterClass
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void testUploadFromStreamAndFile() throws IOException {
+		byte[] content = new byte[SIZE];
+		TransferStats streamed = api.upload(ApiRequest.put("/upload").build(), new ByteArrayInputStream(content));
+		Assert.assertEquals(streamed.getStatusCode(), 201);
+		Assert.assertEquals(streamed.getBytes(), SIZE);
+		Assert.assertEquals(uploadedBytes, SIZE);
+		Assert.assertEquals(uploadEncoding, "chunked");
+		Assert.assertTrue(streamed.getBytesPerSecond() > 0);
+
+		Path file = Files.createTempFile("upload", ".bin");
+		Files.write(file, content);
+		TransferStats fromFile = api.upload(ApiRequest.put("/upload").build(), file);
+		Assert.assertEquals(fromFile.getBytes(), SIZE);
+		Assert.assertEquals(uploadedBytes, SIZE);
+	}
+
+	@Test
+	public void testDownloadToFile() throws IOException {
+		Path target = Files.createTempFile("download", ".bin");
+		Files.writeString(target, "stale content that is longer than nothing");
+		TransferStats stats = api.downloadTo(ApiRequest.get("/download/artifact").build(), target);
+		Assert.assertEquals(stats.getStatusCode(), 200);
+		Assert.assertEquals(stats.getBytes(), SIZE);
+		Assert.assertEquals(Files.size(target), SIZE);
+		Assert.assertTrue(stats.toString().contains("MiB/s"));
+
+		Assert.assertThrows(IllegalStateException.class,
+				() -> api.downloadTo(ApiRequest.get("/download/missing").build(), target));
+		Assert.assertEquals(Files.size(target), SIZE);
+	}
+
+	@Test
+	public void testStreamedBodyIsNotBuffered() throws IOException {
+		try (InputStream body = api.sendStreaming(ApiRequest.get("/stream").build())) {
+			Assert.assertEquals(body.read(), 'x');
+			bodyRead.countDown();
+			Assert.assertEquals(body.read(), 'y');
+			Assert.assertEquals(body.read(), -1);
+		}
+		Assert.assertTrue(readWhileSending, "the body should be read before the server finished sending it");
+	}
+}
@@ -0,0 +1,74 @@
+package io.github.shabryn2893.tests.api;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.apicore.ApiRequest;
+import io.github.shabryn2893.apicore.ApiResponse;
+import io.github.shabryn2893.apicore.StubServer;
+
+/**
+ * Tests stub mappings, latency and record and replay of the stub server.
+ */
+public class TestStubServer {
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private HttpResponse<String> get(String uri) throws Exception {
+		return client.send(HttpRequest.newBuilder(URI.create(uri)).build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static ApiResponse json(String body) {
+		return new ApiResponse(200, "HTTP/1.1 200 OK", Map.of("Content-Type", List.of("application/json")),
+				body.getBytes(), 0);
+	}
+
+	@Test
+	public void testMappingsLatencyAndUnmatched() throws Exception {
+		Path file = Files.createTempFile("stubs", ".json");
+		Files.writeString(file, """
+				{"request": {"method": "GET", "path": "/brands", "queryParameters": {"page": "2"}},
+				 "response": {"status": 200, "jsonBody": {"page": 2}, "delayMillis": 150}}
+				""");
+		try (StubServer stubServer = StubServer.builder().mappings(file)
+				.stub(ApiRequest.get("/brands").build(), json("{\"page\":1}")).build().start()) {
+			long start = System.nanoTime();
+			HttpResponse<String> second = get(stubServer.getBaseURI() + "/brands?page=2");
+			Assert.assertTrue(System.nanoTime() - start >= Duration.ofMillis(150).toNanos());
+			Assert.assertEquals(second.body(), "{\"page\":2}");
+			Assert.assertEquals(second.headers().firstValue("Content-Type").orElse(null), "application/json");
+			Assert.assertEquals(get(stubServer.getBaseURI() + "/brands").body(), "{\"page\":1}");
+			Assert.assertEquals(get(stubServer.getBaseURI() + "/categories").statusCode(), 404);
+			Assert.assertEquals(stubServer.getMatchedCount(), 2);
+			Assert.assertEquals(stubServer.getUnmatchedRequests(), List.of("GET /categories"));
+		}
+	}
+
+	@Test
+	public void testRecordThenReplayOffline() throws Exception {
+		Path directory = Files.createTempDirectory("recorded-stubs");
+		try (StubServer live = StubServer.builder().stub(ApiRequest.get("/brands").build(), json("[\"live\"]"))
+				.build().start();
+				StubServer recorder = StubServer.builder().record(live.getBaseURI(), directory).build().start()) {
+			Assert.assertEquals(get(recorder.getBaseURI() + "/brands").body(), "[\"live\"]");
+			Assert.assertEquals(get(recorder.getBaseURI() + "/brands").body(), "[\"live\"]");
+			Assert.assertEquals(recorder.getRecordedCount(), 1);
+			Assert.assertEquals(live.getMatchedCount(), 1, "recorded mappings are replayed");
+		}
+		try (StubServer replay = StubServer.builder().mappings(directory).build().start()) {
+			HttpResponse<String> response = get(replay.getBaseURI() + "/brands");
+			Assert.assertEquals(response.statusCode(), 200);
+			Assert.assertEquals(response.body(), "[\"live\"]");
+		}
+	}
+}
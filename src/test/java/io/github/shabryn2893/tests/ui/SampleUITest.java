@@ -1,10 +1,12 @@
 package io.github.shabryn2893.tests.ui;
 
 import org.testng.Assert;
-import org.testng.annotations.AfterTest;
-import org.testng.annotations.BeforeTest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
+import io.github.shabryn2893.parallel.SessionListener;
+import io.github.shabryn2893.parallel.SessionRegistry;
 import io.github.shabryn2893.uicore.IActionUI;
 import io.github.shabryn2893.uidriverfactory.DriverFactory;
 import io.github.shabryn2893.uidriverfactory.DriverManager;
@@ -12,9 +14,9 @@ import io.github.shabryn2893.uidriverfactory.DriverManager;
 /**
  * Sample UI Test
  */
+@Listeners(SessionListener.class)
 public class SampleUITest {
 	
-	static IActionUI globalDriver = null;
 	String toolName="SELENIUM";
 	int maxWaitTime=100;
 	
@@ -25,12 +27,13 @@ public class SampleUITest {
 	 * */
 
 	/**
-	 * Initiating browser instances before launch.
+	 * Initiating a browser instance for the current test thread. It is closed by
+	 * the {@link SessionListener} after the test.
 	 */
-	@BeforeTest
+	@BeforeMethod
 	public void setUp() {
 		DriverManager driverManager=DriverFactory.getDriver("CHROME", toolName, false);
-		globalDriver=driverManager.createBrowser();
+		SessionRegistry.setUI(driverManager.createBrowser());
 	}
 	
 	/**
@@ -38,20 +41,13 @@ public class SampleUITest {
 	 */
 	@Test
 	public void test() {
-		globalDriver.openURL("https://parabank.parasoft.com/parabank/index.htm");
-		globalDriver.waitForPageLoad(maxWaitTime);
-		globalDriver.click("XPATH", "//a[text()='Register']", maxWaitTime);
-		String actualPagetitle=globalDriver.getPageTitle();
+		IActionUI driver=SessionRegistry.getUI();
+		driver.openURL("https://parabank.parasoft.com/parabank/index.htm");
+		driver.waitForPageLoad(maxWaitTime);
+		driver.click("XPATH", "//a[text()='Register']", maxWaitTime);
+		String actualPagetitle=driver.getPageTitle();
 		System.out.println("Actual Page Title: "+actualPagetitle);
 		Assert.assertEquals(actualPagetitle, "ParaBank | Register for Free Online Account Access");
 	}
-	
-	/**
-	 * Closes the browser instance after launch
-	 */
-	@AfterTest
-	public void tearDown() {
-		globalDriver.closeBrowser();
-	}
 
 }
@@ -0,0 +1,76 @@
+package io.github.shabryn2893.tests.ui;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.tests.FakeSessions;
+import io.github.shabryn2893.uicore.IActionUI;
+import io.github.shabryn2893.uidriverfactory.DriverManager;
+
+/**
+ * Tests background browser startup with a fake browser whose launch is held
+ * until the test lets it finish.
+ */
+public class TestBackgroundStartup {
+
+	private CountDownLatch launchStarted;
+	private CountDownLatch finishLaunch;
+	private CountDownLatch closed;
+
+	@BeforeMethod
+	public void setUp() {
+		launchStarted = new CountDownLatch(1);
+		finishLaunch = new CountDownLatch(1);
+		closed = new CountDownLatch(1);
+	}
+
+	private DriverManager heldDriverManager() {
+		DriverManager driverManager = new DriverManager() {
+			@Override
+			public IActionUI createBrowser() {
+				return isBackgroundStartup() ? startInBackground("held browser", this::launch) : launch();
+			}
+
+			private IActionUI launch() {
+				launchStarted.countDown();
+				try {
+					finishLaunch.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return FakeSessions.fakeUI((name, args) -> {
+					if (name.equals("closeBrowser")) {
+						closed.countDown();
+					}
+					return name.equals("getURL") ? "about:blank" : null;
+				});
+			}
+		};
+		driverManager.setBackgroundStartup(true);
+		return driverManager;
+	}
+
+	@Test(timeOut = 10000)
+	public void testCreateBrowserReturnsBeforeLaunch() throws Exception {
+		IActionUI ui = heldDriverManager().createBrowser();
+		Assert.assertTrue(launchStarted.await(5, TimeUnit.SECONDS), "launch should run in the background");
+		CompletableFuture<String> firstCall = CompletableFuture.supplyAsync(ui::getURL);
+		Assert.assertFalse(firstCall.isDone(), "first call should wait for the launch");
+		finishLaunch.countDown();
+		Assert.assertEquals(firstCall.get(5, TimeUnit.SECONDS), "about:blank");
+	}
+
+	@Test(timeOut = 10000)
+	public void testCloseBeforeLaunchCompletes() throws InterruptedException {
+		IActionUI ui = heldDriverManager().createBrowser();
+		ui.closeBrowser();
+		Assert.assertEquals(closed.getCount(), 1L, "browser is not up yet");
+		finishLaunch.countDown();
+		Assert.assertTrue(closed.await(5, TimeUnit.SECONDS), "browser should be closed once it is up");
+	}
+}
@@ -0,0 +1,90 @@
+package io.github.shabryn2893.tests.ui;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.uicore.BiDiEventHub;
+import io.github.shabryn2893.uicore.BrowserEvent;
+
+/**
+ * Tests the event-driven waits and subscribers of the BiDi event hub with
+ * events published by the test instead of a browser.
+ */
+public class TestBiDiEventHub {
+
+	private static final class FakeHub extends BiDiEventHub {
+
+		void fire(BrowserEvent.Type type) {
+			publish(type, "https://example.com", null, null);
+		}
+	}
+
+	@Test
+	public void testWaitWakesUpOnEvent() {
+		FakeHub hub = new FakeHub();
+		AtomicBoolean ready = new AtomicBoolean();
+		AtomicInteger checks = new AtomicInteger();
+		CompletableFuture.runAsync(() -> {
+			ready.set(true);
+			hub.fire(BrowserEvent.Type.DOM_MUTATION);
+		}, CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+		long start = System.nanoTime();
+		boolean met = hub.waitFor(Set.of(BrowserEvent.Type.DOM_MUTATION), () -> {
+			checks.incrementAndGet();
+			return ready.get();
+		}, Duration.ofSeconds(10));
+		long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+		Assert.assertTrue(met);
+		Assert.assertTrue(waitedMillis < 2000, "the event should end the wait, waited " + waitedMillis + " ms");
+		Assert.assertEquals(checks.get(), 2, "the condition is checked up front and after the event only");
+	}
+
+	@Test
+	public void testWaitTimesOut() {
+		FakeHub hub = new FakeHub();
+		AtomicInteger checks = new AtomicInteger();
+		long start = System.nanoTime();
+		boolean met = hub.waitFor(Set.of(BrowserEvent.Type.LOAD), () -> {
+			checks.incrementAndGet();
+			return false;
+		}, Duration.ofMillis(300));
+		long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+		Assert.assertFalse(met);
+		Assert.assertTrue(waitedMillis >= 300, "waited " + waitedMillis + " ms");
+		Assert.assertEquals(checks.get(), 2, "the condition is checked up front and at the timeout");
+	}
+
+	@Test
+	public void testOtherEventsDoNotWakeUp() {
+		FakeHub hub = new FakeHub();
+		AtomicInteger checks = new AtomicInteger();
+		CompletableFuture.runAsync(() -> hub.fire(BrowserEvent.Type.CONSOLE),
+				CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+		hub.waitFor(Set.of(BrowserEvent.Type.LOAD), () -> checks.incrementAndGet() < 0, Duration.ofMillis(300));
+		Assert.assertEquals(checks.get(), 2);
+		Assert.assertEquals(hub.getEventCount(BrowserEvent.Type.CONSOLE), 1);
+	}
+
+	@Test
+	public void testSubscribersMoveToReplacementHub() {
+		FakeHub crashed = new FakeHub();
+		List<String> received = new ArrayList<>();
+		Runnable unsubscribe = crashed.subscribe(BrowserEvent.Type.CONSOLE, event -> received.add(event.url()));
+		FakeHub replacement = new FakeHub();
+		replacement.inheritSubscribers(crashed);
+		replacement.fire(BrowserEvent.Type.CONSOLE);
+		Assert.assertEquals(received, List.of("https://example.com"));
+		unsubscribe.run();
+		replacement.fire(BrowserEvent.Type.CONSOLE);
+		Assert.assertEquals(received.size(), 1, "the original unsubscribe should still work");
+	}
+}
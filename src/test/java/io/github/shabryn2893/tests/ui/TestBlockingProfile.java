@@ -0,0 +1,38 @@
+package io.github.shabryn2893.tests.ui;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.uidriverfactory.BlockingProfile;
+
+/**
+ * Tests URL matching and validation of blocking profiles.
+ */
+public class TestBlockingProfile {
+
+	@Test
+	public void testLeanProfileMatching() {
+		Pattern regex = BlockingProfile.LEAN.toRegex();
+		Assert.assertTrue(regex.matcher("https://shop.example.com/img/logo.PNG").matches());
+		Assert.assertTrue(regex.matcher("https://shop.example.com/fonts/a.woff2?v=3").matches());
+		Assert.assertTrue(regex.matcher("https://www.google-analytics.com/collect?v=1").matches());
+		Assert.assertFalse(regex.matcher("https://shop.example.com/api/cart").matches());
+		Assert.assertFalse(regex.matcher("https://shop.example.com/app.js").matches());
+	}
+
+	@Test
+	public void testCustomProfile() {
+		BlockingProfile profile = new BlockingProfile("ads", List.of("*://ads.example.com/*"), List.of());
+		Assert.assertFalse(profile.isEmpty());
+		Assert.assertTrue(profile.toRegex().matcher("https://ads.example.com/banner").matches());
+		Assert.assertTrue(BlockingProfile.fromName("NONE").isEmpty());
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testUnsupportedResourceType() {
+		new BlockingProfile("bad", List.of(), List.of("websocket"));
+	}
+}
@@ -0,0 +1,52 @@
+package io.github.shabryn2893.tests.ui;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.tests.FakeSessions;
+import io.github.shabryn2893.uicore.IActionUI;
+import io.github.shabryn2893.uicore.SessionLifecycleManager;
+import io.github.shabryn2893.uidriverfactory.BrowserGovernor;
+
+/**
+ * Tests that the browser governor caps live sessions and frees their slots.
+ */
+public class TestBrowserGovernor {
+
+	private IActionUI trackedFakeBrowser() {
+		AtomicReference<SessionLifecycleManager.Registration> registration = new AtomicReference<>();
+		IActionUI ui = FakeSessions.fakeUI((name, args) -> {
+			if (name.equals("closeBrowser")) {
+				registration.get().close();
+			}
+			return null;
+		});
+		registration.set(SessionLifecycleManager.register(ui, "fake browser", () -> {
+		}));
+		return ui;
+	}
+
+	@Test
+	public void testSlotIsReleasedOnClose() {
+		BrowserGovernor governor = new BrowserGovernor(1, Duration.ofMillis(200), 0, Long.MAX_VALUE, 1000);
+		IActionUI first = governor.launch("first", this::trackedFakeBrowser);
+		Assert.assertEquals(governor.getActiveBrowsers(), 1);
+		Assert.assertThrows(IllegalStateException.class, () -> governor.launch("second", this::trackedFakeBrowser));
+		first.closeBrowser();
+		Assert.assertEquals(governor.getActiveBrowsers(), 0);
+		governor.launch("third", this::trackedFakeBrowser).closeBrowser();
+		Assert.assertEquals(governor.getActiveBrowsers(), 0);
+	}
+
+	@Test
+	public void testFailedLaunchReleasesSlot() {
+		BrowserGovernor governor = new BrowserGovernor(1, Duration.ofMillis(200), 0, Long.MAX_VALUE, 1000);
+		Assert.assertThrows(IllegalArgumentException.class, () -> governor.launch("broken", () -> {
+			throw new IllegalArgumentException("Unsupported browser");
+		}));
+		Assert.assertEquals(governor.getActiveBrowsers(), 0);
+	}
+}
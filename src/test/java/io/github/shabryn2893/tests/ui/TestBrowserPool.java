@@ -0,0 +1,75 @@
+package io.github.shabryn2893.tests.ui;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.tests.FakeSessions;
+import io.github.shabryn2893.uicore.IActionUI;
+import io.github.shabryn2893.uidriverfactory.BrowserGovernor;
+import io.github.shabryn2893.uidriverfactory.BrowserPool;
+import io.github.shabryn2893.uidriverfactory.DriverManager;
+
+/**
+ * Tests reuse, recycling and exhaustion of the browser pool with fake browsers.
+ */
+public class TestBrowserPool {
+
+	private final AtomicInteger launched = new AtomicInteger();
+	private final AtomicInteger closed = new AtomicInteger();
+
+	private DriverManager fakeDriverManager() {
+		return new DriverManager() {
+			@Override
+			public IActionUI createBrowser() {
+				launched.incrementAndGet();
+				return FakeSessions.fakeUI((name, args) -> {
+					if (name.equals("closeBrowser")) {
+						closed.incrementAndGet();
+					}
+					return name.equals("getURL") ? "about:blank" : null;
+				});
+			}
+		};
+	}
+
+	@Test
+	public void testReuseAndRecycle() {
+		BrowserPool pool = new BrowserPool("test", fakeDriverManager(), 0, 2, 2);
+		IActionUI first = pool.checkout(Duration.ofSeconds(1));
+		pool.checkin(first);
+		Assert.assertSame(pool.checkout(Duration.ofSeconds(1)), first);
+		pool.checkin(first);
+		Assert.assertEquals(closed.get(), 1, "browser should be recycled after maxReuse checkouts");
+		Assert.assertEquals(launched.get(), 1);
+		pool.close();
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void testExhaustedPool() {
+		BrowserPool pool = new BrowserPool("exhausted", fakeDriverManager(), 0, 1, 5);
+		pool.checkout(Duration.ofSeconds(1));
+		try {
+			pool.checkout(Duration.ofMillis(300));
+		} finally {
+			pool.close();
+		}
+	}
+
+	@Test
+	public void testPoolRespectsGovernorCap() {
+		DriverManager driverManager = fakeDriverManager();
+		driverManager.setGovernor(new BrowserGovernor(1, Duration.ofMillis(200), 0, Long.MAX_VALUE, 1000));
+		int launchedBefore = launched.get();
+		BrowserPool pool = new BrowserPool("governed", driverManager, 2, 4, 5);
+		try {
+			pool.checkout(Duration.ofSeconds(1));
+			Assert.assertThrows(IllegalStateException.class, () -> pool.checkout(Duration.ofMillis(300)));
+			Assert.assertEquals(launched.get() - launchedBefore, 1);
+		} finally {
+			pool.close();
+		}
+	}
+}
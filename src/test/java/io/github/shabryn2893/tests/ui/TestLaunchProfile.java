@@ -0,0 +1,52 @@
+package io.github.shabryn2893.tests.ui;
+
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.uidriverfactory.LaunchProfile;
+
+/**
+ * Tests the browser arguments and validation of launch profiles.
+ */
+public class TestLaunchProfile {
+
+	@Test
+	public void testDefaultProfileArgs() {
+		Assert.assertEquals(LaunchProfile.DEFAULT.getChromiumArgs(true), List.of("--incognito", "--headless"));
+		Assert.assertEquals(LaunchProfile.DEFAULT.getPageLoadStrategy(), "normal");
+	}
+
+	@Test
+	public void testFastCiProfileArgs() {
+		LaunchProfile profile = LaunchProfile.fromName("FAST-CI");
+		List<String> args = profile.getChromiumArgs(true);
+		Assert.assertEquals(profile.getPageLoadStrategy(), "eager");
+		Assert.assertTrue(args.contains("--headless=new"));
+		Assert.assertTrue(args.contains("--window-size=1920,1080"));
+		Assert.assertTrue(args.contains("--disable-gpu"));
+		Assert.assertFalse(profile.getExtraChromiumArgs().contains("--incognito"));
+	}
+
+	@Test
+	public void testLowMemoryDiskCache() {
+		Assert.assertTrue(LaunchProfile.LOW_MEMORY.getExtraChromiumArgs().contains("--disk-cache-size=33554432"));
+	}
+
+	@Test
+	public void testProfilesCompareBySettings() {
+		LaunchProfile custom = new LaunchProfile("custom", "eager", true, List.of("--disable-gpu"), 0, 0, false, 0, 0);
+		Assert.assertEquals(custom,
+				new LaunchProfile("custom", "EAGER", true, List.of("--disable-gpu"), 0, 0, false, 0, 0));
+		Assert.assertEquals(custom.hashCode(),
+				new LaunchProfile("custom", "eager", true, List.of("--disable-gpu"), 0, 0, false, 0, 0).hashCode());
+		Assert.assertNotEquals(custom,
+				new LaunchProfile("custom", "eager", true, List.of("--disable-gpu"), 0, 0, false, 0, 100));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testUnsupportedPageLoadStrategy() {
+		new LaunchProfile("broken", "lazy", false, List.of(), 0, 0, false, 0, 0);
+	}
+}
@@ -0,0 +1,93 @@
+package io.github.shabryn2893.tests.ui;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.shabryn2893.uicore.IActionUI;
+import io.github.shabryn2893.uidriverfactory.NetworkArchiveMode;
+import io.github.shabryn2893.uidriverfactory.PlaywrightDriverFactory;
+
+/**
+ * Records the network traffic of two Playwright sessions, checks that each
+ * browser context writes its own HAR file and replays them.
+ */
+public class TestNetworkArchive {
+
+	private HttpServer server;
+	private String baseURL;
+	private final AtomicInteger served = new AtomicInteger();
+
+	@BeforeClass
+	public void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", exchange -> {
+			served.incrementAndGet();
+			String path = exchange.getRequestURI().getPath();
+			byte[] page = ("<html><head><title>" + path + "</title></head><body>" + path + "</body></html>")
+					.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "text/html");
+			exchange.sendResponseHeaders(200, page.length);
+			try (OutputStream body = exchange.getResponseBody()) {
+				body.write(page);
+			}
+		});
+		server.start();
+		baseURL = "http://localhost:" + server.getAddress().getPort();
+	}
+
+	@AfterClass
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void testEveryContextRecordsItsOwnHar() throws IOException {
+		Path harFile = Files.createTempDirectory("har").resolve("checkout.har");
+		PlaywrightDriverFactory factory = new PlaywrightDriverFactory("CHROME", true);
+		factory.setNetworkArchive(NetworkArchiveMode.RECORD, harFile);
+		try (IActionUI first = factory.createBrowser(); IActionUI second = factory.createBrowser()) {
+			first.openURL(baseURL + "/first");
+			second.openURL(baseURL + "/second");
+		}
+		List<Path> harFiles = factory.getRecordedHarFiles();
+		Assert.assertEquals(harFiles, List.of(harFile, harFile.resolveSibling("checkout-2.har")));
+		String firstHar = Files.readString(harFiles.get(0));
+		String secondHar = Files.readString(harFiles.get(1));
+		Assert.assertTrue(firstHar.contains(baseURL + "/first"));
+		Assert.assertFalse(firstHar.contains(baseURL + "/second"));
+		Assert.assertTrue(secondHar.contains(baseURL + "/second"));
+	}
+
+	@Test
+	public void testEveryContextReplaysItsOwnHar() throws IOException {
+		Path harFile = Files.createTempDirectory("har").resolve("checkout.har");
+		PlaywrightDriverFactory factory = new PlaywrightDriverFactory("CHROME", true);
+		factory.setNetworkArchive(NetworkArchiveMode.RECORD, harFile);
+		try (IActionUI first = factory.createBrowser(); IActionUI second = factory.createBrowser()) {
+			first.openURL(baseURL + "/first");
+			second.openURL(baseURL + "/second");
+		}
+		int servedWhileRecording = served.get();
+		factory.setNetworkArchive(NetworkArchiveMode.REPLAY, harFile);
+		try (IActionUI first = factory.createBrowser(); IActionUI second = factory.createBrowser()) {
+			first.openURL(baseURL + "/first");
+			second.openURL(baseURL + "/second");
+			Assert.assertEquals(first.getPageTitle(), "/first");
+			Assert.assertEquals(second.getPageTitle(), "/second");
+		}
+		Assert.assertEquals(served.get(), servedWhileRecording, "replayed pages must not reach the server");
+	}
+}
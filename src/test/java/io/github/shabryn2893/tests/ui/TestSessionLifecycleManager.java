@@ -0,0 +1,41 @@
+package io.github.shabryn2893.tests.ui;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.uicore.SessionLifecycleManager;
+
+/**
+ * Tests explicit close and reclaiming of abandoned sessions.
+ */
+public class TestSessionLifecycleManager {
+
+	@Test
+	public void testExplicitCloseSkipsCleanup() {
+		AtomicInteger cleanups = new AtomicInteger();
+		int liveBefore = SessionLifecycleManager.getLiveSessionCount();
+		SessionLifecycleManager.Registration registration = SessionLifecycleManager.register(new Object(), "explicit",
+				cleanups::incrementAndGet);
+		Assert.assertEquals(SessionLifecycleManager.getLiveSessionCount(), liveBefore + 1);
+		registration.close();
+		registration.close();
+		Assert.assertTrue(registration.isClosed());
+		Assert.assertEquals(cleanups.get(), 0);
+		Assert.assertEquals(SessionLifecycleManager.getLiveSessionCount(), liveBefore);
+	}
+
+	@Test
+	public void testAbandonedSessionIsReclaimed() throws InterruptedException {
+		AtomicInteger cleanups = new AtomicInteger();
+		SessionLifecycleManager.register(new Object(), "abandoned", cleanups::incrementAndGet);
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (cleanups.get() == 0 && System.currentTimeMillis() < deadline) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		Assert.assertEquals(cleanups.get(), 1, "abandoned session should be cleaned up after garbage collection");
+		Assert.assertTrue(SessionLifecycleManager.getReclaimedSessionCount() >= 1);
+	}
+}
@@ -0,0 +1,122 @@
+package io.github.shabryn2893.tests.ui;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.testng.Assert;
+import org.testng.IInvokedMethod;
+import org.testng.ITestClass;
+import org.testng.ITestNGMethod;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.parallel.SessionListener;
+import io.github.shabryn2893.parallel.SessionRegistry;
+import io.github.shabryn2893.tests.FakeSessions;
+import io.github.shabryn2893.uicore.IActionUI;
+
+/**
+ * Tests the thread-confined sessions of the session registry and their release
+ * by the session listener.
+ */
+public class TestSessionRegistry {
+
+	private final AtomicInteger closed = new AtomicInteger();
+	private Supplier<IActionUI> originalFactory;
+
+	private IActionUI fakeBrowser() {
+		return FakeSessions.fakeUI((name, args) -> {
+			if (name.equals("closeBrowser")) {
+				closed.incrementAndGet();
+			}
+			return null;
+		});
+	}
+
+	@BeforeMethod
+	public void setUp() {
+		closed.set(0);
+		originalFactory = SessionRegistry.getUIFactory();
+		SessionRegistry.setUIFactory(this::fakeBrowser);
+	}
+
+	@AfterMethod
+	public void tearDown() {
+		SessionRegistry.closeAll();
+		SessionRegistry.setUIFactory(originalFactory);
+	}
+
+	@Test
+	public void testSessionsAreThreadConfined() {
+		IActionUI mine = SessionRegistry.getUI();
+		Assert.assertSame(SessionRegistry.getUI(), mine);
+		IActionUI other = CompletableFuture.supplyAsync(SessionRegistry::getUI).join();
+		Assert.assertNotSame(other, mine);
+		Assert.assertEquals(SessionRegistry.getOpenUICount(), 2);
+	}
+
+	@Test
+	public void testReleaseClosesSession() {
+		IActionUI first = SessionRegistry.getUI();
+		SessionRegistry.releaseAll();
+		Assert.assertEquals(closed.get(), 1);
+		Assert.assertFalse(SessionRegistry.hasUI());
+		Assert.assertNotSame(SessionRegistry.getUI(), first);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T fake(Class<T> type, Function<String, Object> answers) {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> answers.apply(method.getName()));
+	}
+
+	/**
+	 * Fakes an invoked method of a test class with the given number of
+	 * {@code @AfterMethod} methods.
+	 */
+	private static IInvokedMethod invoked(boolean testMethod, boolean afterMethod, int afterMethods) {
+		ITestNGMethod[] afterTestMethods = new ITestNGMethod[afterMethods];
+		ITestClass testClass = fake(ITestClass.class,
+				name -> name.equals("getAfterTestMethods") ? afterTestMethods : null);
+		ITestNGMethod method = fake(ITestNGMethod.class, name -> switch (name) {
+		case "getTestClass" -> testClass;
+		case "isAfterMethodConfiguration" -> afterMethod;
+		default -> null;
+		});
+		return fake(IInvokedMethod.class, name -> switch (name) {
+		case "getTestMethod" -> method;
+		case "isTestMethod" -> testMethod;
+		default -> null;
+		});
+	}
+
+	@Test
+	public void testListenerReleasesAfterLastAfterMethod() {
+		SessionListener listener = new SessionListener();
+		IInvokedMethod test = invoked(true, false, 3);
+		IInvokedMethod afterMethod = invoked(false, true, 3);
+		SessionRegistry.getUI();
+		listener.afterInvocation(test, null);
+		listener.afterInvocation(afterMethod, null);
+		listener.afterInvocation(afterMethod, null);
+		Assert.assertTrue(SessionRegistry.hasUI(), "later @AfterMethods still need the session");
+		listener.afterInvocation(afterMethod, null);
+		Assert.assertFalse(SessionRegistry.hasUI());
+		Assert.assertEquals(closed.get(), 1);
+	}
+
+	@Test
+	public void testListenerReleasesWhenAfterMethodsWereSkipped() {
+		SessionListener listener = new SessionListener();
+		SessionRegistry.getUI();
+		listener.afterInvocation(invoked(true, false, 2), null);
+		listener.afterInvocation(invoked(false, true, 2), null);
+		Assert.assertTrue(SessionRegistry.hasUI());
+		listener.beforeInvocation(invoked(true, false, 2), null);
+		Assert.assertFalse(SessionRegistry.hasUI());
+	}
+}
@@ -0,0 +1,110 @@
+package io.github.shabryn2893.tests.ui;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.tests.FakeSessions;
+import io.github.shabryn2893.uicore.IActionUI;
+import io.github.shabryn2893.uicore.SessionSnapshotStore;
+
+/**
+ * Tests capturing, restoring and expiring session snapshots with fake
+ * browsers.
+ */
+public class TestSessionSnapshotStore {
+
+	private final List<String> calls = new ArrayList<>();
+	private final Instant[] now = { Instant.EPOCH };
+	private int logins;
+	private boolean loggedIn;
+
+	private final Clock clock = new Clock() {
+		public ZoneOffset getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		public Instant instant() {
+			return now[0];
+		}
+	};
+
+	private final Consumer<IActionUI> login = ui -> {
+		logins++;
+		loggedIn = true;
+	};
+
+	@BeforeMethod
+	public void reset() {
+		calls.clear();
+		now[0] = Instant.EPOCH;
+		logins = 0;
+	}
+
+	/**
+	 * A fake browser that starts logged out and whose state is the login count
+	 * at capture time.
+	 */
+	private IActionUI fakeBrowser() {
+		loggedIn = false;
+		return FakeSessions.fakeUI((name, args) -> {
+			calls.add(args == null ? name : name + ":" + args[0]);
+			return name.equals("captureSessionState") ? "{\"login\":" + logins + "}" : null;
+		});
+	}
+
+	@Test
+	public void testSnapshotRoundTrip() {
+		SessionSnapshotStore store = new SessionSnapshotStore(Duration.ofMinutes(30), clock);
+		store.startSession("admin", fakeBrowser(), login, ui -> loggedIn);
+		Assert.assertEquals(logins, 1);
+		Assert.assertTrue(store.hasValidSnapshot("admin"));
+
+		IActionUI second = fakeBrowser();
+		calls.clear();
+		store.startSession("admin", second, ui -> Assert.fail("must not log in again"), ui -> true);
+		Assert.assertEquals(calls, List.of("restoreSessionState:{\"login\":1}"));
+		Assert.assertFalse(store.hasValidSnapshot("user"));
+	}
+
+	@Test
+	public void testExpiredSnapshotLogsInAgain() {
+		SessionSnapshotStore store = new SessionSnapshotStore(Duration.ofMinutes(30), clock);
+		store.startSession("admin", fakeBrowser(), login, ui -> loggedIn);
+		now[0] = Instant.EPOCH.plus(Duration.ofMinutes(29));
+		Assert.assertTrue(store.hasValidSnapshot("admin"));
+		now[0] = Instant.EPOCH.plus(Duration.ofMinutes(31));
+		Assert.assertFalse(store.hasValidSnapshot("admin"));
+
+		calls.clear();
+		store.startSession("admin", fakeBrowser(), login, ui -> loggedIn);
+		Assert.assertEquals(logins, 2);
+		Assert.assertFalse(calls.stream().anyMatch(call -> call.startsWith("restoreSessionState")),
+				"an expired snapshot must not be restored");
+		Assert.assertTrue(store.hasValidSnapshot("admin"));
+	}
+
+	@Test
+	public void testLoggedOutSnapshotIsCapturedAgain() {
+		SessionSnapshotStore store = new SessionSnapshotStore(Duration.ofMinutes(30), clock);
+		store.startSession("admin", fakeBrowser(), login, ui -> loggedIn);
+		calls.clear();
+		store.startSession("admin", fakeBrowser(), login, ui -> loggedIn);
+		Assert.assertEquals(logins, 2);
+		Assert.assertEquals(calls, List.of("restoreSessionState:{\"login\":1}", "deleteAllCookies",
+				"captureSessionState"));
+	}
+}
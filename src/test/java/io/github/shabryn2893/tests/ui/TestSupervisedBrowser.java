@@ -0,0 +1,98 @@
+package io.github.shabryn2893.tests.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.tests.FakeSessions;
+import io.github.shabryn2893.uicore.IActionUI;
+import io.github.shabryn2893.uidriverfactory.DriverManager;
+
+/**
+ * Tests crash recovery of supervised browsers with fake browsers.
+ */
+public class TestSupervisedBrowser {
+
+	private final List<String> calls = new ArrayList<>();
+	private int launches;
+	private boolean crashed;
+
+	private DriverManager fakeDriverManager() {
+		return new DriverManager() {
+			@Override
+			public IActionUI createBrowser() {
+				int session = ++launches;
+				crashed = false;
+				return FakeSessions.fakeUI((name, args) -> {
+					if (crashed && session == launches && !name.equals("closeBrowser")) {
+						throw new IllegalStateException("invalid session id");
+					}
+					calls.add(session + ":" + name + (args == null ? "" : ":" + args[0]));
+					switch (name) {
+					case "getURL":
+						return "https://example.com/page";
+					case "captureSessionState":
+						return "{\"cookies\":[]}";
+					case "getPageTitle":
+						return "Title " + session;
+					default:
+						return null;
+					}
+				});
+			}
+		};
+	}
+
+	@Test
+	public void testRelaunchesAndRestoresAfterCrash() {
+		DriverManager driverManager = fakeDriverManager();
+		IActionUI ui = driverManager.createSupervisedBrowser();
+		ui.maximizeScreen();
+		ui.openURL("https://example.com/page");
+		crashed = true;
+		Assert.assertEquals(ui.getPageTitle(), "Title 2");
+		Assert.assertEquals(launches, 2);
+		Assert.assertTrue(calls.contains("2:maximizeScreen"));
+		Assert.assertTrue(calls.contains("2:restoreSessionState:{\"cookies\":[]}"));
+		Assert.assertTrue(calls.contains("2:openURL:https://example.com/page"));
+		Assert.assertEquals(driverManager.getRecoveryStats().getRecoveries(), 1);
+		Assert.assertEquals(driverManager.getRecoveryStats().getRecentRecoveries().get(0).action(), "getPageTitle");
+	}
+
+	@Test
+	public void testCheckpointsOnlyAfterNavigations() {
+		calls.clear();
+		IActionUI ui = fakeDriverManager().createSupervisedBrowser(3);
+		ui.openURL("https://example.com/page");
+		ui.click("ID", "next", 1);
+		ui.click("ID", "next", 1);
+		Assert.assertEquals(calls.stream().filter(call -> call.endsWith(":captureSessionState")).count(), 1L,
+				"clicks should not take checkpoints");
+		ui.click("ID", "next", 1);
+		Assert.assertEquals(calls.stream().filter(call -> call.endsWith(":captureSessionState")).count(), 2L,
+				"the interval should take a checkpoint");
+	}
+
+	@Test
+	public void testOtherFailuresAreNotRecovered() {
+		DriverManager driverManager = new DriverManager() {
+			@Override
+			public IActionUI createBrowser() {
+				launches++;
+				return FakeSessions.fakeUI((name, args) -> {
+					if (name.equals("click")) {
+						throw new IllegalArgumentException("Invalid locator type");
+					}
+					return name.equals("getURL") ? "about:blank" : null;
+				});
+			}
+		};
+		launches = 0;
+		IActionUI ui = driverManager.createSupervisedBrowser();
+		Assert.assertThrows(IllegalArgumentException.class, () -> ui.click("XYZ", "id", 1));
+		Assert.assertEquals(launches, 1);
+		Assert.assertEquals(driverManager.getRecoveryStats().getRecoveries(), 0);
+	}
+}
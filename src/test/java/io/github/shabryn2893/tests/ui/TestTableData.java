@@ -0,0 +1,47 @@
+package io.github.shabryn2893.tests.ui;
+
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.shabryn2893.uicore.TableData;
+
+/**
+ * Tests column and row access of table data.
+ */
+public class TestTableData {
+
+	private TableData sampleTable() {
+		return TableData.fromScriptResult(Map.of("headers", List.of("Order", "Total"), "columns",
+				List.of(List.of("A-1", "A-2", "A-3"), List.of("$1,200.50", "30", "n/a"))));
+	}
+
+	@Test
+	public void testColumnAccess() {
+		TableData table = sampleTable();
+		Assert.assertEquals(table.getRowCount(), 3);
+		Assert.assertEquals(table.getColumnCount(), 2);
+		Assert.assertEquals(table.getColumn("order"), List.of("A-1", "A-2", "A-3"));
+		double[] totals = table.getDoubleColumn("Total");
+		Assert.assertEquals(totals[0], 1200.50);
+		Assert.assertEquals(totals[1], 30.0);
+		Assert.assertTrue(Double.isNaN(totals[2]));
+	}
+
+	@Test
+	public void testRowIteration() {
+		StringBuilder orders = new StringBuilder();
+		for (TableData.Row row : sampleTable()) {
+			orders.append(row.get("Order")).append(';');
+		}
+		Assert.assertEquals(orders.toString(), "A-1;A-2;A-3;");
+		Assert.assertEquals(sampleTable().getRow(1).toMap(), Map.of("Order", "A-2", "Total", "30"));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testUnknownColumn() {
+		sampleTable().getColumn("Missing");
+	}
+}